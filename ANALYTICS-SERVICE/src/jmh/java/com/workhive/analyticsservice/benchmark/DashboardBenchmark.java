@@ -0,0 +1,69 @@
+package com.workhive.analyticsservice.benchmark;
+
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.grpc.logs.LogsStatisticsServiceGrpc;
+import com.workhive.analyticsservice.grpc.project.ProjectStatisticsServiceGrpc;
+import com.workhive.analyticsservice.grpc.team.TeamStatisticsServiceGrpc;
+import com.workhive.analyticsservice.grpc.user.UserStatisticsServiceGrpc;
+import com.workhive.analyticsservice.service.AnalyticsService;
+import com.workhive.analyticsservice.service.LiveStatistics;
+import com.workhive.analyticsservice.service.StatisticsFanOut;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.grpc.ManagedChannel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end dashboard computation: fan-out over the stubs, per-call resilience, DTO assembly.
+ * The downstream services are in-process stand-ins, so the score is the client-side cost.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    @Param({"PARALLEL", "SEQUENTIAL"})
+    private StatisticsFanOut.Mode mode;
+
+    private StatisticsStandIns standIns;
+    private AnalyticsService analyticsService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        standIns = new StatisticsStandIns();
+        ManagedChannel channel = standIns.channel();
+
+        // Wired by hand the way the Spring context would, minus the context
+        StatisticsFanOut fanOut = new StatisticsFanOut(new LiveStatistics(),
+                CircuitBreakerRegistry.ofDefaults(), RetryRegistry.ofDefaults());
+        ReflectionTestUtils.setField(fanOut, "userServiceStub", UserStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "projectServiceStub", ProjectStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "teamServiceStub", TeamStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "logsServiceStub", LogsStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "userServiceFutureStub", UserStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "projectServiceFutureStub", ProjectStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "teamServiceFutureStub", TeamStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "logsServiceFutureStub", LogsStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "mode", mode);
+        ReflectionTestUtils.setField(fanOut, "deadlineMs", 2000L);
+        ReflectionTestUtils.invokeMethod(fanOut, "init");
+
+        analyticsService = new AnalyticsService(fanOut);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        standIns.close();
+    }
+
+    @Benchmark
+    public DashboardAnalyticsDto dashboard() {
+        return analyticsService.getDashboardAnalytics();
+    }
+}
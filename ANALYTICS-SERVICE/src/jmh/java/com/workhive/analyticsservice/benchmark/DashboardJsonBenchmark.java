@@ -0,0 +1,73 @@
+package com.workhive.analyticsservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.dto.FieldStatus;
+import com.workhive.analyticsservice.dto.FieldStatusDto;
+import com.workhive.analyticsservice.service.StatisticsFanOut;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the dashboard response with the same ObjectMapper defaults Spring MVC uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardJsonBenchmark {
+
+    @Param({"false", "true"})
+    private boolean partial;
+
+    private ObjectMapper objectMapper;
+    private DashboardAnalyticsDto dashboard;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Map<String, Long> callTimings = new LinkedHashMap<>();
+        callTimings.put(StatisticsFanOut.USER_SERVICE, 4L);
+        callTimings.put(StatisticsFanOut.PROJECT_SERVICE, 6L);
+        callTimings.put(StatisticsFanOut.TEAM_SERVICE, 3L);
+        callTimings.put(StatisticsFanOut.LOGS_SERVICE, 9L);
+
+        Map<String, FieldStatusDto> fieldStatus = new LinkedHashMap<>();
+        if (partial) {
+            FieldStatusDto stale = FieldStatusDto.builder()
+                    .status(FieldStatus.STALE)
+                    .source(StatisticsFanOut.PROJECT_SERVICE)
+                    .staleMs(42_000L)
+                    .error("UNAVAILABLE")
+                    .build();
+            for (String field : new String[]{"totalProjects", "completedProjects", "inProgressProjects",
+                    "projectCompletionRate", "averageProjectsPerTeam"}) {
+                fieldStatus.put(field, stale);
+            }
+        }
+
+        dashboard = DashboardAnalyticsDto.builder()
+                .totalUsers(12_500).activeUsers(8_300)
+                .activeUsersToday(2_900).activeUsersLast7Days(6_800).activeUsersLast30Days(8_300)
+                .totalProjects(4_200).completedProjects(1_750).inProgressProjects(2_100)
+                .totalTeams(640).averageTeamSize(7)
+                .totalActivities(3_400_000).todayActivities(21_000).weekActivities(140_000)
+                .projectCompletionRate(41.67).averageProjectsPerTeam(6.56)
+                .callTimingsMs(callTimings).fanOutMs(9L)
+                .partial(partial).fieldStatus(fieldStatus)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dashboard);
+    }
+}
@@ -0,0 +1,76 @@
+package com.workhive.analyticsservice.benchmark;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.workhive.analyticsservice.grpc.logs.ActivityCountResponse;
+import com.workhive.analyticsservice.grpc.project.ProjectCountResponse;
+import com.workhive.analyticsservice.grpc.team.TeamCountResponse;
+import com.workhive.analyticsservice.grpc.user.UserCountResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the {@code *CountResponse} messages exchanged on every dashboard load.
+ * Encoding builds a new message each time so the memoized serialized size does not flatter the score.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtobufCodecBenchmark {
+
+    private byte[] userBytes;
+    private byte[] projectBytes;
+    private byte[] teamBytes;
+    private byte[] activityBytes;
+
+    @Setup
+    public void setUp() {
+        userBytes = StatisticsStandIns.USER_COUNT.toByteArray();
+        projectBytes = StatisticsStandIns.PROJECT_COUNT.toByteArray();
+        teamBytes = StatisticsStandIns.TEAM_COUNT.toByteArray();
+        activityBytes = StatisticsStandIns.ACTIVITY_COUNT.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeUserCount() {
+        return StatisticsStandIns.USER_COUNT.toBuilder().build().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeProjectCount() {
+        return StatisticsStandIns.PROJECT_COUNT.toBuilder().build().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeTeamCount() {
+        return StatisticsStandIns.TEAM_COUNT.toBuilder().build().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeActivityCount() {
+        return StatisticsStandIns.ACTIVITY_COUNT.toBuilder().build().toByteArray();
+    }
+
+    @Benchmark
+    public UserCountResponse decodeUserCount() throws InvalidProtocolBufferException {
+        return UserCountResponse.parseFrom(userBytes);
+    }
+
+    @Benchmark
+    public ProjectCountResponse decodeProjectCount() throws InvalidProtocolBufferException {
+        return ProjectCountResponse.parseFrom(projectBytes);
+    }
+
+    @Benchmark
+    public TeamCountResponse decodeTeamCount() throws InvalidProtocolBufferException {
+        return TeamCountResponse.parseFrom(teamBytes);
+    }
+
+    @Benchmark
+    public ActivityCountResponse decodeActivityCount() throws InvalidProtocolBufferException {
+        return ActivityCountResponse.parseFrom(activityBytes);
+    }
+}
@@ -0,0 +1,98 @@
+package com.workhive.analyticsservice.benchmark;
+
+import com.workhive.analyticsservice.grpc.logs.*;
+import com.workhive.analyticsservice.grpc.project.*;
+import com.workhive.analyticsservice.grpc.team.*;
+import com.workhive.analyticsservice.grpc.user.*;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process gRPC server answering the four statistics RPCs with canned responses,
+ * so benchmarks measure the client side without network or database noise.
+ */
+final class StatisticsStandIns implements AutoCloseable {
+
+    static final UserCountResponse USER_COUNT = UserCountResponse.newBuilder()
+            .setTotalUsers(12_500)
+            .setActiveUsers(8_300)
+            .build();
+
+    static final ProjectCountResponse PROJECT_COUNT = ProjectCountResponse.newBuilder()
+            .setTotalProjects(4_200)
+            .setCompletedProjects(1_750)
+            .setInProgressProjects(2_100)
+            .build();
+
+    static final TeamCountResponse TEAM_COUNT = TeamCountResponse.newBuilder()
+            .setTotalTeams(640)
+            .setAverageTeamSize(7)
+            .setTotalManagers(410)
+            .build();
+
+    static final ActivityCountResponse ACTIVITY_COUNT = ActivityCountResponse.newBuilder()
+            .setTotalActivities(3_400_000)
+            .setTodayActivities(21_000)
+            .setWeekActivities(140_000)
+            .setActiveUsersToday(2_900)
+            .setActiveUsersLast7Days(6_800)
+            .setActiveUsersLast30Days(8_300)
+            .build();
+
+    private final Server server;
+    private final ManagedChannel channel;
+
+    StatisticsStandIns() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new UserStatisticsServiceGrpc.UserStatisticsServiceImplBase() {
+                    @Override
+                    public void getUserCount(UserCountRequest request, StreamObserver<UserCountResponse> responseObserver) {
+                        reply(responseObserver, USER_COUNT);
+                    }
+                })
+                .addService(new ProjectStatisticsServiceGrpc.ProjectStatisticsServiceImplBase() {
+                    @Override
+                    public void getProjectCount(ProjectCountRequest request, StreamObserver<ProjectCountResponse> responseObserver) {
+                        reply(responseObserver, PROJECT_COUNT);
+                    }
+                })
+                .addService(new TeamStatisticsServiceGrpc.TeamStatisticsServiceImplBase() {
+                    @Override
+                    public void getTeamCount(TeamCountRequest request, StreamObserver<TeamCountResponse> responseObserver) {
+                        reply(responseObserver, TEAM_COUNT);
+                    }
+                })
+                .addService(new LogsStatisticsServiceGrpc.LogsStatisticsServiceImplBase() {
+                    @Override
+                    public void getActivityCount(ActivityCountRequest request, StreamObserver<ActivityCountResponse> responseObserver) {
+                        reply(responseObserver, ACTIVITY_COUNT);
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    ManagedChannel channel() {
+        return channel;
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T response) {
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
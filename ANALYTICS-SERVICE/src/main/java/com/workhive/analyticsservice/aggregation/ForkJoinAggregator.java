@@ -0,0 +1,102 @@
+package com.workhive.analyticsservice.aggregation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Parallel reduction of large in-memory lists on a dedicated fork-join pool.
+ * <p>
+ * The list is split in halves until a range is at most {@code chunk-size} items; each leaf folds its
+ * range into a fresh accumulator with no shared state, and sibling results are combined on the way
+ * back up. Work stealing keeps every core busy, so throughput grows with the pool's parallelism.
+ * The pool is separate from the common pool so request threads and parallel streams elsewhere
+ * are not starved by a large breakdown.
+ */
+@Component
+@Slf4j
+public class ForkJoinAggregator {
+
+    @Value("${analytics.aggregation.parallelism:0}")
+    private int parallelism;
+
+    @Value("${analytics.aggregation.chunk-size:2048}")
+    private int chunkSize;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        log.info("Fork-join aggregation pool started with parallelism {} and chunk size {}", threads, chunkSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Folds {@code items} into one accumulator.
+     *
+     * @param identity    creates an empty accumulator for each leaf
+     * @param accumulator adds one item to a leaf's accumulator
+     * @param combiner    merges two accumulators; may return either argument after mutating it
+     */
+    public <T, A> A aggregate(List<T> items, Supplier<A> identity, BiConsumer<A, T> accumulator,
+                              BinaryOperator<A> combiner) {
+        if (items.size() <= chunkSize) {
+            // Not worth the hand-off
+            return new Chunk<>(items, 0, items.size(), identity, accumulator, combiner, chunkSize).compute();
+        }
+        return pool.invoke(new Chunk<>(items, 0, items.size(), identity, accumulator, combiner, chunkSize));
+    }
+
+    private static final class Chunk<T, A> extends RecursiveTask<A> {
+        private final List<T> items;
+        private final int from;
+        private final int to;
+        private final Supplier<A> identity;
+        private final BiConsumer<A, T> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final int chunkSize;
+
+        private Chunk(List<T> items, int from, int to, Supplier<A> identity, BiConsumer<A, T> accumulator,
+                      BinaryOperator<A> combiner, int chunkSize) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunkSize) {
+                A result = identity.get();
+                for (int i = from; i < to; i++) {
+                    accumulator.accept(result, items.get(i));
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            Chunk<T, A> left = new Chunk<>(items, from, middle, identity, accumulator, combiner, chunkSize);
+            Chunk<T, A> right = new Chunk<>(items, middle, to, identity, accumulator, combiner, chunkSize);
+            left.fork();
+            A rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.workhive.analyticsservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical computations into one.
+ * <p>
+ * The first caller for a key becomes the leader and runs the computation; callers arriving while
+ * it is in flight join it and receive the same result or exception. Nothing is kept once the
+ * computation finishes, so this adds no staleness of its own. Per key it publishes
+ * {@code analytics.singleflight.calls} tagged {@code role=leader|follower} and the gauge
+ * {@code analytics.singleflight.coalescing.ratio} (followers / all calls).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, KeyMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code work} on the calling thread unless an identical computation is already in flight.
+     */
+    public <T> T execute(String key, Supplier<T> work) {
+        CompletableFuture<T> flight = join(key, work, null);
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Computation failed for key: " + key, e.getCause());
+        }
+    }
+
+    /**
+     * Starts {@code work} on {@code executor} unless an identical computation is already in flight.
+     * If the executor rejects the work, the returned future (and any follower's) fails with the rejection.
+     */
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<T> work, Executor executor) {
+        return join(key, work, executor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> join(String key, Supplier<T> work, Executor executor) {
+        KeyMetrics keyMetrics = metrics.computeIfAbsent(key, KeyMetrics::new);
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            keyMetrics.followers.increment();
+            log.debug("Joined in-flight computation for key: {}", key);
+            return (CompletableFuture<T>) existing;
+        }
+        keyMetrics.leaders.increment();
+
+        Runnable task = () -> {
+            try {
+                created.complete(work.get());
+            } catch (Throwable e) {
+                created.completeExceptionally(e);
+            } finally {
+                // Later callers must start a new computation rather than see this result
+                inFlight.remove(key, created);
+            }
+        };
+        if (executor == null) {
+            task.run();
+        } else {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The task will never run to clear the entry; fail this flight and let the next caller retry
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        }
+        return (CompletableFuture<T>) created;
+    }
+
+    private final class KeyMetrics {
+        private final Counter leaders;
+        private final Counter followers;
+
+        private KeyMetrics(String key) {
+            leaders = Counter.builder("analytics.singleflight.calls")
+                    .description("Calls that ran the computation (leader) or joined one in flight (follower)")
+                    .tag("key", key)
+                    .tag("role", "leader")
+                    .register(meterRegistry);
+            followers = Counter.builder("analytics.singleflight.calls")
+                    .tag("key", key)
+                    .tag("role", "follower")
+                    .register(meterRegistry);
+            Gauge.builder("analytics.singleflight.coalescing.ratio", this, KeyMetrics::ratio)
+                    .description("Share of calls served by joining an in-flight computation")
+                    .tag("key", key)
+                    .register(meterRegistry);
+        }
+
+        private double ratio() {
+            double total = leaders.count() + followers.count();
+            return total > 0 ? followers.count() / total : 0.0;
+        }
+    }
+}
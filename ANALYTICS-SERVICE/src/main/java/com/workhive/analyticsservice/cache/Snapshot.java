@@ -0,0 +1,11 @@
+package com.workhive.analyticsservice.cache;
+
+/**
+ * A computed value together with the wall-clock time it was produced.
+ */
+public record Snapshot<T>(T value, long createdAtMillis) {
+
+    public long ageMillis() {
+        return Math.max(0, System.currentTimeMillis() - createdAtMillis);
+    }
+}
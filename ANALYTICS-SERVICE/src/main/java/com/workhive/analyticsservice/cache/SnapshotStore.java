@@ -0,0 +1,87 @@
+package com.workhive.analyticsservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-memory store of materialized analytics snapshots with stale-while-revalidate semantics.
+ * <ul>
+ *     <li>younger than the TTL: served as is</li>
+ *     <li>older than the TTL but within the stale window: served as is while one background refresh runs</li>
+ *     <li>missing or older than the stale window: the caller waits for a fresh load</li>
+ * </ul>
+ * At most one load per key is in flight ({@link SingleFlight}); concurrent misses wait on the same load.
+ * Setting the TTL and stale window to 0 disables caching but keeps the miss collapsing.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SnapshotStore {
+
+    private final SingleFlight singleFlight;
+
+    @Value("${analytics.snapshot.ttl-ms:10000}")
+    private long ttlMs;
+
+    @Value("${analytics.snapshot.max-stale-ms:60000}")
+    private long maxStaleMs;
+
+    private final ConcurrentMap<String, Snapshot<?>> snapshots = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newCachedThreadPool(new RefresherThreadFactory());
+
+    @SuppressWarnings("unchecked")
+    public <T> Snapshot<T> get(String key, Supplier<T> loader) {
+        Snapshot<T> current = (Snapshot<T>) snapshots.get(key);
+        if (current != null) {
+            long age = current.ageMillis();
+            if (age < ttlMs) {
+                return current;
+            }
+            if (age < maxStaleMs) {
+                log.debug("Serving stale snapshot for key: {} while refreshing", key);
+                singleFlight.executeAsync(key, () -> load(key, loader), refresher);
+                return current;
+            }
+        }
+        // The caller that wins the race does the load itself; everyone else waits on it
+        return singleFlight.execute(key, () -> load(key, loader));
+    }
+
+    public void invalidate(String key) {
+        snapshots.remove(key);
+    }
+
+    private <T> Snapshot<T> load(String key, Supplier<T> loader) {
+        try {
+            Snapshot<T> snapshot = new Snapshot<>(loader.get(), System.currentTimeMillis());
+            snapshots.put(key, snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            log.warn("Snapshot refresh failed for key: {}", key, e);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static class RefresherThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "snapshot-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,51 +1,106 @@
 package com.workhive.analyticsservice.controller;
 
+import com.workhive.analyticsservice.cache.Snapshot;
 import com.workhive.analyticsservice.dto.*;
-import com.workhive.analyticsservice.service.AnalyticsService;
+import com.workhive.analyticsservice.service.AnalyticsSnapshotService;
+import com.workhive.analyticsservice.timeseries.Metric;
+import com.workhive.analyticsservice.timeseries.TimeSeriesStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/analytics")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.AGE, AnalyticsController.SNAPSHOT_AGE_HEADER})
 public class AnalyticsController {
 
-    private final AnalyticsService analyticsService;
+    static final String SNAPSHOT_AGE_HEADER = "X-Snapshot-Age-Ms";
+
+    private final AnalyticsSnapshotService analyticsSnapshotService;
+    private final TimeSeriesStore timeSeriesStore;
 
     @GetMapping("/dashboard")
     public ResponseEntity<DashboardAnalyticsDto> getDashboardAnalytics() {
         log.info("REST Request: GET /api/analytics/dashboard");
-        DashboardAnalyticsDto analytics = analyticsService.getDashboardAnalytics();
-        return ResponseEntity.ok(analytics);
+        Snapshot<DashboardAnalyticsDto> analytics = analyticsSnapshotService.getDashboardAnalytics();
+        return withSnapshotAge(analytics);
     }
 
     @GetMapping("/users")
     public ResponseEntity<UserAnalyticsDto> getUserAnalytics() {
         log.info("REST Request: GET /api/analytics/users");
-        UserAnalyticsDto analytics = analyticsService.getUserAnalytics();
-        return ResponseEntity.ok(analytics);
+        Snapshot<UserAnalyticsDto> analytics = analyticsSnapshotService.getUserAnalytics();
+        return withSnapshotAge(analytics);
     }
 
     @GetMapping("/projects")
     public ResponseEntity<ProjectAnalyticsDto> getProjectAnalytics() {
         log.info("REST Request: GET /api/analytics/projects");
-        ProjectAnalyticsDto analytics = analyticsService.getProjectAnalytics();
-        return ResponseEntity.ok(analytics);
+        Snapshot<ProjectAnalyticsDto> analytics = analyticsSnapshotService.getProjectAnalytics();
+        return withSnapshotAge(analytics);
     }
 
     @GetMapping("/teams")
     public ResponseEntity<TeamAnalyticsDto> getTeamAnalytics() {
         log.info("REST Request: GET /api/analytics/teams");
-        TeamAnalyticsDto analytics = analyticsService.getTeamAnalytics();
-        return ResponseEntity.ok(analytics);
+        Snapshot<TeamAnalyticsDto> analytics = analyticsSnapshotService.getTeamAnalytics();
+        return withSnapshotAge(analytics);
+    }
+
+    @GetMapping("/teams/breakdown")
+    public ResponseEntity<List<TeamBreakdownDto>> getTeamBreakdown() {
+        log.info("REST Request: GET /api/analytics/teams/breakdown");
+        Snapshot<BreakdownDto> breakdown = analyticsSnapshotService.getBreakdown();
+        return withSnapshotAge(new Snapshot<>(breakdown.value().getTeams(), breakdown.createdAtMillis()));
+    }
+
+    @GetMapping("/managers/breakdown")
+    public ResponseEntity<List<ManagerBreakdownDto>> getManagerBreakdown() {
+        log.info("REST Request: GET /api/analytics/managers/breakdown");
+        Snapshot<BreakdownDto> breakdown = analyticsSnapshotService.getBreakdown();
+        return withSnapshotAge(new Snapshot<>(breakdown.value().getManagers(), breakdown.createdAtMillis()));
+    }
+
+    @GetMapping("/breakdown")
+    public ResponseEntity<BreakdownDto> getBreakdown() {
+        log.info("REST Request: GET /api/analytics/breakdown");
+        return withSnapshotAge(analyticsSnapshotService.getBreakdown());
+    }
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeriesDto> getTimeSeries(
+            @RequestParam String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1m") String step) {
+        log.info("REST Request: GET /api/analytics/timeseries?metric={}&from={}&to={}&step={}", metric, from, to, step);
+        Metric resolved = Metric.fromKey(metric)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown metric: " + metric));
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(1);
+        TimeSeriesDto series = timeSeriesStore.query(resolved, start, end, DurationStyle.detectAndParse(step));
+        return ResponseEntity.ok(series);
     }
 
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("ANALYTICS-SERVICE is running and ready to aggregate data via gRPC");
     }
+
+    private <T> ResponseEntity<T> withSnapshotAge(Snapshot<T> snapshot) {
+        long ageMs = snapshot.ageMillis();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(ageMs / 1000))
+                .header(SNAPSHOT_AGE_HEADER, String.valueOf(ageMs))
+                .body(snapshot.value());
+    }
 }
@@ -0,0 +1,25 @@
+package com.workhive.analyticsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BreakdownDto {
+    private List<TeamBreakdownDto> teams;
+    private List<ManagerBreakdownDto> managers;
+
+    // Start of the activity window used for activityCount (null = all time)
+    private LocalDateTime activitySince;
+
+    // Timings (milliseconds)
+    private Long fetchMs;
+    private Long aggregateMs;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,6 +16,9 @@ public class DashboardAnalyticsDto {
     // User Statistics
     private Integer totalUsers;
     private Integer activeUsers;
+    private Integer activeUsersToday;
+    private Integer activeUsersLast7Days;
+    private Integer activeUsersLast30Days;
     
     // Project Statistics
     private Integer totalProjects;
@@ -32,4 +37,12 @@ public class DashboardAnalyticsDto {
     // Computed Metrics
     private Double projectCompletionRate;
     private Double averageProjectsPerTeam;
+
+    // Fan-out Timings (milliseconds per downstream service and overall)
+    private Map<String, Long> callTimingsMs;
+    private Long fanOutMs;
+
+    // Degraded Mode (fields whose source failed; empty when everything is fresh)
+    private Boolean partial;
+    private Map<String, FieldStatusDto> fieldStatus;
 }
@@ -0,0 +1,13 @@
+package com.workhive.analyticsservice.dto;
+
+/**
+ * Where a value in an analytics response came from.
+ */
+public enum FieldStatus {
+    // Fetched from the downstream service for this response
+    FRESH,
+    // Downstream call failed; value is the last one successfully fetched
+    STALE,
+    // Downstream call failed and no earlier value exists; the field is null
+    UNAVAILABLE
+}
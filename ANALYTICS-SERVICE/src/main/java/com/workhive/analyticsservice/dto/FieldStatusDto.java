@@ -0,0 +1,19 @@
+package com.workhive.analyticsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldStatusDto {
+    private FieldStatus status;
+    // Downstream service the field is fetched from
+    private String source;
+    // Age of a STALE value in milliseconds
+    private Long staleMs;
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.workhive.analyticsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagerBreakdownDto {
+    private Long managerId;
+    private Integer teamCount;
+    // Distinct developers across the manager's teams
+    private Integer memberCount;
+
+    // Projects of the manager's teams, plus projects they created without a team
+    private Long projectCount;
+    private Long totalTasks;
+    private Map<String, Long> tasksByStatus;
+    private Double taskCompletionRate;
+
+    // Activities of the manager and their distinct developers in the activity window
+    private Long activityCount;
+}
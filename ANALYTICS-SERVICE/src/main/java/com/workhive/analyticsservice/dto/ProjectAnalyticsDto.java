@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,4 +17,8 @@ public class ProjectAnalyticsDto {
     private Integer inProgressProjects;
     private Integer pendingProjects;
     private Double completionRate;
+
+    // Degraded Mode (fields whose source failed; empty when everything is fresh)
+    private Boolean partial;
+    private Map<String, FieldStatusDto> fieldStatus;
 }
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +15,8 @@ public class TeamAnalyticsDto {
     private Integer totalTeams;
     private Integer averageTeamSize;
     private Double teamsPerManager;
+
+    // Degraded Mode (fields whose source failed; empty when everything is fresh)
+    private Boolean partial;
+    private Map<String, FieldStatusDto> fieldStatus;
 }
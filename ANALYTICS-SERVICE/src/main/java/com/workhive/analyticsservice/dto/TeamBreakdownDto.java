@@ -0,0 +1,28 @@
+package com.workhive.analyticsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamBreakdownDto {
+    private Long teamId;
+    private String name;
+    private Long managerId;
+    private Integer memberCount;
+
+    // Projects assigned to the team and their tasks
+    private Long projectCount;
+    private Long totalTasks;
+    private Map<String, Long> tasksByStatus;
+    private Double taskCompletionRate;
+
+    // Activities logged by the manager and developers in the activity window
+    private Long activityCount;
+}
@@ -0,0 +1,23 @@
+package com.workhive.analyticsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesDto {
+    private String metric;
+    // Stored resolution the points were rolled up from (MINUTE, HOUR or DAY)
+    private String resolution;
+    private Long stepSeconds;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<TimeSeriesPointDto> points;
+}
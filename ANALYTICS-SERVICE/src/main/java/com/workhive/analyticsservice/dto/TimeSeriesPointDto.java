@@ -0,0 +1,22 @@
+package com.workhive.analyticsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesPointDto {
+    // Start of the step
+    private LocalDateTime timestamp;
+    private Double average;
+    private Double min;
+    private Double max;
+    private Double last;
+    private Integer samples;
+}
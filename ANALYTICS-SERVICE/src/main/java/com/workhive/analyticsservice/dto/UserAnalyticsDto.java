@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +15,11 @@ public class UserAnalyticsDto {
     private Integer totalUsers;
     private Integer activeUsers;
     private Integer inactiveUsers;
+    private Integer activeUsersToday;
+    private Integer activeUsersLast7Days;
+    private Integer activeUsersLast30Days;
+
+    // Degraded Mode (fields whose source failed; empty when everything is fresh)
+    private Boolean partial;
+    private Map<String, FieldStatusDto> fieldStatus;
 }
@@ -0,0 +1,137 @@
+package com.workhive.analyticsservice.grpc;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records latency, in-flight calls and message sizes for every gRPC call made by this service's stubs.
+ * <p>
+ * Latency is measured from the start of the call to its close, as seen by the caller, so it includes
+ * the network and any time spent queued behind the deadline. It is a Micrometer timer per method and
+ * status with HdrHistogram-backed percentiles, published as {@code grpc.client.call.latency}.
+ */
+@GrpcGlobalClientInterceptor
+@RequiredArgsConstructor
+public class GrpcMetricsClientInterceptor implements ClientInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${grpc.metrics.percentiles:0.5,0.9,0.99,0.999}")
+    private double[] percentiles;
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        MethodMetrics metrics = methods.computeIfAbsent(method.getFullMethodName(), MethodMetrics::new);
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            private long startNanos;
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                startNanos = System.nanoTime();
+                metrics.inFlight.incrementAndGet();
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onMessage(RespT message) {
+                        metrics.received(message);
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        // onClose is called exactly once, including for cancellations and deadline expiry
+                        metrics.inFlight.decrementAndGet();
+                        metrics.latency(status.getCode()).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                metrics.sent(message);
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    private final class MethodMetrics {
+        private final String method;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter messagesReceived;
+        private final Counter messagesSent;
+        private final Counter bytesReceived;
+        private final Counter bytesSent;
+        private final Map<Status.Code, Timer> latencies = new ConcurrentHashMap<>();
+
+        private MethodMetrics(String method) {
+            this.method = method;
+            Gauge.builder("grpc.client.calls.in.flight", inFlight, AtomicInteger::get)
+                    .description("gRPC calls started and not yet closed")
+                    .tag("method", method)
+                    .register(meterRegistry);
+            messagesReceived = messageCounter("grpc.client.messages", "received");
+            messagesSent = messageCounter("grpc.client.messages", "sent");
+            bytesReceived = messageCounter("grpc.client.message.bytes", "received");
+            bytesSent = messageCounter("grpc.client.message.bytes", "sent");
+        }
+
+        private Counter messageCounter(String name, String direction) {
+            return Counter.builder(name)
+                    .tag("method", method)
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+
+        private void received(Object message) {
+            messagesReceived.increment();
+            bytesReceived.increment(serializedSize(message));
+        }
+
+        private void sent(Object message) {
+            messagesSent.increment();
+            bytesSent.increment(serializedSize(message));
+        }
+
+        private Timer latency(Status.Code code) {
+            return latencies.computeIfAbsent(code, c -> Timer.builder("grpc.client.call.latency")
+                    .description("gRPC client call latency")
+                    .tag("method", method)
+                    .tag("status", c.name())
+                    .publishPercentiles(percentiles)
+                    .percentilePrecision(2)
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(meterRegistry));
+        }
+    }
+
+    private static int serializedSize(Object message) {
+        // Size is memoized by protobuf once computed, so serialization does not pay for it again
+        return message instanceof MessageLite lite ? lite.getSerializedSize() : 0;
+    }
+}
@@ -5,84 +5,129 @@ import com.workhive.analyticsservice.grpc.logs.*;
 import com.workhive.analyticsservice.grpc.project.*;
 import com.workhive.analyticsservice.grpc.team.*;
 import com.workhive.analyticsservice.grpc.user.*;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.workhive.analyticsservice.service.StatisticsFanOut.Fetched;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the analytics views from the downstream statistics.
+ * <p>
+ * A view is never replaced wholesale by zeros: fields whose source failed are filled from that
+ * source's last known value or left null, listed in {@code fieldStatus}, and the view is flagged
+ * {@code partial}. Retries and circuit breaking happen per downstream call in {@link StatisticsFanOut}.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AnalyticsService {
 
-    @GrpcClient("USER-SERVICE")
-    private UserStatisticsServiceGrpc.UserStatisticsServiceBlockingStub userServiceStub;
-
-    @GrpcClient("PROJECT-SERVICE")
-    private ProjectStatisticsServiceGrpc.ProjectStatisticsServiceBlockingStub projectServiceStub;
-
-    @GrpcClient("TEAM-SERVICE")
-    private TeamStatisticsServiceGrpc.TeamStatisticsServiceBlockingStub teamServiceStub;
+    private final StatisticsFanOut statisticsFanOut;
 
-    @GrpcClient("LOGS-SERVICE")
-    private LogsStatisticsServiceGrpc.LogsStatisticsServiceBlockingStub logsServiceStub;
-
-    @CircuitBreaker(name = "analyticsService", fallbackMethod = "getDashboardFallback")
-    @Retry(name = "analyticsService")
     public DashboardAnalyticsDto getDashboardAnalytics() {
         log.info("Fetching dashboard analytics via gRPC");
 
         // Call all services via gRPC
-        UserCountResponse userStats = getUserStatistics();
-        ProjectCountResponse projectStats = getProjectStatistics();
-        TeamCountResponse teamStats = getTeamStatistics();
-        ActivityCountResponse activityStats = getActivityStatistics();
+        StatisticsFanOut.Result stats = statisticsFanOut.fetchAll();
+        UserCountResponse userStats = stats.getUserStats().value();
+        ProjectCountResponse projectStats = stats.getProjectStats().value();
+        TeamCountResponse teamStats = stats.getTeamStats().value();
+        ActivityCountResponse activityStats = stats.getActivityStats().value();
+
+        Map<String, FieldStatusDto> fieldStatus = new LinkedHashMap<>();
+        mark(fieldStatus, stats.getUserStats(), "totalUsers");
+        mark(fieldStatus, stats.getActivityStats(), "activeUsers", "activeUsersToday", "activeUsersLast7Days",
+                "activeUsersLast30Days", "totalActivities", "todayActivities", "weekActivities");
+        mark(fieldStatus, stats.getProjectStats(), "totalProjects", "completedProjects", "inProgressProjects",
+                "projectCompletionRate", "averageProjectsPerTeam");
+        mark(fieldStatus, stats.getTeamStats(), "totalTeams", "averageTeamSize", "averageProjectsPerTeam");
 
         // Calculate computed metrics
-        double completionRate = projectStats.getTotalProjects() > 0
+        Double completionRate = projectStats == null ? null : projectStats.getTotalProjects() > 0
                 ? (double) projectStats.getCompletedProjects() / projectStats.getTotalProjects() * 100
                 : 0.0;
 
-        double avgProjectsPerTeam = teamStats.getTotalTeams() > 0
+        Double avgProjectsPerTeam = projectStats == null || teamStats == null ? null : teamStats.getTotalTeams() > 0
                 ? (double) projectStats.getTotalProjects() / teamStats.getTotalTeams()
                 : 0.0;
 
+        Integer activeUsers = null;
+        if (activityStats != null) {
+            activeUsers = userStats != null
+                    ? Math.min(activityStats.getActiveUsersLast30Days(), userStats.getTotalUsers())
+                    : activityStats.getActiveUsersLast30Days();
+        }
+
         return DashboardAnalyticsDto.builder()
-                .totalUsers(userStats.getTotalUsers())
-                .activeUsers(userStats.getActiveUsers())
-                .totalProjects(projectStats.getTotalProjects())
-                .completedProjects(projectStats.getCompletedProjects())
-                .inProgressProjects(projectStats.getInProgressProjects())
-                .totalTeams(teamStats.getTotalTeams())
-                .averageTeamSize(teamStats.getAverageTeamSize())
-                .totalActivities(activityStats.getTotalActivities())
-                .todayActivities(activityStats.getTodayActivities())
-                .weekActivities(activityStats.getWeekActivities())
+                .totalUsers(userStats != null ? userStats.getTotalUsers() : null)
+                .activeUsers(activeUsers)
+                .activeUsersToday(activityStats != null ? activityStats.getActiveUsersToday() : null)
+                .activeUsersLast7Days(activityStats != null ? activityStats.getActiveUsersLast7Days() : null)
+                .activeUsersLast30Days(activityStats != null ? activityStats.getActiveUsersLast30Days() : null)
+                .totalProjects(projectStats != null ? projectStats.getTotalProjects() : null)
+                .completedProjects(projectStats != null ? projectStats.getCompletedProjects() : null)
+                .inProgressProjects(projectStats != null ? projectStats.getInProgressProjects() : null)
+                .totalTeams(teamStats != null ? teamStats.getTotalTeams() : null)
+                .averageTeamSize(teamStats != null ? teamStats.getAverageTeamSize() : null)
+                .totalActivities(activityStats != null ? activityStats.getTotalActivities() : null)
+                .todayActivities(activityStats != null ? activityStats.getTodayActivities() : null)
+                .weekActivities(activityStats != null ? activityStats.getWeekActivities() : null)
                 .projectCompletionRate(completionRate)
                 .averageProjectsPerTeam(avgProjectsPerTeam)
+                .callTimingsMs(stats.getCallTimings())
+                .fanOutMs(stats.getTotalMillis())
+                .partial(!fieldStatus.isEmpty())
+                .fieldStatus(fieldStatus)
                 .build();
     }
 
-    @CircuitBreaker(name = "analyticsService", fallbackMethod = "getUserAnalyticsFallback")
-    @Retry(name = "analyticsService")
     public UserAnalyticsDto getUserAnalytics() {
         log.info("Fetching user analytics via gRPC");
-        UserCountResponse response = getUserStatistics();
+        Fetched<UserCountResponse> users = statisticsFanOut.fetchUserStats();
+        // Active users are distinct users seen in the activity logs over the last 30 days
+        Fetched<ActivityCountResponse> activities = statisticsFanOut.fetchActivityStats();
+        UserCountResponse response = users.value();
+        ActivityCountResponse activity = activities.value();
+
+        Map<String, FieldStatusDto> fieldStatus = new LinkedHashMap<>();
+        mark(fieldStatus, users, "totalUsers", "inactiveUsers");
+        mark(fieldStatus, activities, "activeUsers", "inactiveUsers", "activeUsersToday",
+                "activeUsersLast7Days", "activeUsersLast30Days");
+
+        Integer totalUsers = response != null ? response.getTotalUsers() : null;
+        Integer activeUsers = null;
+        if (activity != null) {
+            activeUsers = totalUsers != null
+                    ? Math.min(activity.getActiveUsersLast30Days(), totalUsers)
+                    : activity.getActiveUsersLast30Days();
+        }
 
         return UserAnalyticsDto.builder()
-                .totalUsers(response.getTotalUsers())
-                .activeUsers(response.getActiveUsers())
-                .inactiveUsers(response.getTotalUsers() - response.getActiveUsers())
+                .totalUsers(totalUsers)
+                .activeUsers(activeUsers)
+                .inactiveUsers(totalUsers != null && activeUsers != null ? totalUsers - activeUsers : null)
+                .activeUsersToday(activity != null ? activity.getActiveUsersToday() : null)
+                .activeUsersLast7Days(activity != null ? activity.getActiveUsersLast7Days() : null)
+                .activeUsersLast30Days(activity != null ? activity.getActiveUsersLast30Days() : null)
+                .partial(!fieldStatus.isEmpty())
+                .fieldStatus(fieldStatus)
                 .build();
     }
 
-    @CircuitBreaker(name = "analyticsService", fallbackMethod = "getProjectAnalyticsFallback")
-    @Retry(name = "analyticsService")
     public ProjectAnalyticsDto getProjectAnalytics() {
         log.info("Fetching project analytics via gRPC");
-        ProjectCountResponse response = getProjectStatistics();
+        Fetched<ProjectCountResponse> projects = statisticsFanOut.fetchProjectStats();
+        ProjectCountResponse response = projects.value();
+
+        Map<String, FieldStatusDto> fieldStatus = new LinkedHashMap<>();
+        mark(fieldStatus, projects, "totalProjects", "completedProjects", "inProgressProjects",
+                "pendingProjects", "completionRate");
+        if (response == null) {
+            return ProjectAnalyticsDto.builder().partial(true).fieldStatus(fieldStatus).build();
+        }
 
         double completionRate = response.getTotalProjects() > 0
                 ? (double) response.getCompletedProjects() / response.getTotalProjects() * 100
@@ -96,99 +141,43 @@ public class AnalyticsService {
                 .inProgressProjects(response.getInProgressProjects())
                 .pendingProjects(pendingProjects)
                 .completionRate(completionRate)
+                .partial(!fieldStatus.isEmpty())
+                .fieldStatus(fieldStatus)
                 .build();
     }
 
-    @CircuitBreaker(name = "analyticsService", fallbackMethod = "getTeamAnalyticsFallback")
-    @Retry(name = "analyticsService")
     public TeamAnalyticsDto getTeamAnalytics() {
         log.info("Fetching team analytics via gRPC");
-        TeamCountResponse response = getTeamStatistics();
+        Fetched<TeamCountResponse> teams = statisticsFanOut.fetchTeamStats();
+        TeamCountResponse response = teams.value();
+
+        Map<String, FieldStatusDto> fieldStatus = new LinkedHashMap<>();
+        mark(fieldStatus, teams, "totalTeams", "averageTeamSize", "teamsPerManager");
+        if (response == null) {
+            return TeamAnalyticsDto.builder().partial(true).fieldStatus(fieldStatus).build();
+        }
+
+        double teamsPerManager = response.getTotalManagers() > 0
+                ? (double) response.getTotalTeams() / response.getTotalManagers()
+                : 0.0;
 
         return TeamAnalyticsDto.builder()
                 .totalTeams(response.getTotalTeams())
                 .averageTeamSize(response.getAverageTeamSize())
-                .teamsPerManager(1.0) // Simplified - each team has one manager
+                .teamsPerManager(teamsPerManager)
+                .partial(!fieldStatus.isEmpty())
+                .fieldStatus(fieldStatus)
                 .build();
     }
 
-    // Private helper methods for gRPC calls
-    private UserCountResponse getUserStatistics() {
-        try {
-            return userServiceStub.getUserCount(UserCountRequest.newBuilder().build());
-        } catch (Exception e) {
-            log.error("Error calling USER-SERVICE via gRPC", e);
-            return UserCountResponse.newBuilder().setTotalUsers(0).setActiveUsers(0).build();
-        }
-    }
-
-    private ProjectCountResponse getProjectStatistics() {
-        try {
-            return projectServiceStub.getProjectCount(ProjectCountRequest.newBuilder().build());
-        } catch (Exception e) {
-            log.error("Error calling PROJECT-SERVICE via gRPC", e);
-            return ProjectCountResponse.newBuilder()
-                    .setTotalProjects(0)
-                    .setCompletedProjects(0)
-                    .setInProgressProjects(0)
-                    .build();
-        }
-    }
-
-    private TeamCountResponse getTeamStatistics() {
-        try {
-            return teamServiceStub.getTeamCount(TeamCountRequest.newBuilder().build());
-        } catch (Exception e) {
-            log.error("Error calling TEAM-SERVICE via gRPC", e);
-            return TeamCountResponse.newBuilder().setTotalTeams(0).setAverageTeamSize(0).build();
+    private static void mark(Map<String, FieldStatusDto> fieldStatus, Fetched<?> fetched, String... fields) {
+        if (fetched.isFresh()) {
+            return;
         }
-    }
-
-    private ActivityCountResponse getActivityStatistics() {
-        try {
-            return logsServiceStub.getActivityCount(ActivityCountRequest.newBuilder().build());
-        } catch (Exception e) {
-            log.error("Error calling LOGS-SERVICE via gRPC", e);
-            return ActivityCountResponse.newBuilder()
-                    .setTotalActivities(0)
-                    .setTodayActivities(0)
-                    .setWeekActivities(0)
-                    .build();
+        for (String field : fields) {
+            // A field derived from two sources keeps the worse of the two statuses
+            fieldStatus.merge(field, fetched.status(),
+                    (current, next) -> next.getStatus().compareTo(current.getStatus()) > 0 ? next : current);
         }
     }
-
-    // Fallback methods
-    private DashboardAnalyticsDto getDashboardFallback(Exception e) {
-        log.error("Fallback: getDashboardAnalytics failed", e);
-        return DashboardAnalyticsDto.builder()
-                .totalUsers(0).activeUsers(0)
-                .totalProjects(0).completedProjects(0).inProgressProjects(0)
-                .totalTeams(0).averageTeamSize(0)
-                .totalActivities(0).todayActivities(0).weekActivities(0)
-                .projectCompletionRate(0.0).averageProjectsPerTeam(0.0)
-                .build();
-    }
-
-    private UserAnalyticsDto getUserAnalyticsFallback(Exception e) {
-        log.error("Fallback: getUserAnalytics failed", e);
-        return UserAnalyticsDto.builder()
-                .totalUsers(0).activeUsers(0).inactiveUsers(0)
-                .build();
-    }
-
-    private ProjectAnalyticsDto getProjectAnalyticsFallback(Exception e) {
-        log.error("Fallback: getProjectAnalytics failed", e);
-        return ProjectAnalyticsDto.builder()
-                .totalProjects(0).completedProjects(0)
-                .inProgressProjects(0).pendingProjects(0)
-                .completionRate(0.0)
-                .build();
-    }
-
-    private TeamAnalyticsDto getTeamAnalyticsFallback(Exception e) {
-        log.error("Fallback: getTeamAnalytics failed", e);
-        return TeamAnalyticsDto.builder()
-                .totalTeams(0).averageTeamSize(0).teamsPerManager(0.0)
-                .build();
-    }
 }
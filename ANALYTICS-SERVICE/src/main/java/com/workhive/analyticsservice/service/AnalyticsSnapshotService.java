@@ -0,0 +1,49 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.cache.Snapshot;
+import com.workhive.analyticsservice.cache.SnapshotStore;
+import com.workhive.analyticsservice.dto.BreakdownDto;
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.dto.ProjectAnalyticsDto;
+import com.workhive.analyticsservice.dto.TeamAnalyticsDto;
+import com.workhive.analyticsservice.dto.UserAnalyticsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves analytics from materialized snapshots so that readers do not each pay for the gRPC fan-out.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsSnapshotService {
+
+    private static final String DASHBOARD = "dashboard";
+    private static final String USERS = "users";
+    private static final String PROJECTS = "projects";
+    private static final String TEAMS = "teams";
+    private static final String BREAKDOWN = "breakdown";
+
+    private final AnalyticsService analyticsService;
+    private final BreakdownService breakdownService;
+    private final SnapshotStore snapshotStore;
+
+    public Snapshot<DashboardAnalyticsDto> getDashboardAnalytics() {
+        return snapshotStore.get(DASHBOARD, analyticsService::getDashboardAnalytics);
+    }
+
+    public Snapshot<UserAnalyticsDto> getUserAnalytics() {
+        return snapshotStore.get(USERS, analyticsService::getUserAnalytics);
+    }
+
+    public Snapshot<ProjectAnalyticsDto> getProjectAnalytics() {
+        return snapshotStore.get(PROJECTS, analyticsService::getProjectAnalytics);
+    }
+
+    public Snapshot<TeamAnalyticsDto> getTeamAnalytics() {
+        return snapshotStore.get(TEAMS, analyticsService::getTeamAnalytics);
+    }
+
+    public Snapshot<BreakdownDto> getBreakdown() {
+        return snapshotStore.get(BREAKDOWN, breakdownService::getBreakdown);
+    }
+}
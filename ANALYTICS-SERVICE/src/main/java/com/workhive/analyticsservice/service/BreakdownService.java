@@ -0,0 +1,278 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.aggregation.ForkJoinAggregator;
+import com.workhive.analyticsservice.dto.BreakdownDto;
+import com.workhive.analyticsservice.dto.ManagerBreakdownDto;
+import com.workhive.analyticsservice.dto.TeamBreakdownDto;
+import com.workhive.analyticsservice.grpc.logs.UserActivityCount;
+import com.workhive.analyticsservice.grpc.project.ProjectSummary;
+import com.workhive.analyticsservice.grpc.team.TeamSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-team and per-manager breakdown of projects, task statuses and activity volume.
+ * <p>
+ * Teams, projects (with task counts per status) and per-user activity counts are pulled in bulk
+ * and joined in memory in two fork-join passes: projects are folded into per-team and per-creator
+ * counts, then teams are folded into team rows and per-manager rollups. Leaves only touch their
+ * own accumulators, so the passes scale with the number of cores.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BreakdownService {
+
+    private static final String[] TASK_STATUSES = {"TODO", "IN_PROGRESS", "IN_REVIEW", "DONE", "BLOCKED"};
+    private static final int DONE = 3;
+
+    // Layout of the long[] counters: project count followed by one slot per task status
+    private static final int PROJECTS = 0;
+    private static final int COUNTERS = 1 + TASK_STATUSES.length;
+
+    private final BulkDataClient bulkDataClient;
+    private final ForkJoinAggregator aggregator;
+
+    @Value("${analytics.breakdown.activity-window-days:30}")
+    private int activityWindowDays;
+
+    public BreakdownDto getBreakdown() {
+        log.info("Computing team and manager breakdown");
+        long start = System.nanoTime();
+
+        LocalDateTime activitySince = activityWindowDays > 0
+                ? LocalDate.now().minusDays(activityWindowDays - 1L).atStartOfDay()
+                : null;
+        long sinceMillis = activitySince != null
+                ? activitySince.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0;
+
+        CompletableFuture<List<TeamSummary>> teamsFuture = bulkDataClient.teams();
+        CompletableFuture<List<ProjectSummary>> projectsFuture = bulkDataClient.projects();
+        CompletableFuture<Map<Long, Long>> activityFuture = bulkDataClient.userActivityCounts(sinceMillis)
+                .thenApply(BreakdownService::toActivityMap)
+                .exceptionally(e -> {
+                    // Breakdowns are still useful without activity volume
+                    log.warn("Activity counts unavailable, breakdown will omit activityCount");
+                    return null;
+                });
+
+        List<TeamSummary> teams = teamsFuture.join();
+        List<ProjectSummary> projects = projectsFuture.join();
+        Map<Long, Long> activity = activityFuture.join();
+        long fetched = System.nanoTime();
+
+        Set<Long> teamIds = new HashSet<>(teams.size() * 2);
+        for (TeamSummary team : teams) {
+            teamIds.add(team.getId());
+        }
+
+        ProjectRollup projectRollup = aggregator.aggregate(projects, ProjectRollup::new,
+                (rollup, project) -> rollup.add(project, teamIds), ProjectRollup::merge);
+
+        TeamRollup teamRollup = aggregator.aggregate(teams, TeamRollup::new,
+                (rollup, team) -> rollup.add(team, projectRollup, activity), TeamRollup::merge);
+
+        // Managers who only created projects without a team still get a row
+        for (Long creator : projectRollup.byCreator.keySet()) {
+            teamRollup.managers.computeIfAbsent(creator, id -> new ManagerRollup());
+        }
+        List<Map.Entry<Long, ManagerRollup>> managerEntries = new ArrayList<>(teamRollup.managers.entrySet());
+        List<ManagerBreakdownDto> managers = aggregator.<Map.Entry<Long, ManagerRollup>, List<ManagerBreakdownDto>>aggregate(managerEntries, ArrayList::new,
+                (rows, entry) -> rows.add(toManagerDto(entry.getKey(), entry.getValue(), projectRollup, activity)),
+                BreakdownService::concat);
+
+        List<TeamBreakdownDto> teamRows = teamRollup.teams;
+        teamRows.sort(Comparator.comparing(TeamBreakdownDto::getTeamId));
+        managers.sort(Comparator.comparing(ManagerBreakdownDto::getManagerId));
+        long done = System.nanoTime();
+
+        log.info("Breakdown of {} teams, {} projects, {} managers: fetch {} ms, aggregate {} ms",
+                teams.size(), projects.size(), managers.size(),
+                TimeUnit.NANOSECONDS.toMillis(fetched - start), TimeUnit.NANOSECONDS.toMillis(done - fetched));
+
+        return BreakdownDto.builder()
+                .teams(teamRows)
+                .managers(managers)
+                .activitySince(activitySince)
+                .fetchMs(TimeUnit.NANOSECONDS.toMillis(fetched - start))
+                .aggregateMs(TimeUnit.NANOSECONDS.toMillis(done - fetched))
+                .build();
+    }
+
+    private static Map<Long, Long> toActivityMap(List<UserActivityCount> counts) {
+        Map<Long, Long> activity = new HashMap<>(counts.size() * 2);
+        for (UserActivityCount count : counts) {
+            activity.put(count.getUserId(), count.getActivities());
+        }
+        return activity;
+    }
+
+    private static ManagerBreakdownDto toManagerDto(Long managerId, ManagerRollup rollup, ProjectRollup projects,
+                                                    Map<Long, Long> activity) {
+        long[] counters = rollup.counters.clone();
+        long[] unassigned = projects.byCreator.get(managerId);
+        if (unassigned != null) {
+            addInto(counters, unassigned);
+        }
+        Long activityCount = null;
+        if (activity != null) {
+            long sum = activity.getOrDefault(managerId, 0L);
+            for (Long developer : rollup.developers) {
+                if (!developer.equals(managerId)) {
+                    sum += activity.getOrDefault(developer, 0L);
+                }
+            }
+            activityCount = sum;
+        }
+        return ManagerBreakdownDto.builder()
+                .managerId(managerId)
+                .teamCount(rollup.teams)
+                .memberCount(rollup.developers.size())
+                .projectCount(counters[PROJECTS])
+                .totalTasks(totalTasks(counters))
+                .tasksByStatus(tasksByStatus(counters))
+                .taskCompletionRate(completionRate(counters))
+                .activityCount(activityCount)
+                .build();
+    }
+
+    private static long totalTasks(long[] counters) {
+        long total = 0;
+        for (int i = 1; i < COUNTERS; i++) {
+            total += counters[i];
+        }
+        return total;
+    }
+
+    private static Map<String, Long> tasksByStatus(long[] counters) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (int i = 0; i < TASK_STATUSES.length; i++) {
+            byStatus.put(TASK_STATUSES[i], counters[i + 1]);
+        }
+        return byStatus;
+    }
+
+    private static double completionRate(long[] counters) {
+        long total = totalTasks(counters);
+        return total > 0 ? (double) counters[DONE + 1] / total * 100 : 0.0;
+    }
+
+    private static void addInto(long[] target, long[] source) {
+        for (int i = 0; i < COUNTERS; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    private static <T> List<T> concat(List<T> left, List<T> right) {
+        left.addAll(right);
+        return left;
+    }
+
+    /**
+     * Project and task counters per team, and per creator for projects that have no known team.
+     */
+    private static final class ProjectRollup {
+        private final Map<Long, long[]> byTeam = new HashMap<>();
+        private final Map<Long, long[]> byCreator = new HashMap<>();
+
+        private void add(ProjectSummary project, Set<Long> teamIds) {
+            long[] counters = teamIds.contains(project.getTeamId())
+                    ? byTeam.computeIfAbsent(project.getTeamId(), id -> new long[COUNTERS])
+                    : byCreator.computeIfAbsent(project.getCreatedBy(), id -> new long[COUNTERS]);
+            counters[PROJECTS]++;
+            counters[1] += project.getTodoTasks();
+            counters[2] += project.getInProgressTasks();
+            counters[3] += project.getInReviewTasks();
+            counters[4] += project.getDoneTasks();
+            counters[5] += project.getBlockedTasks();
+        }
+
+        private ProjectRollup merge(ProjectRollup other) {
+            other.byTeam.forEach((id, counters) -> byTeam.merge(id, counters, (a, b) -> {
+                addInto(a, b);
+                return a;
+            }));
+            other.byCreator.forEach((id, counters) -> byCreator.merge(id, counters, (a, b) -> {
+                addInto(a, b);
+                return a;
+            }));
+            return this;
+        }
+    }
+
+    private static final class ManagerRollup {
+        private int teams;
+        private final Set<Long> developers = new HashSet<>();
+        private final long[] counters = new long[COUNTERS];
+
+        private ManagerRollup merge(ManagerRollup other) {
+            teams += other.teams;
+            developers.addAll(other.developers);
+            addInto(counters, other.counters);
+            return this;
+        }
+    }
+
+    /**
+     * Team rows plus the partial per-manager rollups of the teams folded so far.
+     */
+    private static final class TeamRollup {
+        private final List<TeamBreakdownDto> teams = new ArrayList<>();
+        private final Map<Long, ManagerRollup> managers = new HashMap<>();
+
+        private void add(TeamSummary team, ProjectRollup projects, Map<Long, Long> activity) {
+            long[] counters = projects.byTeam.getOrDefault(team.getId(), new long[COUNTERS]);
+
+            Long activityCount = null;
+            if (activity != null) {
+                long sum = activity.getOrDefault(team.getManagerId(), 0L);
+                for (long developer : team.getDeveloperIdsList()) {
+                    if (developer != team.getManagerId()) {
+                        sum += activity.getOrDefault(developer, 0L);
+                    }
+                }
+                activityCount = sum;
+            }
+
+            teams.add(TeamBreakdownDto.builder()
+                    .teamId(team.getId())
+                    .name(team.getName())
+                    .managerId(team.getManagerId())
+                    .memberCount(team.getDeveloperIdsCount())
+                    .projectCount(counters[PROJECTS])
+                    .totalTasks(totalTasks(counters))
+                    .tasksByStatus(tasksByStatus(counters))
+                    .taskCompletionRate(completionRate(counters))
+                    .activityCount(activityCount)
+                    .build());
+
+            ManagerRollup manager = managers.computeIfAbsent(team.getManagerId(), id -> new ManagerRollup());
+            manager.teams++;
+            manager.developers.addAll(team.getDeveloperIdsList());
+            addInto(manager.counters, counters);
+        }
+
+        private TeamRollup merge(TeamRollup other) {
+            teams.addAll(other.teams);
+            other.managers.forEach((id, rollup) -> managers.merge(id, rollup, ManagerRollup::merge));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.grpc.logs.*;
+import com.workhive.analyticsservice.grpc.project.*;
+import com.workhive.analyticsservice.grpc.team.*;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pulls the bulk exports used by the breakdown analytics over server-streaming RPCs.
+ * All three streams are opened at once on the async stubs and flattened as batches arrive,
+ * so no thread is parked per call and no single message has to hold a whole table.
+ */
+@Component
+@Slf4j
+public class BulkDataClient {
+
+    @GrpcClient("TEAM-SERVICE")
+    private TeamStatisticsServiceGrpc.TeamStatisticsServiceStub teamServiceAsyncStub;
+
+    @GrpcClient("PROJECT-SERVICE")
+    private ProjectStatisticsServiceGrpc.ProjectStatisticsServiceStub projectServiceAsyncStub;
+
+    @GrpcClient("LOGS-SERVICE")
+    private LogsStatisticsServiceGrpc.LogsStatisticsServiceStub logsServiceAsyncStub;
+
+    @Value("${analytics.breakdown.deadline-ms:10000}")
+    private long deadlineMs;
+
+    public CompletableFuture<List<TeamSummary>> teams() {
+        return collect(StatisticsFanOut.TEAM_SERVICE, TeamSummaryBatch::getTeamsList,
+                observer -> teamServiceAsyncStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                        .listTeamSummaries(TeamSummariesRequest.newBuilder().build(), observer));
+    }
+
+    public CompletableFuture<List<ProjectSummary>> projects() {
+        return collect(StatisticsFanOut.PROJECT_SERVICE, ProjectSummaryBatch::getProjectsList,
+                observer -> projectServiceAsyncStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                        .listProjectSummaries(ProjectSummariesRequest.newBuilder().build(), observer));
+    }
+
+    public CompletableFuture<List<UserActivityCount>> userActivityCounts(long sinceEpochMillis) {
+        return collect(StatisticsFanOut.LOGS_SERVICE, UserActivityCountBatch::getCountsList,
+                observer -> logsServiceAsyncStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                        .listUserActivityCounts(UserActivityCountsRequest.newBuilder()
+                                .setSinceEpochMillis(sinceEpochMillis)
+                                .build(), observer));
+    }
+
+    private <B, T> CompletableFuture<List<T>> collect(String service, Function<B, List<T>> items,
+                                                      Consumer<StreamObserver<B>> call) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        List<T> collected = new ArrayList<>();
+        try {
+            call.accept(new StreamObserver<B>() {
+                @Override
+                public void onNext(B batch) {
+                    // Messages of one call are delivered serially, so the list needs no locking
+                    collected.addAll(items.apply(batch));
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    log.error("Bulk export from {} failed: {}", service, t.getMessage());
+                    result.completeExceptionally(t);
+                }
+
+                @Override
+                public void onCompleted() {
+                    log.debug("Bulk export from {} returned {} rows", service, collected.size());
+                    result.complete(collected);
+                }
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+}
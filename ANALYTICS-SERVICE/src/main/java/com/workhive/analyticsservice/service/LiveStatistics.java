@@ -0,0 +1,253 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.grpc.logs.*;
+import com.workhive.analyticsservice.grpc.project.*;
+import com.workhive.analyticsservice.grpc.team.*;
+import com.workhive.analyticsservice.grpc.user.*;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Live in-memory aggregate of the downstream statistics, fed by the server-streaming Watch*Statistics RPCs.
+ * <p>
+ * Each stream starts with a full snapshot followed by deltas. While a stream is disconnected its
+ * counters are discarded and the stream is reopened with exponential backoff; the first message of
+ * the new stream resyncs the counters. Readers get O(1) access and fall back to unary RPCs for any
+ * service whose stream is not currently synced.
+ */
+@Component
+@Slf4j
+public class LiveStatistics {
+
+    @GrpcClient("USER-SERVICE")
+    private UserStatisticsServiceGrpc.UserStatisticsServiceStub userServiceAsyncStub;
+
+    @GrpcClient("PROJECT-SERVICE")
+    private ProjectStatisticsServiceGrpc.ProjectStatisticsServiceStub projectServiceAsyncStub;
+
+    @GrpcClient("TEAM-SERVICE")
+    private TeamStatisticsServiceGrpc.TeamStatisticsServiceStub teamServiceAsyncStub;
+
+    @GrpcClient("LOGS-SERVICE")
+    private LogsStatisticsServiceGrpc.LogsStatisticsServiceStub logsServiceAsyncStub;
+
+    @Value("${analytics.live.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analytics.live.reconnect-initial-ms:1000}")
+    private long reconnectInitialMs;
+
+    @Value("${analytics.live.reconnect-max-ms:30000}")
+    private long reconnectMaxMs;
+
+    private final ScheduledExecutorService reconnector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-statistics-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Watch<UserStatisticsUpdate> users = new Watch<>(StatisticsFanOut.USER_SERVICE,
+            UserStatisticsUpdate::getSnapshot,
+            update -> new long[]{update.getTotalUsers(), update.getActiveUsers()},
+            observer -> userServiceAsyncStub.watchUserStatistics(WatchUserStatisticsRequest.newBuilder().build(), observer));
+
+    private final Watch<ProjectStatisticsUpdate> projects = new Watch<>(StatisticsFanOut.PROJECT_SERVICE,
+            ProjectStatisticsUpdate::getSnapshot,
+            update -> new long[]{update.getTotalProjects(), update.getCompletedProjects(), update.getInProgressProjects()},
+            observer -> projectServiceAsyncStub.watchProjectStatistics(WatchProjectStatisticsRequest.newBuilder().build(), observer));
+
+    private final Watch<TeamStatisticsUpdate> teams = new Watch<>(StatisticsFanOut.TEAM_SERVICE,
+            TeamStatisticsUpdate::getSnapshot,
+            update -> new long[]{update.getTotalTeams(), update.getTotalMembers(), update.getTotalManagers()},
+            observer -> teamServiceAsyncStub.watchTeamStatistics(WatchTeamStatisticsRequest.newBuilder().build(), observer));
+
+    private final Watch<ActivityStatisticsUpdate> activities = new Watch<>(StatisticsFanOut.LOGS_SERVICE,
+            ActivityStatisticsUpdate::getSnapshot,
+            update -> new long[]{update.getTotalActivities(), update.getTodayActivities(), update.getWeekActivities(),
+                    update.getActiveUsersToday(), update.getActiveUsersLast7Days(), update.getActiveUsersLast30Days()},
+            observer -> logsServiceAsyncStub.watchActivityStatistics(WatchActivityStatisticsRequest.newBuilder().build(), observer));
+
+    private volatile boolean running;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Live statistics streams disabled, analytics will poll via unary gRPC");
+            return;
+        }
+        running = true;
+        for (Watch<?> watch : watches()) {
+            watch.connect();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        reconnector.shutdownNow();
+        for (Watch<?> watch : watches()) {
+            watch.cancel();
+        }
+    }
+
+    public Optional<UserCountResponse> userStats() {
+        long[] c = users.counters;
+        return c == null ? Optional.empty() : Optional.of(UserCountResponse.newBuilder()
+                .setTotalUsers((int) c[0])
+                .setActiveUsers((int) c[1])
+                .build());
+    }
+
+    public Optional<ProjectCountResponse> projectStats() {
+        long[] c = projects.counters;
+        return c == null ? Optional.empty() : Optional.of(ProjectCountResponse.newBuilder()
+                .setTotalProjects((int) c[0])
+                .setCompletedProjects((int) c[1])
+                .setInProgressProjects((int) c[2])
+                .build());
+    }
+
+    public Optional<TeamCountResponse> teamStats() {
+        long[] c = teams.counters;
+        return c == null ? Optional.empty() : Optional.of(TeamCountResponse.newBuilder()
+                .setTotalTeams((int) c[0])
+                .setAverageTeamSize(c[0] > 0 ? (int) Math.round((double) c[1] / c[0]) : 0)
+                .setTotalManagers((int) c[2])
+                .build());
+    }
+
+    public Optional<ActivityCountResponse> activityStats() {
+        long[] c = activities.counters;
+        return c == null ? Optional.empty() : Optional.of(ActivityCountResponse.newBuilder()
+                .setTotalActivities((int) c[0])
+                .setTodayActivities((int) c[1])
+                .setWeekActivities((int) c[2])
+                .setActiveUsersToday((int) c[3])
+                .setActiveUsersLast7Days((int) c[4])
+                .setActiveUsersLast30Days((int) c[5])
+                .build());
+    }
+
+    private List<Watch<?>> watches() {
+        return List.of(users, projects, teams, activities);
+    }
+
+    /**
+     * One watch stream and the counters it maintains. Counters are copy-on-write so readers never lock;
+     * gRPC delivers the messages of one stream serially, so there is a single writer per stream.
+     */
+    private final class Watch<U> {
+        private final String service;
+        private final Predicate<U> isSnapshot;
+        private final Function<U, long[]> values;
+        private final Consumer<StreamObserver<U>> subscribe;
+
+        private volatile long[] counters;
+        private volatile ClientCallStreamObserver<?> call;
+        private volatile int failures;
+
+        private Watch(String service, Predicate<U> isSnapshot, Function<U, long[]> values,
+                      Consumer<StreamObserver<U>> subscribe) {
+            this.service = service;
+            this.isSnapshot = isSnapshot;
+            this.values = values;
+            this.subscribe = subscribe;
+        }
+
+        private void connect() {
+            if (!running) {
+                return;
+            }
+            log.info("Opening statistics watch stream to {}", service);
+            try {
+                subscribe.accept(new ClientResponseObserver<Object, U>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<Object> requestStream) {
+                        call = requestStream;
+                    }
+
+                    @Override
+                    public void onNext(U update) {
+                        apply(update);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        log.warn("Statistics watch stream to {} failed: {}", service, t.getMessage());
+                        disconnected();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        log.info("Statistics watch stream to {} closed by server", service);
+                        disconnected();
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not open statistics watch stream to {}", service, e);
+                disconnected();
+            }
+        }
+
+        private void apply(U update) {
+            long[] incoming = values.apply(update);
+            if (isSnapshot.test(update)) {
+                if (counters == null) {
+                    log.info("Statistics watch stream to {} synced", service);
+                }
+                counters = incoming;
+                failures = 0;
+                return;
+            }
+            long[] current = counters;
+            if (current == null) {
+                // A delta without a base is meaningless; wait for the next snapshot
+                return;
+            }
+            long[] next = current.clone();
+            for (int i = 0; i < next.length; i++) {
+                next[i] += incoming[i];
+            }
+            counters = next;
+        }
+
+        private void disconnected() {
+            counters = null;
+            call = null;
+            if (!running) {
+                return;
+            }
+            long delay = Math.min(reconnectMaxMs, reconnectInitialMs << Math.min(failures++, 10));
+            log.debug("Reconnecting statistics watch stream to {} in {} ms", service, delay);
+            try {
+                reconnector.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                log.debug("Reconnect to {} not scheduled: {}", service, e.getMessage());
+            }
+        }
+
+        private void cancel() {
+            ClientCallStreamObserver<?> current = call;
+            if (current != null) {
+                current.cancel("ANALYTICS-SERVICE shutting down", null);
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.workhive.analyticsservice.service;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.workhive.analyticsservice.cache.Snapshot;
+import com.workhive.analyticsservice.dto.FieldStatus;
+import com.workhive.analyticsservice.dto.FieldStatusDto;
+import com.workhive.analyticsservice.grpc.logs.*;
+import com.workhive.analyticsservice.grpc.project.*;
+import com.workhive.analyticsservice.grpc.team.*;
+import com.workhive.analyticsservice.grpc.user.*;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Issues the four statistics RPCs needed by the dashboard.
+ * <p>
+ * In PARALLEL mode all calls go out at once on the future stubs and share a single
+ * deadline, so the dashboard costs the slowest call instead of the sum of all four.
+ * SEQUENTIAL mode keeps the original one-after-another behaviour on the blocking stubs.
+ * When every watch stream in {@link LiveStatistics} is synced, no RPC is issued at all.
+ * <p>
+ * Each call has its own circuit breaker and retry, so a failing service is retried on its own
+ * without repeating the calls that already succeeded. A call that still fails is answered from
+ * the last value that service returned, marked {@link FieldStatus#STALE}, or left empty and
+ * marked {@link FieldStatus#UNAVAILABLE} when there is none.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StatisticsFanOut {
+
+    public static final String USER_SERVICE = "USER-SERVICE";
+    public static final String PROJECT_SERVICE = "PROJECT-SERVICE";
+    public static final String TEAM_SERVICE = "TEAM-SERVICE";
+    public static final String LOGS_SERVICE = "LOGS-SERVICE";
+
+    // Resilience4j instance names, configured in application.properties
+    private static final Map<String, String> RESILIENCE_INSTANCES = Map.of(
+            USER_SERVICE, "userService",
+            PROJECT_SERVICE, "projectService",
+            TEAM_SERVICE, "teamService",
+            LOGS_SERVICE, "logsService");
+
+    public enum Mode { PARALLEL, SEQUENTIAL }
+
+    @GrpcClient("USER-SERVICE")
+    private UserStatisticsServiceGrpc.UserStatisticsServiceBlockingStub userServiceStub;
+
+    @GrpcClient("PROJECT-SERVICE")
+    private ProjectStatisticsServiceGrpc.ProjectStatisticsServiceBlockingStub projectServiceStub;
+
+    @GrpcClient("TEAM-SERVICE")
+    private TeamStatisticsServiceGrpc.TeamStatisticsServiceBlockingStub teamServiceStub;
+
+    @GrpcClient("LOGS-SERVICE")
+    private LogsStatisticsServiceGrpc.LogsStatisticsServiceBlockingStub logsServiceStub;
+
+    @GrpcClient("USER-SERVICE")
+    private UserStatisticsServiceGrpc.UserStatisticsServiceFutureStub userServiceFutureStub;
+
+    @GrpcClient("PROJECT-SERVICE")
+    private ProjectStatisticsServiceGrpc.ProjectStatisticsServiceFutureStub projectServiceFutureStub;
+
+    @GrpcClient("TEAM-SERVICE")
+    private TeamStatisticsServiceGrpc.TeamStatisticsServiceFutureStub teamServiceFutureStub;
+
+    @GrpcClient("LOGS-SERVICE")
+    private LogsStatisticsServiceGrpc.LogsStatisticsServiceFutureStub logsServiceFutureStub;
+
+    private final LiveStatistics liveStatistics;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+
+    @Value("${analytics.fanout.mode:PARALLEL}")
+    private Mode mode;
+
+    @Value("${analytics.fanout.deadline-ms:2000}")
+    private long deadlineMs;
+
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, Retry> retries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Snapshot<Object>> lastKnownGood = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fanout-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        RESILIENCE_INSTANCES.forEach((service, instance) -> {
+            circuitBreakers.put(service, circuitBreakerRegistry.circuitBreaker(instance));
+            // Keep the configured attempts and backoff, but only retry failures another attempt can fix
+            Retry configured = retryRegistry.retry(instance);
+            Retry retry = Retry.of(instance, RetryConfig.from(configured.getRetryConfig())
+                    .retryOnException(StatisticsFanOut::isRetryable)
+                    .build());
+            retryRegistry.replace(instance, retry);
+            retries.put(service, retry);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retryScheduler.shutdownNow();
+    }
+
+    public Result fetchAll() {
+        Optional<Result> live = fromLiveStatistics();
+        if (live.isPresent()) {
+            log.debug("Dashboard served from live statistics streams");
+            return live.get();
+        }
+
+        long start = System.nanoTime();
+        Result result = mode == Mode.PARALLEL ? fetchParallel() : fetchSequential();
+        result.totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.debug("Dashboard fan-out ({}) took {} ms: {}", mode, result.totalMillis, result.getCallTimings());
+        return result;
+    }
+
+    public Fetched<UserCountResponse> fetchUserStats() {
+        return fetchOne(USER_SERVICE, liveStatistics.userStats(),
+                () -> userServiceStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                        .getUserCount(UserCountRequest.newBuilder().build()));
+    }
+
+    public Fetched<ProjectCountResponse> fetchProjectStats() {
+        return fetchOne(PROJECT_SERVICE, liveStatistics.projectStats(),
+                () -> projectServiceStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                        .getProjectCount(ProjectCountRequest.newBuilder().build()));
+    }
+
+    public Fetched<TeamCountResponse> fetchTeamStats() {
+        return fetchOne(TEAM_SERVICE, liveStatistics.teamStats(),
+                () -> teamServiceStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                        .getTeamCount(TeamCountRequest.newBuilder().build()));
+    }
+
+    public Fetched<ActivityCountResponse> fetchActivityStats() {
+        return fetchOne(LOGS_SERVICE, liveStatistics.activityStats(),
+                () -> logsServiceStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                        .getActivityCount(ActivityCountRequest.newBuilder().build()));
+    }
+
+    private <T> Fetched<T> fetchOne(String service, Optional<T> live, Supplier<T> call) {
+        if (live.isPresent()) {
+            return Fetched.fresh(live.get());
+        }
+        Supplier<T> guarded = Retry.decorateSupplier(retries.get(service),
+                CircuitBreaker.decorateSupplier(circuitBreakers.get(service), call));
+        try {
+            return fresh(service, guarded.get());
+        } catch (Exception e) {
+            log.error("Error calling {} via gRPC", service, e);
+            return fallback(service, e);
+        }
+    }
+
+    private Optional<Result> fromLiveStatistics() {
+        Optional<UserCountResponse> user = liveStatistics.userStats();
+        Optional<ProjectCountResponse> project = liveStatistics.projectStats();
+        Optional<TeamCountResponse> team = liveStatistics.teamStats();
+        Optional<ActivityCountResponse> activity = liveStatistics.activityStats();
+        if (user.isEmpty() || project.isEmpty() || team.isEmpty() || activity.isEmpty()) {
+            return Optional.empty();
+        }
+        Result result = new Result();
+        result.userStats = Fetched.fresh(user.get());
+        result.projectStats = Fetched.fresh(project.get());
+        result.teamStats = Fetched.fresh(team.get());
+        result.activityStats = Fetched.fresh(activity.get());
+        return Optional.of(result);
+    }
+
+    private Result fetchParallel() {
+        // One deadline object shared by every call: whatever is left of the budget applies to all of them
+        Deadline deadline = Deadline.after(deadlineMs, TimeUnit.MILLISECONDS);
+        Result result = new Result();
+
+        Pending<UserCountResponse> user = start(USER_SERVICE, result,
+                () -> userServiceFutureStub.withDeadline(deadline).getUserCount(UserCountRequest.newBuilder().build()));
+        Pending<ProjectCountResponse> project = start(PROJECT_SERVICE, result,
+                () -> projectServiceFutureStub.withDeadline(deadline).getProjectCount(ProjectCountRequest.newBuilder().build()));
+        Pending<TeamCountResponse> team = start(TEAM_SERVICE, result,
+                () -> teamServiceFutureStub.withDeadline(deadline).getTeamCount(TeamCountRequest.newBuilder().build()));
+        Pending<ActivityCountResponse> activity = start(LOGS_SERVICE, result,
+                () -> logsServiceFutureStub.withDeadline(deadline).getActivityCount(ActivityCountRequest.newBuilder().build()));
+
+        result.userStats = await(user, deadline);
+        result.projectStats = await(project, deadline);
+        result.teamStats = await(team, deadline);
+        result.activityStats = await(activity, deadline);
+        return result;
+    }
+
+    private Result fetchSequential() {
+        Result result = new Result();
+        result.userStats = timed(USER_SERVICE, result,
+                () -> userServiceStub.getUserCount(UserCountRequest.newBuilder().build()));
+        result.projectStats = timed(PROJECT_SERVICE, result,
+                () -> projectServiceStub.getProjectCount(ProjectCountRequest.newBuilder().build()));
+        result.teamStats = timed(TEAM_SERVICE, result,
+                () -> teamServiceStub.getTeamCount(TeamCountRequest.newBuilder().build()));
+        result.activityStats = timed(LOGS_SERVICE, result,
+                () -> logsServiceStub.getActivityCount(ActivityCountRequest.newBuilder().build()));
+        return result;
+    }
+
+    private <T> Pending<T> start(String service, Result result, Supplier<ListenableFuture<T>> call) {
+        long startNanos = System.nanoTime();
+        // Retries re-issue only this call, on the same shared deadline; once it has passed the
+        // attempt fails with DEADLINE_EXCEEDED, which is not retried
+        CompletableFuture<T> future = Retry.decorateCompletionStage(retries.get(service), retryScheduler,
+                        CircuitBreaker.decorateCompletionStage(circuitBreakers.get(service), () -> toCompletable(call.get())))
+                .get()
+                .toCompletableFuture();
+        // Timing is recorded when the call completes, not when we get around to waiting for it
+        future.whenComplete((value, error) -> result.record(service, startNanos));
+        return new Pending<>(service, future);
+    }
+
+    private <T> Fetched<T> await(Pending<T> pending, Deadline deadline) {
+        try {
+            long remaining = Math.max(0, deadline.timeRemaining(TimeUnit.NANOSECONDS));
+            return fresh(pending.service, pending.future.get(remaining, TimeUnit.NANOSECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.cancel(true);
+            log.error("Interrupted while waiting for {} via gRPC", pending.service);
+            return fallback(pending.service, e);
+        } catch (ExecutionException e) {
+            log.error("Error calling {} via gRPC", pending.service, e.getCause());
+            return fallback(pending.service, e.getCause());
+        } catch (Exception e) {
+            pending.future.cancel(true);
+            log.error("Error calling {} via gRPC", pending.service, e);
+            return fallback(pending.service, e);
+        }
+    }
+
+    private <T> Fetched<T> timed(String service, Result result, Supplier<T> call) {
+        long startNanos = System.nanoTime();
+        Supplier<T> guarded = Retry.decorateSupplier(retries.get(service),
+                CircuitBreaker.decorateSupplier(circuitBreakers.get(service), call));
+        try {
+            return fresh(service, guarded.get());
+        } catch (Exception e) {
+            log.error("Error calling {} via gRPC", service, e);
+            return fallback(service, e);
+        } finally {
+            result.record(service, startNanos);
+        }
+    }
+
+    private <T> Fetched<T> fresh(String service, T value) {
+        lastKnownGood.put(service, new Snapshot<>(value, System.currentTimeMillis()));
+        return Fetched.fresh(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Fetched<T> fallback(String service, Throwable error) {
+        String message = error instanceof StatusRuntimeException status
+                ? status.getStatus().getCode().name()
+                : error.getClass().getSimpleName();
+        Snapshot<Object> last = lastKnownGood.get(service);
+        if (last == null) {
+            return new Fetched<>(null, FieldStatusDto.builder()
+                    .status(FieldStatus.UNAVAILABLE)
+                    .source(service)
+                    .error(message)
+                    .build());
+        }
+        return new Fetched<>((T) last.value(), FieldStatusDto.builder()
+                .status(FieldStatus.STALE)
+                .source(service)
+                .staleMs(last.ageMillis())
+                .error(message)
+                .build());
+    }
+
+    private static <T> CompletableFuture<T> toCompletable(ListenableFuture<T> listenable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        listenable.addListener(() -> {
+            try {
+                future.complete(listenable.get());
+            } catch (ExecutionException e) {
+                future.completeExceptionally(e.getCause());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }, Runnable::run);
+        return future;
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof StatusRuntimeException status)) {
+            return false;
+        }
+        Status.Code code = status.getStatus().getCode();
+        return code == Status.Code.UNAVAILABLE || code == Status.Code.RESOURCE_EXHAUSTED || code == Status.Code.ABORTED;
+    }
+
+    private record Pending<T>(String service, CompletableFuture<T> future) {
+    }
+
+    /**
+     * A downstream value and, when it is not fresh, where it came from instead.
+     * {@code value} is null only when the status is UNAVAILABLE.
+     */
+    public record Fetched<T>(T value, FieldStatusDto status) {
+
+        static <T> Fetched<T> fresh(T value) {
+            return new Fetched<>(value, null);
+        }
+
+        public boolean isFresh() {
+            return status == null;
+        }
+    }
+
+    @Getter
+    public static class Result {
+        private Fetched<UserCountResponse> userStats;
+        private Fetched<ProjectCountResponse> projectStats;
+        private Fetched<TeamCountResponse> teamStats;
+        private Fetched<ActivityCountResponse> activityStats;
+        private long totalMillis;
+
+        @Getter(AccessLevel.NONE)
+        private final Map<String, Long> timings = new ConcurrentHashMap<>();
+
+        private void record(String service, long startNanos) {
+            timings.put(service, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+
+        /**
+         * Elapsed milliseconds per downstream service, in call order, including retries.
+         * A call cut off by the deadline reports the time until it was cancelled.
+         */
+        public Map<String, Long> getCallTimings() {
+            Map<String, Long> ordered = new LinkedHashMap<>();
+            for (String service : new String[]{USER_SERVICE, PROJECT_SERVICE, TEAM_SERVICE, LOGS_SERVICE}) {
+                Long millis = timings.get(service);
+                if (millis != null) {
+                    ordered.put(service, millis);
+                }
+            }
+            return Collections.unmodifiableMap(ordered);
+        }
+    }
+}
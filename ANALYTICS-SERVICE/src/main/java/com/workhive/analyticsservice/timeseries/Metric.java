@@ -0,0 +1,48 @@
+package com.workhive.analyticsservice.timeseries;
+
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Dashboard counters that are recorded into the time-series store, keyed by their JSON field name.
+ */
+public enum Metric {
+    TOTAL_USERS("totalUsers", DashboardAnalyticsDto::getTotalUsers),
+    ACTIVE_USERS("activeUsers", DashboardAnalyticsDto::getActiveUsers),
+    ACTIVE_USERS_TODAY("activeUsersToday", DashboardAnalyticsDto::getActiveUsersToday),
+    ACTIVE_USERS_LAST_7_DAYS("activeUsersLast7Days", DashboardAnalyticsDto::getActiveUsersLast7Days),
+    ACTIVE_USERS_LAST_30_DAYS("activeUsersLast30Days", DashboardAnalyticsDto::getActiveUsersLast30Days),
+    TOTAL_PROJECTS("totalProjects", DashboardAnalyticsDto::getTotalProjects),
+    COMPLETED_PROJECTS("completedProjects", DashboardAnalyticsDto::getCompletedProjects),
+    IN_PROGRESS_PROJECTS("inProgressProjects", DashboardAnalyticsDto::getInProgressProjects),
+    TOTAL_TEAMS("totalTeams", DashboardAnalyticsDto::getTotalTeams),
+    AVERAGE_TEAM_SIZE("averageTeamSize", DashboardAnalyticsDto::getAverageTeamSize),
+    TOTAL_ACTIVITIES("totalActivities", DashboardAnalyticsDto::getTotalActivities),
+    TODAY_ACTIVITIES("todayActivities", DashboardAnalyticsDto::getTodayActivities),
+    WEEK_ACTIVITIES("weekActivities", DashboardAnalyticsDto::getWeekActivities);
+
+    private final String key;
+    private final Function<DashboardAnalyticsDto, ? extends Number> extractor;
+
+    Metric(String key, Function<DashboardAnalyticsDto, ? extends Number> extractor) {
+        this.key = key;
+        this.extractor = extractor;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    Number extract(DashboardAnalyticsDto dashboard) {
+        return extractor.apply(dashboard);
+    }
+
+    public static Optional<Metric> fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(metric -> metric.key.equalsIgnoreCase(key) || metric.name().equalsIgnoreCase(key))
+                .findFirst();
+    }
+}
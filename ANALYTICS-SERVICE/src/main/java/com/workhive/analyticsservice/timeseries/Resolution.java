@@ -0,0 +1,20 @@
+package com.workhive.analyticsservice.timeseries;
+
+/**
+ * Bucket widths kept by the time-series store, finest first.
+ */
+public enum Resolution {
+    MINUTE(60),
+    HOUR(3_600),
+    DAY(86_400);
+
+    private final long stepSeconds;
+
+    Resolution(long stepSeconds) {
+        this.stepSeconds = stepSeconds;
+    }
+
+    public long getStepSeconds() {
+        return stepSeconds;
+    }
+}
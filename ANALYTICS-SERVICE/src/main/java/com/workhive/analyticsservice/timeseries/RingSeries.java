@@ -0,0 +1,91 @@
+package com.workhive.analyticsservice.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring of time buckets for one metric at one resolution.
+ * <p>
+ * All state lives in parallel primitive arrays allocated up front, so recording a sample
+ * allocates nothing and the memory footprint is fixed by the capacity. A slot is reused
+ * as soon as time moves a full ring past it, which is what bounds the retention.
+ */
+final class RingSeries {
+
+    @FunctionalInterface
+    interface BucketVisitor {
+        void visit(long startEpochSecond, double sum, int count, double min, double max, double last);
+    }
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long stepSeconds;
+    private final int capacity;
+
+    // Bucket number (epochSecond / stepSeconds) currently held by each slot
+    private final long[] buckets;
+    private final double[] sums;
+    private final int[] counts;
+    private final double[] mins;
+    private final double[] maxes;
+    private final double[] lasts;
+
+    RingSeries(long stepSeconds, int capacity) {
+        this.stepSeconds = stepSeconds;
+        this.capacity = capacity;
+        this.buckets = new long[capacity];
+        this.sums = new double[capacity];
+        this.counts = new int[capacity];
+        this.mins = new double[capacity];
+        this.maxes = new double[capacity];
+        this.lasts = new double[capacity];
+        Arrays.fill(buckets, EMPTY);
+    }
+
+    synchronized void add(long epochSecond, double value) {
+        long bucket = Math.floorDiv(epochSecond, stepSeconds);
+        int slot = (int) Math.floorMod(bucket, capacity);
+
+        if (buckets[slot] != bucket) {
+            if (buckets[slot] != EMPTY && buckets[slot] > bucket) {
+                // The slot already holds newer data; this sample is older than the retention
+                return;
+            }
+            buckets[slot] = bucket;
+            sums[slot] = 0;
+            counts[slot] = 0;
+            mins[slot] = Double.POSITIVE_INFINITY;
+            maxes[slot] = Double.NEGATIVE_INFINITY;
+        }
+
+        sums[slot] += value;
+        counts[slot]++;
+        mins[slot] = Math.min(mins[slot], value);
+        maxes[slot] = Math.max(maxes[slot], value);
+        lasts[slot] = value;
+    }
+
+    /**
+     * Visits the populated buckets overlapping [fromEpochSecond, toEpochSecond] in time order.
+     */
+    synchronized void forEach(long fromEpochSecond, long toEpochSecond, BucketVisitor visitor) {
+        long first = Math.floorDiv(fromEpochSecond, stepSeconds);
+        long last = Math.floorDiv(toEpochSecond, stepSeconds);
+        // Nothing older than one full ring can still be present
+        first = Math.max(first, last - capacity + 1);
+
+        for (long bucket = first; bucket <= last; bucket++) {
+            int slot = (int) Math.floorMod(bucket, capacity);
+            if (buckets[slot] == bucket) {
+                visitor.visit(bucket * stepSeconds, sums[slot], counts[slot], mins[slot], maxes[slot], lasts[slot]);
+            }
+        }
+    }
+
+    long getStepSeconds() {
+        return stepSeconds;
+    }
+
+    long retentionSeconds() {
+        return stepSeconds * capacity;
+    }
+}
@@ -0,0 +1,70 @@
+package com.workhive.analyticsservice.timeseries;
+
+import com.workhive.analyticsservice.cache.Snapshot;
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.dto.FieldStatus;
+import com.workhive.analyticsservice.dto.FieldStatusDto;
+import com.workhive.analyticsservice.service.AnalyticsSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Periodically records the current dashboard into the {@link TimeSeriesStore}.
+ * Reads go through the snapshot store, so sampling does not add a fan-out of its own
+ * while the dashboard is being served anyway. On a partial dashboard only the fields fetched fresh are
+ * recorded, so one failing downstream service leaves a gap in its own metrics and not in the others.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TimeSeriesSampler {
+
+    private final AnalyticsSnapshotService analyticsSnapshotService;
+    private final TimeSeriesStore timeSeriesStore;
+
+    private long lastRecordedAtMillis = Long.MIN_VALUE;
+
+    @Scheduled(fixedDelayString = "${analytics.timeseries.sample-ms:60000}",
+            initialDelayString = "${analytics.timeseries.sample-ms:60000}")
+    public void sample() {
+        try {
+            Snapshot<DashboardAnalyticsDto> snapshot = analyticsSnapshotService.getDashboardAnalytics();
+            DashboardAnalyticsDto dashboard = snapshot.value();
+            if (snapshot.createdAtMillis() == lastRecordedAtMillis) {
+                // Same snapshot as last time; recording it again would double-count it
+                return;
+            }
+            Set<Metric> metrics = observedMetrics(dashboard);
+            if (metrics.isEmpty()) {
+                log.debug("Skipping time-series sample, no dashboard field is fresh: {}", dashboard.getFieldStatus().keySet());
+                return;
+            }
+            timeSeriesStore.record(dashboard, snapshot.createdAtMillis(), metrics);
+            lastRecordedAtMillis = snapshot.createdAtMillis();
+        } catch (Exception e) {
+            log.warn("Time-series sample failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The metrics fetched fresh for this dashboard. Stale or missing fields are not a real observation of the
+     * current values, so only they are left out; the rest of a partial dashboard is still recorded.
+     */
+    private static Set<Metric> observedMetrics(DashboardAnalyticsDto dashboard) {
+        Set<Metric> metrics = EnumSet.allOf(Metric.class);
+        Map<String, FieldStatusDto> fieldStatus = dashboard.getFieldStatus();
+        if (fieldStatus != null) {
+            metrics.removeIf(metric -> {
+                FieldStatusDto status = fieldStatus.get(metric.getKey());
+                return status != null && status.getStatus() != FieldStatus.FRESH;
+            });
+        }
+        return metrics;
+    }
+}
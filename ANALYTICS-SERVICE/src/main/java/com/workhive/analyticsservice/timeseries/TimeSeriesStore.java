@@ -0,0 +1,207 @@
+package com.workhive.analyticsservice.timeseries;
+
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.dto.TimeSeriesDto;
+import com.workhive.analyticsservice.dto.TimeSeriesPointDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory history of the dashboard metrics.
+ * <p>
+ * Every sample is folded into a per-minute, per-hour and per-day ring at the same time, so the
+ * coarser rollups are always current and never need a separate compaction pass. Each ring has a
+ * fixed number of slots, which caps the memory used per metric regardless of uptime.
+ * <p>
+ * The rings are keyed by seconds on the service zone's wall clock rather than UTC epoch seconds, so hour and
+ * day buckets start on local hours and midnights, the same boundaries as the {@link LocalDateTime} query
+ * parameters and the rest of the dashboard. An hour repeated when clocks go back shares one bucket.
+ */
+@Component
+@Slf4j
+public class TimeSeriesStore {
+
+    @Value("${analytics.timeseries.minute-buckets:10080}")
+    private int minuteBuckets;
+
+    @Value("${analytics.timeseries.hour-buckets:2160}")
+    private int hourBuckets;
+
+    @Value("${analytics.timeseries.day-buckets:730}")
+    private int dayBuckets;
+
+    @Value("${analytics.timeseries.max-points:2000}")
+    private int maxPoints;
+
+    // Empty means the JVM default zone
+    @Value("${analytics.timeseries.zone:}")
+    private String zoneId;
+
+    private ZoneId zone;
+
+    private final Map<Metric, Map<Resolution, RingSeries>> series = new EnumMap<>(Metric.class);
+
+    @PostConstruct
+    void init() {
+        zone = zoneId == null || zoneId.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zoneId);
+        for (Metric metric : Metric.values()) {
+            Map<Resolution, RingSeries> rings = new EnumMap<>(Resolution.class);
+            rings.put(Resolution.MINUTE, new RingSeries(Resolution.MINUTE.getStepSeconds(), minuteBuckets));
+            rings.put(Resolution.HOUR, new RingSeries(Resolution.HOUR.getStepSeconds(), hourBuckets));
+            rings.put(Resolution.DAY, new RingSeries(Resolution.DAY.getStepSeconds(), dayBuckets));
+            series.put(metric, rings);
+        }
+        log.info("Time-series store ready: {} metrics, {}/{}/{} minute/hour/day buckets in {}",
+                Metric.values().length, minuteBuckets, hourBuckets, dayBuckets, zone);
+    }
+
+    public void record(DashboardAnalyticsDto dashboard, long epochMillis) {
+        record(dashboard, epochMillis, EnumSet.allOf(Metric.class));
+    }
+
+    /**
+     * Records only {@code metrics} from the dashboard, so a sample can leave out values that were not
+     * observed this time, such as fields served from a failed source's last known value.
+     */
+    public void record(DashboardAnalyticsDto dashboard, long epochMillis, Set<Metric> metrics) {
+        long localSecond = localSeconds(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone));
+        for (Metric metric : metrics) {
+            Number value = metric.extract(dashboard);
+            if (value == null) {
+                continue;
+            }
+            double sample = value.doubleValue();
+            for (RingSeries ring : series.get(metric).values()) {
+                ring.add(localSecond, sample);
+            }
+        }
+    }
+
+    /**
+     * Returns the points of {@code metric} in [from, to], one per {@code step}.
+     * The coarsest stored resolution that still fits the step (and still covers {@code from})
+     * is read and re-aggregated, so a 6h step over a month reads hourly rollups, not minutes.
+     */
+    public TimeSeriesDto query(Metric metric, LocalDateTime from, LocalDateTime to, Duration step) {
+        long stepSeconds = step.getSeconds();
+        if (stepSeconds < Resolution.MINUTE.getStepSeconds()) {
+            throw new IllegalArgumentException("step must be at least 1m");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        long fromSecond = localSeconds(from);
+        long toSecond = localSeconds(to);
+        if ((toSecond - fromSecond) / stepSeconds > maxPoints) {
+            throw new IllegalArgumentException("Requested range would return more than " + maxPoints + " points, use a larger step");
+        }
+
+        Map<Resolution, RingSeries> rings = series.get(metric);
+        Resolution resolution = pickResolution(rings, stepSeconds, fromSecond);
+        RingSeries ring = rings.get(resolution);
+
+        List<TimeSeriesPointDto> points = new ArrayList<>();
+        StepAccumulator accumulator = new StepAccumulator(stepSeconds, points);
+        ring.forEach(fromSecond, toSecond, accumulator);
+        accumulator.flush();
+
+        return TimeSeriesDto.builder()
+                .metric(metric.getKey())
+                .resolution(resolution.name())
+                .stepSeconds(stepSeconds)
+                .from(from)
+                .to(to)
+                .points(points)
+                .build();
+    }
+
+    private Resolution pickResolution(Map<Resolution, RingSeries> rings, long stepSeconds, long fromSecond) {
+        Resolution chosen = Resolution.MINUTE;
+        for (Resolution resolution : Resolution.values()) {
+            if (resolution.getStepSeconds() <= stepSeconds && stepSeconds % resolution.getStepSeconds() == 0) {
+                chosen = resolution;
+            }
+        }
+        // Finer rings may already have overwritten the start of the range; fall back to a coarser one
+        long oldestNeeded = localSeconds(LocalDateTime.now(zone)) - fromSecond;
+        Resolution[] all = Resolution.values();
+        for (int i = chosen.ordinal(); i < all.length - 1 && rings.get(all[i]).retentionSeconds() < oldestNeeded; i++) {
+            chosen = all[i + 1];
+        }
+        return chosen;
+    }
+
+    private static long localSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Folds consecutive source buckets into step-sized points. Buckets arrive in time order,
+     * so only the point being built is kept.
+     */
+    private static final class StepAccumulator implements RingSeries.BucketVisitor {
+        private final long stepSeconds;
+        private final List<TimeSeriesPointDto> points;
+
+        private long current = Long.MIN_VALUE;
+        private double sum;
+        private int count;
+        private double min;
+        private double max;
+        private double last;
+
+        private StepAccumulator(long stepSeconds, List<TimeSeriesPointDto> points) {
+            this.stepSeconds = stepSeconds;
+            this.points = points;
+        }
+
+        @Override
+        public void visit(long startEpochSecond, double bucketSum, int bucketCount,
+                          double bucketMin, double bucketMax, double bucketLast) {
+            long stepStart = Math.floorDiv(startEpochSecond, stepSeconds) * stepSeconds;
+            if (stepStart != current) {
+                flush();
+                current = stepStart;
+                sum = 0;
+                count = 0;
+                min = Double.POSITIVE_INFINITY;
+                max = Double.NEGATIVE_INFINITY;
+            }
+            sum += bucketSum;
+            count += bucketCount;
+            min = Math.min(min, bucketMin);
+            max = Math.max(max, bucketMax);
+            last = bucketLast;
+        }
+
+        private void flush() {
+            if (count == 0) {
+                return;
+            }
+            points.add(TimeSeriesPointDto.builder()
+                    .timestamp(LocalDateTime.ofEpochSecond(current, 0, ZoneOffset.UTC))
+                    .average(sum / count)
+                    .min(min)
+                    .max(max)
+                    .last(last)
+                    .samples(count)
+                    .build());
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.workhive.analyticsservice.aggregation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForkJoinAggregatorTests {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final ForkJoinAggregator aggregator = new ForkJoinAggregator();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aggregator, "parallelism", 4);
+        ReflectionTestUtils.setField(aggregator, "chunkSize", CHUNK_SIZE);
+        aggregator.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.shutdown();
+    }
+
+    @Test
+    void inputUpToTheChunkSizeIsFoldedOnTheCallingThreadInOneLeaf() {
+        List<Integer> items = range(CHUNK_SIZE);
+        AtomicInteger leaves = new AtomicInteger();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> result = aggregator.<Integer, List<Integer>>aggregate(items, () -> {
+            leaves.incrementAndGet();
+            return new ArrayList<>();
+        }, (list, item) -> {
+            threads.add(Thread.currentThread());
+            list.add(item);
+        }, ForkJoinAggregatorTests::concat);
+
+        assertThat(result).isEqualTo(items);
+        assertThat(leaves).hasValue(1);
+        assertThat(threads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void inputAboveTheChunkSizeIsSplitIntoBoundedLeavesAndCombinedInOrder() {
+        List<Integer> items = range(CHUNK_SIZE * 10 + 37);
+
+        List<List<Integer>> leaves = aggregator.<Integer, List<List<Integer>>>aggregate(items, () -> {
+            List<List<Integer>> leaf = new ArrayList<>();
+            leaf.add(new ArrayList<>());
+            return leaf;
+        }, (leaf, item) -> leaf.get(0).add(item), ForkJoinAggregatorTests::concat);
+
+        assertThat(leaves).hasSizeGreaterThan(10);
+        assertThat(leaves).allSatisfy(leaf -> assertThat(leaf).hasSizeBetween(1, CHUNK_SIZE));
+        assertThat(leaves.stream().flatMap(List::stream).toList()).isEqualTo(items);
+    }
+
+    @Test
+    void leavesRunOnSeveralPoolThreadsAtOnce() throws InterruptedException {
+        List<Integer> items = range(CHUNK_SIZE * 8);
+        // Every leaf waits until a second worker is inside a leaf too, which only happens if they run in parallel
+        CountDownLatch concurrentLeaves = new CountDownLatch(2);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        long sum = aggregator.<Integer, long[]>aggregate(items, () -> {
+            if (threads.add(Thread.currentThread())) {
+                concurrentLeaves.countDown();
+            }
+            try {
+                concurrentLeaves.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new long[1];
+        }, (total, item) -> total[0] += item, (left, right) -> {
+            left[0] += right[0];
+            return left;
+        })[0];
+
+        assertThat(concurrentLeaves.await(0, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).hasSizeGreaterThan(1).noneMatch(thread -> thread == Thread.currentThread());
+        assertThat(sum).isEqualTo((long) items.size() * (items.size() - 1) / 2);
+    }
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+
+    private static <T> List<T> concat(List<T> left, List<T> right) {
+        left.addAll(right);
+        return left;
+    }
+}
@@ -0,0 +1,68 @@
+package com.workhive.analyticsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+    private final SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            CompletableFuture<Integer> leader = singleFlight.executeAsync("key", () -> {
+                runs.incrementAndGet();
+                await(release);
+                return 42;
+            }, executor);
+            CompletableFuture<Integer> follower = singleFlight.executeAsync("key", () -> {
+                runs.incrementAndGet();
+                return 0;
+            }, executor);
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            assertThat(runs).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectedWorkFailsTheFlightAndDoesNotBlockTheKey() {
+        CompletableFuture<Integer> rejected = singleFlight.executeAsync("key", () -> 1, task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        // The next caller starts a new computation instead of joining the failed one forever
+        assertThat(singleFlight.execute("key", () -> 2)).isEqualTo(2);
+        assertThat(singleFlight.executeAsync("key", () -> 3, Runnable::run).join()).isEqualTo(3);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.workhive.analyticsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotStoreTests {
+
+    private final SnapshotStore store = new SnapshotStore(new SingleFlight(new SimpleMeterRegistry()));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void snapshotYoungerThanTheTtlIsServedWithoutLoading() {
+        window(10_000, 60_000);
+
+        Snapshot<Integer> first = store.get("key", loads::incrementAndGet);
+        Snapshot<Integer> second = store.get("key", loads::incrementAndGet);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void staleSnapshotIsServedAtOnceWhileOneBackgroundRefreshRuns() throws Exception {
+        window(50, 60_000);
+        store.get("key", loads::incrementAndGet);
+        Thread.sleep(80);
+
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            Snapshot<Integer> served = store.get("key", () -> {
+                refreshing.countDown();
+                await(release);
+                return loads.incrementAndGet();
+            });
+            // The caller never waits for the refresh
+            assertThat(served.value()).isEqualTo(1);
+        }
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        assertThat(awaitValue("key", 2)).isTrue();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void failedBackgroundRefreshKeepsServingTheStaleSnapshot() throws Exception {
+        window(50, 60_000);
+        store.get("key", loads::incrementAndGet);
+        Thread.sleep(80);
+
+        CountDownLatch failed = new CountDownLatch(1);
+        Snapshot<Integer> served = store.get("key", () -> {
+            failed.countDown();
+            throw new IllegalStateException("downstream down");
+        });
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(served.value()).isEqualTo(1);
+        Thread.sleep(50);
+        // Still the first snapshot; the failure did not evict it
+        assertThat(store.get("key", loads::incrementAndGet).value()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotPastTheStaleWindowMakesTheCallerWait() throws Exception {
+        window(20, 50);
+        store.get("key", loads::incrementAndGet);
+        Thread.sleep(80);
+
+        Snapshot<Integer> served = store.get("key", loads::incrementAndGet);
+
+        assertThat(served.value()).isEqualTo(2);
+        assertThat(served.ageMillis()).isLessThan(50);
+    }
+
+    @Test
+    void missWithAFailingLoaderThrowsToTheCaller() {
+        window(10_000, 60_000);
+
+        assertThatThrownBy(() -> store.get("key", () -> {
+            throw new IllegalStateException("downstream down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("downstream down");
+        assertThat(store.get("key", loads::incrementAndGet).value()).isEqualTo(1);
+    }
+
+    private void window(long ttlMs, long maxStaleMs) {
+        ReflectionTestUtils.setField(store, "ttlMs", ttlMs);
+        ReflectionTestUtils.setField(store, "maxStaleMs", maxStaleMs);
+    }
+
+    private boolean awaitValue(String key, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Snapshot<Integer> current = store.get(key, () -> -1);
+            if (current.value() == expected) {
+                return true;
+            }
+            Thread.sleep(5);
+        }
+        return false;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
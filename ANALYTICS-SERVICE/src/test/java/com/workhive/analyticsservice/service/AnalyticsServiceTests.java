@@ -0,0 +1,114 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.dto.FieldStatus;
+import com.workhive.analyticsservice.dto.FieldStatusDto;
+import com.workhive.analyticsservice.dto.TeamAnalyticsDto;
+import com.workhive.analyticsservice.dto.UserAnalyticsDto;
+import com.workhive.analyticsservice.grpc.team.TeamCountResponse;
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-field status of the analytics views when one downstream service fails.
+ */
+class AnalyticsServiceTests {
+
+    private FakeDownstreams downstreams;
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        downstreams = new FakeDownstreams();
+        analyticsService = new AnalyticsService(downstreams.fanOut(StatisticsFanOut.Mode.PARALLEL, 2000));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        downstreams.close();
+    }
+
+    @Test
+    void healthyDashboardIsNotPartial() {
+        DashboardAnalyticsDto dashboard = analyticsService.getDashboardAnalytics();
+
+        assertThat(dashboard.getPartial()).isFalse();
+        assertThat(dashboard.getFieldStatus()).isEmpty();
+        assertThat(dashboard.getProjectCompletionRate()).isEqualTo(40.0);
+        assertThat(dashboard.getAverageProjectsPerTeam()).isEqualTo(2.0);
+    }
+
+    @Test
+    void failedProjectServiceKeepsTheHealthyFieldsAndServesProjectsStale() {
+        analyticsService.getDashboardAnalytics();
+        downstreams.projects.fail(Status.UNAVAILABLE);
+        downstreams.users.answerWith(downstreams.users.value().toBuilder().setTotalUsers(41).build());
+
+        DashboardAnalyticsDto dashboard = analyticsService.getDashboardAnalytics();
+
+        assertThat(dashboard.getPartial()).isTrue();
+        // Healthy sources are fresh and not listed
+        assertThat(dashboard.getTotalUsers()).isEqualTo(41);
+        assertThat(dashboard.getTotalTeams()).isEqualTo(5);
+        assertThat(dashboard.getTotalActivities()).isEqualTo(900);
+        assertThat(dashboard.getActiveUsers()).isEqualTo(25);
+        assertThat(dashboard.getFieldStatus()).doesNotContainKeys("totalUsers", "totalTeams", "totalActivities", "activeUsers");
+        // The failed source keeps its previous values, marked STALE
+        assertThat(dashboard.getTotalProjects()).isEqualTo(10);
+        assertThat(dashboard.getCompletedProjects()).isEqualTo(4);
+        assertThat(dashboard.getProjectCompletionRate()).isEqualTo(40.0);
+        assertThat(dashboard.getFieldStatus()).containsOnlyKeys("totalProjects", "completedProjects", "inProgressProjects",
+                "projectCompletionRate", "averageProjectsPerTeam");
+        assertThat(dashboard.getFieldStatus().values()).extracting(FieldStatusDto::getStatus).containsOnly(FieldStatus.STALE);
+        assertThat(dashboard.getFieldStatus().get("totalProjects").getSource()).isEqualTo(StatisticsFanOut.PROJECT_SERVICE);
+    }
+
+    @Test
+    void fieldDerivedFromTwoSourcesKeepsTheWorseStatus() {
+        downstreams.projects.fail(Status.UNAVAILABLE);
+        analyticsService.getDashboardAnalytics();
+        downstreams.teams.fail(Status.UNAVAILABLE);
+
+        // Teams have an earlier value and are STALE, projects never had one and are UNAVAILABLE
+        DashboardAnalyticsDto dashboard = analyticsService.getDashboardAnalytics();
+
+        assertThat(dashboard.getTotalTeams()).isEqualTo(5);
+        assertThat(dashboard.getFieldStatus().get("totalTeams").getStatus()).isEqualTo(FieldStatus.STALE);
+        assertThat(dashboard.getTotalProjects()).isNull();
+        assertThat(dashboard.getAverageProjectsPerTeam()).isNull();
+        assertThat(dashboard.getFieldStatus().get("averageProjectsPerTeam").getStatus()).isEqualTo(FieldStatus.UNAVAILABLE);
+        assertThat(dashboard.getTotalUsers()).isEqualTo(40);
+    }
+
+    @Test
+    void userViewWithoutActivityLeavesDerivedCountsEmpty() {
+        downstreams.activities.fail(Status.UNAVAILABLE);
+
+        UserAnalyticsDto users = analyticsService.getUserAnalytics();
+
+        assertThat(users.getTotalUsers()).isEqualTo(40);
+        assertThat(users.getActiveUsers()).isNull();
+        assertThat(users.getInactiveUsers()).isNull();
+        assertThat(users.getFieldStatus()).doesNotContainKey("totalUsers");
+        assertThat(users.getFieldStatus().get("inactiveUsers").getStatus()).isEqualTo(FieldStatus.UNAVAILABLE);
+        assertThat(users.getFieldStatus().get("activeUsers").getSource()).isEqualTo(StatisticsFanOut.LOGS_SERVICE);
+    }
+
+    @Test
+    void teamViewFallsBackToTheLastTeamCount() {
+        TeamCountResponse previous = downstreams.teams.value();
+        analyticsService.getTeamAnalytics();
+        downstreams.teams.fail(Status.UNAVAILABLE);
+
+        TeamAnalyticsDto teams = analyticsService.getTeamAnalytics();
+
+        assertThat(teams.getPartial()).isTrue();
+        assertThat(teams.getTotalTeams()).isEqualTo(previous.getTotalTeams());
+        assertThat(teams.getTeamsPerManager()).isEqualTo(2.5);
+        assertThat(teams.getFieldStatus().get("totalTeams").getStatus()).isEqualTo(FieldStatus.STALE);
+    }
+}
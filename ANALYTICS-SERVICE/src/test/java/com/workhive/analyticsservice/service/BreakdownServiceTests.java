@@ -0,0 +1,135 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.aggregation.ForkJoinAggregator;
+import com.workhive.analyticsservice.dto.BreakdownDto;
+import com.workhive.analyticsservice.dto.ManagerBreakdownDto;
+import com.workhive.analyticsservice.dto.TeamBreakdownDto;
+import com.workhive.analyticsservice.grpc.logs.UserActivityCount;
+import com.workhive.analyticsservice.grpc.project.ProjectSummary;
+import com.workhive.analyticsservice.grpc.team.TeamSummary;
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Team, creator and manager joins over stubbed bulk exports. The aggregator runs with a chunk size of one,
+ * so every fold goes through the fork-join split and combine.
+ */
+class BreakdownServiceTests {
+
+    private final BulkDataClient bulkDataClient = mock(BulkDataClient.class);
+    private final ForkJoinAggregator aggregator = new ForkJoinAggregator();
+    private final BreakdownService breakdownService = new BreakdownService(bulkDataClient, aggregator);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aggregator, "parallelism", 4);
+        ReflectionTestUtils.setField(aggregator, "chunkSize", 1);
+        ReflectionTestUtils.invokeMethod(aggregator, "init");
+        ReflectionTestUtils.setField(breakdownService, "activityWindowDays", 30);
+
+        when(bulkDataClient.teams()).thenReturn(CompletableFuture.completedFuture(List.of(
+                team(1, 10, 11, 12),
+                team(2, 10, 12, 13),
+                team(3, 20, 21))));
+        when(bulkDataClient.projects()).thenReturn(CompletableFuture.completedFuture(List.of(
+                project(1, 10).setTodoTasks(1).setDoneTasks(3).build(),
+                project(1, 10).setDoneTasks(1).build(),
+                project(3, 20).setTodoTasks(2).build(),
+                // No team, and a team the team service does not know: both count for the creator
+                project(0, 30).setDoneTasks(2).build(),
+                project(99, 10).setBlockedTasks(1).build())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(aggregator, "shutdown");
+    }
+
+    @Test
+    void joinsProjectsAndActivityOntoTeamsAndManagers() {
+        when(bulkDataClient.userActivityCounts(anyLong())).thenReturn(CompletableFuture.completedFuture(List.of(
+                activity(10, 5), activity(11, 1), activity(12, 2), activity(13, 4), activity(21, 7), activity(30, 3))));
+
+        BreakdownDto breakdown = breakdownService.getBreakdown();
+
+        LocalDate since = LocalDate.now().minusDays(29);
+        assertThat(breakdown.getActivitySince()).isEqualTo(since.atStartOfDay());
+        verify(bulkDataClient).userActivityCounts(since.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        assertThat(breakdown.getTeams()).extracting(TeamBreakdownDto::getTeamId).containsExactly(1L, 2L, 3L);
+        TeamBreakdownDto first = breakdown.getTeams().get(0);
+        assertThat(first.getMemberCount()).isEqualTo(2);
+        assertThat(first.getProjectCount()).isEqualTo(2);
+        assertThat(first.getTotalTasks()).isEqualTo(5);
+        assertThat(first.getTasksByStatus()).containsEntry("TODO", 1L).containsEntry("DONE", 4L);
+        assertThat(first.getTaskCompletionRate()).isEqualTo(80.0);
+        assertThat(breakdown.getTeams()).extracting(TeamBreakdownDto::getProjectCount).containsExactly(2L, 0L, 1L);
+        // Manager plus developers
+        assertThat(breakdown.getTeams()).extracting(TeamBreakdownDto::getActivityCount).containsExactly(8L, 11L, 7L);
+
+        assertThat(breakdown.getManagers()).extracting(ManagerBreakdownDto::getManagerId).containsExactly(10L, 20L, 30L);
+        ManagerBreakdownDto manager = breakdown.getManagers().get(0);
+        assertThat(manager.getTeamCount()).isEqualTo(2);
+        // Developer 12 is in both teams and counted once
+        assertThat(manager.getMemberCount()).isEqualTo(3);
+        assertThat(manager.getProjectCount()).isEqualTo(3);
+        assertThat(manager.getTasksByStatus()).isEqualTo(Map.of(
+                "TODO", 1L, "IN_PROGRESS", 0L, "IN_REVIEW", 0L, "DONE", 4L, "BLOCKED", 1L));
+        assertThat(manager.getTaskCompletionRate()).isCloseTo(400.0 / 6, within(1e-9));
+        assertThat(manager.getActivityCount()).isEqualTo(12);
+
+        ManagerBreakdownDto creatorOnly = breakdown.getManagers().get(2);
+        assertThat(creatorOnly.getTeamCount()).isZero();
+        assertThat(creatorOnly.getMemberCount()).isZero();
+        assertThat(creatorOnly.getProjectCount()).isEqualTo(1);
+        assertThat(creatorOnly.getTaskCompletionRate()).isEqualTo(100.0);
+        assertThat(creatorOnly.getActivityCount()).isEqualTo(3);
+    }
+
+    @Test
+    void failedActivityCallLeavesActivityCountEmptyAndKeepsTheRest() {
+        when(bulkDataClient.userActivityCounts(anyLong())).thenReturn(
+                CompletableFuture.failedFuture(Status.UNAVAILABLE.asRuntimeException()));
+
+        BreakdownDto breakdown = breakdownService.getBreakdown();
+
+        assertThat(breakdown.getTeams()).extracting(TeamBreakdownDto::getActivityCount).containsOnlyNulls();
+        assertThat(breakdown.getManagers()).extracting(ManagerBreakdownDto::getActivityCount).containsOnlyNulls();
+        assertThat(breakdown.getTeams()).extracting(TeamBreakdownDto::getProjectCount).containsExactly(2L, 0L, 1L);
+        assertThat(breakdown.getManagers()).extracting(ManagerBreakdownDto::getProjectCount).containsExactly(3L, 1L, 1L);
+    }
+
+    private static TeamSummary team(long id, long managerId, long... developerIds) {
+        return TeamSummary.newBuilder()
+                .setId(id)
+                .setName("Team " + id)
+                .setManagerId(managerId)
+                .addAllDeveloperIds(LongStream.of(developerIds).boxed().toList())
+                .build();
+    }
+
+    private static ProjectSummary.Builder project(long teamId, long createdBy) {
+        return ProjectSummary.newBuilder().setTeamId(teamId).setCreatedBy(createdBy);
+    }
+
+    private static UserActivityCount activity(long userId, long activities) {
+        return UserActivityCount.newBuilder().setUserId(userId).setActivities(activities).build();
+    }
+}
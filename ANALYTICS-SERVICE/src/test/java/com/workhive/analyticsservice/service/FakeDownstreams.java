@@ -0,0 +1,167 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.grpc.logs.ActivityCountRequest;
+import com.workhive.analyticsservice.grpc.logs.ActivityCountResponse;
+import com.workhive.analyticsservice.grpc.logs.LogsStatisticsServiceGrpc;
+import com.workhive.analyticsservice.grpc.project.ProjectCountRequest;
+import com.workhive.analyticsservice.grpc.project.ProjectCountResponse;
+import com.workhive.analyticsservice.grpc.project.ProjectStatisticsServiceGrpc;
+import com.workhive.analyticsservice.grpc.team.TeamCountRequest;
+import com.workhive.analyticsservice.grpc.team.TeamCountResponse;
+import com.workhive.analyticsservice.grpc.team.TeamStatisticsServiceGrpc;
+import com.workhive.analyticsservice.grpc.user.UserCountRequest;
+import com.workhive.analyticsservice.grpc.user.UserCountResponse;
+import com.workhive.analyticsservice.grpc.user.UserStatisticsServiceGrpc;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The four statistics services on an in-process gRPC server, each answering with a configurable value,
+ * failure or delay, plus a {@link StatisticsFanOut} wired to them with real retries and circuit breakers
+ * and no live statistics streams.
+ */
+final class FakeDownstreams implements AutoCloseable {
+
+    final Downstream<UserCountResponse> users = new Downstream<>(UserCountResponse.newBuilder().setTotalUsers(40).build());
+    final Downstream<ProjectCountResponse> projects = new Downstream<>(ProjectCountResponse.newBuilder()
+            .setTotalProjects(10).setCompletedProjects(4).setInProgressProjects(5).build());
+    final Downstream<TeamCountResponse> teams = new Downstream<>(TeamCountResponse.newBuilder()
+            .setTotalTeams(5).setAverageTeamSize(3).setTotalManagers(2).build());
+    final Downstream<ActivityCountResponse> activities = new Downstream<>(ActivityCountResponse.newBuilder()
+            .setTotalActivities(900).setTodayActivities(30).setWeekActivities(200)
+            .setActiveUsersToday(6).setActiveUsersLast7Days(12).setActiveUsersLast30Days(25).build());
+
+    private final Server server;
+    private final ManagedChannel channel;
+
+    FakeDownstreams() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new UserStatisticsServiceGrpc.UserStatisticsServiceImplBase() {
+                    @Override
+                    public void getUserCount(UserCountRequest request, StreamObserver<UserCountResponse> observer) {
+                        users.answer(observer);
+                    }
+                })
+                .addService(new ProjectStatisticsServiceGrpc.ProjectStatisticsServiceImplBase() {
+                    @Override
+                    public void getProjectCount(ProjectCountRequest request, StreamObserver<ProjectCountResponse> observer) {
+                        projects.answer(observer);
+                    }
+                })
+                .addService(new TeamStatisticsServiceGrpc.TeamStatisticsServiceImplBase() {
+                    @Override
+                    public void getTeamCount(TeamCountRequest request, StreamObserver<TeamCountResponse> observer) {
+                        teams.answer(observer);
+                    }
+                })
+                .addService(new LogsStatisticsServiceGrpc.LogsStatisticsServiceImplBase() {
+                    @Override
+                    public void getActivityCount(ActivityCountRequest request, StreamObserver<ActivityCountResponse> observer) {
+                        activities.answer(observer);
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    StatisticsFanOut fanOut(StatisticsFanOut.Mode mode, long deadlineMs) {
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(10))
+                .build());
+        StatisticsFanOut fanOut = new StatisticsFanOut(mock(LiveStatistics.class), CircuitBreakerRegistry.ofDefaults(), retryRegistry);
+        ReflectionTestUtils.setField(fanOut, "userServiceStub", UserStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "projectServiceStub", ProjectStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "teamServiceStub", TeamStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "logsServiceStub", LogsStatisticsServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(fanOut, "userServiceFutureStub", UserStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "projectServiceFutureStub", ProjectStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "teamServiceFutureStub", TeamStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "logsServiceFutureStub", LogsStatisticsServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(fanOut, "mode", mode);
+        ReflectionTestUtils.setField(fanOut, "deadlineMs", deadlineMs);
+        fanOut.init();
+        return fanOut;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    static final class Downstream<T> {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile T value;
+        private volatile Status failure;
+        // Calls still to fail; negative fails every call
+        private volatile int failuresLeft;
+        private volatile long delayMs;
+
+        private Downstream(T value) {
+            this.value = value;
+        }
+
+        void answerWith(T value) {
+            this.value = value;
+        }
+
+        void fail(Status status) {
+            failNext(status, -1);
+        }
+
+        void failNext(Status status, int times) {
+            failure = status;
+            failuresLeft = times;
+        }
+
+        void delay(long millis) {
+            delayMs = millis;
+        }
+
+        int calls() {
+            return calls.get();
+        }
+
+        T value() {
+            return value;
+        }
+
+        private void answer(StreamObserver<T> observer) {
+            calls.incrementAndGet();
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failuresLeft != 0) {
+                if (failuresLeft > 0) {
+                    failuresLeft--;
+                }
+                observer.onError(failure.asRuntimeException());
+                return;
+            }
+            observer.onNext(value);
+            observer.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.workhive.analyticsservice.service;
+
+import com.workhive.analyticsservice.dto.FieldStatus;
+import com.workhive.analyticsservice.grpc.project.ProjectCountResponse;
+import com.workhive.analyticsservice.grpc.user.UserCountResponse;
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-call retries, last-known-good fallback and the shared deadline of the dashboard fan-out,
+ * against in-process downstream services.
+ */
+class StatisticsFanOutTests {
+
+    private FakeDownstreams downstreams;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        downstreams = new FakeDownstreams();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        downstreams.close();
+    }
+
+    @Test
+    void retryReissuesOnlyTheCallThatFailed() {
+        StatisticsFanOut fanOut = downstreams.fanOut(StatisticsFanOut.Mode.PARALLEL, 2000);
+        downstreams.projects.failNext(Status.UNAVAILABLE, 1);
+
+        StatisticsFanOut.Result result = fanOut.fetchAll();
+
+        assertThat(result.getProjectStats().isFresh()).isTrue();
+        assertThat(result.getProjectStats().value()).isEqualTo(downstreams.projects.value());
+        assertThat(downstreams.projects.calls()).isEqualTo(2);
+        assertThat(downstreams.users.calls()).isEqualTo(1);
+        assertThat(downstreams.teams.calls()).isEqualTo(1);
+        assertThat(downstreams.activities.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void failedCallIsServedStaleFromItsLastValueWhileTheOthersStayFresh() {
+        StatisticsFanOut fanOut = downstreams.fanOut(StatisticsFanOut.Mode.PARALLEL, 2000);
+        ProjectCountResponse previous = downstreams.projects.value();
+        fanOut.fetchAll();
+
+        downstreams.projects.fail(Status.UNAVAILABLE);
+        downstreams.projects.answerWith(ProjectCountResponse.newBuilder().setTotalProjects(99).build());
+        UserCountResponse users = UserCountResponse.newBuilder().setTotalUsers(41).build();
+        downstreams.users.answerWith(users);
+        StatisticsFanOut.Result result = fanOut.fetchAll();
+
+        assertThat(result.getProjectStats().value()).isEqualTo(previous);
+        assertThat(result.getProjectStats().status().getStatus()).isEqualTo(FieldStatus.STALE);
+        assertThat(result.getProjectStats().status().getSource()).isEqualTo(StatisticsFanOut.PROJECT_SERVICE);
+        assertThat(result.getProjectStats().status().getError()).isEqualTo("UNAVAILABLE");
+        assertThat(result.getProjectStats().status().getStaleMs()).isNotNegative();
+        // First fetch plus three attempts of the second
+        assertThat(downstreams.projects.calls()).isEqualTo(4);
+
+        assertThat(result.getUserStats().isFresh()).isTrue();
+        assertThat(result.getUserStats().value()).isEqualTo(users);
+        assertThat(result.getTeamStats().isFresh()).isTrue();
+        assertThat(result.getActivityStats().isFresh()).isTrue();
+    }
+
+    @Test
+    void failureWithoutAnEarlierValueIsUnavailableAndNotRetriedWhenPermanent() {
+        StatisticsFanOut fanOut = downstreams.fanOut(StatisticsFanOut.Mode.PARALLEL, 2000);
+        downstreams.teams.fail(Status.INTERNAL);
+
+        StatisticsFanOut.Result result = fanOut.fetchAll();
+
+        assertThat(result.getTeamStats().value()).isNull();
+        assertThat(result.getTeamStats().status().getStatus()).isEqualTo(FieldStatus.UNAVAILABLE);
+        assertThat(result.getTeamStats().status().getError()).isEqualTo("INTERNAL");
+        assertThat(downstreams.teams.calls()).isEqualTo(1);
+        assertThat(result.getUserStats().isFresh()).isTrue();
+        assertThat(result.getProjectStats().isFresh()).isTrue();
+    }
+
+    @Test
+    void slowServiceIsCutOffAtTheSharedDeadline() {
+        StatisticsFanOut fanOut = downstreams.fanOut(StatisticsFanOut.Mode.PARALLEL, 300);
+        downstreams.activities.delay(3000);
+        // Retries of a failing call spend the same budget instead of starting a new one
+        downstreams.projects.delay(120);
+        downstreams.projects.fail(Status.UNAVAILABLE);
+
+        long start = System.nanoTime();
+        StatisticsFanOut.Result result = fanOut.fetchAll();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMs).isLessThan(1500);
+        assertThat(result.getActivityStats().status().getStatus()).isEqualTo(FieldStatus.UNAVAILABLE);
+        assertThat(result.getProjectStats().status().getStatus()).isEqualTo(FieldStatus.UNAVAILABLE);
+        assertThat(result.getUserStats().isFresh()).isTrue();
+        assertThat(result.getTeamStats().isFresh()).isTrue();
+        assertThat(result.getCallTimings()).containsKeys(StatisticsFanOut.USER_SERVICE, StatisticsFanOut.TEAM_SERVICE);
+    }
+
+    @Test
+    void sequentialModeFallsBackPerCallToo() {
+        StatisticsFanOut fanOut = downstreams.fanOut(StatisticsFanOut.Mode.SEQUENTIAL, 2000);
+        fanOut.fetchAll();
+        downstreams.users.fail(Status.UNAVAILABLE);
+
+        StatisticsFanOut.Result result = fanOut.fetchAll();
+
+        assertThat(result.getUserStats().status().getStatus()).isEqualTo(FieldStatus.STALE);
+        assertThat(result.getUserStats().value()).isEqualTo(downstreams.users.value());
+        assertThat(result.getProjectStats().isFresh()).isTrue();
+        assertThat(downstreams.projects.calls()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,90 @@
+package com.workhive.analyticsservice.timeseries;
+
+import com.workhive.analyticsservice.cache.Snapshot;
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.dto.FieldStatus;
+import com.workhive.analyticsservice.dto.FieldStatusDto;
+import com.workhive.analyticsservice.service.AnalyticsSnapshotService;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TimeSeriesSamplerTests {
+
+    private final AnalyticsSnapshotService analyticsSnapshotService = mock(AnalyticsSnapshotService.class);
+    private final TimeSeriesStore timeSeriesStore = mock(TimeSeriesStore.class);
+    private final TimeSeriesSampler sampler = new TimeSeriesSampler(analyticsSnapshotService, timeSeriesStore);
+
+    @Test
+    void freshDashboardRecordsEveryMetric() {
+        DashboardAnalyticsDto dashboard = DashboardAnalyticsDto.builder().totalUsers(5).partial(false).fieldStatus(Map.of()).build();
+        when(analyticsSnapshotService.getDashboardAnalytics()).thenReturn(new Snapshot<>(dashboard, 1_000));
+
+        sampler.sample();
+
+        verify(timeSeriesStore).record(dashboard, 1_000, EnumSet.allOf(Metric.class));
+    }
+
+    @Test
+    void partialDashboardRecordsOnlyTheFreshMetrics() {
+        DashboardAnalyticsDto dashboard = DashboardAnalyticsDto.builder()
+                .totalUsers(5)
+                .totalTeams(2)
+                .partial(true)
+                .fieldStatus(Map.of(
+                        "totalProjects", status(FieldStatus.STALE),
+                        "completedProjects", status(FieldStatus.STALE),
+                        "inProgressProjects", status(FieldStatus.STALE),
+                        "totalActivities", status(FieldStatus.UNAVAILABLE)))
+                .build();
+        when(analyticsSnapshotService.getDashboardAnalytics()).thenReturn(new Snapshot<>(dashboard, 1_000));
+
+        sampler.sample();
+
+        Set<Metric> expected = EnumSet.allOf(Metric.class);
+        expected.removeAll(EnumSet.of(Metric.TOTAL_PROJECTS, Metric.COMPLETED_PROJECTS, Metric.IN_PROGRESS_PROJECTS,
+                Metric.TOTAL_ACTIVITIES));
+        verify(timeSeriesStore).record(dashboard, 1_000, expected);
+    }
+
+    @Test
+    void dashboardWithNoFreshMetricIsNotRecorded() {
+        Map<String, FieldStatusDto> fieldStatus = new HashMap<>();
+        for (Metric metric : Metric.values()) {
+            fieldStatus.put(metric.getKey(), status(FieldStatus.STALE));
+        }
+        DashboardAnalyticsDto dashboard = DashboardAnalyticsDto.builder().partial(true).fieldStatus(fieldStatus).build();
+        when(analyticsSnapshotService.getDashboardAnalytics()).thenReturn(new Snapshot<>(dashboard, 1_000));
+
+        sampler.sample();
+
+        verify(timeSeriesStore, never()).record(any(), anyLong(), any());
+    }
+
+    @Test
+    void sameSnapshotIsRecordedOnce() {
+        DashboardAnalyticsDto dashboard = DashboardAnalyticsDto.builder().totalUsers(5).build();
+        when(analyticsSnapshotService.getDashboardAnalytics()).thenReturn(new Snapshot<>(dashboard, 1_000));
+
+        sampler.sample();
+        sampler.sample();
+
+        verify(timeSeriesStore, times(1)).record(eq(dashboard), eq(1_000L), any());
+    }
+
+    private static FieldStatusDto status(FieldStatus status) {
+        return FieldStatusDto.builder().status(status).source("PROJECT-SERVICE").build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.workhive.analyticsservice.timeseries;
+
+import com.workhive.analyticsservice.dto.DashboardAnalyticsDto;
+import com.workhive.analyticsservice.dto.TimeSeriesDto;
+import com.workhive.analyticsservice.dto.TimeSeriesPointDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeSeriesStoreTests {
+
+    // Nine hours ahead of UTC all year, so local midnight is never a UTC day boundary
+    private static final ZoneId ZONE = ZoneId.of("Asia/Tokyo");
+
+    private final TimeSeriesStore store = new TimeSeriesStore();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "minuteBuckets", 60);
+        ReflectionTestUtils.setField(store, "hourBuckets", 48);
+        ReflectionTestUtils.setField(store, "dayBuckets", 30);
+        ReflectionTestUtils.setField(store, "maxPoints", 2000);
+        ReflectionTestUtils.setField(store, "zoneId", ZONE.getId());
+        store.init();
+    }
+
+    @Test
+    void dayBucketsStartAtMidnightInTheServiceZone() {
+        LocalDate day = LocalDate.now(ZONE).minusDays(3);
+        // 14:30 and 15:30 UTC on the same UTC day, but either side of midnight in Tokyo
+        record(day.atTime(23, 30), 10);
+        record(day.plusDays(1).atTime(0, 30), 20);
+
+        TimeSeriesDto series = store.query(Metric.TOTAL_USERS, day.atStartOfDay(), day.plusDays(2).atStartOfDay(),
+                Duration.ofDays(1));
+
+        assertThat(series.getResolution()).isEqualTo("DAY");
+        assertThat(series.getPoints()).extracting(TimeSeriesPointDto::getTimestamp)
+                .containsExactly(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        assertThat(series.getPoints()).extracting(TimeSeriesPointDto::getLast).containsExactly(10.0, 20.0);
+    }
+
+    @Test
+    void hourBucketsAreReportedInLocalTime() {
+        LocalDateTime hour = LocalDateTime.now(ZONE).withMinute(0).withSecond(0).withNano(0).minusHours(2);
+        record(hour.plusMinutes(5), 1);
+        record(hour.plusMinutes(50), 3);
+
+        TimeSeriesDto series = store.query(Metric.TOTAL_USERS, hour, hour.plusHours(1), Duration.ofHours(1));
+
+        assertThat(series.getResolution()).isEqualTo("HOUR");
+        assertThat(series.getPoints()).singleElement().satisfies(point -> {
+            assertThat(point.getTimestamp()).isEqualTo(hour);
+            assertThat(point.getAverage()).isEqualTo(2.0);
+            assertThat(point.getSamples()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void recordsActiveUsersOverThirtyDays() {
+        LocalDateTime minute = LocalDateTime.now(ZONE).withSecond(0).withNano(0).minusMinutes(10);
+        store.record(DashboardAnalyticsDto.builder().activeUsersLast30Days(42).build(), epochMillis(minute));
+
+        TimeSeriesDto series = store.query(Metric.fromKey("activeUsersLast30Days").orElseThrow(),
+                minute, minute.plusMinutes(1), Duration.ofMinutes(1));
+
+        assertThat(series.getMetric()).isEqualTo("activeUsersLast30Days");
+        assertThat(series.getPoints()).extracting(TimeSeriesPointDto::getLast).containsExactly(42.0);
+    }
+
+    private void record(LocalDateTime time, int totalUsers) {
+        store.record(DashboardAnalyticsDto.builder().totalUsers(totalUsers).build(), epochMillis(time));
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,231 @@
+package com.workhive.logsservice.archive;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.repository.ActivityHistogramQuery;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import com.workhive.logsservice.repository.HistogramCount;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for activity logs that retention has moved out of the table: one or more immutable
+ * {@link ColumnarDayFile}s per day in {@code logs.archive.dir}. Every retention run adds a new part for each day it
+ * archives, so no file is ever rewritten.
+ * <p>
+ * Date-range queries read it alongside the store; only days inside the requested range are opened.
+ */
+@Component
+@Slf4j
+public class ColdArchive {
+
+    private static final Pattern PART = Pattern.compile("activity-logs-(\\d{4}-\\d{2}-\\d{2})-(\\d{4})\\.col");
+
+    // Newest first, so a newest-first page walks the map in its natural order
+    private static final Comparator<ActivityLog> NEWEST_FIRST = Comparator.comparing(ActivityLog::getTimestamp)
+            .thenComparing(ActivityLog::getId)
+            .reversed();
+
+    @Value("${logs.archive.dir:./data/activity-archive}")
+    private String directory;
+
+    @Value("${logs.archive.block-rows:4096}")
+    private int blockRows;
+
+    private final NavigableMap<LocalDate, List<ColumnarDayFile>> parts = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+    @PostConstruct
+    void open() throws IOException {
+        Path root = Path.of(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        long rows = 0;
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path path : files.sorted().toList()) {
+                String name = path.getFileName().toString();
+                Matcher matcher = PART.matcher(name);
+                if (matcher.matches()) {
+                    ColumnarDayFile file = ColumnarDayFile.open(path, LocalDate.parse(matcher.group(1)));
+                    parts.computeIfAbsent(file.day(), day -> new CopyOnWriteArrayList<>()).add(file);
+                    rows += file.rowCount();
+                } else if (name.endsWith(".col.tmp")) {
+                    // Left over from an archive run that died before committing; its rows are still in the table
+                    Files.delete(path);
+                }
+            }
+        }
+        log.info("Opened cold activity archive in {}: {} days, {} logs", root, parts.size(), rows);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        for (List<ColumnarDayFile> files : parts.values()) {
+            for (ColumnarDayFile file : files) {
+                file.close();
+            }
+        }
+    }
+
+    /**
+     * Starts a new part for {@code day}. Rows must be appended in (timestamp, id) order; the part becomes
+     * visible to readers when {@link DayWriter#commit()} returns, and is discarded if the writer is closed first.
+     */
+    public DayWriter newPart(LocalDate day) throws IOException {
+        Path root = Files.createDirectories(Path.of(directory));
+        int part = parts.getOrDefault(day, List.of()).size() + 1;
+        Path path = root.resolve(String.format("activity-logs-%s-%04d.col", day, part));
+        return new DayWriter(new ColumnarDayFile.Writer(path, day, blockRows));
+    }
+
+    /**
+     * Ids already archived for {@code day}; a retention run that died between archiving and deleting
+     * uses it to skip rows it has archived before.
+     */
+    public Set<Long> archivedIds(LocalDate day) throws IOException {
+        Set<Long> ids = new HashSet<>();
+        for (ColumnarDayFile file : parts.getOrDefault(day, List.of())) {
+            file.forEachId(ids::add);
+        }
+        return ids;
+    }
+
+    /**
+     * Up to {@code limit} archived logs matching {@code filter} strictly before the (timestamp, id) position,
+     * newest first. Days outside the filter's range are not touched.
+     */
+    public List<ActivityLog> findPage(ActivityLogFilter filter, LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+        List<ActivityLog> page = new ArrayList<>();
+        if (parts.isEmpty()) {
+            return page;
+        }
+        LocalDate newest = filter.to() != null && filter.to().isBefore(beforeTimestamp) ? filter.to().toLocalDate()
+                : beforeTimestamp.toLocalDate();
+        LocalDate oldest = filter.from() != null ? filter.from().toLocalDate() : LocalDate.MIN;
+        if (oldest.isAfter(newest)) {
+            return page;
+        }
+        try {
+            for (Map.Entry<LocalDate, List<ColumnarDayFile>> day : parts.subMap(newest, true, oldest, true).entrySet()) {
+                // Parts of one day overlap in time, so each is scanned up to the limit and the day is merged
+                List<ActivityLog> rows = new ArrayList<>();
+                for (ColumnarDayFile file : day.getValue()) {
+                    int[] taken = new int[1];
+                    file.scan(filter, beforeTimestamp, beforeId, true, row -> {
+                        rows.add(row);
+                        return ++taken[0] < limit - page.size();
+                    });
+                }
+                rows.sort(NEWEST_FIRST);
+                page.addAll(rows.subList(0, Math.min(rows.size(), limit - page.size())));
+                if (page.size() == limit) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the cold activity archive failed", e);
+        }
+        return page;
+    }
+
+    /**
+     * Counts of the archived logs in the query's window, one per group. Days outside the window are not touched.
+     */
+    public List<HistogramCount> histogram(ActivityHistogramQuery query) {
+        if (parts.isEmpty()) {
+            return List.of();
+        }
+        Map<HistogramCount, Long> counts = new HashMap<>();
+        // Scanning strictly before (to, Long.MIN_VALUE) excludes the upper bound itself
+        ActivityLogFilter filter = ActivityLogFilter.between(query.from(), query.to());
+        try {
+            for (List<ColumnarDayFile> files : parts.subMap(query.to().toLocalDate(), true,
+                    query.from().toLocalDate(), true).values()) {
+                for (ColumnarDayFile file : files) {
+                    file.scan(filter, query.to(), Long.MIN_VALUE, false, row -> {
+                        counts.merge(query.keyOf(row.getTimestamp(), row.getAction(), row.getEntityType(), row.getUserId()),
+                                1L, Long::sum);
+                        return true;
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the cold activity archive failed", e);
+        }
+        List<HistogramCount> histogram = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> histogram.add(key.withCount(count)));
+        return histogram;
+    }
+
+    /**
+     * The first {@code limit} rows of two newest-first pages merged into one.
+     */
+    public static List<ActivityLog> mergeNewestFirst(List<ActivityLog> first, List<ActivityLog> second, int limit) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        List<ActivityLog> merged = new ArrayList<>(first.size() + second.size());
+        merged.addAll(first);
+        merged.addAll(second);
+        merged.sort(NEWEST_FIRST);
+        return merged.subList(0, Math.min(limit, merged.size()));
+    }
+
+    /**
+     * A part being written; see {@link #newPart(LocalDate)}.
+     */
+    public final class DayWriter implements AutoCloseable {
+        private final ColumnarDayFile.Writer writer;
+
+        private DayWriter(ColumnarDayFile.Writer writer) {
+            this.writer = writer;
+        }
+
+        public void append(ActivityLog activityLog) throws IOException {
+            writer.append(activityLog);
+        }
+
+        public long rowCount() {
+            return writer.rowCount();
+        }
+
+        /**
+         * Fsyncs the part and makes it visible; a part without rows is discarded instead.
+         */
+        public void commit() throws IOException {
+            if (writer.rowCount() == 0) {
+                return;
+            }
+            ColumnarDayFile file = writer.commit();
+            parts.computeIfAbsent(file.day(), day -> new CopyOnWriteArrayList<>()).add(file);
+            log.debug("Archived {} activity logs to {}", file.rowCount(), file.path().getFileName());
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,631 @@
+package com.workhive.logsservice.archive;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable columnar file of archived activity logs, all from the same day, ordered by (timestamp, id).
+ * <pre>
+ * blocks       blockCount x deflate([int x 10 column end offsets][column bytes...])
+ * dictionaries 5 x [varint count][count x (varint length, UTF-8)]   username, action, entityType, ipAddress, userAgent
+ * block index  blockCount x [long offset][int compressedBytes][int rawBytes][int rows][long firstNanoOfDay][long lastNanoOfDay]
+ * footer       [long dictionariesOffset][long indexOffset][long rowCount][int blockCount][int magic]
+ * </pre>
+ * Within a block ids are zigzag varint deltas, timestamps varint deltas of the nano of day, user and entity ids
+ * zigzag varints (0 = null, otherwise value + 1 before zigzag), dictionary strings varint codes (0 = null,
+ * code + 1 otherwise) and details varint length + 1 (0 = null) followed by UTF-8.
+ * <p>
+ * Scans push filters down: a file whose dictionary lacks a filtered action, entity type or username is skipped
+ * unopened, blocks outside the time bounds are never inflated, and rows are compared on decoded codes before
+ * the remaining columns of their block are decoded.
+ */
+final class ColumnarDayFile implements Closeable {
+
+    private static final int MAGIC = 0x57434F4C;
+    private static final int FOOTER_BYTES = 32;
+    private static final int INDEX_ENTRY_BYTES = 36;
+
+    private static final int ID = 0;
+    private static final int TIMESTAMP = 1;
+    private static final int USER_ID = 2;
+    private static final int ENTITY_ID = 3;
+    private static final int USERNAME = 4;
+    private static final int ACTION = 5;
+    private static final int ENTITY_TYPE = 6;
+    private static final int IP_ADDRESS = 7;
+    private static final int USER_AGENT = 8;
+    private static final int DETAILS = 9;
+    private static final int COLUMNS = 10;
+    private static final int FIRST_DICTIONARY = USERNAME;
+    private static final int DICTIONARIES = 5;
+
+    private final Path path;
+    private final LocalDate day;
+    private final FileChannel channel;
+    private final long rowCount;
+    private final String[][] dictionaries = new String[DICTIONARIES][];
+    private final Map<String, Integer>[] codes;
+    private final long[] blockOffsets;
+    private final int[] compressedBytes;
+    private final int[] rawBytes;
+    private final int[] blockRows;
+    private final long[] firstNanos;
+    private final long[] lastNanos;
+
+    @SuppressWarnings("unchecked")
+    private ColumnarDayFile(Path path, LocalDate day) throws IOException {
+        this.path = path;
+        this.day = day;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer footer = read(size - FOOTER_BYTES, FOOTER_BYTES);
+            if (size < FOOTER_BYTES || footer.getInt(28) != MAGIC) {
+                throw new IOException("Not a columnar activity archive: " + path);
+            }
+            long dictionariesOffset = footer.getLong(0);
+            long indexOffset = footer.getLong(8);
+            rowCount = footer.getLong(16);
+            int blockCount = footer.getInt(24);
+
+            ByteBuffer dictionaryBytes = read(dictionariesOffset, (int) (indexOffset - dictionariesOffset));
+            codes = new Map[DICTIONARIES];
+            for (int d = 0; d < DICTIONARIES; d++) {
+                String[] values = new String[(int) readVarLong(dictionaryBytes)];
+                codes[d] = new HashMap<>(values.length * 2);
+                for (int code = 0; code < values.length; code++) {
+                    values[code] = readString(dictionaryBytes, (int) readVarLong(dictionaryBytes));
+                    codes[d].put(values[code], code);
+                }
+                dictionaries[d] = values;
+            }
+
+            ByteBuffer index = read(indexOffset, blockCount * INDEX_ENTRY_BYTES);
+            blockOffsets = new long[blockCount];
+            compressedBytes = new int[blockCount];
+            rawBytes = new int[blockCount];
+            blockRows = new int[blockCount];
+            firstNanos = new long[blockCount];
+            lastNanos = new long[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                blockOffsets[b] = index.getLong();
+                compressedBytes[b] = index.getInt();
+                rawBytes[b] = index.getInt();
+                blockRows[b] = index.getInt();
+                firstNanos[b] = index.getLong();
+                lastNanos[b] = index.getLong();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException io ? io : new IOException("Corrupt columnar activity archive: " + path, e);
+        }
+    }
+
+    static ColumnarDayFile open(Path path, LocalDate day) throws IOException {
+        return new ColumnarDayFile(path, day);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    LocalDate day() {
+        return day;
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Hands every archived id to {@code visitor}; only the id column of each block is decoded.
+     */
+    void forEachId(LongConsumer visitor) throws IOException {
+        for (int b = 0; b < blockOffsets.length; b++) {
+            Block block = inflate(b);
+            for (long id : block.ids()) {
+                visitor.accept(id);
+            }
+        }
+    }
+
+    /**
+     * Visits the rows matching {@code filter} that sort before the (beforeTimestamp, beforeId) position, in
+     * (timestamp, id) order or its reverse, until {@code visitor} returns false. Returns false if it was stopped.
+     */
+    boolean scan(ActivityLogFilter filter, LocalDateTime beforeTimestamp, long beforeId, boolean newestFirst,
+                 Predicate<ActivityLog> visitor) throws IOException {
+        int usernameCode = code(USERNAME, filter.username());
+        int actionCode = code(ACTION, filter.action());
+        int entityTypeCode = code(ENTITY_TYPE, filter.entityType());
+        if (usernameCode == -1 || actionCode == -1 || entityTypeCode == -1) {
+            return true;
+        }
+        long fromNanos = filter.from() == null || filter.from().toLocalDate().isBefore(day) ? Long.MIN_VALUE
+                : filter.from().toLocalDate().isAfter(day) ? Long.MAX_VALUE : filter.from().toLocalTime().toNanoOfDay();
+        long beforeNanos = nanosUpTo(beforeTimestamp);
+        long toNanos = Math.min(nanosUpTo(filter.to()), beforeNanos);
+        if (fromNanos > toNanos) {
+            return true;
+        }
+
+        int blockCount = blockOffsets.length;
+        for (int i = 0; i < blockCount; i++) {
+            int b = newestFirst ? blockCount - 1 - i : i;
+            if (lastNanos[b] < fromNanos || firstNanos[b] > toNanos) {
+                continue;
+            }
+            Block block = inflate(b);
+            long[] timestamps = block.timestamps();
+            long[] ids = block.ids();
+            long[] userIds = filter.userId() != null ? block.longs(USER_ID) : null;
+            long[] entityIds = filter.entityId() != null ? block.longs(ENTITY_ID) : null;
+            int[] usernames = usernameCode >= 0 ? block.codes(USERNAME) : null;
+            int[] actions = actionCode >= 0 ? block.codes(ACTION) : null;
+            int[] entityTypes = entityTypeCode >= 0 ? block.codes(ENTITY_TYPE) : null;
+            Rows rows = null;
+            for (int j = 0; j < block.rows(); j++) {
+                int r = newestFirst ? block.rows() - 1 - j : j;
+                long nanos = timestamps[r];
+                if (nanos < fromNanos || nanos > toNanos
+                        || (userIds != null && userIds[r] != filter.userId())
+                        || (entityIds != null && entityIds[r] != filter.entityId())
+                        || (usernames != null && usernames[r] != usernameCode)
+                        || (actions != null && actions[r] != actionCode)
+                        || (entityTypes != null && entityTypes[r] != entityTypeCode)) {
+                    continue;
+                }
+                if (nanos == beforeNanos && ids[r] >= beforeId) {
+                    continue;
+                }
+                if (rows == null) {
+                    rows = new Rows(block);
+                }
+                if (!visitor.test(rows.row(r))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * The dictionary code of {@code value} in column {@code column}: -2 when not filtered, -1 when absent here.
+     */
+    private int code(int column, String value) {
+        if (value == null) {
+            return -2;
+        }
+        Integer code = codes[column - FIRST_DICTIONARY].get(value);
+        return code == null ? -1 : code + 1;
+    }
+
+    /**
+     * Inclusive upper bound on the nano of day of this file's rows for a timestamp bound.
+     */
+    private long nanosUpTo(LocalDateTime bound) {
+        if (bound == null || bound.toLocalDate().isAfter(day)) {
+            return Long.MAX_VALUE;
+        }
+        return bound.toLocalDate().isBefore(day) ? Long.MIN_VALUE : bound.toLocalTime().toNanoOfDay();
+    }
+
+    private Block inflate(int b) throws IOException {
+        byte[] compressed = new byte[compressedBytes[b]];
+        ByteBuffer target = ByteBuffer.wrap(compressed);
+        long position = blockOffsets[b];
+        while (target.hasRemaining()) {
+            if (channel.read(target, position + target.position()) < 0) {
+                throw new IOException("Truncated columnar activity archive: " + path);
+            }
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawBytes[b]];
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+                if (inflater.needsInput()) {
+                    break;
+                }
+            }
+            if (length != raw.length) {
+                throw new IOException("Corrupt block " + b + " in " + path);
+            }
+            return new Block(ByteBuffer.wrap(raw), blockRows[b]);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block " + b + " in " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated columnar activity archive: " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * One inflated block; columns are decoded on first use.
+     */
+    private record Block(ByteBuffer raw, int rows) {
+
+        private ByteBuffer column(int column) {
+            int start = column == 0 ? COLUMNS * 4 : raw.getInt((column - 1) * 4);
+            int end = raw.getInt(column * 4);
+            return raw.slice(start, end - start);
+        }
+
+        private long[] ids() {
+            ByteBuffer in = column(ID);
+            long[] values = new long[rows];
+            long previous = 0;
+            for (int r = 0; r < rows; r++) {
+                previous += unzigzag(readVarLong(in));
+                values[r] = previous;
+            }
+            return values;
+        }
+
+        private long[] timestamps() {
+            ByteBuffer in = column(TIMESTAMP);
+            long[] values = new long[rows];
+            long previous = 0;
+            for (int r = 0; r < rows; r++) {
+                previous += readVarLong(in);
+                values[r] = previous;
+            }
+            return values;
+        }
+
+        /**
+         * A nullable long column; nulls decode as {@link Long#MIN_VALUE}.
+         */
+        private long[] longs(int column) {
+            ByteBuffer in = column(column);
+            long[] values = new long[rows];
+            for (int r = 0; r < rows; r++) {
+                long value = readVarLong(in);
+                values[r] = value == 0 ? Long.MIN_VALUE : unzigzag(value - 1);
+            }
+            return values;
+        }
+
+        private int[] codes(int column) {
+            ByteBuffer in = column(column);
+            int[] values = new int[rows];
+            for (int r = 0; r < rows; r++) {
+                values[r] = (int) readVarLong(in);
+            }
+            return values;
+        }
+
+        private String[] details() {
+            ByteBuffer in = column(DETAILS);
+            String[] values = new String[rows];
+            for (int r = 0; r < rows; r++) {
+                int length = (int) readVarLong(in);
+                values[r] = length == 0 ? null : readString(in, length - 1);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * All columns of a block, decoded once a row in it matched.
+     */
+    private final class Rows {
+        private final long[] ids;
+        private final long[] timestamps;
+        private final long[] userIds;
+        private final long[] entityIds;
+        private final int[][] codes = new int[DICTIONARIES][];
+        private final String[] details;
+
+        private Rows(Block block) {
+            ids = block.ids();
+            timestamps = block.timestamps();
+            userIds = block.longs(USER_ID);
+            entityIds = block.longs(ENTITY_ID);
+            for (int d = 0; d < DICTIONARIES; d++) {
+                codes[d] = block.codes(FIRST_DICTIONARY + d);
+            }
+            details = block.details();
+        }
+
+        private ActivityLog row(int r) {
+            return ActivityLog.builder()
+                    .id(ids[r])
+                    .timestamp(LocalDateTime.of(day, LocalTime.ofNanoOfDay(timestamps[r])))
+                    .userId(userIds[r] == Long.MIN_VALUE ? null : userIds[r])
+                    .entityId(entityIds[r] == Long.MIN_VALUE ? null : entityIds[r])
+                    .username(string(USERNAME, r))
+                    .action(string(ACTION, r))
+                    .entityType(string(ENTITY_TYPE, r))
+                    .ipAddress(string(IP_ADDRESS, r))
+                    .userAgent(string(USER_AGENT, r))
+                    .details(details[r])
+                    .build();
+        }
+
+        private String string(int column, int r) {
+            int code = codes[column - FIRST_DICTIONARY][r];
+            return code == 0 ? null : dictionaries[column - FIRST_DICTIONARY][code - 1];
+        }
+    }
+
+    /**
+     * Streams one day's logs into a new file. Rows must be appended in (timestamp, id) order; the file only
+     * appears under its final name, fsync'd, once {@link #commit()} returns.
+     */
+    static final class Writer implements Closeable {
+        private final Path path;
+        private final Path temporary;
+        private final LocalDate day;
+        private final int rowsPerBlock;
+        private final FileChannel channel;
+        private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+        private final List<ActivityLog> pending = new ArrayList<>();
+        private final List<long[]> index = new ArrayList<>();
+        private final Deflater deflater = new Deflater();
+        private long offset;
+        private long rowCount;
+        private long lastNanos = Long.MIN_VALUE;
+        private long lastId = Long.MIN_VALUE;
+        private boolean committed;
+
+        Writer(Path path, LocalDate day, int rowsPerBlock) throws IOException {
+            this.path = path;
+            this.temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            this.day = day;
+            this.rowsPerBlock = rowsPerBlock;
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            for (int d = 0; d < DICTIONARIES; d++) {
+                dictionaries.add(new HashMap<>());
+            }
+        }
+
+        void append(ActivityLog activityLog) throws IOException {
+            if (!activityLog.getTimestamp().toLocalDate().equals(day)) {
+                throw new IllegalArgumentException("Activity log " + activityLog.getId() + " is not from " + day);
+            }
+            long nanos = activityLog.getTimestamp().toLocalTime().toNanoOfDay();
+            if (nanos < lastNanos || (nanos == lastNanos && activityLog.getId() <= lastId)) {
+                throw new IllegalArgumentException("Activity logs must be archived in (timestamp, id) order");
+            }
+            lastNanos = nanos;
+            lastId = activityLog.getId();
+            pending.add(activityLog);
+            rowCount++;
+            if (pending.size() == rowsPerBlock) {
+                writeBlock();
+            }
+        }
+
+        long rowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Finishes the file and moves it to its final name; returns it opened for reading.
+         */
+        ColumnarDayFile commit() throws IOException {
+            if (!pending.isEmpty()) {
+                writeBlock();
+            }
+            long dictionariesOffset = offset;
+            ColumnBuffer dictionaryBytes = new ColumnBuffer();
+            for (Map<String, Integer> dictionary : dictionaries) {
+                String[] values = new String[dictionary.size()];
+                dictionary.forEach((value, code) -> values[code] = value);
+                dictionaryBytes.writeVarLong(values.length);
+                for (String value : values) {
+                    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                    dictionaryBytes.writeVarLong(utf8.length);
+                    dictionaryBytes.write(utf8);
+                }
+            }
+            write(ByteBuffer.wrap(dictionaryBytes.bytes(), 0, dictionaryBytes.length()));
+
+            long indexOffset = offset;
+            ByteBuffer entries = ByteBuffer.allocate(index.size() * INDEX_ENTRY_BYTES);
+            for (long[] entry : index) {
+                entries.putLong(entry[0]).putInt((int) entry[1]).putInt((int) entry[2]).putInt((int) entry[3])
+                        .putLong(entry[4]).putLong(entry[5]);
+            }
+            write(entries.flip());
+            write(ByteBuffer.allocate(FOOTER_BYTES)
+                    .putLong(dictionariesOffset)
+                    .putLong(indexOffset)
+                    .putLong(rowCount)
+                    .putInt(index.size())
+                    .putInt(MAGIC)
+                    .flip());
+            channel.force(true);
+            channel.close();
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return open(path, day);
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            ColumnBuffer[] columns = new ColumnBuffer[COLUMNS];
+            for (int c = 0; c < COLUMNS; c++) {
+                columns[c] = new ColumnBuffer();
+            }
+            long previousId = 0;
+            long previousNanos = 0;
+            for (ActivityLog row : pending) {
+                columns[ID].writeVarLong(zigzag(row.getId() - previousId));
+                previousId = row.getId();
+                long nanos = row.getTimestamp().toLocalTime().toNanoOfDay();
+                columns[TIMESTAMP].writeVarLong(nanos - previousNanos);
+                previousNanos = nanos;
+                columns[USER_ID].writeVarLong(row.getUserId() == null ? 0 : zigzag(row.getUserId()) + 1);
+                columns[ENTITY_ID].writeVarLong(row.getEntityId() == null ? 0 : zigzag(row.getEntityId()) + 1);
+                columns[USERNAME].writeVarLong(encode(USERNAME, row.getUsername()));
+                columns[ACTION].writeVarLong(encode(ACTION, row.getAction()));
+                columns[ENTITY_TYPE].writeVarLong(encode(ENTITY_TYPE, row.getEntityType()));
+                columns[IP_ADDRESS].writeVarLong(encode(IP_ADDRESS, row.getIpAddress()));
+                columns[USER_AGENT].writeVarLong(encode(USER_AGENT, row.getUserAgent()));
+                if (row.getDetails() == null) {
+                    columns[DETAILS].writeVarLong(0);
+                } else {
+                    byte[] utf8 = row.getDetails().getBytes(StandardCharsets.UTF_8);
+                    columns[DETAILS].writeVarLong(utf8.length + 1L);
+                    columns[DETAILS].write(utf8);
+                }
+            }
+
+            int rawLength = COLUMNS * 4 + Arrays.stream(columns).mapToInt(ColumnBuffer::length).sum();
+            ByteBuffer raw = ByteBuffer.allocate(rawLength);
+            int end = COLUMNS * 4;
+            for (ColumnBuffer column : columns) {
+                end += column.length();
+                raw.putInt(end);
+            }
+            for (ColumnBuffer column : columns) {
+                raw.put(column.bytes(), 0, column.length());
+            }
+
+            deflater.reset();
+            deflater.setInput(raw.array());
+            deflater.finish();
+            byte[] compressed = new byte[Math.max(64, rawLength + rawLength / 100 + 64)];
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+            ActivityLog first = pending.get(0);
+            ActivityLog last = pending.get(pending.size() - 1);
+            index.add(new long[]{offset, compressedLength, rawLength, pending.size(),
+                    first.getTimestamp().toLocalTime().toNanoOfDay(), last.getTimestamp().toLocalTime().toNanoOfDay()});
+            write(ByteBuffer.wrap(compressed, 0, compressedLength));
+            pending.clear();
+        }
+
+        private long encode(int column, String value) {
+            if (value == null) {
+                return 0;
+            }
+            Map<String, Integer> dictionary = dictionaries.get(column - FIRST_DICTIONARY);
+            return dictionary.computeIfAbsent(value, v -> dictionary.size()) + 1L;
+        }
+
+        private void write(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                offset += channel.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Growable byte array for building one column.
+     */
+    private static final class ColumnBuffer {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void write(byte[] values) {
+            ensure(values.length);
+            System.arraycopy(values, 0, bytes, length, values.length);
+            length += values.length;
+        }
+
+        private void ensure(int extra) {
+            if (bytes.length - length < extra) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        private byte[] bytes() {
+            return bytes;
+        }
+
+        private int length() {
+            return length;
+        }
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
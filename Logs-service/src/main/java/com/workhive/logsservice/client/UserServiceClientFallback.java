@@ -4,16 +4,30 @@ import com.workhive.logsservice.dto.UserDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
 public class UserServiceClientFallback implements UserServiceClient {
 
+    public static final String UNKNOWN_USERNAME = "Unknown User";
+
     @Override
     public UserDto getUserById(Long id) {
         log.warn("Fallback: Unable to fetch user with id: {}", id);
         UserDto fallbackUser = new UserDto();
         fallbackUser.setId(id);
-        fallbackUser.setUsername("Unknown User");
+        fallbackUser.setUsername(UNKNOWN_USERNAME);
         return fallbackUser;
     }
+
+    /**
+     * Fails instead of answering with placeholders, so the caller's retry and circuit breaker see the
+     * outage and nothing made up ends up cached as a user's name.
+     */
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        log.warn("Fallback: Unable to fetch users with ids: {}", ids);
+        throw new IllegalStateException("USER-SERVICE batch lookup is unavailable");
+    }
 }
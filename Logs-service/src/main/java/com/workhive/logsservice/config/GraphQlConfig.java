@@ -0,0 +1,119 @@
+package com.workhive.logsservice.config;
+
+import com.workhive.logsservice.resolver.GraphQlDocumentCache;
+import com.workhive.logsservice.service.ActivityLogService;
+import graphql.GraphQLContext;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.CoercedVariables;
+import graphql.language.IntValue;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * GraphQL execution limits and the parsed-document cache. Limits are checked per request before any data
+ * fetcher runs, so oversized queries never reach the database; cached documents skip parsing and validation.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    private static final String QUERY_TYPE = "Query";
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentCacheCustomizer(GraphQlDocumentCache documentCache) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentCache));
+    }
+
+    /**
+     * 64-bit integers for counts, which can outgrow GraphQL's 32-bit {@code Int}.
+     */
+    @Bean
+    public RuntimeWiringConfigurer longScalarConfigurer() {
+        GraphQLScalarType longScalar = GraphQLScalarType.newScalar()
+                .name("Long")
+                .description("64-bit signed integer")
+                .coercing(new LongCoercing())
+                .build();
+        return wiring -> wiring.scalar(longScalar);
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${logs.graphql.max-depth:15}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * A field costs 1 plus its selection; a connection's selection counts once per requested row
+     * ({@code first}, or the default page size) and a top-level list's once per row of the fixed recent-activity limit.
+     * Introspection fields are not multiplied, so GraphiQL's schema query stays cheap.
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${logs.graphql.max-complexity:5000}") int maxComplexity,
+            @Value("${logs.pagination.default-page-size:20}") int defaultPageSize) {
+        FieldComplexityCalculator calculator = (environment, childComplexity) -> {
+            if (environment.getField().getName().startsWith("__")) {
+                return 1 + childComplexity;
+            }
+            int rows = 1;
+            if (environment.getFieldDefinition().getArgument("first") != null) {
+                rows = environment.getArguments().get("first") instanceof Integer first ? first : defaultPageSize;
+            } else if (QUERY_TYPE.equals(environment.getParentType().getName())
+                    && isList(environment.getFieldDefinition().getType())) {
+                rows = ActivityLogService.RECENT_LIMIT;
+            }
+            return 1 + rows * childComplexity;
+        };
+        return new MaxQueryComplexityInstrumentation(maxComplexity, calculator);
+    }
+
+    private static boolean isList(GraphQLType type) {
+        GraphQLType unwrapped = type instanceof GraphQLNonNull nonNull ? nonNull.getWrappedType() : type;
+        return unwrapped instanceof GraphQLList;
+    }
+
+    private static final class LongCoercing implements Coercing<Long, Long> {
+
+        @Override
+        public Long serialize(Object value, GraphQLContext context, Locale locale) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return ((Number) value).longValue();
+            }
+            throw new CoercingSerializeException("Expected an integer but was " + value);
+        }
+
+        @Override
+        public Long parseValue(Object input, GraphQLContext context, Locale locale) {
+            if (input instanceof Long || input instanceof Integer || input instanceof Short || input instanceof Byte) {
+                return ((Number) input).longValue();
+            }
+            if (input instanceof BigInteger big && big.bitLength() < 64) {
+                return big.longValue();
+            }
+            throw new CoercingParseValueException("Expected a 64-bit integer but was " + input);
+        }
+
+        @Override
+        public Long parseLiteral(graphql.language.Value<?> input, CoercedVariables variables, GraphQLContext context, Locale locale) {
+            if (input instanceof IntValue intValue && intValue.getValue().bitLength() < 64) {
+                return intValue.getValue().longValue();
+            }
+            throw new CoercingParseLiteralException("Expected a 64-bit integer literal");
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.workhive.logsservice.controller;
 
+import com.workhive.logsservice.dto.ActivityLogConnection;
 import com.workhive.logsservice.dto.ActivityLogDto;
 import com.workhive.logsservice.dto.CreateActivityLogInput;
+import com.workhive.logsservice.ingest.IngestionRejectedException;
+import com.workhive.logsservice.ingest.IngestionUnavailableException;
+import com.workhive.logsservice.ingest.WriteBehindIngestor;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import com.workhive.logsservice.service.ActivityLogExporter;
 import com.workhive.logsservice.service.ActivityLogService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/activity-logs")
@@ -17,22 +32,86 @@ import java.util.List;
 public class ActivityLogController {
 
     private final ActivityLogService activityLogService;
+    private final WriteBehindIngestor writeBehindIngestor;
+    private final ActivityLogExporter activityLogExporter;
 
     @PostMapping
     public ResponseEntity<ActivityLogDto> createActivityLog(@Valid @RequestBody CreateActivityLogInput input) {
-        ActivityLogDto created = activityLogService.createActivityLog(input);
+        if (writeBehindIngestor.isAsync()) {
+            // Written by the ingestion drainers; the id is not known yet
+            writeBehindIngestor.submit(input);
+            return ResponseEntity.accepted().build();
+        }
+        ActivityLogDto created = activityLogService.withUserFullName(activityLogService.createActivityLog(input));
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ActivityLogDto>> getUserActivityLogs(@PathVariable Long userId) {
-        List<ActivityLogDto> logs = activityLogService.getByUserId(userId);
+    public ResponseEntity<ActivityLogConnection> getUserActivityLogs(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Integer first,
+            @RequestParam(required = false) String after) {
+        ActivityLogConnection logs = activityLogService.withUserFullNames(activityLogService.getByUserId(userId, first, after));
         return ResponseEntity.ok(logs);
     }
 
     @GetMapping("/recent/{userId}")
     public ResponseEntity<List<ActivityLogDto>> getRecentUserActivities(@PathVariable Long userId) {
-        List<ActivityLogDto> logs = activityLogService.getRecentUserActivities(userId);
+        List<ActivityLogDto> logs = activityLogService.withUserFullNames(activityLogService.getRecentUserActivities(userId));
         return ResponseEntity.ok(logs);
     }
+
+    /**
+     * Streams every log matching the optional filters, oldest first, as NDJSON or CSV.
+     * {@code gzip=true} compresses the body on the fly and sends {@code Content-Encoding: gzip}.
+     */
+    @GetMapping("/export")
+    public void exportActivityLogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ActivityLogExporter.Format exportFormat = ActivityLogExporter.Format.parse(format);
+        ActivityLogFilter filter = new ActivityLogFilter(userId, username, action, entityType, entityId, from, to);
+
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("activity-logs." + exportFormat.extension())
+                .build()
+                .toString());
+        if (!gzip) {
+            activityLogExporter.export(filter, exportFormat, response.getOutputStream());
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        GZIPOutputStream compressed = new GZIPOutputStream(response.getOutputStream(), 8192);
+        activityLogExporter.export(filter, exportFormat, compressed);
+        compressed.finish();
+    }
+
+    @ExceptionHandler(IngestionRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleIngestionRejected(IngestionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IngestionUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleIngestionUnavailable(IngestionUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
 }
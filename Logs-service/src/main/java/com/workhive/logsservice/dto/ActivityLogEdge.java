@@ -0,0 +1,15 @@
+package com.workhive.logsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogEdge {
+    private String cursor;
+    private ActivityLogDto node;
+}
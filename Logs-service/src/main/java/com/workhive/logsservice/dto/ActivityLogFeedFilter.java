@@ -0,0 +1,27 @@
+package com.workhive.logsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogFeedFilter {
+    private Long userId;
+    private String username;
+    private String action;
+    private String entityType;
+    private Long entityId;
+
+    // Unset fields match everything
+    public boolean matches(ActivityLogDto activityLog) {
+        return (userId == null || userId.equals(activityLog.getUserId()))
+                && (username == null || username.equals(activityLog.getUsername()))
+                && (action == null || action.equals(activityLog.getAction()))
+                && (entityType == null || entityType.equals(activityLog.getEntityType()))
+                && (entityId == null || entityId.equals(activityLog.getEntityId()));
+    }
+}
@@ -9,7 +9,19 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+        // Every access path filters on its leading columns and walks newest first on (timestamp, id)
+        @Index(name = "idx_activity_logs_timestamp", columnList = "timestamp DESC, id DESC"),
+        @Index(name = "idx_activity_logs_user", columnList = "user_id, timestamp DESC, id DESC"),
+        @Index(name = "idx_activity_logs_username", columnList = "username, timestamp DESC, id DESC"),
+        @Index(name = "idx_activity_logs_action", columnList = "action, timestamp DESC, id DESC"),
+        @Index(name = "idx_activity_logs_entity_type", columnList = "entity_type, timestamp DESC, id DESC"),
+        @Index(name = "idx_activity_logs_entity", columnList = "entity_type, entity_id, timestamp DESC, id DESC"),
+        // Covers every histogram column, so a GROUP BY over a time range never reads the table
+        @Index(name = "idx_activity_logs_histogram", columnList = "timestamp, action, entity_type, user_id"),
+        // Oldest-first (timestamp, id) keyset scans for the active-user sketches, covering user_id as well
+        @Index(name = "idx_activity_logs_user_activity", columnList = "timestamp, id, user_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
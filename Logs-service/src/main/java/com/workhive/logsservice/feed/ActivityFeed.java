@@ -0,0 +1,66 @@
+package com.workhive.logsservice.feed;
+
+import com.workhive.logsservice.dto.ActivityLogDto;
+import com.workhive.logsservice.dto.ActivityLogFeedFilter;
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.service.ActivityLogService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Live feed of newly persisted activity logs for GraphQL subscriptions.
+ * <p>
+ * One multicast sink fans every committed log out to all subscribers. Each subscriber filters before
+ * buffering, so only logs it wants take buffer space, and gets a bounded buffer that drops its oldest
+ * undelivered logs when the client falls behind; a slow client never holds up writers or other
+ * subscribers. With no subscribers a new log costs one counter read.
+ */
+@Component
+@Slf4j
+public class ActivityFeed {
+
+    private final Sinks.Many<ActivityLogDto> sink = Sinks.many().multicast().directBestEffort();
+    private final Counter dropped;
+
+    @Value("${logs.feed.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${logs.feed.delivery-prefetch:32}")
+    private int deliveryPrefetch;
+
+    public ActivityFeed(MeterRegistry meterRegistry) {
+        this.dropped = meterRegistry.counter("logs.feed.dropped");
+    }
+
+    // After commit, so subscribers never see a log that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogsCreated(ActivityLogsCreatedEvent event) {
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        // The sink needs serialized emissions; HTTP threads and ingestion drainers publish concurrently
+        synchronized (sink) {
+            for (ActivityLog activityLog : event.activityLogs()) {
+                sink.tryEmitNext(ActivityLogService.toDto(activityLog));
+            }
+        }
+    }
+
+    public Flux<ActivityLogDto> subscribe(ActivityLogFeedFilter filter) {
+        return sink.asFlux()
+                .filter(activityLog -> filter == null || filter.matches(activityLog))
+                .onBackpressureBuffer(subscriberBuffer, activityLog -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                // Delivery to the client happens here, never on the thread that committed the log
+                .publishOn(Schedulers.boundedElastic(), deliveryPrefetch)
+                .doOnSubscribe(subscription -> log.debug("Activity feed subscriber added, filter={}", filter))
+                .doFinally(signal -> log.debug("Activity feed subscriber removed ({})", signal));
+    }
+}
@@ -0,0 +1,15 @@
+package com.workhive.logsservice.feed;
+
+import com.workhive.logsservice.entity.ActivityLog;
+
+import java.util.List;
+
+/**
+ * Published after activity logs are persisted, with their ids assigned; feeds the live {@link ActivityFeed} and the search index.
+ */
+public record ActivityLogsCreatedEvent(List<ActivityLog> activityLogs) {
+
+    public static ActivityLogsCreatedEvent of(ActivityLog activityLog) {
+        return new ActivityLogsCreatedEvent(List.of(activityLog));
+    }
+}
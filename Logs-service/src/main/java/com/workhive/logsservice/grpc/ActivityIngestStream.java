@@ -0,0 +1,268 @@
+package com.workhive.logsservice.grpc;
+
+import com.workhive.logsservice.ingest.ActivityBatchWriter;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server side of one {@code IngestActivities} call.
+ * <p>
+ * Inbound flow control is manual: the stream asks for at most {@code batch-size} events beyond the ones it
+ * holds. A full batch (or a partial one after {@code linger-ms}) is handed to the writer pool while the next
+ * one fills; once a second batch is full nothing more is requested until the first is written, so HTTP/2
+ * flow control stops a producer that outruns the database and a call never holds more than two batches.
+ * <p>
+ * All state is guarded by the stream's monitor: gRPC callbacks, write completions and the linger timer
+ * arrive on different threads.
+ */
+@Slf4j
+final class ActivityIngestStream implements StreamObserver<ActivityEvent> {
+
+    private final ServerCallStreamObserver<IngestSummary> call;
+    private final ActivityBatchWriter activityBatchWriter;
+    private final Executor writers;
+    private final ScheduledExecutorService lingerTimer;
+    private final int batchSize;
+    private final long lingerMs;
+    private final boolean acceptsTimestamps;
+
+    private List<com.workhive.logsservice.ingest.ActivityEvent> filling = new ArrayList<>();
+    // A full batch queued behind the one being written
+    private List<com.workhive.logsservice.ingest.ActivityEvent> waiting;
+    private ScheduledFuture<?> linger;
+    private int outstanding;
+    private boolean writing;
+    private boolean halfClosed;
+    private boolean finished;
+
+    private long received;
+    private long written;
+    private long rejected;
+    private int batches;
+
+    ActivityIngestStream(ServerCallStreamObserver<IngestSummary> call, ActivityBatchWriter activityBatchWriter,
+                         Executor writers, ScheduledExecutorService lingerTimer, int batchSize, long lingerMs) {
+        this.call = call;
+        this.activityBatchWriter = activityBatchWriter;
+        this.writers = writers;
+        this.lingerTimer = lingerTimer;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.acceptsTimestamps = activityBatchWriter.acceptsBackdatedEvents();
+        call.disableAutoRequest();
+    }
+
+    synchronized void start() {
+        requestMore();
+    }
+
+    @Override
+    public synchronized void onNext(ActivityEvent event) {
+        outstanding--;
+        if (finished) {
+            return;
+        }
+        received++;
+        com.workhive.logsservice.ingest.ActivityEvent accepted = toActivityEvent(event);
+        if (accepted == null) {
+            rejected++;
+        } else {
+            filling.add(accepted);
+            if (filling.size() == 1 && lingerMs > 0) {
+                scheduleLinger(filling);
+            }
+            if (filling.size() >= batchSize) {
+                seal();
+            }
+        }
+        requestMore();
+    }
+
+    @Override
+    public synchronized void onError(Throwable t) {
+        // The client cancelled or the transport broke; batches already handed to the writers still complete
+        finished = true;
+        cancelLinger();
+        log.warn("IngestActivities stream aborted after {} events ({} written): {}", received, written, Status.fromThrowable(t));
+    }
+
+    @Override
+    public synchronized void onCompleted() {
+        halfClosed = true;
+        if (!filling.isEmpty()) {
+            seal();
+        }
+        completeIfDone();
+    }
+
+    /**
+     * Tops the requested-but-undelivered count up to what the current batch still has room for,
+     * unless a full batch is already waiting for the writer.
+     */
+    private void requestMore() {
+        if (finished || halfClosed || waiting != null) {
+            return;
+        }
+        int wanted = batchSize - filling.size() - outstanding;
+        if (wanted > 0) {
+            outstanding += wanted;
+            call.request(wanted);
+        }
+    }
+
+    /**
+     * Hands the filling batch to the writer, or queues it behind the batch being written. While a batch is
+     * already queued the filling one stays put (no more events are requested, so it cannot outgrow a batch)
+     * and is sealed when the writer takes the queued one.
+     */
+    private void seal() {
+        if (waiting != null) {
+            return;
+        }
+        cancelLinger();
+        List<com.workhive.logsservice.ingest.ActivityEvent> batch = filling;
+        filling = new ArrayList<>(batchSize);
+        if (writing) {
+            waiting = batch;
+        } else {
+            write(batch);
+        }
+    }
+
+    private void write(List<com.workhive.logsservice.ingest.ActivityEvent> batch) {
+        writing = true;
+        try {
+            writers.execute(() -> {
+                try {
+                    activityBatchWriter.write(batch);
+                } catch (RuntimeException e) {
+                    failed(batch.size(), e);
+                    return;
+                }
+                written(batch.size());
+            });
+        } catch (RejectedExecutionException e) {
+            failed(batch.size(), e);
+        }
+    }
+
+    private synchronized void written(int events) {
+        written += events;
+        batches++;
+        writing = false;
+        if (waiting != null) {
+            List<com.workhive.logsservice.ingest.ActivityEvent> next = waiting;
+            waiting = null;
+            write(next);
+            if (!filling.isEmpty()) {
+                if (filling.size() >= batchSize || halfClosed) {
+                    seal();
+                } else if (linger == null && lingerMs > 0) {
+                    // Its linger fired while the queue was full
+                    scheduleLinger(filling);
+                }
+            }
+        }
+        requestMore();
+        completeIfDone();
+    }
+
+    private synchronized void failed(int events, Exception e) {
+        writing = false;
+        waiting = null;
+        if (finished) {
+            return;
+        }
+        finished = true;
+        cancelLinger();
+        log.error("IngestActivities batch of {} events failed after {} of {} received were written", events, written,
+                received, e);
+        call.onError(Status.UNAVAILABLE
+                .withDescription("Writing a batch failed; " + written + " of " + received + " events were written")
+                .withCause(e)
+                .asRuntimeException());
+    }
+
+    private void completeIfDone() {
+        if (finished || !halfClosed || writing || waiting != null || !filling.isEmpty()) {
+            return;
+        }
+        finished = true;
+        IngestSummary summary = IngestSummary.newBuilder()
+                .setReceived(received)
+                .setWritten(written)
+                .setRejected(rejected)
+                .setBatches(batches)
+                .build();
+        if (!call.isCancelled()) {
+            call.onNext(summary);
+            call.onCompleted();
+        }
+        log.info("gRPC Response: IngestActivities received={}, written={}, rejected={}, batches={}",
+                received, written, rejected, batches);
+    }
+
+    private void scheduleLinger(List<com.workhive.logsservice.ingest.ActivityEvent> batch) {
+        linger = lingerTimer.schedule(() -> {
+            synchronized (this) {
+                if (filling == batch) {
+                    linger = null;
+                }
+                // Only if the same batch is still filling; it may have been sealed in the meantime
+                if (!finished && filling == batch && !batch.isEmpty()) {
+                    seal();
+                    requestMore();
+                }
+            }
+        }, lingerMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelLinger() {
+        if (linger != null) {
+            linger.cancel(false);
+            linger = null;
+        }
+    }
+
+    /**
+     * The event as written, or null when a required field is missing or it sets a timestamp the store would not keep.
+     */
+    private com.workhive.logsservice.ingest.ActivityEvent toActivityEvent(ActivityEvent event) {
+        Long userId = event.getUserId() != 0 ? event.getUserId() : null;
+        String username = event.getUsername().isEmpty() ? null : event.getUsername();
+        String action = event.getAction().isEmpty() ? null : event.getAction();
+        String entityType = event.getEntityType().isEmpty() ? null : event.getEntityType();
+        try {
+            ActivityBatchWriter.validate(userId, username, action, entityType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (event.getTimestampEpochMillis() > 0 && !acceptsTimestamps) {
+            return null;
+        }
+        LocalDateTime timestamp = event.getTimestampEpochMillis() > 0
+                ? LogsStatisticsServiceImpl.toLocalDateTime(event.getTimestampEpochMillis())
+                : LocalDateTime.now();
+        return new com.workhive.logsservice.ingest.ActivityEvent(
+                userId,
+                username,
+                action,
+                entityType,
+                event.hasEntityId() ? event.getEntityId() : null,
+                event.hasDetails() ? event.getDetails() : null,
+                event.hasIpAddress() ? event.getIpAddress() : null,
+                event.hasUserAgent() ? event.getUserAgent() : null,
+                timestamp);
+    }
+}
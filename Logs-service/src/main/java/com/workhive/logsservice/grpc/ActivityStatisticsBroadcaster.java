@@ -0,0 +1,168 @@
+package com.workhive.logsservice.grpc;
+
+import com.workhive.logsservice.stats.ActiveUserSketches;
+import com.workhive.logsservice.stats.ActivityCounters;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the open WatchActivityStatistics streams and pushes counter deltas to them shortly after committed writes.
+ * Activity counts come from the in-memory {@link ActivityCounters} and active-user counts from the
+ * sketches, so a write is turned into a delta without touching the database. A write only flags the
+ * statistics as changed; every {@code tick-ms} a flagged change, or a finished sketch rebuild, is recounted
+ * once and sent as one delta, so estimating the sketches is never on the writer's thread and costs at most
+ * one estimate per tick however many writes arrive.
+ * The periodic resync snapshot also moves the today/week windows forward.
+ * <p>
+ * A watcher whose outbound buffer is full is skipped rather than queued: it is marked stale and receives
+ * a fresh snapshot from its on-ready handler instead of the deltas it missed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityStatisticsBroadcaster {
+
+    private final ActivityCounters activityCounters;
+    private final ActiveUserSketches activeUserSketches;
+
+    private final Set<ServerCallStreamObserver<ActivityStatisticsUpdate>> watchers = ConcurrentHashMap.newKeySet();
+
+    // Watchers that skipped an update while not ready, guarded by this
+    private final Set<ServerCallStreamObserver<ActivityStatisticsUpdate>> stale = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    // Last values sent to the watchers, guarded by this
+    private long sketchRebuilds;
+    private long totalActivities;
+    private long todayActivities;
+    private long weekActivities;
+    private ActiveUserSketches.ActiveUsers activeUsers = new ActiveUserSketches.ActiveUsers(0, 0, 0);
+
+    public synchronized void subscribe(StreamObserver<ActivityStatisticsUpdate> responseObserver) {
+        ServerCallStreamObserver<ActivityStatisticsUpdate> watcher = (ServerCallStreamObserver<ActivityStatisticsUpdate>) responseObserver;
+        watcher.setOnCancelHandler(() -> {
+            remove(watcher);
+            log.info("gRPC Watch: activity statistics watcher disconnected, {} remaining", watchers.size());
+        });
+        watcher.setOnReadyHandler(() -> catchUp(watcher));
+
+        recount();
+        send(watcher, snapshot());
+        watchers.add(watcher);
+        log.info("gRPC Watch: activity statistics watcher connected, {} total", watchers.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatisticsChanged(StatisticsChangedEvent event) {
+        changed.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${grpc.statistics.watch.tick-ms:250}")
+    public synchronized void tick() {
+        boolean rebuilt = activeUserSketches.rebuilds() != sketchRebuilds;
+        if (!changed.getAndSet(false) && !rebuilt) {
+            return;
+        }
+        if (watchers.isEmpty()) {
+            return;
+        }
+        long previousTotal = totalActivities;
+        long previousToday = todayActivities;
+        long previousWeek = weekActivities;
+        ActiveUserSketches.ActiveUsers previousActive = activeUsers;
+
+        // Counters and sketches have already absorbed the writes
+        recount();
+
+        if (totalActivities != previousTotal || todayActivities != previousToday || weekActivities != previousWeek
+                || !activeUsers.equals(previousActive)) {
+            ActivityStatisticsUpdate delta = ActivityStatisticsUpdate.newBuilder()
+                    .setSnapshot(false)
+                    .setTotalActivities((int) (totalActivities - previousTotal))
+                    .setTodayActivities((int) (todayActivities - previousToday))
+                    .setWeekActivities((int) (weekActivities - previousWeek))
+                    .setActiveUsersToday((int) (activeUsers.today() - previousActive.today()))
+                    .setActiveUsersLast7Days((int) (activeUsers.last7Days() - previousActive.last7Days()))
+                    .setActiveUsersLast30Days((int) (activeUsers.last30Days() - previousActive.last30Days()))
+                    .build();
+            log.debug("gRPC Watch: delta total={}, today={}, week={}",
+                    delta.getTotalActivities(), delta.getTodayActivities(), delta.getWeekActivities());
+            broadcast(delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${grpc.statistics.watch.resync-ms:60000}")
+    public synchronized void resync() {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        recount();
+        broadcast(snapshot());
+    }
+
+    private void recount() {
+        sketchRebuilds = activeUserSketches.rebuilds();
+        ActivityCounters.Counts counts = activityCounters.counts();
+        totalActivities = counts.total();
+        todayActivities = counts.today();
+        weekActivities = counts.last7Days();
+        activeUsers = activeUserSketches.activeUsers();
+    }
+
+    private ActivityStatisticsUpdate snapshot() {
+        return ActivityStatisticsUpdate.newBuilder()
+                .setSnapshot(true)
+                .setTotalActivities((int) totalActivities)
+                .setTodayActivities((int) todayActivities)
+                .setWeekActivities((int) weekActivities)
+                .setActiveUsersToday((int) activeUsers.today())
+                .setActiveUsersLast7Days((int) activeUsers.last7Days())
+                .setActiveUsersLast30Days((int) activeUsers.last30Days())
+                .build();
+    }
+
+    private void broadcast(ActivityStatisticsUpdate update) {
+        for (ServerCallStreamObserver<ActivityStatisticsUpdate> watcher : watchers) {
+            send(watcher, update);
+        }
+    }
+
+    private synchronized void catchUp(ServerCallStreamObserver<ActivityStatisticsUpdate> watcher) {
+        if (stale.remove(watcher)) {
+            send(watcher, snapshot());
+        }
+    }
+
+    private void send(ServerCallStreamObserver<ActivityStatisticsUpdate> watcher, ActivityStatisticsUpdate update) {
+        if (watcher.isCancelled()) {
+            remove(watcher);
+            return;
+        }
+        // Deltas only add up from the last snapshot, so a stale watcher waits for the one catchUp sends
+        if (stale.contains(watcher) || !watcher.isReady()) {
+            stale.add(watcher);
+            return;
+        }
+        try {
+            watcher.onNext(update);
+        } catch (RuntimeException e) {
+            log.warn("gRPC Watch: dropping activity statistics watcher", e);
+            remove(watcher);
+        }
+    }
+
+    private void remove(ServerCallStreamObserver<ActivityStatisticsUpdate> watcher) {
+        watchers.remove(watcher);
+        stale.remove(watcher);
+    }
+}
@@ -0,0 +1,154 @@
+package com.workhive.logsservice.grpc;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records latency, in-flight calls and message sizes for every gRPC method served by this service.
+ * <p>
+ * Latency is a Micrometer timer per method and status code with client-side percentiles, which
+ * Micrometer computes from an HdrHistogram, so p99/p999 are available on the actuator
+ * {@code metrics} endpoint (e.g. {@code /actuator/metrics/grpc.server.call.latency?tag=method:...}).
+ * For server-streaming methods the latency is the lifetime of the stream.
+ */
+@GrpcGlobalServerInterceptor
+@RequiredArgsConstructor
+public class GrpcMetricsServerInterceptor implements ServerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${grpc.metrics.percentiles:0.5,0.9,0.99,0.999}")
+    private double[] percentiles;
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MethodMetrics metrics = methods.computeIfAbsent(call.getMethodDescriptor().getFullMethodName(), MethodMetrics::new);
+        long startNanos = System.nanoTime();
+        AtomicBoolean finished = new AtomicBoolean();
+        metrics.inFlight.incrementAndGet();
+
+        ServerCall<ReqT, RespT> monitoredCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendMessage(RespT message) {
+                metrics.sent(message);
+                super.sendMessage(message);
+            }
+
+            @Override
+            public void close(Status status, Metadata trailers) {
+                finish(metrics, finished, startNanos, status.getCode());
+                super.close(status, trailers);
+            }
+        };
+
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(monitoredCall, headers);
+        } catch (RuntimeException | Error e) {
+            // The call never started, so neither close nor onCancel will end it
+            finish(metrics, finished, startNanos, Status.fromThrowable(e).getCode());
+            throw e;
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                metrics.received(message);
+                super.onMessage(message);
+            }
+
+            @Override
+            public void onCancel() {
+                // Client went away before the call was closed
+                finish(metrics, finished, startNanos, Status.Code.CANCELLED);
+                super.onCancel();
+            }
+        };
+    }
+
+    private void finish(MethodMetrics metrics, AtomicBoolean finished, long startNanos, Status.Code code) {
+        if (finished.compareAndSet(false, true)) {
+            metrics.inFlight.decrementAndGet();
+            metrics.latency(code).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private final class MethodMetrics {
+        private final String method;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter messagesReceived;
+        private final Counter messagesSent;
+        private final Counter bytesReceived;
+        private final Counter bytesSent;
+        private final Map<Status.Code, Timer> latencies = new ConcurrentHashMap<>();
+
+        private MethodMetrics(String method) {
+            this.method = method;
+            Gauge.builder("grpc.server.calls.in.flight", inFlight, AtomicInteger::get)
+                    .description("gRPC calls currently being served")
+                    .tag("method", method)
+                    .register(meterRegistry);
+            messagesReceived = messageCounter("grpc.server.messages", "received");
+            messagesSent = messageCounter("grpc.server.messages", "sent");
+            bytesReceived = messageCounter("grpc.server.message.bytes", "received");
+            bytesSent = messageCounter("grpc.server.message.bytes", "sent");
+        }
+
+        private Counter messageCounter(String name, String direction) {
+            return Counter.builder(name)
+                    .tag("method", method)
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+
+        private void received(Object message) {
+            messagesReceived.increment();
+            bytesReceived.increment(serializedSize(message));
+        }
+
+        private void sent(Object message) {
+            messagesSent.increment();
+            bytesSent.increment(serializedSize(message));
+        }
+
+        private Timer latency(Status.Code code) {
+            return latencies.computeIfAbsent(code, c -> Timer.builder("grpc.server.call.latency")
+                    .description("gRPC server call latency")
+                    .tag("method", method)
+                    .tag("status", c.name())
+                    .publishPercentiles(percentiles)
+                    .percentilePrecision(2)
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(meterRegistry));
+        }
+    }
+
+    private static int serializedSize(Object message) {
+        // Size is memoized by protobuf once computed, so the later serialization does not pay for it again
+        return message instanceof MessageLite lite ? lite.getSerializedSize() : 0;
+    }
+}
@@ -1,40 +1,149 @@
 package com.workhive.logsservice.grpc;
 
-import com.workhive.logsservice.repository.ActivityLogRepository;
+import com.workhive.logsservice.ingest.ActivityBatchWriter;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import com.workhive.logsservice.stats.ActiveUserSketches;
+import com.workhive.logsservice.stats.ActivityCounters;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @GrpcService
 @Slf4j
 @RequiredArgsConstructor
 public class LogsStatisticsServiceImpl extends LogsStatisticsServiceGrpc.LogsStatisticsServiceImplBase {
 
-    private final ActivityLogRepository activityLogRepository;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ActivityLogStore activityLogStore;
+    private final ActivityStatisticsBroadcaster activityStatisticsBroadcaster;
+    private final ActiveUserSketches activeUserSketches;
+    private final ActivityCounters activityCounters;
+    private final ActivityBatchWriter activityBatchWriter;
+
+    @Value("${grpc.bulk.batch-size:1000}")
+    private int defaultBatchSize;
+
+    @Value("${grpc.ingest.batch-size:500}")
+    private int ingestBatchSize;
+
+    @Value("${grpc.ingest.linger-ms:50}")
+    private long ingestLingerMs;
+
+    @Value("${grpc.ingest.writers:4}")
+    private int ingestWriters;
+
+    // Batch inserts run here, off the gRPC transport threads; each ingest stream has at most one batch in flight
+    private ExecutorService ingestExecutor;
+    private ScheduledExecutorService ingestLingerTimer;
+
+    @PostConstruct
+    void startIngestion() {
+        AtomicInteger threads = new AtomicInteger();
+        ingestExecutor = Executors.newFixedThreadPool(ingestWriters, runnable -> {
+            Thread thread = new Thread(runnable, "grpc-ingest-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ingestLingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grpc-ingest-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopIngestion() {
+        ingestLingerTimer.shutdownNow();
+        ingestExecutor.shutdown();
+    }
 
     @Override
     public void getActivityCount(ActivityCountRequest request, StreamObserver<ActivityCountResponse> responseObserver) {
         log.info("gRPC Request: getActivityCount");
 
-        long totalActivities = activityLogRepository.count();
-        
-        // Count recent activities (last 24 hours)
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-        long recentActivities = activityLogRepository.findAll().stream()
-                .filter(log -> log.getTimestamp() != null && log.getTimestamp().isAfter(oneDayAgo))
-                .count();
+        ActivityCounters.Counts counts = activityCounters.counts();
+        ActiveUserSketches.ActiveUsers activeUsers = activeUserSketches.activeUsers();
 
-        ActivityCountResponse response = ActivityCountResponse.newBuilder()
-                .setTotalActivities((int) totalActivities)
-                .setRecentActivities((int) recentActivities)
-                .build();
+        ActivityCountResponse.Builder response = ActivityCountResponse.newBuilder()
+                .setTotalActivities((int) counts.total())
+                .setTodayActivities((int) counts.today())
+                .setWeekActivities((int) counts.last7Days())
+                .setActiveUsersToday((int) activeUsers.today())
+                .setActiveUsersLast7Days((int) activeUsers.last7Days())
+                .setActiveUsersLast30Days((int) activeUsers.last30Days());
 
-        responseObserver.onNext(response);
+        if (request.getFromEpochMillis() > 0 || request.getToEpochMillis() > 0) {
+            LocalDateTime from = request.getFromEpochMillis() > 0 ? toLocalDateTime(request.getFromEpochMillis()) : EPOCH;
+            LocalDateTime to = request.getToEpochMillis() > 0 ? toLocalDateTime(request.getToEpochMillis()) : LocalDateTime.now();
+            response.setWindowActivities((int) activityCounters.count(from, to));
+        }
+
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
 
-        log.info("gRPC Response: total={}, recent={}", totalActivities, recentActivities);
+        log.info("gRPC Response: {}, activeUsers={}", counts, activeUsers);
+    }
+
+    @Override
+    public void watchActivityStatistics(WatchActivityStatisticsRequest request, StreamObserver<ActivityStatisticsUpdate> responseObserver) {
+        log.info("gRPC Request: watchActivityStatistics");
+        // The stream stays open until the client cancels it; updates are pushed by the broadcaster
+        activityStatisticsBroadcaster.subscribe(responseObserver);
+    }
+
+    @Override
+    public void listUserActivityCounts(UserActivityCountsRequest request, StreamObserver<UserActivityCountBatch> responseObserver) {
+        log.info("gRPC Request: listUserActivityCounts since={}", request.getSinceEpochMillis());
+        int batchSize = request.getBatchSize() > 0 ? request.getBatchSize() : defaultBatchSize;
+        LocalDateTime since = request.getSinceEpochMillis() > 0 ? toLocalDateTime(request.getSinceEpochMillis()) : EPOCH;
+
+        Map<Long, Long> counts = activityLogStore.countByUserSince(since);
+        UserActivityCountBatch.Builder batch = UserActivityCountBatch.newBuilder();
+        for (Map.Entry<Long, Long> count : counts.entrySet()) {
+            batch.addCounts(UserActivityCount.newBuilder()
+                    .setUserId(count.getKey())
+                    .setActivities(count.getValue()));
+            if (batch.getCountsCount() == batchSize) {
+                responseObserver.onNext(batch.build());
+                batch.clear();
+            }
+        }
+        if (batch.getCountsCount() > 0) {
+            responseObserver.onNext(batch.build());
+        }
+        responseObserver.onCompleted();
+
+        log.info("gRPC Response: activity counts for {} users", counts.size());
+    }
+
+    @Override
+    public StreamObserver<ActivityEvent> ingestActivities(StreamObserver<IngestSummary> responseObserver) {
+        log.info("gRPC Request: ingestActivities");
+        ActivityIngestStream stream = new ActivityIngestStream((ServerCallStreamObserver<IngestSummary>) responseObserver,
+                activityBatchWriter, ingestExecutor, ingestLingerTimer, ingestBatchSize, ingestLingerMs);
+        stream.start();
+        return stream;
+    }
+
+    /**
+     * Stored timestamps are the service's local wall-clock time, as written by {@code LocalDateTime.now()}.
+     */
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
     }
 }
@@ -0,0 +1,58 @@
+package com.workhive.logsservice.grpc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published after a write that may change the counters exposed by {@link LogsStatisticsServiceImpl}.
+ * Inserted rows are already counted in memory by whoever wrote them, so they do not need a recount.
+ * A deletion says as much as its writer knows about the rows it removed, so listeners can adjust their
+ * counts instead of rebuilding them:
+ * <ul>
+ *     <li>{@code deletedTimestamps}: the timestamp of every removed row, or null when not known</li>
+ *     <li>{@code deletedRows}: how many rows were removed, or -1 when not known</li>
+ *     <li>{@code deletedBefore}: every removed row is older than this, or null when not known</li>
+ * </ul>
+ */
+public record StatisticsChangedEvent(String reason, Kind kind, List<LocalDateTime> deletedTimestamps,
+                                     long deletedRows, LocalDateTime deletedBefore) {
+
+    public enum Kind {
+        INSERT,
+        DELETE
+    }
+
+    public static StatisticsChangedEvent activityRecorded() {
+        return new StatisticsChangedEvent("activity recorded", Kind.INSERT, null, 0, null);
+    }
+
+    public static StatisticsChangedEvent activitiesRecorded() {
+        return new StatisticsChangedEvent("activities recorded", Kind.INSERT, null, 0, null);
+    }
+
+    public static StatisticsChangedEvent activityDeleted(LocalDateTime timestamp) {
+        return new StatisticsChangedEvent("activity deleted", Kind.DELETE, List.of(timestamp), 1, timestamp.plusNanos(1));
+    }
+
+    public static StatisticsChangedEvent userActivitiesDeleted() {
+        return new StatisticsChangedEvent("user activities deleted", Kind.DELETE, null, -1, null);
+    }
+
+    /**
+     * Rows removed by retention, all of them older than {@code before}.
+     */
+    public static StatisticsChangedEvent expiredActivitiesDeleted(long rows, LocalDateTime before) {
+        return new StatisticsChangedEvent("expired activities deleted", Kind.DELETE, null, rows, before);
+    }
+
+    public boolean isDelete() {
+        return kind == Kind.DELETE;
+    }
+
+    /**
+     * Whether this deletion may have removed a row at or after {@code since}.
+     */
+    public boolean deletedSince(LocalDateTime since) {
+        return isDelete() && (deletedBefore == null || deletedBefore.isAfter(since));
+    }
+}
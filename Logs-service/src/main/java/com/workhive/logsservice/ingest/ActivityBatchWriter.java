@@ -0,0 +1,65 @@
+package com.workhive.logsservice.ingest;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes a batch of accepted activities as one multi-row insert (one JDBC batch in one transaction for the
+ * table engine) and publishes the events everything that follows a write listens to: counters, active-user
+ * sketches, statistics watchers and the live feed. Shared by the write-behind drainers and the gRPC bulk
+ * ingestion stream.
+ */
+@Component
+public class ActivityBatchWriter {
+
+    private final ActivityLogStore activityLogStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter written;
+    private final Timer batchTimer;
+
+    public ActivityBatchWriter(ActivityLogStore activityLogStore, ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry) {
+        this.activityLogStore = activityLogStore;
+        this.eventPublisher = eventPublisher;
+        this.written = meterRegistry.counter("logs.ingest.events", "result", "written");
+        this.batchTimer = meterRegistry.timer("logs.ingest.batch.write");
+    }
+
+    /**
+     * Writes the batch; nothing is written if the store throws.
+     */
+    public void write(List<ActivityEvent> events) {
+        List<ActivityLog> activityLogs = events.stream().map(ActivityEvent::toActivityLog).toList();
+        batchTimer.record(() -> activityLogStore.saveAll(activityLogs));
+        written.increment(events.size());
+        eventPublisher.publishEvent(new ActivityLogsCreatedEvent(activityLogs));
+        eventPublisher.publishEvent(StatisticsChangedEvent.activitiesRecorded());
+    }
+
+    /**
+     * Whether events may carry their own, possibly historical, timestamp; see {@link ActivityLogStore#keepsEarlierTimestamps()}.
+     */
+    public boolean acceptsBackdatedEvents() {
+        return activityLogStore.keepsEarlierTimestamps();
+    }
+
+    /**
+     * A row the database rejects would fail its whole batch, so NOT NULL columns are checked up front.
+     *
+     * @throws IllegalArgumentException when a required field is missing
+     */
+    public static void validate(Long userId, String username, String action, String entityType) {
+        if (userId == null || username == null || action == null || entityType == null) {
+            throw new IllegalArgumentException("userId, username, action and entityType are required");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.workhive.logsservice.ingest;
+
+import com.workhive.logsservice.dto.CreateActivityLogInput;
+import com.workhive.logsservice.entity.ActivityLog;
+
+import java.time.LocalDateTime;
+
+/**
+ * An accepted activity waiting to be written. The timestamp is taken at acceptance so the stored
+ * order matches the order clients were acknowledged in, however long the row sits in the queue.
+ */
+public record ActivityEvent(
+        Long userId,
+        String username,
+        String action,
+        String entityType,
+        Long entityId,
+        String details,
+        String ipAddress,
+        String userAgent,
+        LocalDateTime timestamp) {
+
+    public static ActivityEvent from(CreateActivityLogInput input, LocalDateTime timestamp) {
+        return new ActivityEvent(input.getUserId(), input.getUsername(), input.getAction(), input.getEntityType(),
+                input.getEntityId(), input.getDetails(), input.getIpAddress(), input.getUserAgent(), timestamp);
+    }
+
+    public ActivityLog toActivityLog() {
+        return ActivityLog.builder()
+                .userId(userId)
+                .username(username)
+                .action(action)
+                .entityType(entityType)
+                .entityId(entityId)
+                .details(details)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .timestamp(timestamp)
+                .build();
+    }
+}
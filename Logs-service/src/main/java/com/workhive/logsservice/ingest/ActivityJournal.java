@@ -0,0 +1,233 @@
+package com.workhive.logsservice.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local journal of accepted activities, one JSON line per event, split into segments.
+ * <p>
+ * An append returns only once the line is fsync'd; concurrent appenders share one {@code force} call
+ * (group commit). Each segment counts the events it holds that are not yet in the database, and is
+ * deleted once it has been rotated out and that count reaches zero. A clean shutdown rewrites the journal
+ * down to the events that were never written, so the next startup replays exactly those. Segments left over
+ * from a crash are replayed whole, so delivery is at-least-once: a crash between the database commit and
+ * the segment deletion replays those rows again.
+ */
+@Slf4j
+final class ActivityJournal implements Closeable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ObjectMapper objectMapper;
+
+    // Guarded by this
+    private Segment current;
+    private final List<Segment> live = new ArrayList<>();
+    private long nextSegmentId;
+
+    ActivityJournal(Path directory, long segmentBytes, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+        try (Stream<Path> files = Files.list(this.directory)) {
+            // Left over from a shutdown that died while compacting; the segments it would have replaced are still here
+            for (Path path : files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.delete(path);
+            }
+        }
+        this.nextSegmentId = leftoverSegments().stream()
+                .mapToLong(ActivityJournal::segmentId)
+                .max()
+                .orElse(0) + 1;
+    }
+
+    /**
+     * Events of segments written by a previous run, oldest first. A torn last line is skipped.
+     */
+    List<ActivityEvent> readLeftovers(List<Path> segments) throws IOException {
+        List<ActivityEvent> events = new ArrayList<>();
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        events.add(objectMapper.readValue(line, ActivityEvent.class));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Skipping unreadable journal entry in {}: {}", segment.getFileName(), e.getOriginalMessage());
+                    }
+                }
+            }
+        }
+        return events;
+    }
+
+    List<Path> leftoverSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                            && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    Segment append(ActivityEvent event) throws IOException {
+        ByteBuffer line = encode(event);
+        Segment segment;
+        long end;
+        synchronized (this) {
+            if (current == null || current.size >= segmentBytes) {
+                rotate();
+            }
+            segment = current;
+            segment.outstanding.incrementAndGet();
+            while (line.hasRemaining()) {
+                segment.channel.write(line);
+            }
+            segment.size += line.capacity();
+            end = segment.size;
+        }
+        segment.sync(end);
+        return segment;
+    }
+
+    void committed(Segment segment) {
+        if (segment.outstanding.decrementAndGet() == 0 && segment.sealed) {
+            segment.delete();
+        }
+    }
+
+    /**
+     * Closes the journal after a clean shutdown. Every segment is replaced by one holding only
+     * {@code unwritten}, or removed when nothing is left to write; the replacement is moved into place before
+     * the old segments are deleted, so a crash in between replays too much rather than too little.
+     */
+    synchronized void close(List<ActivityEvent> unwritten) throws IOException {
+        if (!unwritten.isEmpty()) {
+            Path path = directory.resolve(String.format("%s%020d%s", PREFIX, nextSegmentId++, SUFFIX));
+            Path temporary = directory.resolve(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ActivityEvent event : unwritten) {
+                    ByteBuffer line = encode(event);
+                    while (line.hasRemaining()) {
+                        channel.write(line);
+                    }
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        }
+        for (Segment segment : List.copyOf(live)) {
+            segment.delete();
+        }
+        live.clear();
+        current = null;
+        log.info("Ingestion journal closed with {} unwritten activities", unwritten.size());
+    }
+
+    /**
+     * Closes the journal without compacting it, leaving every segment to be replayed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : live) {
+            if (!segment.deleted.get()) {
+                segment.channel.force(false);
+                segment.channel.close();
+            }
+        }
+    }
+
+    private ByteBuffer encode(ActivityEvent event) throws JsonProcessingException {
+        return ByteBuffer.wrap((objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void rotate() throws IOException {
+        Segment previous = current;
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, nextSegmentId++, SUFFIX));
+        current = new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        live.add(current);
+        live.removeIf(segment -> segment.deleted.get());
+        if (previous != null) {
+            previous.sealed = true;
+            if (previous.outstanding.get() == 0) {
+                previous.delete();
+            }
+        }
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private final Object syncLock = new Object();
+        private volatile long size;
+        private volatile long synced;
+        private volatile boolean sealed;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        private void sync(long end) throws IOException {
+            if (synced >= end) {
+                return;
+            }
+            synchronized (syncLock) {
+                if (synced >= end) {
+                    return;
+                }
+                // Everything appended so far rides on this force, not just our own line
+                long target = size;
+                channel.force(false);
+                synced = target;
+            }
+        }
+
+        private void delete() {
+            if (!deleted.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.workhive.logsservice.ingest;
+
+/**
+ * Thrown when the write-behind queue is full; callers should back off and retry.
+ */
+public class IngestionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestionRejectedException(int capacity, long retryAfterSeconds) {
+        super("Activity ingestion queue is full (" + capacity + " pending), retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
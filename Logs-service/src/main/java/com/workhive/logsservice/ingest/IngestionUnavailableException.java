@@ -0,0 +1,19 @@
+package com.workhive.logsservice.ingest;
+
+/**
+ * Thrown when write-behind ingestion is not running, before startup finishes or once shutdown has begun;
+ * callers should retry, usually against another instance.
+ */
+public class IngestionUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestionUnavailableException(long retryAfterSeconds) {
+        super("Activity ingestion is not running, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,282 @@
+package com.workhive.logsservice.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workhive.logsservice.dto.CreateActivityLogInput;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind ingestion for new activity logs.
+ * <p>
+ * In {@code ASYNC} mode {@link #submit} puts the event on a bounded queue and returns at once;
+ * the queue bound is a CAS-reserved slot count, and a full queue is reported as
+ * {@link IngestionRejectedException} (HTTP 429) instead of blocking the caller. Submitting while ingestion
+ * is not running, before startup or during shutdown, is reported as {@link IngestionUnavailableException}
+ * (HTTP 503). Drainer threads take up to {@code batch-size} events at a time and hand them to the
+ * {@link ActivityBatchWriter} as one batch, flushing early whenever the queue runs dry so latency stays low
+ * under light load; an idle drainer blocks on the queue until the next event arrives.
+ * <p>
+ * Durability {@code NONE} acknowledges from memory (events still queued are lost on a crash);
+ * {@code JOURNAL} acknowledges only after the event is fsync'd to the local {@link ActivityJournal},
+ * whose leftover segments are written on the next startup. A clean shutdown compacts the journal down to the
+ * events that could not be written, so nothing already in the table is written twice.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WriteBehindIngestor {
+
+    public enum Mode { SYNC, ASYNC }
+
+    public enum Durability { NONE, JOURNAL }
+
+    // An idle drainer blocks at most this long on the empty queue before rechecking for shutdown
+    private static final long IDLE_POLL_MS = 200;
+
+    private final ActivityBatchWriter activityBatchWriter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${logs.ingest.mode:SYNC}")
+    private Mode mode;
+
+    @Value("${logs.ingest.durability:NONE}")
+    private Durability durability;
+
+    @Value("${logs.ingest.queue-capacity:10000}")
+    private int capacity;
+
+    @Value("${logs.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${logs.ingest.drainers:2}")
+    private int drainerCount;
+
+    @Value("${logs.ingest.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Value("${logs.ingest.write-retry-ms:1000}")
+    private long writeRetryMs;
+
+    @Value("${logs.ingest.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${logs.ingest.journal-dir:./data/ingest-journal}")
+    private String journalDir;
+
+    @Value("${logs.ingest.journal-segment-bytes:67108864}")
+    private long journalSegmentBytes;
+
+    // Unbounded here; the bound is the slot count reserved in depth
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final List<Thread> drainers = new ArrayList<>();
+    // Batches given up on during shutdown; they are kept in the compacted journal
+    private final Queue<ActivityEvent> unwritten = new ConcurrentLinkedQueue<>();
+
+    private ActivityJournal journal;
+    private Counter accepted;
+    private Counter rejected;
+    private volatile boolean running;
+
+    public boolean isAsync() {
+        return mode == Mode.ASYNC;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!isAsync()) {
+            return;
+        }
+        accepted = meterRegistry.counter("logs.ingest.events", "result", "accepted");
+        rejected = meterRegistry.counter("logs.ingest.events", "result", "rejected");
+        meterRegistry.gauge("logs.ingest.queue.depth", depth);
+
+        if (durability == Durability.JOURNAL) {
+            journal = new ActivityJournal(Path.of(journalDir), journalSegmentBytes, objectMapper);
+            replayJournal();
+        }
+
+        running = true;
+        for (int i = 0; i < drainerCount; i++) {
+            Thread drainer = new Thread(this::drain, "activity-ingest-" + i);
+            drainer.setDaemon(true);
+            drainer.start();
+            drainers.add(drainer);
+        }
+        log.info("Write-behind ingestion started: capacity={}, batchSize={}, drainers={}, durability={}",
+                capacity, batchSize, drainerCount, durability);
+    }
+
+    /**
+     * Accepts an activity for asynchronous writing.
+     *
+     * @throws IngestionRejectedException when the queue is full
+     * @throws IngestionUnavailableException when ingestion has not started or is shutting down
+     * @throws IllegalArgumentException when a required field is missing
+     */
+    public void submit(CreateActivityLogInput input) {
+        if (!running) {
+            throw new IngestionUnavailableException(retryAfterSeconds);
+        }
+        ActivityBatchWriter.validate(input.getUserId(), input.getUsername(), input.getAction(), input.getEntityType());
+        if (!reserveSlot()) {
+            rejected.increment();
+            throw new IngestionRejectedException(capacity, retryAfterSeconds);
+        }
+        ActivityEvent event = ActivityEvent.from(input, LocalDateTime.now());
+        ActivityJournal.Segment segment = null;
+        if (journal != null) {
+            try {
+                segment = journal.append(event);
+            } catch (IOException e) {
+                depth.decrementAndGet();
+                throw new UncheckedIOException("Could not journal activity", e);
+            }
+        }
+        queue.offer(new Pending(event, segment));
+        accepted.increment();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        // Drainers empty the queue before exiting
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Thread drainer : drainers) {
+            drainer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+        if (depth.get() > 0) {
+            log.warn("Write-behind ingestion stopped with {} activities unwritten{}", depth.get(),
+                    journal != null ? " (kept in the journal)" : "");
+        }
+        if (journal == null) {
+            return;
+        }
+        if (drainers.stream().anyMatch(Thread::isAlive)) {
+            // A drainer may still commit its batch, so the journal cannot tell what is unwritten
+            journal.close();
+            return;
+        }
+        List<ActivityEvent> remaining = new ArrayList<>(unwritten);
+        for (Pending pending; (pending = queue.poll()) != null; ) {
+            remaining.add(pending.event());
+        }
+        journal.close(remaining);
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (depth.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            Pending next;
+            try {
+                // Block only with nothing to flush; a partial batch is flushed as soon as the queue runs dry
+                next = batch.isEmpty() ? queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (next != null) {
+                depth.decrementAndGet();
+                batch.add(next);
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+            } else if (batch.isEmpty()) {
+                continue;
+            }
+            flush(batch);
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<ActivityEvent> events = batch.stream().map(Pending::event).toList();
+        while (!write(events)) {
+            if (!running) {
+                log.error("Dropping {} unwritten activities on shutdown{}", events.size(),
+                        journal != null ? ", they stay in the journal" : "");
+                unwritten.addAll(events);
+                batch.clear();
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(writeRetryMs));
+        }
+        for (Pending pending : batch) {
+            if (pending.segment() != null) {
+                journal.committed(pending.segment());
+            }
+        }
+        batch.clear();
+    }
+
+    private boolean write(List<ActivityEvent> events) {
+        try {
+            activityBatchWriter.write(events);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Writing {} activities failed, retrying in {} ms", events.size(), writeRetryMs, e);
+            return false;
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        List<Path> segments = journal.leftoverSegments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        List<ActivityEvent> events = journal.readLeftovers(segments);
+        for (int from = 0; from < events.size(); from += batchSize) {
+            List<ActivityEvent> chunk = events.subList(from, Math.min(from + batchSize, events.size()));
+            if (!write(chunk)) {
+                throw new IllegalStateException("Could not replay the ingestion journal in " + journalDir);
+            }
+        }
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+        log.info("Replayed {} journaled activities from {} segments", events.size(), segments.size());
+    }
+
+    private record Pending(ActivityEvent event, ActivityJournal.Segment segment) {
+    }
+}
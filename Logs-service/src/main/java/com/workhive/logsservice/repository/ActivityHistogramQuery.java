@@ -0,0 +1,56 @@
+package com.workhive.logsservice.repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+/**
+ * Counts of activity logs with {@code from <= timestamp < to}, grouped by the {@code groupBy} columns and,
+ * unless {@code bucket} is null, by the hour or day the log falls in.
+ */
+public record ActivityHistogramQuery(
+        Set<Dimension> groupBy,
+        Bucket bucket,
+        LocalDateTime from,
+        LocalDateTime to) {
+
+    public enum Dimension { ACTION, ENTITY_TYPE, USER }
+
+    public enum Bucket {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Bucket(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime truncate(LocalDateTime timestamp) {
+            return timestamp.truncatedTo(unit);
+        }
+    }
+
+    public boolean groupsBy(Dimension dimension) {
+        return groupBy.contains(dimension);
+    }
+
+    /**
+     * The same grouping over a narrower window.
+     */
+    public ActivityHistogramQuery between(LocalDateTime from, LocalDateTime to) {
+        return new ActivityHistogramQuery(groupBy, bucket, from, to);
+    }
+
+    /**
+     * The key a log with these fields is counted under: null for every column this query does not group by.
+     */
+    public HistogramCount keyOf(LocalDateTime timestamp, String action, String entityType, Long userId) {
+        return new HistogramCount(
+                bucket != null ? bucket.truncate(timestamp) : null,
+                groupsBy(Dimension.ACTION) ? action : null,
+                groupsBy(Dimension.ENTITY_TYPE) ? entityType : null,
+                groupsBy(Dimension.USER) ? userId : null,
+                0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.workhive.logsservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which activity logs a page query selects. Null fields do not filter; {@code from}/{@code to} are inclusive.
+ */
+public record ActivityLogFilter(
+        Long userId,
+        String username,
+        String action,
+        String entityType,
+        Long entityId,
+        LocalDateTime from,
+        LocalDateTime to) {
+
+    public static ActivityLogFilter all() {
+        return new ActivityLogFilter(null, null, null, null, null, null, null);
+    }
+
+    public static ActivityLogFilter byUserId(Long userId) {
+        return new ActivityLogFilter(userId, null, null, null, null, null, null);
+    }
+
+    public static ActivityLogFilter byUsername(String username) {
+        return new ActivityLogFilter(null, username, null, null, null, null, null);
+    }
+
+    public static ActivityLogFilter byAction(String action) {
+        return new ActivityLogFilter(null, null, action, null, null, null, null);
+    }
+
+    public static ActivityLogFilter byEntityType(String entityType) {
+        return new ActivityLogFilter(null, null, null, entityType, null, null, null);
+    }
+
+    public static ActivityLogFilter byEntity(String entityType, Long entityId) {
+        return new ActivityLogFilter(null, null, null, entityType, entityId, null, null);
+    }
+
+    public static ActivityLogFilter between(LocalDateTime from, LocalDateTime to) {
+        return new ActivityLogFilter(null, null, null, null, null, from, to);
+    }
+
+    public static ActivityLogFilter byUserIdBetween(Long userId, LocalDateTime from, LocalDateTime to) {
+        return new ActivityLogFilter(userId, null, null, null, null, from, to);
+    }
+}
@@ -1,10 +1,13 @@
 package com.workhive.logsservice.repository;
 
 import com.workhive.logsservice.entity.ActivityLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,24 +15,34 @@ import java.util.List;
 @Repository
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
 
-    List<ActivityLog> findByUserId(Long userId);
+    // Keyset pagination, newest first: rows strictly before the cursor (timestamp, id), fetched with a page size limit.
+    // The leading timestamp bound lets the (..., timestamp, id) indexes seek to the cursor instead of filtering the OR
+    String BEFORE_CURSOR = " a.timestamp <= :beforeTimestamp AND (a.timestamp < :beforeTimestamp OR a.id < :beforeId)";
+    String NEWEST_FIRST = " ORDER BY a.timestamp DESC, a.id DESC";
 
-    List<ActivityLog> findByUsername(String username);
+    // One set-based statement on the user index instead of loading and deleting row by row
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ActivityLog a WHERE a.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
 
-    List<ActivityLog> findByAction(String action);
+    long countByTimestampGreaterThanEqualAndTimestampLessThan(LocalDateTime startDate, LocalDateTime endDate);
 
-    List<ActivityLog> findByEntityType(String entityType);
+    // [day, count] rows; one row per calendar day, not per log
+    @Query("SELECT CAST(a.timestamp AS LocalDate), COUNT(a) FROM ActivityLog a WHERE a.timestamp >= :since " +
+            "GROUP BY CAST(a.timestamp AS LocalDate)")
+    List<Object[]> countByDaySince(@Param("since") LocalDateTime since);
 
-    List<ActivityLog> findByEntityTypeAndEntityId(String entityType, Long entityId);
+    // [userId, count] rows; one row per user, not per log
+    @Query("SELECT a.userId, COUNT(a) FROM ActivityLog a WHERE a.timestamp >= :since GROUP BY a.userId")
+    List<Object[]> countByUserSince(@Param("since") LocalDateTime since);
 
-    List<ActivityLog> findByTimestampBetween(LocalDateTime startDate, LocalDateTime endDate);
-
-    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.timestamp BETWEEN :startDate AND :endDate")
-    List<ActivityLog> findByUserIdAndDateRange(
-            @Param("userId") Long userId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
+    // Keyset pagination, oldest first, on idx_activity_logs_user_activity: rows strictly after the cursor (timestamp, id)
+    @Query("SELECT a.id AS id, a.userId AS userId, a.timestamp AS timestamp FROM ActivityLog a" +
+            " WHERE a.timestamp >= :afterTimestamp AND (a.timestamp > :afterTimestamp OR a.id > :afterId)" +
+            " ORDER BY a.timestamp, a.id")
+    List<UserActivityTimestamp> findUserActivityPage(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                                     @Param("afterId") Long afterId, Pageable pageable);
 
     @Query("SELECT a FROM ActivityLog a WHERE a.action = :action AND a.timestamp BETWEEN :startDate AND :endDate")
     List<ActivityLog> findByActionAndDateRange(
@@ -38,7 +51,47 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
             @Param("endDate") LocalDateTime endDate
     );
 
-    List<ActivityLog> findTop50ByOrderByTimestampDesc();
+    @Query("SELECT a FROM ActivityLog a WHERE" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPage(@Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                               @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPageByUserId(@Param("userId") Long userId,
+                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                       @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.username = :username AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPageByUsername(@Param("username") String username,
+                                         @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                         @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.action = :action AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPageByAction(@Param("action") String action,
+                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                       @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.entityType = :entityType AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPageByEntityType(@Param("entityType") String entityType,
+                                           @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                           @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.entityType = :entityType AND a.entityId = :entityId AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPageByEntity(@Param("entityType") String entityType,
+                                       @Param("entityId") Long entityId,
+                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                       @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.timestamp BETWEEN :startDate AND :endDate AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPageByDateRange(@Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate,
+                                          @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                          @Param("beforeId") Long beforeId, Pageable pageable);
 
-    List<ActivityLog> findTop50ByUserIdOrderByTimestampDesc(Long userId);
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.timestamp BETWEEN :startDate AND :endDate AND"
+            + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ActivityLog> findPageByUserIdAndDateRange(@Param("userId") Long userId,
+                                                   @Param("startDate") LocalDateTime startDate,
+                                                   @Param("endDate") LocalDateTime endDate,
+                                                   @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                                   @Param("beforeId") Long beforeId, Pageable pageable);
 }
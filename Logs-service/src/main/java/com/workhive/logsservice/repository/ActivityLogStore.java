@@ -0,0 +1,88 @@
+package com.workhive.logsservice.repository;
+
+import com.workhive.logsservice.entity.ActivityLog;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage engine for activity logs. Everything outside the repository package reads and writes logs
+ * through this interface; {@code logs.storage.engine} picks the implementation ({@code jpa} or {@code segments}).
+ */
+public interface ActivityLogStore {
+
+    ActivityLog save(ActivityLog activityLog);
+
+    /**
+     * Stores a batch written by the ingestion drainers; ids are assigned by the store and set on the logs.
+     */
+    void saveAll(List<ActivityLog> activityLogs);
+
+    /**
+     * Whether a log saved with a timestamp older than the newest stored one keeps it. An engine that only
+     * appends in time order moves such a log to the newest timestamp instead.
+     */
+    default boolean keepsEarlierTimestamps() {
+        return true;
+    }
+
+    Optional<ActivityLog> findById(Long id);
+
+    /**
+     * The logs with the given ids that exist, in no particular order. The default looks each one up on its own,
+     * which suits engines whose {@link #findById} is a local read.
+     */
+    default List<ActivityLog> findAllById(Collection<Long> ids) {
+        List<ActivityLog> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * Up to {@code limit} matching logs strictly before the (timestamp, id) position, newest first.
+     */
+    List<ActivityLog> findPage(ActivityLogFilter filter, LocalDateTime beforeTimestamp, Long beforeId, int limit);
+
+    /**
+     * Hands every matching log to {@code visitor}, oldest first, without holding more than a fetch batch in memory.
+     */
+    void forEachMatching(ActivityLogFilter filter, Consumer<ActivityLog> visitor);
+
+    boolean deleteById(Long id);
+
+    void deleteByUserId(Long userId);
+
+    long count();
+
+    /**
+     * Logs with {@code from <= timestamp < to}.
+     */
+    long count(LocalDateTime from, LocalDateTime to);
+
+    Map<LocalDate, Long> countByDaySince(LocalDateTime since);
+
+    Map<Long, Long> countByUserSince(LocalDateTime since);
+
+    /**
+     * Counts per group, computed where the logs are stored; only one row per group is returned.
+     */
+    List<HistogramCount> histogram(ActivityHistogramQuery query);
+
+    /**
+     * Visits (userId, timestamp) of every log at or after {@code since} without materializing whole rows.
+     */
+    void forEachUserActivitySince(LocalDateTime since, UserActivityVisitor visitor);
+
+    @FunctionalInterface
+    interface UserActivityVisitor {
+        void visit(long userId, LocalDateTime timestamp);
+    }
+}
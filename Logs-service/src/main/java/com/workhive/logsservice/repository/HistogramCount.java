@@ -0,0 +1,18 @@
+package com.workhive.logsservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One group of an {@link ActivityHistogramQuery}; columns the query does not group by are null.
+ */
+public record HistogramCount(
+        LocalDateTime bucket,
+        String action,
+        String entityType,
+        Long userId,
+        long count) {
+
+    public HistogramCount withCount(long count) {
+        return new HistogramCount(bucket, action, entityType, userId, count);
+    }
+}
@@ -0,0 +1,257 @@
+package com.workhive.logsservice.repository;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Default engine: the {@code activity_logs} table through {@link ActivityLogRepository}.
+ */
+@Component
+@ConditionalOnProperty(name = "logs.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaActivityLogStore implements ActivityLogStore {
+
+    // Batches go around Hibernate on purpose: IDENTITY ids disable Hibernate's insert batching, plain JDBC does not care
+    private static final String INSERT = "INSERT INTO activity_logs "
+            + "(user_id, username, action, entity_type, entity_id, details, ip_address, user_agent, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ActivityLogRepository activityLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${logs.active-users.rebuild-batch-size:1000}")
+    private int scanBatchSize;
+
+    @Value("${logs.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Override
+    public ActivityLog save(ActivityLog activityLog) {
+        return activityLogRepository.save(activityLog);
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(List<ActivityLog> activityLogs) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        ActivityLog activityLog = activityLogs.get(i);
+                        statement.setLong(1, activityLog.getUserId());
+                        statement.setString(2, activityLog.getUsername());
+                        statement.setString(3, activityLog.getAction());
+                        statement.setString(4, activityLog.getEntityType());
+                        statement.setObject(5, activityLog.getEntityId(), Types.BIGINT);
+                        statement.setString(6, activityLog.getDetails());
+                        statement.setString(7, activityLog.getIpAddress());
+                        statement.setString(8, activityLog.getUserAgent());
+                        statement.setObject(9, activityLog.getTimestamp());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return activityLogs.size();
+                    }
+                }, keys);
+        // Generated ids come back in insert order, one key map per row
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < generated.size(); i++) {
+            activityLogs.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    @Override
+    public Optional<ActivityLog> findById(Long id) {
+        return activityLogRepository.findById(id);
+    }
+
+    @Override
+    public List<ActivityLog> findAllById(Collection<Long> ids) {
+        // One IN query on the primary key
+        return activityLogRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<ActivityLog> findPage(ActivityLogFilter filter, LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        if (filter.from() != null || filter.to() != null) {
+            if (filter.from() == null || filter.to() == null || filter.username() != null || filter.action() != null
+                    || filter.entityType() != null) {
+                throw new IllegalArgumentException("Date ranges need both ends and combine with userId only");
+            }
+            return filter.userId() != null
+                    ? activityLogRepository.findPageByUserIdAndDateRange(filter.userId(), filter.from(), filter.to(),
+                            beforeTimestamp, beforeId, page)
+                    : activityLogRepository.findPageByDateRange(filter.from(), filter.to(), beforeTimestamp, beforeId, page);
+        }
+        if (filter.userId() != null) {
+            return activityLogRepository.findPageByUserId(filter.userId(), beforeTimestamp, beforeId, page);
+        }
+        if (filter.username() != null) {
+            return activityLogRepository.findPageByUsername(filter.username(), beforeTimestamp, beforeId, page);
+        }
+        if (filter.action() != null) {
+            return activityLogRepository.findPageByAction(filter.action(), beforeTimestamp, beforeId, page);
+        }
+        if (filter.entityType() != null) {
+            return filter.entityId() != null
+                    ? activityLogRepository.findPageByEntity(filter.entityType(), filter.entityId(), beforeTimestamp, beforeId, page)
+                    : activityLogRepository.findPageByEntityType(filter.entityType(), beforeTimestamp, beforeId, page);
+        }
+        return activityLogRepository.findPage(beforeTimestamp, beforeId, page);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachMatching(ActivityLogFilter filter, Consumer<ActivityLog> visitor) {
+        List<String> clauses = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        where(clauses, parameters, "a.userId = :userId", "userId", filter.userId());
+        where(clauses, parameters, "a.username = :username", "username", filter.username());
+        where(clauses, parameters, "a.action = :action", "action", filter.action());
+        where(clauses, parameters, "a.entityType = :entityType", "entityType", filter.entityType());
+        where(clauses, parameters, "a.entityId = :entityId", "entityId", filter.entityId());
+        where(clauses, parameters, "a.timestamp >= :from", "from", filter.from());
+        where(clauses, parameters, "a.timestamp <= :to", "to", filter.to());
+
+        String jpql = "SELECT a FROM ActivityLog a"
+                + (clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses))
+                + " ORDER BY a.timestamp, a.id";
+        TypedQuery<ActivityLog> query = entityManager.createQuery(jpql, ActivityLog.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        parameters.forEach(query::setParameter);
+
+        // Forward-only cursor; each row is detached once visited so the persistence context stays empty
+        try (Stream<ActivityLog> rows = query.getResultStream()) {
+            rows.forEach(row -> {
+                visitor.accept(row);
+                entityManager.detach(row);
+            });
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        if (!activityLogRepository.existsById(id)) {
+            return false;
+        }
+        activityLogRepository.deleteById(id);
+        return true;
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        activityLogRepository.deleteAllByUserId(userId);
+    }
+
+    @Override
+    public long count() {
+        return activityLogRepository.count();
+    }
+
+    @Override
+    public long count(LocalDateTime from, LocalDateTime to) {
+        return activityLogRepository.countByTimestampGreaterThanEqualAndTimestampLessThan(from, to);
+    }
+
+    @Override
+    public Map<LocalDate, Long> countByDaySince(LocalDateTime since) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : activityLogRepository.countByDaySince(since)) {
+            counts.put((LocalDate) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Long, Long> countByUserSince(LocalDateTime since) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : activityLogRepository.countByUserSince(since)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    @Override
+    public List<HistogramCount> histogram(ActivityHistogramQuery query) {
+        // Native SQL for DATE_TRUNC; idx_activity_logs_histogram covers the range and every grouped column
+        List<String> columns = new ArrayList<>();
+        if (query.bucket() != null) {
+            columns.add("DATE_TRUNC('" + query.bucket().name() + "', timestamp)");
+        }
+        if (query.groupsBy(ActivityHistogramQuery.Dimension.ACTION)) {
+            columns.add("action");
+        }
+        if (query.groupsBy(ActivityHistogramQuery.Dimension.ENTITY_TYPE)) {
+            columns.add("entity_type");
+        }
+        if (query.groupsBy(ActivityHistogramQuery.Dimension.USER)) {
+            columns.add("user_id");
+        }
+        String groups = String.join(", ", columns);
+        String sql = "SELECT " + (columns.isEmpty() ? "" : groups + ", ") + "COUNT(*) FROM activity_logs"
+                + " WHERE timestamp >= ? AND timestamp < ?" + (columns.isEmpty() ? "" : " GROUP BY " + groups);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            int column = 1;
+            LocalDateTime bucket = query.bucket() != null ? rs.getObject(column++, LocalDateTime.class) : null;
+            String action = query.groupsBy(ActivityHistogramQuery.Dimension.ACTION) ? rs.getString(column++) : null;
+            String entityType = query.groupsBy(ActivityHistogramQuery.Dimension.ENTITY_TYPE) ? rs.getString(column++) : null;
+            Long userId = query.groupsBy(ActivityHistogramQuery.Dimension.USER) ? rs.getObject(column++, Long.class) : null;
+            return new HistogramCount(bucket, action, entityType, userId, rs.getLong(column));
+        }, query.from(), query.to());
+    }
+
+    private static void where(List<String> clauses, Map<String, Object> parameters, String clause, String name, Object value) {
+        if (value != null) {
+            clauses.add(clause);
+            parameters.put(name, value);
+        }
+    }
+
+    @Override
+    public void forEachUserActivitySince(LocalDateTime since, UserActivityVisitor visitor) {
+        // Keyset pages on (timestamp, id) so each page seeks into the index and memory stays bounded by the batch size;
+        // ids are positive, so the first page starts with every log at exactly since
+        LocalDateTime lastTimestamp = since;
+        long lastId = 0;
+        List<UserActivityTimestamp> batch;
+        do {
+            batch = activityLogRepository.findUserActivityPage(lastTimestamp, lastId, PageRequest.ofSize(scanBatchSize));
+            for (UserActivityTimestamp row : batch) {
+                visitor.visit(row.getUserId(), row.getTimestamp());
+                lastTimestamp = row.getTimestamp();
+                lastId = row.getId();
+            }
+        } while (batch.size() == scanBatchSize);
+    }
+}
@@ -0,0 +1,14 @@
+package com.workhive.logsservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection used to rebuild the active-user sketches without loading whole log rows.
+ */
+public interface UserActivityTimestamp {
+    Long getId();
+
+    Long getUserId();
+
+    LocalDateTime getTimestamp();
+}
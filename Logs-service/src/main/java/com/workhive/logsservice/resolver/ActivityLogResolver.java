@@ -1,13 +1,21 @@
 package com.workhive.logsservice.resolver;
 
+import com.workhive.logsservice.dto.ActivityLogConnection;
 import com.workhive.logsservice.dto.ActivityLogDto;
+import com.workhive.logsservice.dto.ActivityLogFeedFilter;
 import com.workhive.logsservice.dto.CreateActivityLogInput;
+import com.workhive.logsservice.feed.ActivityFeed;
+import com.workhive.logsservice.repository.ActivityHistogramQuery;
+import com.workhive.logsservice.repository.HistogramCount;
 import com.workhive.logsservice.service.ActivityLogService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,6 +25,7 @@ import java.util.List;
 public class ActivityLogResolver {
 
     private final ActivityLogService activityLogService;
+    private final ActivityFeed activityFeed;
 
     @QueryMapping
     public ActivityLogDto activityLog(@Argument Long id) {
@@ -29,45 +38,51 @@ public class ActivityLogResolver {
     }
 
     @QueryMapping
-    public List<ActivityLogDto> activityLogsByUserId(@Argument Long userId) {
-        return activityLogService.getByUserId(userId);
+    public ActivityLogConnection activityLogsByUserId(@Argument Long userId, @Argument Integer first, @Argument String after) {
+        return activityLogService.getByUserId(userId, first, after);
     }
 
     @QueryMapping
-    public List<ActivityLogDto> activityLogsByUsername(@Argument String username) {
-        return activityLogService.getByUsername(username);
+    public ActivityLogConnection activityLogsByUsername(@Argument String username, @Argument Integer first,
+                                                        @Argument String after) {
+        return activityLogService.getByUsername(username, first, after);
     }
 
     @QueryMapping
-    public List<ActivityLogDto> activityLogsByAction(@Argument String action) {
-        return activityLogService.getByAction(action);
+    public ActivityLogConnection activityLogsByAction(@Argument String action, @Argument Integer first, @Argument String after) {
+        return activityLogService.getByAction(action, first, after);
     }
 
     @QueryMapping
-    public List<ActivityLogDto> activityLogsByEntityType(@Argument String entityType) {
-        return activityLogService.getByEntityType(entityType);
+    public ActivityLogConnection activityLogsByEntityType(@Argument String entityType, @Argument Integer first,
+                                                          @Argument String after) {
+        return activityLogService.getByEntityType(entityType, first, after);
     }
 
     @QueryMapping
-    public List<ActivityLogDto> activityLogsByEntity(@Argument String entityType, @Argument Long entityId) {
-        return activityLogService.getByEntity(entityType, entityId);
+    public ActivityLogConnection activityLogsByEntity(@Argument String entityType, @Argument Long entityId,
+                                                      @Argument Integer first, @Argument String after) {
+        return activityLogService.getByEntity(entityType, entityId, first, after);
     }
 
     @QueryMapping
-    public List<ActivityLogDto> activityLogsByDateRange(@Argument String startDate, @Argument String endDate) {
+    public ActivityLogConnection activityLogsByDateRange(@Argument String startDate, @Argument String endDate,
+                                                         @Argument Integer first, @Argument String after) {
         LocalDateTime start = LocalDateTime.parse(startDate);
         LocalDateTime end = LocalDateTime.parse(endDate);
-        return activityLogService.getByDateRange(start, end);
+        return activityLogService.getByDateRange(start, end, first, after);
     }
 
     @QueryMapping
-    public List<ActivityLogDto> activityLogsByUserAndDateRange(
+    public ActivityLogConnection activityLogsByUserAndDateRange(
             @Argument Long userId,
             @Argument String startDate,
-            @Argument String endDate) {
+            @Argument String endDate,
+            @Argument Integer first,
+            @Argument String after) {
         LocalDateTime start = LocalDateTime.parse(startDate);
         LocalDateTime end = LocalDateTime.parse(endDate);
-        return activityLogService.getByUserAndDateRange(userId, start, end);
+        return activityLogService.getByUserAndDateRange(userId, start, end, first, after);
     }
 
     @QueryMapping
@@ -75,6 +90,33 @@ public class ActivityLogResolver {
         return activityLogService.getRecentUserActivities(userId);
     }
 
+    @QueryMapping
+    public ActivityLogConnection searchActivityLogs(@Argument String query, @Argument Integer first, @Argument String after,
+                                                    @Argument String from, @Argument String to) {
+        return activityLogService.search(query, first, after,
+                from != null ? LocalDateTime.parse(from) : null,
+                to != null ? LocalDateTime.parse(to) : null);
+    }
+
+    @QueryMapping
+    public List<HistogramCount> activityHistogram(@Argument List<ActivityHistogramQuery.Dimension> groupBy,
+                                                  @Argument ActivityHistogramQuery.Bucket bucket,
+                                                  @Argument String from, @Argument String to) {
+        return activityLogService.histogram(groupBy, bucket, LocalDateTime.parse(from), LocalDateTime.parse(to));
+    }
+
+    // Registered as a per-request DataLoader: all ActivityLogs of one query share a single batched lookup,
+    // and nothing is fetched when userFullName is not selected
+    @BatchMapping
+    public List<String> userFullName(List<ActivityLogDto> activityLogs) {
+        return activityLogService.getUserFullNames(activityLogs);
+    }
+
+    @SubscriptionMapping
+    public Flux<ActivityLogDto> activityLogCreated(@Argument ActivityLogFeedFilter filter) {
+        return activityFeed.subscribe(filter);
+    }
+
     @MutationMapping
     public ActivityLogDto createActivityLog(@Argument CreateActivityLogInput input) {
         return activityLogService.createActivityLog(input);
@@ -0,0 +1,143 @@
+package com.workhive.logsservice.resolver;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU of parsed and validated GraphQL documents keyed by the SHA-256 of the query text, which also
+ * serves automatic persisted queries: a client sends {@code extensions.persistedQuery.sha256Hash} without the
+ * query, gets {@code PersistedQueryNotFound} if the hash is unknown, and retries once with the query, which
+ * registers it. Full-text requests warm the cache for hash-only ones, since both use the same key.
+ * Hash-only requests work as-is over HTTP. Over WebSocket, Spring GraphQL rejects a subscribe message without
+ * a query before this provider runs, so clients send {@code PersistedQueryMarker} as the query there.
+ * <p>
+ * Documents that fail to parse or validate are never cached. Variables are not part of a document,
+ * so one entry serves every page of a query.
+ */
+@Component
+public class GraphQlDocumentCache implements PreparsedDocumentProvider {
+
+    // Stands in for the query text when only the hash is known
+    private static final String PERSISTED_QUERY_MARKER = "PersistedQueryMarker";
+
+    @Value("${logs.graphql.document-cache-size:500}")
+    private int maxSize;
+
+    private final Counter hits;
+    private final Counter misses;
+    private Map<String, PreparsedDocumentEntry> cache;
+
+    public GraphQlDocumentCache(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("logs.graphql.documents", "result", "hit");
+        this.misses = meterRegistry.counter("logs.graphql.documents", "result", "miss");
+    }
+
+    @PostConstruct
+    void init() {
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                                                                      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        return CompletableFuture.completedFuture(getDocument(executionInput, parseAndValidate));
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        String query = executionInput.getQuery();
+        boolean queryMissing = query == null || query.isBlank() || query.equals(PERSISTED_QUERY_MARKER);
+        String persistedHash = persistedQueryHash(executionInput);
+
+        String key;
+        if (persistedHash == null) {
+            if (queryMissing) {
+                // Let graphql-java report the missing query
+                return parseAndValidate.apply(executionInput);
+            }
+            key = sha256(query);
+        } else if (queryMissing) {
+            key = persistedHash;
+        } else {
+            key = sha256(query);
+            if (!key.equals(persistedHash)) {
+                return error("provided sha does not match query", "INVALID_PERSISTED_QUERY_HASH");
+            }
+        }
+
+        PreparsedDocumentEntry cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        if (queryMissing) {
+            return error("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+        }
+
+        // Parsed outside the lock; two requests racing on a new query both parse it, the last one is kept
+        PreparsedDocumentEntry entry = parseAndValidate.apply(executionInput);
+        if (!entry.hasErrors()) {
+            synchronized (cache) {
+                cache.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String persistedQueryHash(ExecutionInput executionInput) {
+        Map<String, Object> extensions = executionInput.getExtensions();
+        if (extensions == null || !(extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery)) {
+            return null;
+        }
+        Object hash = ((Map<String, Object>) persistedQuery).get("sha256Hash");
+        return hash instanceof String value && !value.isBlank() ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static PreparsedDocumentEntry error(String message, String code) {
+        GraphQLError error = GraphqlErrorBuilder.newError()
+                .errorType(ErrorType.BAD_REQUEST)
+                .message(message)
+                .extensions(Map.of("code", code))
+                .build();
+        return new PreparsedDocumentEntry(error);
+    }
+
+    private static String sha256(String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
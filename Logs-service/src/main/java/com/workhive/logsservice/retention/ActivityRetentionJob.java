@@ -0,0 +1,271 @@
+package com.workhive.logsservice.retention;
+
+import com.workhive.logsservice.archive.ColdArchive;
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces the {@link RetentionPolicy} on the {@code activity_logs} table.
+ * <p>
+ * Logs are treated as day partitions: for every rule, each expired day is a {@code [day, day + 1)} range on
+ * the rule's (..., timestamp, id) index, dropped (or first written to the columnar {@link ColdArchive}) in
+ * set-based batches of {@code batch-size} rows. The job runs off-peak on its own thread, never on the shared scheduler,
+ * and pauses between batches so live inserts and reads keep getting the table.
+ */
+@Component
+@ConditionalOnProperty(name = "logs.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityRetentionJob {
+
+    public enum Mode { DROP, ARCHIVE }
+
+    private static final String COLUMNS =
+            "id, user_id, username, action, entity_type, entity_id, details, ip_address, user_agent, timestamp";
+
+    private static final RowMapper<ActivityLog> ROW_MAPPER = (rs, rowNum) -> ActivityLog.builder()
+            .id(rs.getLong("id"))
+            .userId(rs.getLong("user_id"))
+            .username(rs.getString("username"))
+            .action(rs.getString("action"))
+            .entityType(rs.getString("entity_type"))
+            .entityId(rs.getObject("entity_id", Long.class))
+            .details(rs.getString("details"))
+            .ipAddress(rs.getString("ip_address"))
+            .userAgent(rs.getString("user_agent"))
+            .timestamp(rs.getObject("timestamp", LocalDateTime.class))
+            .build();
+
+    private final RetentionPolicy retentionPolicy;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ColdArchive coldArchive;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${logs.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${logs.retention.mode:DROP}")
+    private Mode mode;
+
+    @Value("${logs.retention.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${logs.retention.batch-pause-ms:50}")
+    private long batchPauseMs;
+
+    private final ExecutorService housekeeper = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "activity-retention");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${logs.retention.cron:0 30 3 * * *}")
+    public void schedule() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            housekeeper.execute(() -> {
+                try {
+                    enforce(LocalDate.now());
+                } catch (Exception e) {
+                    log.error("Activity log retention run failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        housekeeper.shutdownNow();
+    }
+
+    /**
+     * Removes every log that is past its retention period on {@code today}; returns how many were removed.
+     */
+    public long enforce(LocalDate today) throws IOException, InterruptedException {
+        long removed = 0;
+        LocalDate removedBefore = null;
+        for (Sweep sweep : sweeps(today)) {
+            long swept = sweep(sweep);
+            if (swept > 0) {
+                removed += swept;
+                if (removedBefore == null || sweep.oldestRetained().isAfter(removedBefore)) {
+                    removedBefore = sweep.oldestRetained();
+                }
+            }
+        }
+        if (removed > 0) {
+            meterRegistry.counter("logs.retention.removed", "mode", mode.name()).increment(removed);
+            eventPublisher.publishEvent(StatisticsChangedEvent.expiredActivitiesDeleted(removed, removedBefore.atStartOfDay()));
+        }
+        log.info("Activity log retention removed {} logs ({})", removed, mode);
+        return removed;
+    }
+
+    /**
+     * One sweep per configured period; each one excludes the logs a more specific period governs.
+     */
+    private List<Sweep> sweeps(LocalDate today) {
+        Set<String> actions = retentionPolicy.daysByAction().keySet();
+        Set<String> entityTypes = retentionPolicy.daysByEntityType().keySet();
+        List<Sweep> sweeps = new ArrayList<>();
+
+        retentionPolicy.daysByAction().forEach((action, days) ->
+                addSweep(sweeps, "action " + action, today, days, List.of("action = ?"), List.of(action)));
+
+        retentionPolicy.daysByEntityType().forEach((entityType, days) -> {
+            List<String> clauses = new ArrayList<>(List.of("entity_type = ?"));
+            List<Object> arguments = new ArrayList<>(List.of(entityType));
+            exclude(clauses, arguments, "action", actions);
+            addSweep(sweeps, "entity type " + entityType, today, days, clauses, arguments);
+        });
+
+        List<String> clauses = new ArrayList<>();
+        List<Object> arguments = new ArrayList<>();
+        exclude(clauses, arguments, "action", actions);
+        exclude(clauses, arguments, "entity_type", entityTypes);
+        addSweep(sweeps, "default", today, retentionPolicy.defaultDays(), clauses, arguments);
+        return sweeps;
+    }
+
+    private static void addSweep(List<Sweep> sweeps, String name, LocalDate today, int days,
+                                 List<String> clauses, List<Object> arguments) {
+        LocalDate oldestRetained = RetentionPolicy.oldestRetainedDay(today, days);
+        if (oldestRetained != null) {
+            sweeps.add(new Sweep(name, clauses, arguments, oldestRetained));
+        }
+    }
+
+    private static void exclude(List<String> clauses, List<Object> arguments, String column, Set<String> values) {
+        if (!values.isEmpty()) {
+            clauses.add(column + " NOT IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")");
+            arguments.addAll(values);
+        }
+    }
+
+    private long sweep(Sweep sweep) throws IOException, InterruptedException {
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(timestamp) FROM activity_logs" + sweep.where(List.of()), LocalDateTime.class,
+                sweep.arguments().toArray());
+        long removed = 0;
+        if (oldest == null) {
+            return removed;
+        }
+        for (LocalDate day = oldest.toLocalDate(); day.isBefore(sweep.oldestRetained()); day = day.plusDays(1)) {
+            removed += removeDay(sweep, day);
+        }
+        if (removed > 0) {
+            log.info("Retention '{}' removed {} logs before {}", sweep.name(), removed, sweep.oldestRetained());
+        }
+        return removed;
+    }
+
+    private long removeDay(Sweep sweep, LocalDate day) throws IOException, InterruptedException {
+        String where = sweep.where(List.of("timestamp >= ?", "timestamp < ?"));
+        List<Object> arguments = new ArrayList<>(sweep.arguments());
+        arguments.add(day.atStartOfDay());
+        arguments.add(day.plusDays(1).atStartOfDay());
+        if (mode == Mode.ARCHIVE) {
+            return archiveDay(day, where, arguments);
+        }
+        arguments.add(batchSize);
+
+        long removed = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList("SELECT id FROM activity_logs" + where + " FETCH FIRST ? ROWS ONLY",
+                    Long.class, arguments.toArray());
+            if (ids.isEmpty()) {
+                break;
+            }
+            removed += delete(ids);
+        } while (ids.size() == batchSize);
+        return removed;
+    }
+
+    /**
+     * Streams the day's rows into a new cold archive part and fsyncs it, then deletes exactly those rows.
+     * Rows a previous run archived but did not get to delete are deleted without being archived twice.
+     */
+    private long archiveDay(LocalDate day, String where, List<Object> arguments) throws IOException, InterruptedException {
+        Set<Long> archived = coldArchive.archivedIds(day);
+        List<Long> ids = new ArrayList<>();
+        try (ColdArchive.DayWriter writer = coldArchive.newPart(day)) {
+            jdbcTemplate.query("SELECT " + COLUMNS + " FROM activity_logs" + where + " ORDER BY timestamp, id",
+                    (RowCallbackHandler) rs -> {
+                        ActivityLog row = ROW_MAPPER.mapRow(rs, ids.size());
+                        ids.add(row.getId());
+                        if (!archived.contains(row.getId())) {
+                            try {
+                                writer.append(row);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    }, arguments.toArray());
+            writer.commit();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long removed = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            removed += delete(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+        }
+        return removed;
+    }
+
+    private int delete(List<Long> ids) throws InterruptedException {
+        int deleted = namedParameterJdbcTemplate.update("DELETE FROM activity_logs WHERE id IN (:ids)", Map.of("ids", ids));
+        if (batchPauseMs > 0) {
+            Thread.sleep(batchPauseMs);
+        }
+        return deleted;
+    }
+
+    private record Sweep(String name, List<String> clauses, List<Object> arguments, LocalDate oldestRetained) {
+
+        String where(List<String> extraClauses) {
+            List<String> all = new ArrayList<>(clauses);
+            all.addAll(extraClauses);
+            return all.isEmpty() ? "" : " WHERE " + String.join(" AND ", all);
+        }
+    }
+}
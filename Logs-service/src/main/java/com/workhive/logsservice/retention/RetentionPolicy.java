@@ -0,0 +1,72 @@
+package com.workhive.logsservice.retention;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How long activity logs are kept. An action-specific period wins over an entity-type one, which wins
+ * over the default; a period of 0 days keeps the matching logs forever.
+ * <p>
+ * Periods are configured as comma separated {@code NAME:days} pairs, e.g. {@code LOGIN:90,LOGOUT:90}.
+ */
+@Component
+public class RetentionPolicy {
+
+    @Value("${logs.retention.default-days:365}")
+    private int defaultDays;
+
+    @Value("${logs.retention.actions:}")
+    private String actions;
+
+    @Value("${logs.retention.entity-types:}")
+    private String entityTypes;
+
+    private Map<String, Integer> daysByAction = Map.of();
+    private Map<String, Integer> daysByEntityType = Map.of();
+
+    @PostConstruct
+    void parse() {
+        daysByAction = parse("logs.retention.actions", actions);
+        daysByEntityType = parse("logs.retention.entity-types", entityTypes);
+    }
+
+    public int defaultDays() {
+        return defaultDays;
+    }
+
+    public Map<String, Integer> daysByAction() {
+        return daysByAction;
+    }
+
+    public Map<String, Integer> daysByEntityType() {
+        return daysByEntityType;
+    }
+
+    /**
+     * First day that is still retained under a period of {@code days}, or null when it keeps logs forever.
+     */
+    public static LocalDate oldestRetainedDay(LocalDate today, int days) {
+        return days > 0 ? today.minusDays(days - 1L) : null;
+    }
+
+    private static Map<String, Integer> parse(String property, String value) {
+        Map<String, Integer> days = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            return days;
+        }
+        for (String pair : value.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalArgumentException(property + " expects NAME:days pairs, got '" + pair.trim() + "'");
+            }
+            days.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return Collections.unmodifiableMap(days);
+    }
+}
@@ -0,0 +1,697 @@
+package com.workhive.logsservice.search;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Embedded inverted index over the details, action, entity type and username of activity logs.
+ * <p>
+ * New logs are tokenized after commit into an in-memory buffer that searches see at once; the buffer is
+ * flushed to an immutable memory-mapped {@link IndexSegment} every {@code flush-docs} logs or
+ * {@code flush-interval-ms}, and small segments are merged in the background so a search touches at most
+ * {@code max-segments} files. {@code segments.manifest} lists the live files and is replaced atomically.
+ * Logs committed while the service was down are caught up from the store on startup.
+ * <p>
+ * Hits match every query term and are ranked with BM25, matches in the short structured fields weighing
+ * more than matches in the details text. The index is never updated in place: deleted logs stay in it until
+ * their segment ages out, and callers re-check each hit against the stored log.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityLogIndex {
+
+    /**
+     * One matching log and its relevance.
+     */
+    public record Hit(long id, double score) {
+    }
+
+    private static final String SEGMENT_PREFIX = "index-";
+    private static final String SEGMENT_SUFFIX = ".idx";
+    private static final String MANIFEST = "segments.manifest";
+
+    // BM25 term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int DETAILS_WEIGHT = 1;
+    private static final int FIELD_WEIGHT = 3;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id);
+
+    private final ActivityLogStore activityLogStore;
+
+    @Value("${logs.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${logs.search.dir:./data/activity-index}")
+    private String directory;
+
+    @Value("${logs.search.flush-docs:10000}")
+    private int flushDocs;
+
+    @Value("${logs.search.max-segments:10}")
+    private int maxSegments;
+
+    @Value("${logs.search.retention-days:365}")
+    private int retentionDays;
+
+    @Value("${logs.search.catch-up-slack-seconds:300}")
+    private long catchUpSlackSeconds;
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "activity-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean maintenanceQueued = new AtomicBoolean();
+    private final Object lock = new Object();
+
+    // Written under lock; searches take a consistent snapshot of all three under it
+    private volatile List<IndexSegment> segments = List.of();
+    private MemoryBuffer buffer = new MemoryBuffer();
+    private MemoryBuffer flushing;
+
+    // Indexer thread only
+    private Path root;
+    private long generation;
+    private volatile boolean opened;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        indexer.execute(() -> {
+            try {
+                open();
+                opened = true;
+                catchUp();
+                ready = true;
+            } catch (Exception e) {
+                log.error("Activity log index could not be opened, search stays unavailable", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        indexer.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogsCreated(ActivityLogsCreatedEvent event) {
+        // Logs committed before the segments are open are picked up by the catch-up scan instead
+        if (!enabled || !opened) {
+            return;
+        }
+        for (ActivityLog activityLog : event.activityLogs()) {
+            add(activityLog);
+        }
+        if (bufferedDocs() >= flushDocs) {
+            requestMaintenance();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${logs.search.flush-interval-ms:5000}")
+    public void requestMaintenance() {
+        if (!ready || !maintenanceQueued.compareAndSet(false, true)) {
+            return;
+        }
+        indexer.execute(() -> {
+            maintenanceQueued.set(false);
+            try {
+                flush();
+                retire();
+                mergeIfNeeded();
+            } catch (IOException e) {
+                log.error("Activity log index maintenance failed, buffered logs are kept for the next attempt", e);
+            }
+        });
+    }
+
+    /**
+     * Up to {@code limit} hits ranked after {@code after}, best first, optionally limited to a time window (inclusive).
+     */
+    public List<Hit> search(SearchQuery query, LocalDateTime from, LocalDateTime to, SearchCursor after, int limit) {
+        if (!enabled) {
+            throw new IllegalStateException("Activity log search is disabled");
+        }
+        List<String> terms = query.terms();
+        long fromSecond = from != null ? epochSecond(from) : Long.MIN_VALUE;
+        long toSecond = to != null ? epochSecond(to) : Long.MAX_VALUE;
+
+        List<IndexedDocs> parts = new ArrayList<>();
+        long docCount;
+        long totalLength;
+        int[] docFrequencies = new int[terms.size()];
+        synchronized (lock) {
+            List<IndexSegment> current = segments;
+            parts.addAll(current);
+            docCount = buffer.docCount;
+            totalLength = buffer.totalLength;
+            // The live buffer keeps growing, so its postings are decoded while the lock is held
+            parts.add(buffer.snapshot(terms));
+            if (flushing != null) {
+                parts.add(flushing);
+                docCount += flushing.docCount;
+                totalLength += flushing.totalLength;
+            }
+            for (IndexSegment segment : current) {
+                docCount += segment.docCount();
+                totalLength += segment.totalLength();
+            }
+            for (int t = 0; t < terms.size(); t++) {
+                String term = terms.get(t);
+                docFrequencies[t] = buffer.docFrequency(term) + (flushing != null ? flushing.docFrequency(term) : 0);
+                for (IndexSegment segment : current) {
+                    docFrequencies[t] += segment.docFrequency(term);
+                }
+            }
+        }
+        if (docCount == 0) {
+            return List.of();
+        }
+        double averageLength = (double) totalLength / docCount;
+        double[] idf = new double[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            idf[t] = Math.log(1 + (docCount - docFrequencies[t] + 0.5) / (docFrequencies[t] + 0.5));
+        }
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+        for (IndexedDocs part : parts) {
+            collect(part, terms, idf, averageLength, fromSecond, toSecond, after, limit, best);
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING.reversed());
+        return hits;
+    }
+
+    private static void collect(IndexedDocs part, List<String> terms, double[] idf, double averageLength,
+                                long fromSecond, long toSecond, SearchCursor after, int limit, PriorityQueue<Hit> best) {
+        Postings.Decoded[] postings = new Postings.Decoded[terms.size()];
+        int driver = 0;
+        for (int t = 0; t < terms.size(); t++) {
+            postings[t] = part.postings(terms.get(t));
+            if (postings[t] == null) {
+                return;
+            }
+            if (postings[t].ordinals().length < postings[driver].ordinals().length) {
+                driver = t;
+            }
+        }
+        // Walk the rarest term and advance the others alongside it; all postings are in ordinal order
+        int[] positions = new int[terms.size()];
+        candidates:
+        for (int i = 0; i < postings[driver].ordinals().length; i++) {
+            int ordinal = postings[driver].ordinals()[i];
+            for (int t = 0; t < terms.size(); t++) {
+                int[] ordinals = postings[t].ordinals();
+                while (positions[t] < ordinals.length && ordinals[positions[t]] < ordinal) {
+                    positions[t]++;
+                }
+                if (positions[t] == ordinals.length) {
+                    return;
+                }
+                if (ordinals[positions[t]] != ordinal) {
+                    continue candidates;
+                }
+            }
+            long epochSecond = part.epochSecond(ordinal);
+            if (epochSecond < fromSecond || epochSecond > toSecond) {
+                continue;
+            }
+            double normalization = K1 * (1 - B + B * part.length(ordinal) / averageLength);
+            double score = 0;
+            for (int t = 0; t < terms.size(); t++) {
+                int frequency = postings[t].frequencies()[positions[t]];
+                score += idf[t] * frequency * (K1 + 1) / (frequency + normalization);
+            }
+            long id = part.id(ordinal);
+            if (!after.isFollowedBy(score, id)) {
+                continue;
+            }
+            Hit hit = new Hit(id, score);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (RANKING.compare(hit, best.peek()) > 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+    }
+
+    /**
+     * Tokenizes and buffers one log; logs already in the index are skipped. Returns whether it was added.
+     */
+    private boolean add(ActivityLog activityLog) {
+        if (activityLog.getId() == null) {
+            return false;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        int[] length = new int[1];
+        Tokenizer.indexTerms(activityLog.getDetails(), term -> {
+            frequencies.merge(term, DETAILS_WEIGHT, Integer::sum);
+            length[0] += DETAILS_WEIGHT;
+        });
+        for (String field : new String[]{activityLog.getAction(), activityLog.getEntityType(), activityLog.getUsername()}) {
+            Tokenizer.indexTerms(field, term -> {
+                frequencies.merge(term, FIELD_WEIGHT, Integer::sum);
+                length[0] += FIELD_WEIGHT;
+            });
+        }
+        long id = activityLog.getId();
+        synchronized (lock) {
+            if (buffer.contains(id) || (flushing != null && flushing.contains(id))
+                    || segments.stream().anyMatch(segment -> segment.containsId(id))) {
+                return false;
+            }
+            buffer.add(id, epochSecond(activityLog.getTimestamp()), length[0], frequencies);
+        }
+        return true;
+    }
+
+    private int bufferedDocs() {
+        synchronized (lock) {
+            return buffer.docCount;
+        }
+    }
+
+    private void open() throws IOException {
+        root = Files.createDirectories(Path.of(directory));
+        Path manifest = root.resolve(MANIFEST);
+        Set<String> live = Files.exists(manifest) ? new HashSet<>(Files.readAllLines(manifest)) : Set.of();
+        List<IndexSegment> opened = new ArrayList<>();
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path path : files.sorted().toList()) {
+                String name = path.getFileName().toString();
+                if (live.contains(name)) {
+                    opened.add(IndexSegment.open(path));
+                    generation = Math.max(generation, generationOf(name));
+                } else if (!name.equals(MANIFEST)) {
+                    // Left over from an interrupted flush or merge
+                    Files.delete(path);
+                }
+            }
+        }
+        synchronized (lock) {
+            segments = List.copyOf(opened);
+        }
+        if (isStale()) {
+            log.warn("Activity log index in {} does not match the store, rebuilding it", root);
+            replaceSegments(List.of(), opened);
+        }
+        log.info("Opened activity log index in {} with {} segments", root, segments.size());
+    }
+
+    /**
+     * The newest indexed log must still exist with the same timestamp; otherwise the store was reset
+     * (e.g. an in-memory database) and the ids in the index point at other rows or nothing.
+     */
+    private boolean isStale() {
+        Optional<IndexSegment> newest = segments.stream()
+                .filter(segment -> segment.docCount() > 0)
+                .max(Comparator.comparingLong(IndexSegment::maxId));
+        if (newest.isEmpty()) {
+            return false;
+        }
+        IndexSegment segment = newest.get();
+        int ordinal = segment.docCount() - 1;
+        return activityLogStore.findById(segment.id(ordinal))
+                .map(activityLog -> epochSecond(activityLog.getTimestamp()) != segment.epochSecond(ordinal))
+                .orElse(true);
+    }
+
+    private void catchUp() throws IOException {
+        long watermark = segments.stream().mapToLong(IndexSegment::maxEpochSecond).max().orElse(Long.MIN_VALUE);
+        LocalDateTime from = watermark == Long.MIN_VALUE ? null
+                : LocalDateTime.ofEpochSecond(watermark - catchUpSlackSeconds, 0, ZoneOffset.UTC);
+        long[] added = new long[1];
+        IOException[] failure = new IOException[1];
+        activityLogStore.forEachMatching(new ActivityLogFilter(null, null, null, null, null, from, null), activityLog -> {
+            if (add(activityLog)) {
+                added[0]++;
+            }
+            // Flushed inline: this already runs on the indexer thread, and a first build must not buffer the whole table
+            if (failure[0] == null && bufferedDocs() >= flushDocs) {
+                try {
+                    flush();
+                    mergeIfNeeded();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        flush();
+        log.info("Activity log index caught up {} logs since {}", added[0], from != null ? from : "the beginning");
+    }
+
+    private void flush() throws IOException {
+        MemoryBuffer full;
+        synchronized (lock) {
+            if (flushing == null) {
+                if (buffer.docCount == 0) {
+                    return;
+                }
+                flushing = buffer;
+                buffer = new MemoryBuffer();
+            }
+            full = flushing;
+        }
+        IndexSegment segment = full.writeTo(segmentPath(++generation));
+        List<IndexSegment> next = new ArrayList<>(segments);
+        next.add(segment);
+        writeManifest(next);
+        synchronized (lock) {
+            segments = List.copyOf(next);
+            flushing = null;
+        }
+    }
+
+    /**
+     * Drops whole segments whose newest log is past the retention period.
+     */
+    private void retire() throws IOException {
+        long cutoff = epochSecond(LocalDateTime.now().minusDays(retentionDays));
+        List<IndexSegment> expired = segments.stream()
+                .filter(segment -> segment.maxEpochSecond() < cutoff)
+                .toList();
+        if (!expired.isEmpty()) {
+            replaceSegments(List.of(), expired);
+            log.info("Retired {} activity index segments older than {} days", expired.size(), retentionDays);
+        }
+    }
+
+    /**
+     * Merges the smaller half of the segments into one once there are more than {@code max-segments},
+     * dropping logs past the retention period on the way.
+     */
+    private void mergeIfNeeded() throws IOException {
+        List<IndexSegment> current = segments;
+        if (current.size() <= maxSegments) {
+            return;
+        }
+        List<IndexSegment> smallest = current.stream()
+                .sorted(Comparator.comparingInt(IndexSegment::docCount))
+                .limit(Math.max(2, current.size() / 2))
+                .toList();
+        long cutoff = epochSecond(LocalDateTime.now().minusDays(retentionDays));
+        IndexSegment merged = merge(smallest, segmentPath(++generation), cutoff);
+        replaceSegments(List.of(merged), smallest);
+        log.debug("Merged {} activity index segments into {} ({} logs)", smallest.size(), merged.path().getFileName(),
+                merged.docCount());
+    }
+
+    private void replaceSegments(List<IndexSegment> added, List<IndexSegment> removed) throws IOException {
+        List<IndexSegment> next = new ArrayList<>(segments);
+        next.removeAll(removed);
+        next.addAll(added);
+        writeManifest(next);
+        synchronized (lock) {
+            segments = List.copyOf(next);
+        }
+        // Searches still holding a removed segment keep reading its mapping after the file is unlinked
+        for (IndexSegment segment : removed) {
+            segment.delete();
+        }
+    }
+
+    private void writeManifest(List<IndexSegment> live) throws IOException {
+        Path temporary = root.resolve(MANIFEST + ".tmp");
+        Files.write(temporary, live.stream().map(segment -> segment.path().getFileName().toString()).toList());
+        Files.move(temporary, root.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path segmentPath(long segmentGeneration) {
+        return root.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentGeneration, SEGMENT_SUFFIX));
+    }
+
+    private static long generationOf(String name) {
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static long epochSecond(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * K-way merge of segments: docs stay sorted by id, every term's postings are remapped to the new ordinals.
+     */
+    private static IndexSegment merge(List<IndexSegment> sources, Path path, long cutoff) throws IOException {
+        int total = sources.stream().mapToInt(IndexSegment::docCount).sum();
+        long[] ids = new long[total];
+        long[] epochSeconds = new long[total];
+        int[] lengths = new int[total];
+        int[][] remapped = new int[sources.size()][];
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Comparator.comparingLong(head -> sources.get(head[0]).id(head[1])));
+        for (int s = 0; s < sources.size(); s++) {
+            remapped[s] = new int[sources.get(s).docCount()];
+            Arrays.fill(remapped[s], -1);
+            if (sources.get(s).docCount() > 0) {
+                heads.add(new int[]{s, 0});
+            }
+        }
+        int docCount = 0;
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            IndexSegment source = sources.get(head[0]);
+            int ordinal = head[1];
+            if (source.epochSecond(ordinal) >= cutoff) {
+                ids[docCount] = source.id(ordinal);
+                epochSeconds[docCount] = source.epochSecond(ordinal);
+                lengths[docCount] = source.length(ordinal);
+                remapped[head[0]][ordinal] = docCount++;
+            }
+            if (ordinal + 1 < source.docCount()) {
+                heads.add(new int[]{head[0], ordinal + 1});
+            }
+        }
+
+        TreeSet<String> terms = new TreeSet<>();
+        for (IndexSegment source : sources) {
+            terms.addAll(Arrays.asList(source.terms()));
+        }
+        Iterator<String> termIterator = terms.iterator();
+        Iterator<Map.Entry<String, Postings>> postings = new Iterator<>() {
+            private Map.Entry<String, Postings> next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && termIterator.hasNext()) {
+                    String term = termIterator.next();
+                    Postings merged = new Postings();
+                    List<long[]> parts = new ArrayList<>();
+                    for (int s = 0; s < sources.size(); s++) {
+                        Postings.Decoded decoded = sources.get(s).postings(term);
+                        if (decoded == null) {
+                            continue;
+                        }
+                        long[] packed = new long[decoded.ordinals().length];
+                        int kept = 0;
+                        for (int i = 0; i < packed.length; i++) {
+                            int ordinal = remapped[s][decoded.ordinals()[i]];
+                            if (ordinal >= 0) {
+                                packed[kept++] = ((long) ordinal << 32) | decoded.frequencies()[i];
+                            }
+                        }
+                        parts.add(Arrays.copyOf(packed, kept));
+                    }
+                    long[] all = parts.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+                    for (long posting : all) {
+                        merged.add((int) (posting >>> 32), (int) posting);
+                    }
+                    if (merged.docFrequency() > 0) {
+                        next = Map.entry(term, merged);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<String, Postings> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<String, Postings> current = next;
+                next = null;
+                return current;
+            }
+        };
+        return IndexSegment.write(path, Arrays.copyOf(ids, docCount), Arrays.copyOf(epochSeconds, docCount),
+                Arrays.copyOf(lengths, docCount), postings);
+    }
+
+    /**
+     * Logs indexed since the last flush. Only the live buffer is mutated, always under the index lock;
+     * once it is being flushed it is read without locking.
+     */
+    private static final class MemoryBuffer implements IndexedDocs {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private long[] ids = new long[256];
+        private long[] epochSeconds = new long[256];
+        private int[] lengths = new int[256];
+        private int docCount;
+        private long totalLength;
+
+        private boolean contains(long id) {
+            return ordinals.containsKey(id);
+        }
+
+        private void add(long id, long epochSecond, int length, Map<String, Integer> frequencies) {
+            if (docCount == ids.length) {
+                ids = Arrays.copyOf(ids, docCount * 2);
+                epochSeconds = Arrays.copyOf(epochSeconds, docCount * 2);
+                lengths = Arrays.copyOf(lengths, docCount * 2);
+            }
+            int ordinal = docCount++;
+            ids[ordinal] = id;
+            epochSeconds[ordinal] = epochSecond;
+            lengths[ordinal] = length;
+            totalLength += length;
+            ordinals.put(id, ordinal);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, frequency));
+        }
+
+        private int docFrequency(String term) {
+            Postings termPostings = postings.get(term);
+            return termPostings == null ? 0 : termPostings.docFrequency();
+        }
+
+        /**
+         * An immutable view of the docs indexed so far with the postings of {@code terms} decoded.
+         */
+        private IndexedDocs snapshot(List<String> terms) {
+            long[] snapshotIds = ids;
+            long[] snapshotEpochSeconds = epochSeconds;
+            int[] snapshotLengths = lengths;
+            Map<String, Postings.Decoded> decoded = new HashMap<>();
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings != null) {
+                    decoded.put(term, termPostings.decode());
+                }
+            }
+            return new IndexedDocs() {
+                @Override
+                public long id(int ordinal) {
+                    return snapshotIds[ordinal];
+                }
+
+                @Override
+                public long epochSecond(int ordinal) {
+                    return snapshotEpochSeconds[ordinal];
+                }
+
+                @Override
+                public int length(int ordinal) {
+                    return snapshotLengths[ordinal];
+                }
+
+                @Override
+                public Postings.Decoded postings(String term) {
+                    return decoded.get(term);
+                }
+            };
+        }
+
+        @Override
+        public long id(int ordinal) {
+            return ids[ordinal];
+        }
+
+        @Override
+        public long epochSecond(int ordinal) {
+            return epochSeconds[ordinal];
+        }
+
+        @Override
+        public int length(int ordinal) {
+            return lengths[ordinal];
+        }
+
+        @Override
+        public Postings.Decoded postings(String term) {
+            Postings termPostings = postings.get(term);
+            return termPostings == null ? null : termPostings.decode();
+        }
+
+        /**
+         * Writes the buffer as a segment: docs sorted by id, postings remapped to the sorted ordinals.
+         */
+        private IndexSegment writeTo(Path path) throws IOException {
+            Integer[] order = new Integer[docCount];
+            for (int i = 0; i < docCount; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> ids[i]));
+            int[] remapped = new int[docCount];
+            long[] sortedIds = new long[docCount];
+            long[] sortedEpochSeconds = new long[docCount];
+            int[] sortedLengths = new int[docCount];
+            for (int ordinal = 0; ordinal < docCount; ordinal++) {
+                int old = order[ordinal];
+                remapped[old] = ordinal;
+                sortedIds[ordinal] = ids[old];
+                sortedEpochSeconds[ordinal] = epochSeconds[old];
+                sortedLengths[ordinal] = lengths[old];
+            }
+            TreeMap<String, Postings> sorted = new TreeMap<>();
+            postings.forEach((term, termPostings) -> {
+                Postings.Decoded decoded = termPostings.decode();
+                long[] packed = new long[decoded.ordinals().length];
+                for (int i = 0; i < packed.length; i++) {
+                    packed[i] = ((long) remapped[decoded.ordinals()[i]] << 32) | decoded.frequencies()[i];
+                }
+                Arrays.sort(packed);
+                Postings remappedPostings = new Postings();
+                for (long posting : packed) {
+                    remappedPostings.add((int) (posting >>> 32), (int) posting);
+                }
+                sorted.put(term, remappedPostings);
+            });
+            return IndexSegment.write(path, sortedIds, sortedEpochSeconds, sortedLengths, sorted.entrySet().iterator());
+        }
+    }
+}
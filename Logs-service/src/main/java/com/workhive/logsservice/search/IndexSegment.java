@@ -0,0 +1,224 @@
+package com.workhive.logsservice.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * One immutable, memory-mapped file of the inverted index.
+ * <pre>
+ * docs       docCount x [long id][long epochSecond][int length], sorted by id; a doc's position is its ordinal
+ * postings   per term: varint ordinal delta, varint weighted term frequency, ordinals ascending
+ * dictionary termCount x [short termBytes][term UTF-8][int docFrequency][long postingsOffset][int postingsBytes], sorted by term
+ * footer     [long dictionaryOffset][long totalLength][long maxEpochSecond][int docCount][int termCount][int magic]
+ * </pre>
+ * The dictionary is loaded on heap; docs and postings are read from the mapping.
+ */
+final class IndexSegment implements IndexedDocs {
+
+    static final int DOC_BYTES = 20;
+    private static final int FOOTER_BYTES = 36;
+    private static final int MAGIC = 0x41494458;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final long totalLength;
+    private final long maxEpochSecond;
+    private final String[] terms;
+    private final int[] docFrequencies;
+    private final long[] postingsOffsets;
+    private final int[] postingsBytes;
+
+    private IndexSegment(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int footer = buffer.capacity() - FOOTER_BYTES;
+        if (footer < 0 || buffer.getInt(footer + 32) != MAGIC) {
+            throw new IOException("Not an activity index segment: " + path);
+        }
+        long dictionaryOffset = buffer.getLong(footer);
+        totalLength = buffer.getLong(footer + 8);
+        maxEpochSecond = buffer.getLong(footer + 16);
+        docCount = buffer.getInt(footer + 24);
+        int termCount = buffer.getInt(footer + 28);
+
+        terms = new String[termCount];
+        docFrequencies = new int[termCount];
+        postingsOffsets = new long[termCount];
+        postingsBytes = new int[termCount];
+        int position = (int) dictionaryOffset;
+        for (int i = 0; i < termCount; i++) {
+            byte[] term = new byte[buffer.getShort(position)];
+            buffer.get(position + 2, term);
+            position += 2 + term.length;
+            terms[i] = new String(term, StandardCharsets.UTF_8);
+            docFrequencies[i] = buffer.getInt(position);
+            postingsOffsets[i] = buffer.getLong(position + 4);
+            postingsBytes[i] = buffer.getInt(position + 12);
+            position += 16;
+        }
+    }
+
+    static IndexSegment open(Path path) throws IOException {
+        return new IndexSegment(path);
+    }
+
+    /**
+     * Writes a segment to {@code path} (via a temporary file and an atomic rename) and opens it.
+     *
+     * @param ids      doc ids, ascending; a doc's index in these arrays is its ordinal
+     * @param postings term to encoded postings, iterated in term order
+     */
+    static IndexSegment write(Path path, long[] ids, long[] epochSeconds, int[] lengths,
+                              Iterator<Map.Entry<String, Postings>> postings) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long totalLength = 0;
+        long maxEpochSecond = Long.MIN_VALUE;
+        int termCount = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            for (int i = 0; i < ids.length; i++) {
+                out.writeLong(ids[i]);
+                out.writeLong(epochSeconds[i]);
+                out.writeInt(lengths[i]);
+                totalLength += lengths[i];
+                maxEpochSecond = Math.max(maxEpochSecond, epochSeconds[i]);
+            }
+            // Postings first, remembering where each term's run starts; the dictionary follows them
+            ByteArrayDictionary dictionary = new ByteArrayDictionary();
+            long offset = (long) ids.length * DOC_BYTES;
+            while (postings.hasNext()) {
+                Map.Entry<String, Postings> entry = postings.next();
+                Postings termPostings = entry.getValue();
+                out.write(termPostings.bytes(), 0, termPostings.byteLength());
+                dictionary.add(entry.getKey(), termPostings.docFrequency(), offset, termPostings.byteLength());
+                offset += termPostings.byteLength();
+                termCount++;
+            }
+            long dictionaryOffset = offset;
+            dictionary.writeTo(out);
+            out.writeLong(dictionaryOffset);
+            out.writeLong(totalLength);
+            out.writeLong(maxEpochSecond);
+            out.writeInt(ids.length);
+            out.writeInt(termCount);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(path);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    long maxEpochSecond() {
+        return maxEpochSecond;
+    }
+
+    public long id(int ordinal) {
+        return buffer.getLong(ordinal * DOC_BYTES);
+    }
+
+    public long epochSecond(int ordinal) {
+        return buffer.getLong(ordinal * DOC_BYTES + 8);
+    }
+
+    public int length(int ordinal) {
+        return buffer.getInt(ordinal * DOC_BYTES + 16);
+    }
+
+    long maxId() {
+        return docCount == 0 ? Long.MIN_VALUE : id(docCount - 1);
+    }
+
+    boolean containsId(long id) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = id(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String[] terms() {
+        return terms;
+    }
+
+    int docFrequency(String term) {
+        int index = Arrays.binarySearch(terms, term);
+        return index < 0 ? 0 : docFrequencies[index];
+    }
+
+    /**
+     * The postings of {@code term} decoded into ordinals and frequencies, or null when the term is absent.
+     */
+    public Postings.Decoded postings(String term) {
+        int index = Arrays.binarySearch(terms, term);
+        if (index < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[postingsBytes[index]];
+        buffer.get((int) postingsOffsets[index], bytes);
+        return Postings.decode(bytes, docFrequencies[index]);
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Dictionary entries collected while postings are written, emitted once they are all known.
+     */
+    private static final class ByteArrayDictionary {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private void add(String term, int docFrequency, long offset, int length) throws IOException {
+            byte[] utf8 = term.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(utf8.length);
+            out.write(utf8);
+            out.writeInt(docFrequency);
+            out.writeLong(offset);
+            out.writeInt(length);
+        }
+
+        private void writeTo(DataOutputStream target) throws IOException {
+            bytes.writeTo(target);
+        }
+    }
+}
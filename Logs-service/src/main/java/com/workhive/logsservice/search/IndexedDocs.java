@@ -0,0 +1,18 @@
+package com.workhive.logsservice.search;
+
+/**
+ * Read view over one part of the index (a segment file or the in-memory buffer); docs are addressed by ordinal.
+ */
+interface IndexedDocs {
+
+    long id(int ordinal);
+
+    long epochSecond(int ordinal);
+
+    int length(int ordinal);
+
+    /**
+     * Decoded postings of {@code term}, or null when no doc here contains it.
+     */
+    Postings.Decoded postings(String term);
+}
@@ -0,0 +1,87 @@
+package com.workhive.logsservice.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only encoded postings of one term: per doc a varint ordinal delta and a varint weighted frequency.
+ * Ordinals must be added in ascending order.
+ */
+final class Postings {
+
+    private byte[] bytes = new byte[8];
+    private int byteLength;
+    private int docFrequency;
+    private int lastOrdinal = -1;
+
+    void add(int ordinal, int frequency) {
+        if (ordinal <= lastOrdinal) {
+            throw new IllegalArgumentException("Postings ordinals must ascend: " + ordinal + " after " + lastOrdinal);
+        }
+        writeVarint(ordinal - lastOrdinal);
+        writeVarint(frequency);
+        lastOrdinal = ordinal;
+        docFrequency++;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    int byteLength() {
+        return byteLength;
+    }
+
+    int docFrequency() {
+        return docFrequency;
+    }
+
+    Decoded decode() {
+        return decode(bytes, docFrequency);
+    }
+
+    static Decoded decode(byte[] bytes, int docFrequency) {
+        int[] ordinals = new int[docFrequency];
+        int[] frequencies = new int[docFrequency];
+        int position = 0;
+        int ordinal = -1;
+        for (int i = 0; i < docFrequency; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            ordinal += value;
+            ordinals[i] = ordinal;
+
+            value = 0;
+            shift = 0;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            frequencies[i] = value;
+        }
+        return new Decoded(ordinals, frequencies);
+    }
+
+    private void writeVarint(int value) {
+        if (bytes.length - byteLength < 5) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[byteLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[byteLength++] = (byte) value;
+    }
+
+    /**
+     * Decoded postings: parallel arrays, ordinals ascending.
+     */
+    record Decoded(int[] ordinals, int[] frequencies) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.workhive.logsservice.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque search page cursor: the (score, id) of the last hit of a page. Hits are ranked by score,
+ * then newest id first, so the next page holds hits strictly after this position in that order.
+ */
+public record SearchCursor(double score, long id) {
+
+    public static final SearchCursor START = new SearchCursor(Double.POSITIVE_INFINITY, Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    public boolean isFollowedBy(double otherScore, long otherId) {
+        return otherScore < score || (otherScore == score && otherId < id);
+    }
+
+    public String encode() {
+        // Raw bits, so the score round-trips exactly and ties compare equal on the next page
+        String raw = Long.toHexString(Double.doubleToLongBits(score)) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new SearchCursor(Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
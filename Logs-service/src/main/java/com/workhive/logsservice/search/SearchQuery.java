@@ -0,0 +1,91 @@
+package com.workhive.logsservice.search;
+
+import com.workhive.logsservice.entity.ActivityLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A parsed search: every clause must match. A clause is a bare word or a {@code "quoted phrase"};
+ * its tokens must appear next to each other, in order, within one field of the log.
+ */
+public record SearchQuery(List<Clause> clauses) {
+
+    /**
+     * @param terms  index terms looked up for the clause (all of them must be present)
+     * @param tokens plain tokens that must appear contiguously in the log
+     */
+    public record Clause(List<String> terms, List<String> tokens) {
+    }
+
+    public static SearchQuery parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query != null) {
+            int i = 0;
+            while (i < query.length()) {
+                char c = query.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '"') {
+                    int close = query.indexOf('"', i + 1);
+                    int end = close < 0 ? query.length() : close;
+                    List<String> tokens = Tokenizer.tokens(query.substring(i + 1, end));
+                    if (!tokens.isEmpty()) {
+                        clauses.add(new Clause(tokens, tokens));
+                    }
+                    i = end + 1;
+                } else {
+                    int end = i;
+                    while (end < query.length() && !Character.isWhitespace(query.charAt(end)) && query.charAt(end) != '"') {
+                        end++;
+                    }
+                    addWord(clauses, query.substring(i, end));
+                    i = end;
+                }
+            }
+        }
+        if (clauses.isEmpty()) {
+            throw new IllegalArgumentException("Search query has no searchable terms");
+        }
+        return new SearchQuery(Collections.unmodifiableList(clauses));
+    }
+
+    /**
+     * Index terms of all clauses, each once.
+     */
+    public List<String> terms() {
+        return clauses.stream().flatMap(clause -> clause.terms().stream()).distinct().toList();
+    }
+
+    /**
+     * Whether the log itself satisfies every clause; filters out stale index entries.
+     */
+    public boolean matches(ActivityLog activityLog) {
+        List<List<String>> fields = List.of(
+                Tokenizer.tokens(activityLog.getDetails()),
+                Tokenizer.tokens(activityLog.getAction()),
+                Tokenizer.tokens(activityLog.getEntityType()),
+                Tokenizer.tokens(activityLog.getUsername()));
+        for (Clause clause : clauses) {
+            if (fields.stream().noneMatch(field -> Collections.indexOfSubList(field, clause.tokens()) >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addWord(List<Clause> clauses, String word) {
+        List<String> tokens = Tokenizer.tokens(word);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        List<String> terms = new ArrayList<>();
+        Tokenizer.indexTerms(word, terms::add);
+        // A single compound word (PROJ-123) is looked up as the compound, which is far more selective than its parts
+        String compound = terms.get(terms.size() - 1);
+        boolean singleCompound = tokens.size() > 1 && terms.size() == tokens.size() + 1
+                && Tokenizer.tokens(compound).equals(tokens);
+        clauses.add(new Clause(singleCompound ? List.of(compound) : tokens, tokens));
+    }
+}
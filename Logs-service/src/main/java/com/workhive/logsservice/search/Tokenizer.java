@@ -0,0 +1,96 @@
+package com.workhive.logsservice.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-cased tokens: runs of letters and digits. Runs joined by a single
+ * {@code -}, {@code _} or {@code .} are also indexed as one compound term, so a ticket key such as
+ * {@code PROJ-123} is found both as {@code proj-123} and through its parts.
+ */
+final class Tokenizer {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Every index term of {@code text}, once per occurrence: each token, then each compound it closes.
+     */
+    static void indexTerms(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int compoundStart = -1;
+        int compoundParts = 0;
+        int lastEnd = -1;
+        int i = 0;
+        while (i < length) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            emit(text, start, i, terms);
+            if (compoundParts > 0 && start == lastEnd + 1 && isJoiner(text.charAt(lastEnd))) {
+                compoundParts++;
+            } else {
+                emitCompound(text, compoundStart, lastEnd, compoundParts, terms);
+                compoundStart = start;
+                compoundParts = 1;
+            }
+            lastEnd = i;
+        }
+        emitCompound(text, compoundStart, lastEnd, compoundParts, terms);
+    }
+
+    /**
+     * The plain tokens of {@code text} in order, without compounds.
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            emit(text, start, i, tokens::add);
+        }
+        return tokens;
+    }
+
+    private static void emitCompound(String text, int start, int end, int parts, Consumer<String> terms) {
+        if (parts > 1) {
+            emit(text, start, end, terms);
+        }
+    }
+
+    private static void emit(String text, int start, int end, Consumer<String> terms) {
+        int length = end - start;
+        // Lone letters carry no meaning for search; lone digits often do (versions, counts)
+        if (length > MAX_TOKEN_LENGTH || (length == 1 && !Character.isDigit(text.charAt(start)))) {
+            return;
+        }
+        terms.accept(text.substring(start, end).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isJoiner(char c) {
+        return c == '-' || c == '_' || c == '.';
+    }
+}
@@ -0,0 +1,205 @@
+package com.workhive.logsservice.segment;
+
+import com.workhive.logsservice.entity.ActivityLog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of one activity log inside a segment:
+ * <pre>
+ * int length | long id | long timestamp | long userId | long entityId | 6 x (int length | UTF-8 bytes) | int crc | int length
+ * </pre>
+ * The length (of the part between the two length fields, minus the crc) is repeated at the end so a segment
+ * can be walked backwards as well as forwards. Timestamps are nanoseconds of the local date-time read as UTC.
+ * All reads are absolute on the shared mapped buffer, so fixed fields and string comparisons need no copy.
+ */
+final class ActivityRecordCodec {
+
+    static final int OVERHEAD = 12;
+    static final long NANOS_PER_DAY = 86_400_000_000_000L;
+
+    private static final int ID = 4;
+    private static final int TIMESTAMP = 12;
+    private static final int USER_ID = 20;
+    private static final int ENTITY_ID = 28;
+    private static final int STRINGS = 36;
+    private static final long NO_ENTITY = Long.MIN_VALUE;
+    private static final long MAX_SECONDS = Long.MAX_VALUE / 1_000_000_000L - 1;
+
+    static final int USERNAME = 0;
+    static final int ACTION = 1;
+    static final int ENTITY_TYPE = 2;
+    private static final int DETAILS = 3;
+    private static final int IP_ADDRESS = 4;
+    private static final int USER_AGENT = 5;
+
+    private ActivityRecordCodec() {
+    }
+
+    static byte[] encode(ActivityLog log) {
+        byte[][] strings = {utf8(log.getUsername()), utf8(log.getAction()), utf8(log.getEntityType()),
+                utf8(log.getDetails()), utf8(log.getIpAddress()), utf8(log.getUserAgent())};
+        int payload = STRINGS - ID;
+        for (byte[] string : strings) {
+            payload += 4 + (string != null ? string.length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(payload + OVERHEAD);
+        buffer.putInt(payload)
+                .putLong(log.getId())
+                .putLong(toNanos(log.getTimestamp()))
+                .putLong(log.getUserId())
+                .putLong(log.getEntityId() != null ? log.getEntityId() : NO_ENTITY);
+        for (byte[] string : strings) {
+            if (string == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(string.length).put(string);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), ID, payload);
+        buffer.putInt((int) crc.getValue()).putInt(payload);
+        return buffer.array();
+    }
+
+    static ActivityLog decode(ByteBuffer buffer, int offset) {
+        int position = offset + STRINGS;
+        String[] strings = new String[6];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt(position);
+            position += 4;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        long entityId = buffer.getLong(offset + ENTITY_ID);
+        return ActivityLog.builder()
+                .id(id(buffer, offset))
+                .timestamp(fromNanos(timestampNanos(buffer, offset)))
+                .userId(userId(buffer, offset))
+                .entityId(entityId != NO_ENTITY ? entityId : null)
+                .username(strings[USERNAME])
+                .action(strings[ACTION])
+                .entityType(strings[ENTITY_TYPE])
+                .details(strings[DETAILS])
+                .ipAddress(strings[IP_ADDRESS])
+                .userAgent(strings[USER_AGENT])
+                .build();
+    }
+
+    /**
+     * Length of the record at {@code offset}, or -1 when there is no intact record there (end of data or torn write).
+     */
+    static int validLength(ByteBuffer buffer, int offset, int capacity) {
+        if (offset + 4 > capacity) {
+            return -1;
+        }
+        int payload = buffer.getInt(offset);
+        if (payload < STRINGS - ID || offset + payload + OVERHEAD > capacity
+                || buffer.getInt(offset + payload + 8) != payload) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + ID, payload));
+        return (int) crc.getValue() == buffer.getInt(offset + ID + payload) ? payload + OVERHEAD : -1;
+    }
+
+    static int length(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset) + OVERHEAD;
+    }
+
+    static int lengthBefore(ByteBuffer buffer, int end) {
+        return buffer.getInt(end - 4) + OVERHEAD;
+    }
+
+    static long id(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + ID);
+    }
+
+    static long timestampNanos(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + TIMESTAMP);
+    }
+
+    static long userId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + USER_ID);
+    }
+
+    static long entityId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + ENTITY_ID);
+    }
+
+    /**
+     * Decodes a single string field, or null when it is absent.
+     */
+    static String string(ByteBuffer buffer, int offset, int field) {
+        int position = offset + STRINGS;
+        for (int i = 0; i < field; i++) {
+            int length = buffer.getInt(position);
+            position += 4 + Math.max(length, 0);
+        }
+        int length = buffer.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares string field {@code field} with already-encoded bytes without decoding the record.
+     */
+    static boolean stringEquals(ByteBuffer buffer, int offset, int field, byte[] expected) {
+        int position = offset + STRINGS;
+        for (int i = 0; i < field; i++) {
+            int length = buffer.getInt(position);
+            position += 4 + Math.max(length, 0);
+        }
+        int length = buffer.getInt(position);
+        if (length != expected.length) {
+            return false;
+        }
+        position += 4;
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Saturates outside the years 1677-2262 that fit in a long, which only open-ended query bounds reach.
+     */
+    static long toNanos(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        if (seconds >= MAX_SECONDS) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= -MAX_SECONDS) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * 1_000_000_000L + time.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    static LocalDate dayOf(long nanos) {
+        return LocalDate.ofEpochDay(Math.floorDiv(nanos, NANOS_PER_DAY));
+    }
+
+    static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,266 @@
+package com.workhive.logsservice.segment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * One fixed-size, memory-mapped, append-only segment file.
+ * <p>
+ * A single writer appends records; readers use absolute reads on the shared mapping and only look below
+ * {@link #limit()}, which is published after the record, its index entry and its bloom bits are written.
+ * Every {@code indexInterval}-th record goes into a sparse in-memory index of (timestamp, id, offset), and a
+ * small bloom filter of user ids lets per-user scans skip the whole segment. Both are rebuilt by scanning the
+ * file when it is reopened; the scan stops at the first torn or missing record.
+ */
+@Slf4j
+final class LogSegment implements Closeable {
+
+    private static final int BLOOM_BITS = 1 << 14;
+
+    private final long baseId;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int indexInterval;
+    private final long[] userBloom = new long[BLOOM_BITS / 64];
+
+    private volatile SparseIndex index = new SparseIndex(64);
+    private volatile int limit;
+    private volatile long records;
+    private volatile long minNanos = Long.MAX_VALUE;
+    private volatile long maxNanos = Long.MIN_VALUE;
+    private volatile long maxId;
+
+    private LogSegment(long baseId, Path path, FileChannel channel, int capacity, int indexInterval) throws IOException {
+        this.baseId = baseId;
+        this.path = path;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.indexInterval = indexInterval;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    static LogSegment create(Path path, long baseId, int capacity, int indexInterval) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new LogSegment(baseId, path, channel, capacity, indexInterval);
+    }
+
+    static LogSegment open(Path path, long baseId, int indexInterval) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        LogSegment segment = new LogSegment(baseId, path, channel, (int) channel.size(), indexInterval);
+        segment.recover();
+        return segment;
+    }
+
+    /**
+     * @return false when the record does not fit, the caller then rolls to a new segment
+     */
+    boolean append(byte[] record, long id, long nanos, long userId) {
+        int offset = limit;
+        if (offset + record.length > capacity) {
+            return false;
+        }
+        buffer.put(offset, record);
+        track(offset, id, nanos, userId);
+        limit = offset + record.length;
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    boolean mightContainUser(long userId) {
+        return bit(firstHash(userId)) && bit(secondHash(userId));
+    }
+
+    /**
+     * Offset from which a forward scan finds every record with an id of at least {@code id}.
+     */
+    int forwardStartById(long id) {
+        SparseIndex current = index;
+        int entry = current.lastAtOrBefore(current.ids, id);
+        return entry < 0 ? 0 : current.offsets[entry];
+    }
+
+    /**
+     * Offset from which a forward scan finds every record with a timestamp of at least {@code nanos}.
+     */
+    int forwardStartByTime(long nanos) {
+        if (nanos == Long.MIN_VALUE) {
+            return 0;
+        }
+        SparseIndex current = index;
+        // Timestamps can repeat, so start at the last entry strictly before the target
+        int entry = current.lastAtOrBefore(current.nanos, nanos - 1);
+        return entry < 0 ? 0 : current.offsets[entry];
+    }
+
+    /**
+     * End offset for a backward scan that only needs records with id below {@code beforeId}
+     * and a timestamp of at most {@code toNanos}; {@code readLimit} is the limit the caller read.
+     */
+    int backwardEnd(long beforeId, long toNanos, int readLimit) {
+        SparseIndex current = index;
+        int size = current.size;
+        // The first index entry past either bound starts a record the scan can skip along with all after it
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.ids[mid] >= beforeId || current.nanos[mid] > toNanos) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low < size ? Math.min(current.offsets[low], readLimit) : readLimit;
+    }
+
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    long baseId() {
+        return baseId;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    long records() {
+        return records;
+    }
+
+    long minNanos() {
+        return minNanos;
+    }
+
+    long maxNanos() {
+        return maxNanos;
+    }
+
+    long maxId() {
+        return maxId;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    private void recover() {
+        int offset = 0;
+        int length;
+        while ((length = ActivityRecordCodec.validLength(buffer, offset, capacity)) > 0) {
+            track(offset, ActivityRecordCodec.id(buffer, offset), ActivityRecordCodec.timestampNanos(buffer, offset),
+                    ActivityRecordCodec.userId(buffer, offset));
+            offset += length;
+        }
+        limit = offset;
+        log.debug("Recovered segment {} with {} records, {} bytes", path.getFileName(), records, offset);
+    }
+
+    private void track(int offset, long id, long nanos, long userId) {
+        if (records % indexInterval == 0) {
+            SparseIndex current = index;
+            if (current.size == current.ids.length) {
+                current = current.grow();
+                index = current;
+            }
+            current.add(nanos, id, offset);
+        }
+        setBit(firstHash(userId));
+        setBit(secondHash(userId));
+        minNanos = Math.min(minNanos, nanos);
+        maxNanos = Math.max(maxNanos, nanos);
+        maxId = id;
+        records++;
+    }
+
+    private static int firstHash(long userId) {
+        return (int) (userId ^ (userId >>> 32));
+    }
+
+    // Top bits of a Fibonacci hash: the low bits of small ids would all land on the same bit
+    private static int secondHash(long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> 40);
+    }
+
+    private boolean bit(int hash) {
+        int bit = Math.floorMod(hash, BLOOM_BITS);
+        return (userBloom[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private void setBit(int hash) {
+        int bit = Math.floorMod(hash, BLOOM_BITS);
+        userBloom[bit >>> 6] |= 1L << bit;
+    }
+
+    /**
+     * Append-only arrays; a full index is copied into a larger one and republished, so a reader holding
+     * the old instance still sees a consistent prefix.
+     */
+    private static final class SparseIndex {
+        private final long[] nanos;
+        private final long[] ids;
+        private final int[] offsets;
+        private volatile int size;
+
+        private SparseIndex(int capacity) {
+            this(new long[capacity], new long[capacity], new int[capacity], 0);
+        }
+
+        private SparseIndex(long[] nanos, long[] ids, int[] offsets, int size) {
+            this.nanos = nanos;
+            this.ids = ids;
+            this.offsets = offsets;
+            this.size = size;
+        }
+
+        private void add(long timestampNanos, long id, int offset) {
+            nanos[size] = timestampNanos;
+            ids[size] = id;
+            offsets[size] = offset;
+            size++;
+        }
+
+        private SparseIndex grow() {
+            int capacity = ids.length * 2;
+            return new SparseIndex(Arrays.copyOf(nanos, capacity), Arrays.copyOf(ids, capacity),
+                    Arrays.copyOf(offsets, capacity), size);
+        }
+
+        private int lastAtOrBefore(long[] keys, long key) {
+            int low = 0;
+            int high = size - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.workhive.logsservice.segment;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.repository.ActivityHistogramQuery;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import com.workhive.logsservice.repository.HistogramCount;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Activity log engine on rolling memory-mapped segment files ({@code logs.storage.engine=segments}).
+ * <p>
+ * Logs are appended in id order and their timestamps are clamped to never go backwards, so within and across
+ * segments both id and timestamp are sorted. That lets time-range and page queries binary-search each segment's
+ * sparse index, walk only the matching stretch of the mapping, and stop at the first record outside the range.
+ * Filters are evaluated on the mapped bytes and only matching records are decoded, so scans put almost nothing
+ * on the heap. Deletes are tombstones; retention drops whole segments once their newest record is too old.
+ */
+@Component
+@ConditionalOnProperty(name = "logs.storage.engine", havingValue = "segments")
+@Slf4j
+public class SegmentActivityLogStore implements ActivityLogStore {
+
+    private static final String PREFIX = "activity-";
+    private static final String SUFFIX = ".seg";
+
+    @Value("${logs.segments.dir:./data/activity-segments}")
+    private String directory;
+
+    @Value("${logs.segments.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${logs.segments.index-interval:128}")
+    private int indexInterval;
+
+    @Value("${logs.segments.retention-days:365}")
+    private int retentionDays;
+
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong live = new AtomicLong();
+
+    private Path root;
+    private Tombstones tombstones;
+
+    // Guarded by this
+    private LogSegment active;
+    private long nextId;
+    private long lastNanos = Long.MIN_VALUE;
+
+    @PostConstruct
+    void open() throws IOException {
+        root = Files.createDirectories(Path.of(directory));
+        tombstones = new Tombstones(root.resolve("tombstones.log"));
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path path : files.filter(p -> p.getFileName().toString().startsWith(PREFIX)).sorted().toList()) {
+                String name = path.getFileName().toString();
+                long baseId = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                segments.put(baseId, LogSegment.open(path, baseId, indexInterval));
+            }
+        }
+        nextId = 1;
+        for (LogSegment segment : segments.values()) {
+            if (segment.records() > 0) {
+                nextId = segment.maxId() + 1;
+                lastNanos = segment.maxNanos();
+            }
+        }
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        live.set(countVisible(segments, Long.MIN_VALUE, Long.MAX_VALUE));
+        log.info("Opened {} activity segments in {} with {} live logs", segments.size(), root, live.get());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        for (LogSegment segment : segments.values()) {
+            segment.close();
+        }
+        tombstones.close();
+    }
+
+    @Override
+    public boolean keepsEarlierTimestamps() {
+        return false;
+    }
+
+    @Override
+    public synchronized ActivityLog save(ActivityLog activityLog) {
+        if (activityLog.getTimestamp() == null) {
+            activityLog.setTimestamp(LocalDateTime.now());
+        }
+        long nanos = Math.max(ActivityRecordCodec.toNanos(activityLog.getTimestamp()), lastNanos);
+        activityLog.setId(nextId);
+        activityLog.setTimestamp(ActivityRecordCodec.fromNanos(nanos));
+
+        byte[] record = ActivityRecordCodec.encode(activityLog);
+        if (active == null || !active.append(record, nextId, nanos, activityLog.getUserId())) {
+            roll();
+            if (!active.append(record, nextId, nanos, activityLog.getUserId())) {
+                throw new IllegalArgumentException("Activity log of " + record.length + " bytes does not fit in a segment");
+            }
+        }
+        nextId++;
+        lastNanos = nanos;
+        live.incrementAndGet();
+        return activityLog;
+    }
+
+    @Override
+    public synchronized void saveAll(List<ActivityLog> activityLogs) {
+        for (ActivityLog activityLog : activityLogs) {
+            save(activityLog);
+        }
+    }
+
+    @Override
+    public Optional<ActivityLog> findById(Long id) {
+        Map.Entry<Long, LogSegment> entry = segments.floorEntry(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        LogSegment segment = entry.getValue();
+        ByteBuffer buffer = segment.buffer();
+        int limit = segment.limit();
+        for (int offset = segment.forwardStartById(id); offset < limit; offset += ActivityRecordCodec.length(buffer, offset)) {
+            long recordId = ActivityRecordCodec.id(buffer, offset);
+            if (recordId == id) {
+                return tombstones.isVisible(recordId, ActivityRecordCodec.userId(buffer, offset))
+                        ? Optional.of(ActivityRecordCodec.decode(buffer, offset))
+                        : Optional.empty();
+            }
+            if (recordId > id) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<ActivityLog> findPage(ActivityLogFilter filter, LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+        RecordFilter match = new RecordFilter(filter);
+        // Ids and timestamps grow together, so a row is before the (timestamp, id) cursor exactly when its id is below beforeId
+        long toNanos = match.toNanos;
+        List<ActivityLog> page = new ArrayList<>(limit);
+
+        for (LogSegment segment : segments.headMap(beforeId, false).descendingMap().values()) {
+            int readLimit = segment.limit();
+            if (readLimit == 0 || segment.minNanos() > toNanos) {
+                continue;
+            }
+            if (segment.maxNanos() < match.fromNanos) {
+                break;
+            }
+            if (match.userId != null && !segment.mightContainUser(match.userId)) {
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer();
+            int end = segment.backwardEnd(beforeId, toNanos, readLimit);
+            while (end > 0) {
+                int offset = end - ActivityRecordCodec.lengthBefore(buffer, end);
+                end = offset;
+                long nanos = ActivityRecordCodec.timestampNanos(buffer, offset);
+                if (nanos < match.fromNanos) {
+                    return page;
+                }
+                long id = ActivityRecordCodec.id(buffer, offset);
+                if (id >= beforeId || nanos > toNanos) {
+                    continue;
+                }
+                if (match.test(buffer, offset) && tombstones.isVisible(id, ActivityRecordCodec.userId(buffer, offset))) {
+                    page.add(ActivityRecordCodec.decode(buffer, offset));
+                    if (page.size() == limit) {
+                        return page;
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public void forEachMatching(ActivityLogFilter filter, Consumer<ActivityLog> visitor) {
+        RecordFilter match = new RecordFilter(filter);
+        // The filter's upper bound is inclusive, the scan's is exclusive
+        long toNanos = match.toNanos == Long.MAX_VALUE ? Long.MAX_VALUE : match.toNanos + 1;
+        scanForward(match.fromNanos, toNanos, (buffer, offset) -> {
+            if (match.test(buffer, offset)) {
+                visitor.accept(ActivityRecordCodec.decode(buffer, offset));
+            }
+        });
+    }
+
+    @Override
+    public synchronized boolean deleteById(Long id) {
+        if (findById(id).isEmpty()) {
+            return false;
+        }
+        try {
+            tombstones.deleteId(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record deletion of activity log " + id, e);
+        }
+        live.decrementAndGet();
+        return true;
+    }
+
+    @Override
+    public synchronized void deleteByUserId(Long userId) {
+        long[] purged = new long[1];
+        scanForward(Long.MIN_VALUE, Long.MAX_VALUE, (buffer, offset) -> {
+            if (ActivityRecordCodec.userId(buffer, offset) == userId) {
+                purged[0]++;
+            }
+        });
+        try {
+            tombstones.purgeUser(userId, nextId - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record purge of user " + userId, e);
+        }
+        live.addAndGet(-purged[0]);
+    }
+
+    @Override
+    public long count() {
+        return live.get();
+    }
+
+    @Override
+    public long count(LocalDateTime from, LocalDateTime to) {
+        long[] count = new long[1];
+        scanForward(ActivityRecordCodec.toNanos(from), ActivityRecordCodec.toNanos(to), (buffer, offset) -> count[0]++);
+        return count[0];
+    }
+
+    @Override
+    public Map<LocalDate, Long> countByDaySince(LocalDateTime since) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        scanForward(ActivityRecordCodec.toNanos(since), Long.MAX_VALUE, (buffer, offset) ->
+                counts.merge(ActivityRecordCodec.dayOf(ActivityRecordCodec.timestampNanos(buffer, offset)), 1L, Long::sum));
+        return counts;
+    }
+
+    @Override
+    public Map<Long, Long> countByUserSince(LocalDateTime since) {
+        Map<Long, Long> counts = new HashMap<>();
+        scanForward(ActivityRecordCodec.toNanos(since), Long.MAX_VALUE, (buffer, offset) ->
+                counts.merge(ActivityRecordCodec.userId(buffer, offset), 1L, Long::sum));
+        return counts;
+    }
+
+    @Override
+    public List<HistogramCount> histogram(ActivityHistogramQuery query) {
+        boolean byAction = query.groupsBy(ActivityHistogramQuery.Dimension.ACTION);
+        boolean byEntityType = query.groupsBy(ActivityHistogramQuery.Dimension.ENTITY_TYPE);
+        boolean byUser = query.groupsBy(ActivityHistogramQuery.Dimension.USER);
+        Map<HistogramCount, Long> counts = new HashMap<>();
+        // Only the grouped fields are decoded per record
+        scanForward(ActivityRecordCodec.toNanos(query.from()), ActivityRecordCodec.toNanos(query.to()), (buffer, offset) ->
+                counts.merge(query.keyOf(
+                        ActivityRecordCodec.fromNanos(ActivityRecordCodec.timestampNanos(buffer, offset)),
+                        byAction ? ActivityRecordCodec.string(buffer, offset, ActivityRecordCodec.ACTION) : null,
+                        byEntityType ? ActivityRecordCodec.string(buffer, offset, ActivityRecordCodec.ENTITY_TYPE) : null,
+                        byUser ? ActivityRecordCodec.userId(buffer, offset) : null), 1L, Long::sum));
+        return counts.entrySet().stream()
+                .map(count -> count.getKey().withCount(count.getValue()))
+                .toList();
+    }
+
+    @Override
+    public void forEachUserActivitySince(LocalDateTime since, UserActivityVisitor visitor) {
+        scanForward(ActivityRecordCodec.toNanos(since), Long.MAX_VALUE, (buffer, offset) ->
+                visitor.visit(ActivityRecordCodec.userId(buffer, offset),
+                        ActivityRecordCodec.fromNanos(ActivityRecordCodec.timestampNanos(buffer, offset))));
+    }
+
+    @Scheduled(fixedDelayString = "${logs.segments.force-interval-ms:1000}")
+    public void flush() {
+        LogSegment current;
+        synchronized (this) {
+            current = active;
+        }
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${logs.segments.retention-check-ms:3600000}")
+    public void enforceRetention() {
+        long cutoff = ActivityRecordCodec.toNanos(LocalDate.now().minusDays(retentionDays).atStartOfDay());
+        for (LogSegment segment : segments.values()) {
+            synchronized (this) {
+                if (segment == active || segment.maxNanos() >= cutoff) {
+                    return;
+                }
+                live.addAndGet(-countVisible(segments.subMap(segment.baseId(), true, segment.baseId(), true),
+                        Long.MIN_VALUE, Long.MAX_VALUE));
+                segments.remove(segment.baseId());
+            }
+            try {
+                segment.delete();
+            } catch (IOException e) {
+                log.warn("Could not delete retired activity segment {}", segment.baseId(), e);
+            }
+            Map.Entry<Long, LogSegment> oldest = segments.firstEntry();
+            if (oldest != null) {
+                tombstones.pruneBelow(oldest.getKey());
+            }
+            log.info("Retired activity segment {} (newest log older than {} days)", segment.baseId(), retentionDays);
+        }
+    }
+
+    private void roll() {
+        try {
+            if (active != null) {
+                active.force();
+            }
+            Path path = root.resolve(String.format("%s%020d%s", PREFIX, nextId, SUFFIX));
+            active = LogSegment.create(path, nextId, segmentBytes, indexInterval);
+            segments.put(nextId, active);
+            log.info("Rolled to activity segment {}", path.getFileName());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create activity segment", e);
+        }
+    }
+
+    /**
+     * Visits every visible record with {@code fromNanos <= timestamp < toNanos}, oldest first.
+     */
+    private void scanForward(long fromNanos, long toNanos, RecordVisitor visitor) {
+        scanForward(segments, fromNanos, toNanos, visitor);
+    }
+
+    private void scanForward(ConcurrentNavigableMap<Long, LogSegment> range, long fromNanos, long toNanos, RecordVisitor visitor) {
+        for (LogSegment segment : range.values()) {
+            int limit = segment.limit();
+            if (limit == 0 || segment.maxNanos() < fromNanos) {
+                continue;
+            }
+            if (segment.minNanos() >= toNanos) {
+                return;
+            }
+            ByteBuffer buffer = segment.buffer();
+            for (int offset = segment.forwardStartByTime(fromNanos); offset < limit; offset += ActivityRecordCodec.length(buffer, offset)) {
+                long nanos = ActivityRecordCodec.timestampNanos(buffer, offset);
+                if (nanos >= toNanos) {
+                    return;
+                }
+                if (nanos >= fromNanos && tombstones.isVisible(ActivityRecordCodec.id(buffer, offset),
+                        ActivityRecordCodec.userId(buffer, offset))) {
+                    visitor.visit(buffer, offset);
+                }
+            }
+        }
+    }
+
+    private long countVisible(ConcurrentNavigableMap<Long, LogSegment> range, long fromNanos, long toNanos) {
+        long[] count = new long[1];
+        scanForward(range, fromNanos, toNanos, (buffer, offset) -> count[0]++);
+        return count[0];
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(ByteBuffer buffer, int offset);
+    }
+
+    /**
+     * An {@link ActivityLogFilter} with its strings pre-encoded, tested against mapped bytes.
+     */
+    private static final class RecordFilter {
+        private final Long userId;
+        private final Long entityId;
+        private final byte[] username;
+        private final byte[] action;
+        private final byte[] entityType;
+        private final long fromNanos;
+        private final long toNanos;
+
+        private RecordFilter(ActivityLogFilter filter) {
+            userId = filter.userId();
+            entityId = filter.entityId();
+            username = ActivityRecordCodec.utf8(filter.username());
+            action = ActivityRecordCodec.utf8(filter.action());
+            entityType = ActivityRecordCodec.utf8(filter.entityType());
+            fromNanos = filter.from() != null ? ActivityRecordCodec.toNanos(filter.from()) : Long.MIN_VALUE;
+            toNanos = filter.to() != null ? ActivityRecordCodec.toNanos(filter.to()) : Long.MAX_VALUE;
+        }
+
+        private boolean test(ByteBuffer buffer, int offset) {
+            return (userId == null || ActivityRecordCodec.userId(buffer, offset) == userId)
+                    && (entityId == null || ActivityRecordCodec.entityId(buffer, offset) == entityId)
+                    && (username == null || ActivityRecordCodec.stringEquals(buffer, offset, ActivityRecordCodec.USERNAME, username))
+                    && (action == null || ActivityRecordCodec.stringEquals(buffer, offset, ActivityRecordCodec.ACTION, action))
+                    && (entityType == null || ActivityRecordCodec.stringEquals(buffer, offset, ActivityRecordCodec.ENTITY_TYPE, entityType));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.workhive.logsservice.segment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deletions for the append-only segments, kept in a small fsync'd side file.
+ * A deleted log is hidden by id; a user purge hides every log of that user up to the id it was issued at,
+ * so purging costs one entry whatever the number of rows. Ids below the oldest retained segment are pruned.
+ */
+final class Tombstones implements Closeable {
+
+    private static final byte DELETE_ID = 1;
+    private static final byte PURGE_USER = 2;
+    private static final int ENTRY_BYTES = 17;
+
+    private final FileChannel channel;
+    private final Set<Long> deletedIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> purgedUsers = new ConcurrentHashMap<>();
+
+    Tombstones(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+        long position = 0;
+        while (channel.read(entry.clear(), position) == ENTRY_BYTES) {
+            apply(entry.get(0), entry.getLong(1), entry.getLong(9));
+            position += ENTRY_BYTES;
+        }
+        // Drop a torn trailing entry
+        channel.truncate(position);
+        channel.position(position);
+    }
+
+    boolean isVisible(long id, long userId) {
+        if (!deletedIds.isEmpty() && deletedIds.contains(id)) {
+            return false;
+        }
+        Long purgedUpTo = purgedUsers.isEmpty() ? null : purgedUsers.get(userId);
+        return purgedUpTo == null || id > purgedUpTo;
+    }
+
+    synchronized void deleteId(long id) throws IOException {
+        write(DELETE_ID, id, 0);
+    }
+
+    synchronized void purgeUser(long userId, long upToId) throws IOException {
+        write(PURGE_USER, userId, upToId);
+    }
+
+    /**
+     * Forgets single-id deletions below {@code oldestId}; those rows no longer exist.
+     */
+    void pruneBelow(long oldestId) {
+        deletedIds.removeIf(id -> id < oldestId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(byte type, long first, long second) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES).put(type).putLong(first).putLong(second).flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry);
+        }
+        channel.force(false);
+        apply(type, first, second);
+    }
+
+    private void apply(byte type, long first, long second) {
+        if (type == DELETE_ID) {
+            deletedIds.add(first);
+        } else if (type == PURGE_USER) {
+            purgedUsers.merge(first, second, Math::max);
+        }
+    }
+}
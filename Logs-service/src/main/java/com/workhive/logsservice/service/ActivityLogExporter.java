@@ -0,0 +1,170 @@
+package com.workhive.logsservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Streams activity logs matching a filter as NDJSON or CSV, oldest first.
+ * Rows go from the store's forward-only cursor straight to the output, so memory use does not grow with the export.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityLogExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format '" + value + "', expected ndjson or csv");
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "id,timestamp,userId,username,action,entityType,entityId,details,ipAddress,userAgent";
+
+    private final ActivityLogStore activityLogStore;
+    private final ObjectMapper objectMapper;
+
+    @Value("${logs.export.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    /**
+     * Writes the export to {@code out} and returns the number of rows written. The stream is flushed, not closed.
+     */
+    public long export(ActivityLogFilter filter, Format format, OutputStream out) throws IOException {
+        long[] rows = new long[1];
+        try {
+            if (format == Format.NDJSON) {
+                writeNdjson(filter, out, rows);
+            } else {
+                writeCsv(filter, out, rows);
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-export
+            throw e.getCause();
+        }
+        log.info("Exported {} activity logs as {} for {}", rows[0], format, filter);
+        return rows[0];
+    }
+
+    private void writeNdjson(ActivityLogFilter filter, OutputStream out, long[] rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferBytes);
+        // One flush at the end instead of one per row
+        SequenceWriter sequence = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+        activityLogStore.forEachMatching(filter, activityLog -> {
+            try {
+                sequence.write(activityLog);
+                rows[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        sequence.flush();
+        if (rows[0] > 0) {
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(ActivityLogFilter filter, OutputStream out, long[] rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferBytes);
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        activityLogStore.forEachMatching(filter, activityLog -> {
+            try {
+                writeCsvRow(writer, activityLog);
+                rows[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, ActivityLog activityLog) throws IOException {
+        writer.write(String.valueOf(activityLog.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(activityLog.getTimestamp()));
+        writer.write(',');
+        writer.write(String.valueOf(activityLog.getUserId()));
+        writer.write(',');
+        writeCsvField(writer, activityLog.getUsername());
+        writer.write(',');
+        writeCsvField(writer, activityLog.getAction());
+        writer.write(',');
+        writeCsvField(writer, activityLog.getEntityType());
+        writer.write(',');
+        if (activityLog.getEntityId() != null) {
+            writer.write(String.valueOf(activityLog.getEntityId()));
+        }
+        writer.write(',');
+        writeCsvField(writer, activityLog.getDetails());
+        writer.write(',');
+        writeCsvField(writer, activityLog.getIpAddress());
+        writer.write(',');
+        writeCsvField(writer, activityLog.getUserAgent());
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180: fields holding a comma, quote or line break are quoted, with quotes doubled.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,29 +1,63 @@
 package com.workhive.logsservice.service;
 
-import com.workhive.logsservice.client.UserServiceClient;
+import com.workhive.logsservice.archive.ColdArchive;
 import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.dto.ActivityLogConnection;
 import com.workhive.logsservice.dto.ActivityLogDto;
+import com.workhive.logsservice.dto.ActivityLogEdge;
 import com.workhive.logsservice.dto.CreateActivityLogInput;
-import com.workhive.logsservice.dto.UserDto;
-import com.workhive.logsservice.repository.ActivityLogRepository;
+import com.workhive.logsservice.dto.PageInfo;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityHistogramQuery;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import com.workhive.logsservice.repository.HistogramCount;
+import com.workhive.logsservice.search.ActivityLogIndex;
+import com.workhive.logsservice.search.SearchCursor;
+import com.workhive.logsservice.search.SearchQuery;
+import com.workhive.logsservice.stats.ActivityRollups;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ActivityLogService {
 
-    private final ActivityLogRepository activityLogRepository;
-    private final UserServiceClient userServiceClient;
+    public static final int RECENT_LIMIT = 50;
+
+    private final ActivityLogStore activityLogStore;
+    private final UserDirectory userDirectory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRollups activityRollups;
+    private final ActivityLogIndex activityLogIndex;
+    private final ColdArchive coldArchive;
+
+    @Value("${logs.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${logs.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${logs.search.max-candidates-per-page:500}")
+    private int maxSearchCandidates;
 
     @Transactional
     @CircuitBreaker(name = "activityLogService", fallbackMethod = "createActivityLogFallback")
@@ -43,95 +77,83 @@ public class ActivityLogService {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        ActivityLog saved = activityLogRepository.save(activityLog);
-        return enrichWithUserData(saved);
+        ActivityLog saved = activityLogStore.save(activityLog);
+        // Counted after commit by the listeners, before the statistics watchers read the counters
+        eventPublisher.publishEvent(ActivityLogsCreatedEvent.of(saved));
+        eventPublisher.publishEvent(StatisticsChangedEvent.activityRecorded());
+        return toDto(saved);
     }
 
     @Transactional(readOnly = true)
     public ActivityLogDto getById(Long id) {
         log.info("Fetching activity log by id: {}", id);
-        ActivityLog activityLog = activityLogRepository.findById(id)
+        ActivityLog activityLog = activityLogStore.findById(id)
                 .orElseThrow(() -> new RuntimeException("Activity log not found with id: " + id));
-        return enrichWithUserData(activityLog);
+        return toDto(activityLog);
     }
 
     @Transactional(readOnly = true)
     public List<ActivityLogDto> getAllActivityLogs() {
         log.info("Fetching all recent activity logs");
-        return activityLogRepository.findTop50ByOrderByTimestampDesc().stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return toDtos(latest(ActivityLogFilter.all()));
     }
 
     @Transactional(readOnly = true)
-    public List<ActivityLogDto> getByUserId(Long userId) {
+    public ActivityLogConnection getByUserId(Long userId, Integer first, String after) {
         log.info("Fetching activity logs for user id: {}", userId);
-        return activityLogRepository.findByUserId(userId).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return page(ActivityLogFilter.byUserId(userId), first, after);
     }
 
     @Transactional(readOnly = true)
-    public List<ActivityLogDto> getByUsername(String username) {
+    public ActivityLogConnection getByUsername(String username, Integer first, String after) {
         log.info("Fetching activity logs for username: {}", username);
-        return activityLogRepository.findByUsername(username).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return page(ActivityLogFilter.byUsername(username), first, after);
     }
 
     @Transactional(readOnly = true)
-    public List<ActivityLogDto> getByAction(String action) {
+    public ActivityLogConnection getByAction(String action, Integer first, String after) {
         log.info("Fetching activity logs for action: {}", action);
-        return activityLogRepository.findByAction(action).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return page(ActivityLogFilter.byAction(action), first, after);
     }
 
     @Transactional(readOnly = true)
-    public List<ActivityLogDto> getByEntityType(String entityType) {
+    public ActivityLogConnection getByEntityType(String entityType, Integer first, String after) {
         log.info("Fetching activity logs for entity type: {}", entityType);
-        return activityLogRepository.findByEntityType(entityType).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return page(ActivityLogFilter.byEntityType(entityType), first, after);
     }
 
     @Transactional(readOnly = true)
-    public List<ActivityLogDto> getByEntity(String entityType, Long entityId) {
+    public ActivityLogConnection getByEntity(String entityType, Long entityId, Integer first, String after) {
         log.info("Fetching activity logs for entity: {} with id: {}", entityType, entityId);
-        return activityLogRepository.findByEntityTypeAndEntityId(entityType, entityId).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return page(ActivityLogFilter.byEntity(entityType, entityId), first, after);
     }
 
     @Transactional(readOnly = true)
-    public List<ActivityLogDto> getByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+    public ActivityLogConnection getByDateRange(LocalDateTime startDate, LocalDateTime endDate, Integer first, String after) {
         log.info("Fetching activity logs between {} and {}", startDate, endDate);
-        return activityLogRepository.findByTimestampBetween(startDate, endDate).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return page(ActivityLogFilter.between(startDate, endDate), first, after);
     }
 
     @Transactional(readOnly = true)
-    public List<ActivityLogDto> getByUserAndDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+    public ActivityLogConnection getByUserAndDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate,
+                                                       Integer first, String after) {
         log.info("Fetching activity logs for user {} between {} and {}", userId, startDate, endDate);
-        return activityLogRepository.findByUserIdAndDateRange(userId, startDate, endDate).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return page(ActivityLogFilter.byUserIdBetween(userId, startDate, endDate), first, after);
     }
 
     @Transactional(readOnly = true)
     public List<ActivityLogDto> getRecentUserActivities(Long userId) {
         log.info("Fetching recent activities for user: {}", userId);
-        return activityLogRepository.findTop50ByUserIdOrderByTimestampDesc(userId).stream()
-                .map(this::enrichWithUserData)
-                .collect(Collectors.toList());
+        return toDtos(latest(ActivityLogFilter.byUserId(userId)));
     }
 
     @Transactional
     public boolean deleteActivityLog(Long id) {
         log.info("Deleting activity log: {}", id);
-        if (activityLogRepository.existsById(id)) {
-            activityLogRepository.deleteById(id);
+        // Read first so the counters can take the one row off its day instead of recounting
+        Optional<ActivityLog> existing = activityLogStore.findById(id);
+        if (existing.isPresent() && activityLogStore.deleteById(id)) {
+            eventPublisher.publishEvent(StatisticsChangedEvent.activityDeleted(existing.get().getTimestamp()));
             return true;
         }
         return false;
@@ -140,21 +162,176 @@ public class ActivityLogService {
     @Transactional
     public boolean deleteUserActivityLogs(Long userId) {
         log.info("Deleting all activity logs for user: {}", userId);
-        List<ActivityLog> userLogs = activityLogRepository.findByUserId(userId);
-        activityLogRepository.deleteAll(userLogs);
+        activityLogStore.deleteByUserId(userId);
+        eventPublisher.publishEvent(StatisticsChangedEvent.userActivitiesDeleted());
         return true;
     }
 
-    @CircuitBreaker(name = "activityLogService", fallbackMethod = "enrichWithUserDataFallback")
-    @Retry(name = "activityLogService")
-    private ActivityLogDto enrichWithUserData(ActivityLog activityLog) {
-        UserDto user = userServiceClient.getUserById(activityLog.getUserId());
+    /**
+     * Full-text search over details, action, entity type and username, best matches first.
+     * Every word must match; a "quoted phrase" must appear as written within one field. A page checks at most
+     * {@code max-candidates-per-page} index hits; past that it comes back short, with {@code hasNextPage} set and
+     * an {@code endCursor} after the last hit checked.
+     */
+    @Transactional(readOnly = true)
+    public ActivityLogConnection search(String query, Integer first, String after, LocalDateTime from, LocalDateTime to) {
+        log.info("Searching activity logs for: {}", query);
+        int size = pageSize(first);
+        SearchQuery parsed = SearchQuery.parse(query);
+        SearchCursor cursor = SearchCursor.decode(after);
+
+        // The index may still hold deleted logs and matches words, not phrases: each hit is checked against
+        // the stored log, fetching more candidates in batches until the page and its one-extra lookahead are full
+        List<ActivityLogEdge> edges = new ArrayList<>();
+        boolean hasNextPage = false;
+        boolean truncated = false;
+        int budget = Math.max(maxSearchCandidates, size + 1);
+        int scanned = 0;
+        while (!hasNextPage) {
+            int batch = Math.min(size + 1, budget - scanned);
+            if (batch == 0) {
+                truncated = true;
+                break;
+            }
+            List<ActivityLogIndex.Hit> hits = activityLogIndex.search(parsed, from, to, cursor, batch);
+            scanned += hits.size();
+            Map<Long, ActivityLog> rows = new HashMap<>();
+            for (ActivityLog row : activityLogStore.findAllById(hits.stream().map(ActivityLogIndex.Hit::id).toList())) {
+                rows.put(row.getId(), row);
+            }
+            for (ActivityLogIndex.Hit hit : hits) {
+                cursor = new SearchCursor(hit.score(), hit.id());
+                ActivityLog row = rows.get(hit.id());
+                if (row == null || !parsed.matches(row)
+                        || (from != null && row.getTimestamp().isBefore(from))
+                        || (to != null && row.getTimestamp().isAfter(to))) {
+                    continue;
+                }
+                if (edges.size() == size) {
+                    hasNextPage = true;
+                    break;
+                }
+                edges.add(ActivityLogEdge.builder()
+                        .cursor(cursor.encode())
+                        .node(toDto(row))
+                        .build());
+            }
+            if (hits.size() < batch) {
+                break;
+            }
+        }
+        ActivityLogConnection connection = connection(edges, hasNextPage || truncated, after);
+        if (truncated) {
+            // Too many stale candidates for one page: the next one resumes after the last candidate checked
+            connection.getPageInfo().setEndCursor(cursor.encode());
+        }
+        return connection;
+    }
+
+    /**
+     * Activity counts in [from, to) grouped by the given columns and, unless {@code bucket} is null, by hour or day.
+     */
+    public List<HistogramCount> histogram(List<ActivityHistogramQuery.Dimension> groupBy, ActivityHistogramQuery.Bucket bucket,
+                                          LocalDateTime from, LocalDateTime to) {
+        log.info("Counting activity logs between {} and {} by {} per {}", from, to, groupBy, bucket);
+        Set<ActivityHistogramQuery.Dimension> dimensions = EnumSet.noneOf(ActivityHistogramQuery.Dimension.class);
+        if (groupBy != null) {
+            dimensions.addAll(groupBy);
+        }
+        return activityRollups.histogram(new ActivityHistogramQuery(dimensions, bucket, from, to));
+    }
+
+    private int pageSize(Integer first) {
+        int size = first != null ? first : defaultPageSize;
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("first must be between 1 and " + maxPageSize);
+        }
+        return size;
+    }
+
+    private ActivityLogConnection page(ActivityLogFilter filter, Integer first, String after) {
+        int size = pageSize(first);
+        ActivityLogCursor cursor = ActivityLogCursor.decode(after);
+
+        // One extra row tells whether another page exists without a COUNT
+        List<ActivityLog> rows = activityLogStore.findPage(filter, cursor.timestamp(), cursor.id(), size + 1);
+        // Date ranges can reach days that retention has moved to the cold archive; both sides share the keyset order
+        if (filter.from() != null) {
+            rows = ColdArchive.mergeNewestFirst(rows,
+                    coldArchive.findPage(filter, cursor.timestamp(), cursor.id(), size + 1), size + 1);
+        }
+        boolean hasNextPage = rows.size() > size;
+        List<ActivityLogEdge> edges = rows.subList(0, Math.min(size, rows.size())).stream()
+                .map(row -> ActivityLogEdge.builder()
+                        .cursor(new ActivityLogCursor(row.getTimestamp(), row.getId()).encode())
+                        .node(toDto(row))
+                        .build())
+                .toList();
+        return connection(edges, hasNextPage, after);
+    }
+
+    private static ActivityLogConnection connection(List<ActivityLogEdge> edges, boolean hasNextPage, String after) {
+        return ActivityLogConnection.builder()
+                .edges(edges)
+                .pageInfo(PageInfo.builder()
+                        .hasNextPage(hasNextPage)
+                        .hasPreviousPage(after != null && !after.isEmpty())
+                        .startCursor(edges.isEmpty() ? null : edges.get(0).getCursor())
+                        .endCursor(edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Full names for the given logs, in the same order, from one batched directory lookup.
+     * Users that cannot be resolved fall back to the stored username.
+     */
+    public List<String> getUserFullNames(List<ActivityLogDto> activityLogs) {
+        Map<Long, String> fullNames = userDirectory.fullNames(activityLogs.stream()
+                .map(ActivityLogDto::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+        return activityLogs.stream()
+                .map(activityLog -> fullNames.getOrDefault(activityLog.getUserId(), activityLog.getUsername()))
+                .toList();
+    }
 
+    public List<ActivityLogDto> withUserFullNames(List<ActivityLogDto> activityLogs) {
+        List<String> fullNames = getUserFullNames(activityLogs);
+        for (int i = 0; i < activityLogs.size(); i++) {
+            activityLogs.get(i).setUserFullName(fullNames.get(i));
+        }
+        return activityLogs;
+    }
+
+    public ActivityLogConnection withUserFullNames(ActivityLogConnection connection) {
+        withUserFullNames(connection.getEdges().stream().map(ActivityLogEdge::getNode).toList());
+        return connection;
+    }
+
+    public ActivityLogDto withUserFullName(ActivityLogDto activityLog) {
+        withUserFullNames(List.of(activityLog));
+        return activityLog;
+    }
+
+    private List<ActivityLog> latest(ActivityLogFilter filter) {
+        ActivityLogCursor start = ActivityLogCursor.START;
+        return activityLogStore.findPage(filter, start.timestamp(), start.id(), RECENT_LIMIT);
+    }
+
+    // userFullName is left empty here: GraphQL resolves it only when selected, REST callers use withUserFullNames
+    private List<ActivityLogDto> toDtos(List<ActivityLog> activityLogs) {
+        return activityLogs.stream()
+                .map(ActivityLogService::toDto)
+                .toList();
+    }
+
+    public static ActivityLogDto toDto(ActivityLog activityLog) {
         return ActivityLogDto.builder()
                 .id(activityLog.getId())
                 .userId(activityLog.getUserId())
                 .username(activityLog.getUsername())
-                .userFullName(user != null ? user.getFullName() : activityLog.getUsername())
                 .action(activityLog.getAction())
                 .entityType(activityLog.getEntityType())
                 .entityId(activityLog.getEntityId())
@@ -170,21 +347,4 @@ public class ActivityLogService {
         log.error("Fallback: createActivityLog failed", e);
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
     }
-
-    private ActivityLogDto enrichWithUserDataFallback(ActivityLog activityLog, Exception e) {
-        log.warn("Fallback: enrichWithUserData failed for activity log id: {}", activityLog.getId());
-        return ActivityLogDto.builder()
-                .id(activityLog.getId())
-                .userId(activityLog.getUserId())
-                .username(activityLog.getUsername())
-                .userFullName(activityLog.getUsername())
-                .action(activityLog.getAction())
-                .entityType(activityLog.getEntityType())
-                .entityId(activityLog.getEntityId())
-                .details(activityLog.getDetails())
-                .timestamp(activityLog.getTimestamp())
-                .ipAddress(activityLog.getIpAddress())
-                .userAgent(activityLog.getUserAgent())
-                .build();
-    }
 }
@@ -0,0 +1,134 @@
+package com.workhive.logsservice.service;
+
+import com.workhive.logsservice.client.UserServiceClient;
+import com.workhive.logsservice.client.UserServiceClientFallback;
+import com.workhive.logsservice.dto.UserDto;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Resolves user display names for activity logs.
+ * <p>
+ * Callers hand over every userId of a result list at once: cached names are served from a bounded
+ * LRU with a TTL, and the misses are fetched from USER-SERVICE {@code /api/users/batch} in chunks,
+ * so a page of logs costs at most one round trip per chunk instead of one per row. The batch call
+ * runs through the {@code userService} retry and circuit breaker; when it fails the ids are simply
+ * left unresolved (and not cached) so callers fall back to the stored username.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserDirectory {
+
+    static final String RESILIENCE_INSTANCE = "userService";
+
+    private final UserServiceClient userServiceClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+
+    @Value("${logs.users.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${logs.users.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${logs.users.batch-size:100}")
+    private int batchSize;
+
+    private CircuitBreaker circuitBreaker;
+    private Retry retry;
+    private Map<Long, CachedName> cache;
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        retry = retryRegistry.retry(RESILIENCE_INSTANCE);
+        // Access-ordered so the eldest entry is the least recently used one
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedName> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Full names keyed by userId. Ids that could not be resolved are absent from the result.
+     */
+    public Map<Long, String> fullNames(Collection<Long> userIds) {
+        Map<Long, String> names = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        synchronized (cache) {
+            for (Long userId : userIds) {
+                if (userId == null || names.containsKey(userId)) {
+                    continue;
+                }
+                CachedName cached = cache.get(userId);
+                if (cached != null && cached.expiresAt() > now) {
+                    names.put(userId, cached.fullName());
+                } else {
+                    missing.add(userId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return names;
+        }
+
+        List<Long> ids = new ArrayList<>(missing);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            List<UserDto> users = fetch(chunk);
+            long expiresAt = System.currentTimeMillis() + ttlMs;
+            synchronized (cache) {
+                for (UserDto user : users) {
+                    // Placeholders stand for a failed lookup, not a user
+                    if (user == null || user.getId() == null
+                            || UserServiceClientFallback.UNKNOWN_USERNAME.equals(user.getUsername())) {
+                        continue;
+                    }
+                    String fullName = user.getFullName();
+                    names.put(user.getId(), fullName);
+                    cache.put(user.getId(), new CachedName(fullName, expiresAt));
+                }
+            }
+        }
+        log.debug("Resolved {} user names, {} fetched from USER-SERVICE", names.size(), missing.size());
+        return names;
+    }
+
+    private List<UserDto> fetch(List<Long> chunk) {
+        Supplier<List<UserDto>> call = Retry.decorateSupplier(retry,
+                CircuitBreaker.decorateSupplier(circuitBreaker, () -> userServiceClient.getUsersByIds(List.copyOf(chunk))));
+        try {
+            List<UserDto> users = call.get();
+            return users != null ? users : List.of();
+        } catch (RuntimeException e) {
+            log.warn("Unable to fetch {} users from USER-SERVICE ({}), falling back to usernames",
+                    chunk.size(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private record CachedName(String fullName, long expiresAt) {
+    }
+}
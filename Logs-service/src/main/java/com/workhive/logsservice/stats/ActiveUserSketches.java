@@ -0,0 +1,209 @@
+package com.workhive.logsservice.stats;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate distinct active users over today, the last 7 days and the last 30 days.
+ * <p>
+ * One {@link HyperLogLog} is kept per calendar day. The union of the closed days of each
+ * window is cached until the date changes, so answering a window costs one merge with
+ * today's sketch rather than a scan of the log table. Writes are offered after they commit.
+ * Sketches cannot forget a user, so a deletion that may have removed a log inside the 30 day window rebuilds
+ * them from the last {@code retention-days} of logs. The rebuild runs on its own thread, and deletions that
+ * arrive while one is queued share it. Logs offered during a rebuild go into the new sketches as well.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActiveUserSketches {
+
+    // Longest window reported; days retained beyond it are kept but never counted
+    private static final int WINDOW_DAYS = 30;
+
+    private final ActivityLogStore activityLogStore;
+
+    @Value("${logs.active-users.retention-days:30}")
+    private int retentionDays;
+
+    private volatile ConcurrentMap<LocalDate, HyperLogLog> daily = new ConcurrentHashMap<>();
+
+    // Sketches being filled by a rebuild in progress, or null
+    private volatile ConcurrentMap<LocalDate, HyperLogLog> rebuilding;
+
+    // Union of the closed days of the 7 and 30 day windows, valid for one date
+    private volatile ClosedDays closedDays;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "active-user-sketches");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public void offer(Long userId, LocalDateTime timestamp) {
+        LocalDate day = timestamp.toLocalDate();
+        if (userId == null || day.isBefore(LocalDate.now().minusDays(retentionDays - 1L))) {
+            return;
+        }
+        daily.computeIfAbsent(day, d -> new HyperLogLog()).offer(userId);
+        ConcurrentMap<LocalDate, HyperLogLog> pending = rebuilding;
+        if (pending != null) {
+            pending.computeIfAbsent(day, d -> new HyperLogLog()).offer(userId);
+        }
+        if (closedDays != null && !day.isBefore(closedDays.today())) {
+            return;
+        }
+        // A backdated row landed in a closed day
+        closedDays = null;
+    }
+
+    public ActiveUsers activeUsers() {
+        LocalDate today = LocalDate.now();
+        ClosedDays closed = closedDays(today);
+        HyperLogLog current = daily.get(today);
+
+        long todayCount = current != null ? current.estimate() : 0;
+        return new ActiveUsers(todayCount, union(closed.last7(), current), union(closed.last30(), current));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDateTime since = LocalDate.now().minusDays(retentionDays - 1L).atStartOfDay();
+        ConcurrentMap<LocalDate, HyperLogLog> rebuilt = new ConcurrentHashMap<>();
+        long[] rows = new long[1];
+
+        rebuilding = rebuilt;
+        try {
+            activityLogStore.forEachUserActivitySince(since, (userId, timestamp) -> {
+                rebuilt.computeIfAbsent(timestamp.toLocalDate(), d -> new HyperLogLog()).offer(userId);
+                rows[0]++;
+            });
+            daily = rebuilt;
+            closedDays = null;
+            rebuilds.incrementAndGet();
+        } finally {
+            rebuilding = null;
+        }
+        log.info("Active-user sketches rebuilt from {} activity logs over {} days", rows[0], rebuilt.size());
+    }
+
+    /**
+     * Offers the users once their logs have committed, so a rolled back write never marks anyone active.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onActivityLogsCreated(ActivityLogsCreatedEvent event) {
+        for (ActivityLog activityLog : event.activityLogs()) {
+            offer(activityLog.getUserId(), activityLog.getTimestamp());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onStatisticsChanged(StatisticsChangedEvent event) {
+        if (event.deletedSince(LocalDate.now().minusDays(WINDOW_DAYS - 1L).atStartOfDay())) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Queues a rebuild unless one is already waiting to start; a rebuild already running may have scanned
+     * past the deleted rows, so it does not count.
+     */
+    void requestRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Active-user sketch rebuild failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+        }
+    }
+
+    /**
+     * How many rebuilds have completed, so a reader can tell the sketches changed without a write.
+     */
+    public long rebuilds() {
+        return rebuilds.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    private ClosedDays closedDays(LocalDate today) {
+        ClosedDays closed = closedDays;
+        if (closed != null && closed.today().equals(today)) {
+            return closed;
+        }
+        daily.keySet().removeIf(day -> day.isBefore(today.minusDays(retentionDays - 1L)));
+
+        HyperLogLog last7 = new HyperLogLog();
+        HyperLogLog last30 = new HyperLogLog();
+        for (int i = 1; i < retentionDays; i++) {
+            HyperLogLog day = daily.get(today.minusDays(i));
+            if (day == null) {
+                continue;
+            }
+            if (i < 7) {
+                last7.merge(day);
+            }
+            if (i < WINDOW_DAYS) {
+                last30.merge(day);
+            }
+        }
+        closed = new ClosedDays(today, last7, last30);
+        closedDays = closed;
+        return closed;
+    }
+
+    private static long union(HyperLogLog closed, HyperLogLog today) {
+        if (today == null) {
+            return closed.estimate();
+        }
+        HyperLogLog window = closed.copy();
+        window.merge(today);
+        return window.estimate();
+    }
+
+    public record ActiveUsers(long today, long last7Days, long last30Days) {
+    }
+
+    private record ClosedDays(LocalDate today, HyperLogLog last7, HyperLogLog last30) {
+    }
+}
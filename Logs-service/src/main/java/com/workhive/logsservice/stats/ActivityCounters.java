@@ -0,0 +1,155 @@
+package com.workhive.logsservice.stats;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Activity counts for the total, today, the last 7 days and arbitrary windows.
+ * <p>
+ * A total and one counter per calendar day over the last {@code retention-days} are kept in memory,
+ * seeded on startup by a single GROUP BY over the retained days. Memory is bounded by the retention,
+ * not the table size. Windows aligned on day boundaries inside the retention are summed from the day
+ * counters; any other window is answered by a range count in the store. Writes are counted after they commit.
+ * A deletion that names its rows takes them off their days; one that only says how many rows it removed, all
+ * older than the retained days, takes them off the total; any other deletion rebuilds the counters.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityCounters {
+
+    private final ActivityLogStore activityLogStore;
+
+    @Value("${logs.counters.retention-days:30}")
+    private int retentionDays;
+
+    private final AtomicLong total = new AtomicLong();
+
+    private volatile ConcurrentMap<LocalDate, LongAdder> daily = new ConcurrentHashMap<>();
+
+    public void offer(LocalDateTime timestamp) {
+        total.incrementAndGet();
+        LocalDate day = timestamp.toLocalDate();
+        if (!day.isBefore(oldestRetainedDay(LocalDate.now()))) {
+            daily.computeIfAbsent(day, d -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Takes a deleted log off the total and, when it is still retained, off its day.
+     */
+    public void remove(LocalDateTime timestamp) {
+        total.decrementAndGet();
+        LongAdder day = daily.get(timestamp.toLocalDate());
+        if (day != null) {
+            day.decrement();
+        }
+    }
+
+    public Counts counts() {
+        LocalDate today = LocalDate.now();
+        daily.keySet().removeIf(day -> day.isBefore(oldestRetainedDay(today)));
+        return new Counts(total.get(), sumDays(today, today.plusDays(1)), sumDays(today.minusDays(6), today.plusDays(1)));
+    }
+
+    /**
+     * Activities with {@code from <= timestamp < to}.
+     */
+    public long count(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return 0;
+        }
+        LocalDate today = LocalDate.now();
+        if (isStartOfDay(from) && isStartOfDay(to) && !from.toLocalDate().isBefore(oldestRetainedDay(today))) {
+            // No row is written in the future, so days after today never need to be visited
+            LocalDate end = to.toLocalDate().isAfter(today) ? today.plusDays(1) : to.toLocalDate();
+            return sumDays(from.toLocalDate(), end);
+        }
+        return activityLogStore.count(from, to);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime since = oldestRetainedDay(LocalDate.now()).atStartOfDay();
+        ConcurrentMap<LocalDate, LongAdder> rebuilt = new ConcurrentHashMap<>();
+
+        activityLogStore.countByDaySince(since).forEach((day, count) -> {
+            LongAdder counter = new LongAdder();
+            counter.add(count);
+            rebuilt.put(day, counter);
+        });
+
+        daily = rebuilt;
+        total.set(activityLogStore.count());
+        log.info("Activity counters rebuilt: {} activity logs, {} days retained", total.get(), rebuilt.size());
+    }
+
+    /**
+     * Counts the logs once their transaction has committed, so a rolled back or retried write is never counted.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onActivityLogsCreated(ActivityLogsCreatedEvent event) {
+        for (ActivityLog activityLog : event.activityLogs()) {
+            offer(activityLog.getTimestamp());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onStatisticsChanged(StatisticsChangedEvent event) {
+        // Runs before the statistics broadcaster reads the counters
+        if (!event.isDelete()) {
+            return;
+        }
+        if (event.deletedTimestamps() != null) {
+            event.deletedTimestamps().forEach(this::remove);
+        } else if (event.deletedRows() >= 0 && !event.deletedSince(oldestRetainedDay(LocalDate.now()).atStartOfDay())) {
+            total.addAndGet(-event.deletedRows());
+        } else {
+            rebuild();
+        }
+    }
+
+    private long sumDays(LocalDate fromInclusive, LocalDate toExclusive) {
+        ConcurrentMap<LocalDate, LongAdder> days = daily;
+        long sum = 0;
+        for (LocalDate day = fromInclusive; day.isBefore(toExclusive); day = day.plusDays(1)) {
+            LongAdder counter = days.get(day);
+            if (counter != null) {
+                sum += counter.sum();
+            }
+        }
+        return sum;
+    }
+
+    private LocalDate oldestRetainedDay(LocalDate today) {
+        return today.minusDays(retentionDays - 1L);
+    }
+
+    private static boolean isStartOfDay(LocalDateTime time) {
+        return time.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+
+    public record Counts(long total, long today, long last7Days) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.workhive.logsservice.stats;
+
+import com.workhive.logsservice.archive.ColdArchive;
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityHistogramQuery;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import com.workhive.logsservice.repository.HistogramCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Activity histograms grouped by action, entity type, user and hour or day.
+ * <p>
+ * Closed hours over the last {@code retention-days} are kept in memory as one count per
+ * (action, entity type, user), computed once by a GROUP BY in the store. An hour is sealed once it is
+ * {@code seal-grace-ms} old; a log committed into a sealed hour afterwards marks the hour dirty, and a dirty
+ * hour is read from the store until the next sealing run recounts it. A histogram sums the sealed hours it
+ * covers and sends only the rest of its window (partial hours, the open hour, dirty or expired hours) to the
+ * store. A deletion marks the hours it may have touched dirty in the same way: the hour of each deleted log
+ * when it names them, the retained hours before the cutoff of a retention sweep, every retained hour otherwise.
+ * Days that retention has moved to the cold archive are counted from its day files, so a window reaching past
+ * the table still counts every log.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityRollups {
+
+    private static final Set<ActivityHistogramQuery.Dimension> ALL_DIMENSIONS =
+            EnumSet.allOf(ActivityHistogramQuery.Dimension.class);
+
+    private static final Comparator<HistogramCount> ORDER = Comparator
+            .comparing(HistogramCount::bucket, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(HistogramCount::action, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(HistogramCount::entityType, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(HistogramCount::userId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ActivityLogStore activityLogStore;
+    private final ColdArchive coldArchive;
+
+    @Value("${logs.rollups.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${logs.rollups.seal-grace-ms:300000}")
+    private long sealGraceMs;
+
+    @Value("${logs.histogram.max-rows:10000}")
+    private int maxRows;
+
+    // Sealed hours, each with its counts keyed by (hour, action, entity type, user); an hour without logs maps to an empty list
+    private volatile ConcurrentNavigableMap<LocalDateTime, List<HistogramCount>> hours = new ConcurrentSkipListMap<>();
+
+    private final Set<LocalDateTime> dirtyHours = ConcurrentHashMap.newKeySet();
+
+    // Hours before this are sealed or older than the retention
+    private volatile LocalDateTime sealedUntil;
+
+    /**
+     * Counts with {@code from <= timestamp < to}, ordered by bucket then the grouped columns.
+     *
+     * @throws IllegalArgumentException when the window is empty or the result has more than {@code max-rows} groups
+     */
+    public List<HistogramCount> histogram(ActivityHistogramQuery query) {
+        if (!query.from().isBefore(query.to())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        Map<HistogramCount, Long> counts = new HashMap<>();
+        ConcurrentNavigableMap<LocalDateTime, List<HistogramCount>> sealed = hours;
+
+        // Full hours inside the window are summed from memory when sealed and clean; consecutive hours
+        // that are not, plus the partial hours at either end, are coalesced into as few store queries as possible
+        LocalDateTime rawFrom = query.from();
+        LocalDateTime firstFullHour = ceilHour(query.from());
+        LocalDateTime lastFullHour = query.to().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        Map<LocalDateTime, List<HistogramCount>> covered = firstFullHour.isAfter(lastFullHour) ? Map.of()
+                : sealed.subMap(firstFullHour, true, lastFullHour, true);
+        for (Map.Entry<LocalDateTime, List<HistogramCount>> sealedHour : covered.entrySet()) {
+            LocalDateTime hour = sealedHour.getKey();
+            if (dirtyHours.contains(hour)) {
+                continue;
+            }
+            if (rawFrom.isBefore(hour)) {
+                merge(counts, activityLogStore.histogram(query.between(rawFrom, hour)));
+            }
+            for (HistogramCount count : sealedHour.getValue()) {
+                counts.merge(query.keyOf(count.bucket(), count.action(), count.entityType(), count.userId()),
+                        count.count(), Long::sum);
+            }
+            rawFrom = hour.plusHours(1);
+        }
+        if (rawFrom.isBefore(query.to())) {
+            merge(counts, activityLogStore.histogram(query.between(rawFrom, query.to())));
+        }
+        merge(counts, coldArchive.histogram(query));
+
+        if (counts.size() > maxRows) {
+            throw new IllegalArgumentException("Histogram has more than " + maxRows
+                    + " groups; narrow the time range, use a coarser bucket or group by fewer columns");
+        }
+        List<HistogramCount> result = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> result.add(key.withCount(count)));
+        result.sort(ORDER);
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDateTime oldest = oldestRetainedHour();
+        LocalDateTime cutoff = sealCutoff();
+        dirtyHours.clear();
+        ConcurrentNavigableMap<LocalDateTime, List<HistogramCount>> rebuilt = new ConcurrentSkipListMap<>();
+        count(rebuilt, oldest, cutoff);
+        hours = rebuilt;
+        sealedUntil = cutoff;
+        log.info("Activity rollups rebuilt: {} hours sealed", rebuilt.size());
+    }
+
+    /**
+     * Seals the hours closed since the last run, recounts dirty hours and drops hours past the retention.
+     */
+    @Scheduled(fixedDelayString = "${logs.rollups.seal-interval-ms:60000}")
+    public synchronized void seal() {
+        if (sealedUntil == null) {
+            return;
+        }
+        LocalDateTime oldest = oldestRetainedHour();
+        LocalDateTime cutoff = sealCutoff();
+        ConcurrentNavigableMap<LocalDateTime, List<HistogramCount>> sealed = hours;
+
+        // Consecutive dirty hours are recounted with one query per run
+        LocalDateTime runStart = null;
+        LocalDateTime runEnd = null;
+        for (LocalDateTime dirty : new TreeSet<>(dirtyHours)) {
+            // Removed before recounting, so a log committed during the recount marks the hour dirty again
+            dirtyHours.remove(dirty);
+            if (!sealed.containsKey(dirty)) {
+                continue;
+            }
+            if (runStart != null && !dirty.equals(runEnd)) {
+                count(sealed, runStart, runEnd);
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = dirty;
+            }
+            runEnd = dirty.plusHours(1);
+        }
+        if (runStart != null) {
+            count(sealed, runStart, runEnd);
+        }
+        LocalDateTime from = sealedUntil.isBefore(oldest) ? oldest : sealedUntil;
+        if (from.isBefore(cutoff)) {
+            count(sealed, from, cutoff);
+            sealedUntil = cutoff;
+        }
+        sealed.headMap(oldest).clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogsCreated(ActivityLogsCreatedEvent event) {
+        // Compared with the cutoff rather than sealedUntil: a sealing run in progress may be counting the hour right now
+        LocalDateTime cutoff = sealCutoff();
+        for (ActivityLog activityLog : event.activityLogs()) {
+            LocalDateTime hour = activityLog.getTimestamp().truncatedTo(ChronoUnit.HOURS);
+            if (hour.isBefore(cutoff)) {
+                dirtyHours.add(hour);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatisticsChanged(StatisticsChangedEvent event) {
+        if (!event.isDelete()) {
+            return;
+        }
+        // Same cutoff as for inserts; hours that turn out not to be sealed are dropped by the next sealing run
+        LocalDateTime cutoff = sealCutoff();
+        if (event.deletedTimestamps() != null) {
+            for (LocalDateTime timestamp : event.deletedTimestamps()) {
+                LocalDateTime hour = timestamp.truncatedTo(ChronoUnit.HOURS);
+                if (hour.isBefore(cutoff)) {
+                    dirtyHours.add(hour);
+                }
+            }
+            return;
+        }
+        LocalDateTime until = event.deletedBefore() != null && ceilHour(event.deletedBefore()).isBefore(cutoff)
+                ? ceilHour(event.deletedBefore()) : cutoff;
+        for (LocalDateTime hour = oldestRetainedHour(); hour.isBefore(until); hour = hour.plusHours(1)) {
+            dirtyHours.add(hour);
+        }
+    }
+
+    /**
+     * Recounts whole hours in [from, to) with one GROUP BY and replaces them in {@code target}.
+     */
+    private void count(ConcurrentNavigableMap<LocalDateTime, List<HistogramCount>> target,
+                       LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        Map<LocalDateTime, List<HistogramCount>> counted = new HashMap<>();
+        for (LocalDateTime hour = from; hour.isBefore(to); hour = hour.plusHours(1)) {
+            counted.put(hour, new ArrayList<>());
+        }
+        ActivityHistogramQuery query = new ActivityHistogramQuery(ALL_DIMENSIONS, ActivityHistogramQuery.Bucket.HOUR, from, to);
+        for (HistogramCount count : activityLogStore.histogram(query)) {
+            counted.get(count.bucket()).add(count);
+        }
+        target.putAll(counted);
+    }
+
+    private static void merge(Map<HistogramCount, Long> counts, List<HistogramCount> rows) {
+        for (HistogramCount row : rows) {
+            // An ungrouped COUNT(*) over an empty range still returns one row
+            if (row.count() > 0) {
+                counts.merge(row.withCount(0), row.count(), Long::sum);
+            }
+        }
+    }
+
+    private LocalDateTime sealCutoff() {
+        return LocalDateTime.now().minus(sealGraceMs, ChronoUnit.MILLIS).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private LocalDateTime oldestRetainedHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(retentionDays);
+    }
+
+    private static LocalDateTime ceilHour(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(time) ? hour : hour.plusHours(1);
+    }
+}
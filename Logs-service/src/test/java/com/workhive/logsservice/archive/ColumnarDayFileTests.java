@@ -0,0 +1,219 @@
+package com.workhive.logsservice.archive;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Scans of one archived day, checked against a brute-force filter of the rows that were written.
+ */
+class ColumnarDayFileTests {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+    private static final String[] USERNAMES = {"alice", "bob", "çelik", "dana"};
+    private static final String[] ACTIONS = {"LOGIN", "LOGOUT", "UPDATE", "DELETE"};
+    private static final String[] ENTITY_TYPES = {"TASK", "PROJECT", "TEAM"};
+    private static final Comparator<ActivityLog> ORDER = Comparator.comparing(ActivityLog::getTimestamp)
+            .thenComparing(ActivityLog::getId);
+
+    @TempDir
+    Path directory;
+
+    private final List<ActivityLog> rows = new ArrayList<>();
+    private ColumnarDayFile file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(22);
+        Set<Long> ids = new HashSet<>();
+        while (rows.size() < 1_000) {
+            long id = random.nextLong(1, 1_000_000);
+            if (!ids.add(id)) {
+                continue;
+            }
+            // Few distinct seconds, so timestamps repeat within and across blocks
+            LocalTime time = LocalTime.ofSecondOfDay(random.nextInt(86_400 / 60) * 60L)
+                    .plusNanos(random.nextInt(4) == 0 ? random.nextInt(1_000_000_000) : 0);
+            rows.add(ActivityLog.builder()
+                    .id(id)
+                    .timestamp(LocalDateTime.of(DAY, time))
+                    .userId(random.nextInt(10) == 0 ? null : (long) random.nextInt(1, 6))
+                    .entityId(random.nextBoolean() ? null : (long) random.nextInt(-2, 4))
+                    .username(USERNAMES[random.nextInt(USERNAMES.length)])
+                    .action(ACTIONS[random.nextInt(ACTIONS.length)])
+                    .entityType(ENTITY_TYPES[random.nextInt(ENTITY_TYPES.length)])
+                    .ipAddress(random.nextBoolean() ? null : "10.0.0." + random.nextInt(4))
+                    .userAgent(random.nextBoolean() ? "curl/8" : "")
+                    .details(random.nextInt(5) == 0 ? null : "détails " + "x".repeat(random.nextInt(300)))
+                    .build());
+        }
+        rows.sort(ORDER);
+        try (ColumnarDayFile.Writer writer = new ColumnarDayFile.Writer(directory.resolve("2024-03-10.col"), DAY, 64)) {
+            for (ActivityLog row : rows) {
+                writer.append(row);
+            }
+            assertThat(writer.rowCount()).isEqualTo(rows.size());
+            file = writer.commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        file.close();
+    }
+
+    @Test
+    void roundTripsEveryRowInBothDirections() throws IOException {
+        assertThat(file.rowCount()).isEqualTo(rows.size());
+        assertThat(scan(ActivityLogFilter.all(), false)).isEqualTo(rows);
+        assertThat(scan(ActivityLogFilter.all(), true)).isEqualTo(reversed(rows));
+
+        List<Long> ids = new ArrayList<>();
+        file.forEachId(ids::add);
+        assertThat(ids).isEqualTo(rows.stream().map(ActivityLog::getId).toList());
+
+        // Reopened from disk, with no temporary file left behind
+        try (ColumnarDayFile reopened = ColumnarDayFile.open(directory.resolve("2024-03-10.col"), DAY);
+             Stream<Path> files = Files.list(directory)) {
+            List<ActivityLog> scanned = new ArrayList<>();
+            reopened.scan(ActivityLogFilter.all(), LocalDateTime.MAX, Long.MAX_VALUE, false, scanned::add);
+            assertThat(scanned).isEqualTo(rows);
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactly("2024-03-10.col");
+        }
+    }
+
+    @Test
+    void filtersMatchTheBruteForceResult() throws IOException {
+        List<ActivityLogFilter> filters = new ArrayList<>(List.of(
+                ActivityLogFilter.byUserId(3L),
+                ActivityLogFilter.byUsername("çelik"),
+                ActivityLogFilter.byUsername("nobody"),
+                ActivityLogFilter.byAction("DELETE"),
+                ActivityLogFilter.byAction("ARCHIVE"),
+                ActivityLogFilter.byEntityType("TEAM"),
+                ActivityLogFilter.byEntity("TASK", -2L),
+                ActivityLogFilter.byEntity("TASK", 0L),
+                new ActivityLogFilter(2L, "bob", "UPDATE", "PROJECT", null, null, null)));
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 40; i++) {
+            LocalDateTime from = rows.get(random.nextInt(rows.size())).getTimestamp();
+            LocalDateTime to = rows.get(random.nextInt(rows.size())).getTimestamp();
+            filters.add(ActivityLogFilter.between(from, to));
+            filters.add(ActivityLogFilter.byUserIdBetween((long) random.nextInt(1, 6), from, to));
+        }
+        // Bounds on other days
+        filters.add(ActivityLogFilter.between(DAY.minusDays(1).atStartOfDay(), DAY.plusDays(1).atStartOfDay()));
+        filters.add(ActivityLogFilter.between(DAY.minusDays(2).atStartOfDay(), DAY.minusDays(1).atStartOfDay()));
+        filters.add(ActivityLogFilter.between(DAY.plusDays(1).atStartOfDay(), DAY.plusDays(2).atStartOfDay()));
+        filters.add(ActivityLogFilter.between(DAY.atStartOfDay(), DAY.atStartOfDay()));
+
+        for (ActivityLogFilter filter : filters) {
+            List<ActivityLog> expected = rows.stream().filter(matching(filter)).toList();
+            assertThat(scan(filter, false)).as("%s", filter).isEqualTo(expected);
+            assertThat(scan(filter, true)).as("%s newest first", filter).isEqualTo(reversed(expected));
+        }
+    }
+
+    @Test
+    void pagesWalkNewestFirstWithoutGapsOrRepeats() throws IOException {
+        for (ActivityLogFilter filter : List.of(ActivityLogFilter.all(), ActivityLogFilter.byAction("LOGIN"),
+                ActivityLogFilter.between(rows.get(100).getTimestamp(), rows.get(700).getTimestamp()))) {
+            for (int pageSize : new int[]{1, 13, 64, 5_000}) {
+                List<ActivityLog> walked = new ArrayList<>();
+                LocalDateTime beforeTimestamp = DAY.plusDays(1).atStartOfDay();
+                long beforeId = Long.MAX_VALUE;
+                while (true) {
+                    List<ActivityLog> page = new ArrayList<>();
+                    boolean finished = file.scan(filter, beforeTimestamp, beforeId, true, row -> {
+                        page.add(row);
+                        return page.size() < pageSize;
+                    });
+                    walked.addAll(page);
+                    if (finished) {
+                        break;
+                    }
+                    assertThat(page).hasSize(pageSize);
+                    beforeTimestamp = page.get(page.size() - 1).getTimestamp();
+                    beforeId = page.get(page.size() - 1).getId();
+                }
+                assertThat(walked).as("%s by %d", filter, pageSize)
+                        .isEqualTo(reversed(rows.stream().filter(matching(filter)).toList()));
+            }
+        }
+    }
+
+    @Test
+    void writerRejectsRowsOutOfOrderOrFromAnotherDay() throws IOException {
+        Path path = directory.resolve("2024-03-11.col");
+        try (ColumnarDayFile.Writer writer = new ColumnarDayFile.Writer(path, DAY.plusDays(1), 16)) {
+            writer.append(row(5L, DAY.plusDays(1).atTime(12, 0)));
+
+            assertThatThrownBy(() -> writer.append(row(4L, DAY.plusDays(1).atTime(12, 0))))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> writer.append(row(6L, DAY.plusDays(1).atTime(11, 59))))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> writer.append(row(7L, DAY.atTime(13, 0))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        // An abandoned writer leaves nothing behind
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString())).containsExactly("2024-03-10.col");
+        }
+    }
+
+    @Test
+    void refusesFilesThatAreNotArchives() throws IOException {
+        Path path = Files.write(directory.resolve("garbage.col"), new byte[100]);
+
+        assertThatThrownBy(() -> ColumnarDayFile.open(path, DAY)).isInstanceOf(IOException.class);
+    }
+
+    private List<ActivityLog> scan(ActivityLogFilter filter, boolean newestFirst) throws IOException {
+        List<ActivityLog> scanned = new ArrayList<>();
+        assertThat(file.scan(filter, LocalDateTime.MAX, Long.MAX_VALUE, newestFirst, scanned::add)).isTrue();
+        return scanned;
+    }
+
+    private static Predicate<ActivityLog> matching(ActivityLogFilter filter) {
+        return log -> (filter.userId() == null || filter.userId().equals(log.getUserId()))
+                && (filter.username() == null || filter.username().equals(log.getUsername()))
+                && (filter.action() == null || filter.action().equals(log.getAction()))
+                && (filter.entityType() == null || filter.entityType().equals(log.getEntityType()))
+                && (filter.entityId() == null || filter.entityId().equals(log.getEntityId()))
+                && (filter.from() == null || !log.getTimestamp().isBefore(filter.from()))
+                && (filter.to() == null || !log.getTimestamp().isAfter(filter.to()));
+    }
+
+    private static List<ActivityLog> reversed(List<ActivityLog> logs) {
+        List<ActivityLog> reversed = new ArrayList<>(logs);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+
+    private static ActivityLog row(Long id, LocalDateTime timestamp) {
+        return ActivityLog.builder().id(id).timestamp(timestamp).userId(1L).username("alice").action("LOGIN")
+                .entityType("USER").build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.workhive.logsservice.grpc;
+
+import com.workhive.logsservice.ingest.ActivityBatchWriter;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives one IngestActivities call the way gRPC does: events are delivered only as far as the stream
+ * has requested them, from one thread at a time.
+ */
+class ActivityIngestStreamTests {
+
+    private static final int BATCH_SIZE = 10;
+
+    private final ExecutorService writers = Executors.newFixedThreadPool(2);
+    private final ScheduledExecutorService lingerTimer = Executors.newSingleThreadScheduledExecutor();
+
+    private final AtomicLong credits = new AtomicLong();
+    private final AtomicReference<IngestSummary> summary = new AtomicReference<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        writers.shutdownNow();
+        lingerTimer.shutdownNow();
+    }
+
+    @Test
+    void slowWriterAndShortLingerLoseNoEvents() throws Exception {
+        ActivityIngestStream stream = stream(writer(true));
+        stream.start();
+
+        int events = 500;
+        for (int i = 0; i < events; i++) {
+            awaitCredit();
+            stream.onNext(event(i, 0));
+            if (i % 7 == 0) {
+                // Lets partial batches linger out while earlier ones are still being written
+                Thread.sleep(3);
+            }
+        }
+        stream.onCompleted();
+
+        assertThat(completed.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(summary.get().getReceived()).isEqualTo(events);
+        assertThat(summary.get().getWritten()).isEqualTo(events);
+        assertThat(summary.get().getRejected()).isZero();
+        assertThat(batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(events);
+        assertThat(batches).allMatch(size -> size <= BATCH_SIZE);
+    }
+
+    @Test
+    void backdatedEventsAreRejectedWhenTheStoreCannotKeepThem() throws Exception {
+        ActivityIngestStream stream = stream(writer(false));
+        stream.start();
+
+        awaitCredit();
+        stream.onNext(event(1, 1_500_000_000_000L));
+        awaitCredit();
+        stream.onNext(event(2, 0));
+        stream.onCompleted();
+
+        assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(summary.get().getWritten()).isEqualTo(1);
+        assertThat(summary.get().getRejected()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ActivityIngestStream stream(ActivityBatchWriter writer) {
+        ServerCallStreamObserver<IngestSummary> call = mock(ServerCallStreamObserver.class);
+        doAnswer(invocation -> credits.addAndGet(invocation.<Integer>getArgument(0))).when(call).request(anyInt());
+        doAnswer(invocation -> {
+            summary.set(invocation.getArgument(0));
+            return null;
+        }).when(call).onNext(any());
+        doAnswer(invocation -> {
+            completed.countDown();
+            return null;
+        }).when(call).onCompleted();
+        return new ActivityIngestStream(call, writer, writers, lingerTimer, BATCH_SIZE, 1);
+    }
+
+    private ActivityBatchWriter writer(boolean acceptsBackdatedEvents) {
+        ActivityBatchWriter writer = mock(ActivityBatchWriter.class);
+        when(writer.acceptsBackdatedEvents()).thenReturn(acceptsBackdatedEvents);
+        doAnswer(invocation -> {
+            Thread.sleep(20);
+            batches.add(invocation.<List<?>>getArgument(0).size());
+            return null;
+        }).when(writer).write(anyList());
+        return writer;
+    }
+
+    private void awaitCredit() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (credits.get() == 0) {
+            assertThat(System.nanoTime()).as("waiting for the stream to request more").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+        credits.decrementAndGet();
+    }
+
+    private static ActivityEvent event(int i, long timestampEpochMillis) {
+        return ActivityEvent.newBuilder()
+                .setUserId(i + 1)
+                .setUsername("user" + i)
+                .setAction("LOGIN")
+                .setEntityType("USER")
+                .setTimestampEpochMillis(timestampEpochMillis)
+                .build();
+    }
+}
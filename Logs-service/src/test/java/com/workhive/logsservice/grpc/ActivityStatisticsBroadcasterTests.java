@@ -0,0 +1,152 @@
+package com.workhive.logsservice.grpc;
+
+import com.workhive.logsservice.stats.ActiveUserSketches;
+import com.workhive.logsservice.stats.ActivityCounters;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivityStatisticsBroadcasterTests {
+
+    private final ActivityCounters activityCounters = mock(ActivityCounters.class);
+    private final ActiveUserSketches activeUserSketches = mock(ActiveUserSketches.class);
+    private final ActivityStatisticsBroadcaster broadcaster = new ActivityStatisticsBroadcaster(activityCounters, activeUserSketches);
+
+    @SuppressWarnings("unchecked")
+    private final ServerCallStreamObserver<ActivityStatisticsUpdate> watcher = mock(ServerCallStreamObserver.class);
+
+    @BeforeEach
+    void setUp() {
+        counts(10);
+        when(activeUserSketches.activeUsers()).thenReturn(new ActiveUserSketches.ActiveUsers(1, 2, 3));
+    }
+
+    @Test
+    void readyWatcherGetsSnapshotThenDeltas() {
+        when(watcher.isReady()).thenReturn(true);
+        broadcaster.subscribe(watcher);
+
+        counts(12);
+        change();
+
+        List<ActivityStatisticsUpdate> sent = sent(2);
+        assertThat(sent.get(0).getSnapshot()).isTrue();
+        assertThat(sent.get(0).getTotalActivities()).isEqualTo(10);
+        assertThat(sent.get(1).getSnapshot()).isFalse();
+        assertThat(sent.get(1).getTotalActivities()).isEqualTo(2);
+    }
+
+    @Test
+    void watcherThatIsNotReadySkipsDeltasAndCatchesUpWithOneSnapshot() {
+        when(watcher.isReady()).thenReturn(true);
+        broadcaster.subscribe(watcher);
+        Runnable onReady = onReadyHandler();
+
+        when(watcher.isReady()).thenReturn(false);
+        counts(12);
+        change();
+        counts(15);
+        change();
+        verify(watcher, times(1)).onNext(any());
+
+        // Ready again, but the missed deltas are not replayed: the next update sent is the snapshot
+        when(watcher.isReady()).thenReturn(true);
+        counts(16);
+        change();
+        verify(watcher, times(1)).onNext(any());
+
+        onReady.run();
+        List<ActivityStatisticsUpdate> sent = sent(2);
+        assertThat(sent.get(1).getSnapshot()).isTrue();
+        assertThat(sent.get(1).getTotalActivities()).isEqualTo(16);
+
+        // Caught up, so deltas flow again and a second onReady sends nothing
+        onReady.run();
+        counts(17);
+        change();
+        sent = sent(3);
+        assertThat(sent.get(2).getSnapshot()).isFalse();
+        assertThat(sent.get(2).getTotalActivities()).isEqualTo(1);
+    }
+
+    @Test
+    void writesBetweenTicksAreRecountedOnceAndSentAsOneDelta() {
+        when(watcher.isReady()).thenReturn(true);
+        broadcaster.subscribe(watcher);
+        clearInvocations(activeUserSketches);
+
+        counts(11);
+        broadcaster.onStatisticsChanged(StatisticsChangedEvent.activityRecorded());
+        counts(13);
+        broadcaster.onStatisticsChanged(StatisticsChangedEvent.activitiesRecorded());
+        verify(activeUserSketches, never()).activeUsers();
+
+        broadcaster.tick();
+        broadcaster.tick();
+
+        verify(activeUserSketches, times(1)).activeUsers();
+        List<ActivityStatisticsUpdate> sent = sent(2);
+        assertThat(sent.get(1).getTotalActivities()).isEqualTo(3);
+    }
+
+    @Test
+    void finishedSketchRebuildIsSentWithoutAWrite() {
+        when(watcher.isReady()).thenReturn(true);
+        broadcaster.subscribe(watcher);
+
+        when(activeUserSketches.rebuilds()).thenReturn(1L);
+        when(activeUserSketches.activeUsers()).thenReturn(new ActiveUserSketches.ActiveUsers(1, 2, 2));
+        broadcaster.tick();
+
+        List<ActivityStatisticsUpdate> sent = sent(2);
+        assertThat(sent.get(1).getSnapshot()).isFalse();
+        assertThat(sent.get(1).getActiveUsersLast30Days()).isEqualTo(-1);
+    }
+
+    @Test
+    void watcherNotReadyOnSubscribeGetsItsFirstSnapshotWhenReady() {
+        when(watcher.isReady()).thenReturn(false);
+        broadcaster.subscribe(watcher);
+        verify(watcher, never()).onNext(any());
+
+        when(watcher.isReady()).thenReturn(true);
+        onReadyHandler().run();
+
+        List<ActivityStatisticsUpdate> sent = sent(1);
+        assertThat(sent.get(0).getSnapshot()).isTrue();
+        assertThat(sent.get(0).getActiveUsersLast30Days()).isEqualTo(3);
+    }
+
+    private void change() {
+        broadcaster.onStatisticsChanged(StatisticsChangedEvent.activitiesRecorded());
+        broadcaster.tick();
+    }
+
+    private void counts(long total) {
+        when(activityCounters.counts()).thenReturn(new ActivityCounters.Counts(total, total, total));
+    }
+
+    private Runnable onReadyHandler() {
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(watcher).setOnReadyHandler(handler.capture());
+        return handler.getValue();
+    }
+
+    private List<ActivityStatisticsUpdate> sent(int expected) {
+        ArgumentCaptor<ActivityStatisticsUpdate> updates = ArgumentCaptor.forClass(ActivityStatisticsUpdate.class);
+        verify(watcher, times(expected)).onNext(updates.capture());
+        return updates.getAllValues();
+    }
+}
@@ -0,0 +1,71 @@
+package com.workhive.logsservice.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GrpcMetricsServerInterceptorTests {
+
+    private static final String METHOD = "workhive.Test/Call";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GrpcMetricsServerInterceptor interceptor = new GrpcMetricsServerInterceptor(meterRegistry);
+
+    @SuppressWarnings("unchecked")
+    private final ServerCall<String, String> call = mock(ServerCall.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(interceptor, "percentiles", new double[]{0.5, 0.99});
+        MethodDescriptor.Marshaller<String> marshaller = mock(MethodDescriptor.Marshaller.class);
+        when(call.getMethodDescriptor()).thenReturn(MethodDescriptor.<String, String>newBuilder()
+                .setType(MethodDescriptor.MethodType.UNARY)
+                .setFullMethodName(METHOD)
+                .setRequestMarshaller(marshaller)
+                .setResponseMarshaller(marshaller)
+                .build());
+    }
+
+    @Test
+    void closedCallLeavesNothingInFlight() {
+        ServerCallHandler<String, String> handler = (serverCall, headers) -> {
+            assertThat(inFlight()).isEqualTo(1);
+            serverCall.close(Status.OK, new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        };
+
+        interceptor.interceptCall(call, new Metadata(), handler);
+
+        assertThat(inFlight()).isZero();
+        assertThat(meterRegistry.get("grpc.server.call.latency").tag("status", "OK").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void handlerThatThrowsLeavesNothingInFlight() {
+        ServerCallHandler<String, String> handler = (serverCall, headers) -> {
+            throw Status.UNAVAILABLE.asRuntimeException();
+        };
+
+        assertThatThrownBy(() -> interceptor.interceptCall(call, new Metadata(), handler))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(inFlight()).isZero();
+        assertThat(meterRegistry.get("grpc.server.call.latency").tag("status", "UNAVAILABLE").timer().count()).isEqualTo(1);
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("grpc.server.calls.in.flight").tag("method", METHOD).gauge().value();
+    }
+}
@@ -0,0 +1,112 @@
+package com.workhive.logsservice.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityJournalTests {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void crashLeavesEveryAppendedEventForReplay() throws IOException {
+        ActivityJournal journal = new ActivityJournal(directory, 1 << 20, OBJECT_MAPPER);
+        List<ActivityEvent> events = events(5);
+        for (ActivityEvent event : events) {
+            journal.append(event);
+        }
+        // No close: the process died
+
+        ActivityJournal restarted = new ActivityJournal(directory, 1 << 20, OBJECT_MAPPER);
+        assertThat(restarted.readLeftovers(restarted.leftoverSegments())).containsExactlyElementsOf(events);
+    }
+
+    @Test
+    void cleanCloseAfterEverythingIsCommittedLeavesNothingToReplay() throws IOException {
+        ActivityJournal journal = new ActivityJournal(directory, 1 << 20, OBJECT_MAPPER);
+        for (ActivityEvent event : events(5)) {
+            journal.committed(journal.append(event));
+        }
+        journal.close(List.of());
+
+        ActivityJournal restarted = new ActivityJournal(directory, 1 << 20, OBJECT_MAPPER);
+        assertThat(restarted.leftoverSegments()).isEmpty();
+    }
+
+    @Test
+    void cleanCloseKeepsOnlyUnwrittenEvents() throws IOException {
+        // Small segments, so the committed events are spread over several rotated ones
+        ActivityJournal journal = new ActivityJournal(directory, 512, OBJECT_MAPPER);
+        List<ActivityEvent> events = events(20);
+        List<ActivityJournal.Segment> segments = new ArrayList<>();
+        for (ActivityEvent event : events) {
+            segments.add(journal.append(event));
+        }
+        for (int i = 0; i < 15; i++) {
+            journal.committed(segments.get(i));
+        }
+        journal.close(events.subList(15, 20));
+
+        ActivityJournal restarted = new ActivityJournal(directory, 512, OBJECT_MAPPER);
+        List<Path> leftovers = restarted.leftoverSegments();
+        assertThat(leftovers).hasSize(1);
+        assertThat(restarted.readLeftovers(leftovers)).containsExactlyElementsOf(events.subList(15, 20));
+    }
+
+    @Test
+    void rotatedSegmentIsDeletedOnceAllItsEventsAreCommitted() throws IOException {
+        ActivityJournal journal = new ActivityJournal(directory, 256, OBJECT_MAPPER);
+        List<ActivityJournal.Segment> segments = new ArrayList<>();
+        for (ActivityEvent event : events(10)) {
+            segments.add(journal.append(event));
+        }
+        long before = journal.leftoverSegments().size();
+        assertThat(before).isGreaterThan(1);
+
+        ActivityJournal.Segment first = segments.get(0);
+        segments.stream().filter(segment -> segment == first).forEach(journal::committed);
+
+        assertThat(journal.leftoverSegments()).hasSize((int) before - 1);
+    }
+
+    @Test
+    void tornLastLineAndInterruptedCompactionAreIgnored() throws IOException {
+        ActivityJournal journal = new ActivityJournal(directory, 1 << 20, OBJECT_MAPPER);
+        List<ActivityEvent> events = events(3);
+        for (ActivityEvent event : events) {
+            journal.append(event);
+        }
+        Path segment = journal.leftoverSegments().get(0);
+        Files.writeString(segment, "{\"userId\":1,\"usern", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        Path temporary = directory.resolve("segment-00000000000000000099.log.tmp");
+        Files.writeString(temporary, "partial");
+
+        ActivityJournal restarted = new ActivityJournal(directory, 1 << 20, OBJECT_MAPPER);
+        assertThat(Files.exists(temporary)).isFalse();
+        assertThat(restarted.readLeftovers(restarted.leftoverSegments())).containsExactlyElementsOf(events);
+    }
+
+    static List<ActivityEvent> events(int count) {
+        List<ActivityEvent> events = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            events.add(new ActivityEvent((long) i + 1, "user" + i, "LOGIN", "USER", null, "event " + i, null, null,
+                    start.plusSeconds(i)));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,168 @@
+package com.workhive.logsservice.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workhive.logsservice.dto.CreateActivityLogInput;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Journal durability across clean restarts, failed writes at shutdown and crashes, plus the drainers' idle
+ * behaviour and submissions outside the running window.
+ */
+class WriteBehindIngestorTests {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path journalDir;
+
+    private final List<ActivityEvent> written = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+
+    @Test
+    void cleanRestartDoesNotWriteCommittedActivitiesAgain() throws Exception {
+        WriteBehindIngestor ingestor = start();
+        for (int i = 0; i < 50; i++) {
+            ingestor.submit(input(i));
+        }
+        ingestor.stop();
+        assertThat(written).hasSize(50);
+
+        written.clear();
+        WriteBehindIngestor restarted = start();
+        restarted.stop();
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void activitiesUnwrittenAtShutdownAreReplayedExactlyOnce() throws Exception {
+        databaseDown.set(true);
+        WriteBehindIngestor ingestor = start();
+        for (int i = 0; i < 30; i++) {
+            ingestor.submit(input(i));
+        }
+        ingestor.stop();
+        assertThat(written).isEmpty();
+
+        databaseDown.set(false);
+        WriteBehindIngestor restarted = start();
+        restarted.stop();
+        assertThat(written).extracting(ActivityEvent::details)
+                .containsExactlyInAnyOrderElementsOf(details(30));
+
+        written.clear();
+        start().stop();
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void crashReplaysJournaledActivities() throws Exception {
+        // A previous process journaled these and died before writing them
+        ActivityJournal journal = new ActivityJournal(journalDir, 1 << 20, OBJECT_MAPPER);
+        List<ActivityEvent> events = ActivityJournalTests.events(10);
+        for (ActivityEvent event : events) {
+            journal.append(event);
+        }
+
+        WriteBehindIngestor restarted = start();
+        restarted.stop();
+
+        assertThat(written).containsExactlyElementsOf(events);
+    }
+
+    @Test
+    void idleDrainersWaitOnTheQueueAndWakeForTheNextActivity() throws Exception {
+        WriteBehindIngestor ingestor = start();
+        try {
+            @SuppressWarnings("unchecked")
+            List<Thread> drainers = (List<Thread>) ReflectionTestUtils.getField(ingestor, "drainers");
+            Thread.sleep(100);
+            for (Thread drainer : drainers) {
+                assertThat(drainer.getState()).isEqualTo(Thread.State.TIMED_WAITING);
+                assertThat(Arrays.stream(drainer.getStackTrace()))
+                        .anyMatch(frame -> frame.getClassName().equals(LinkedBlockingQueue.class.getName())
+                                && frame.getMethodName().equals("poll"));
+            }
+
+            long submitted = System.nanoTime();
+            ingestor.submit(input(0));
+            while (written.isEmpty() && System.nanoTime() - submitted < 5_000_000_000L) {
+                Thread.sleep(1);
+            }
+            assertThat(written).hasSize(1);
+        } finally {
+            ingestor.stop();
+        }
+    }
+
+    @Test
+    void submitAfterShutdownIsReportedAsUnavailable() throws Exception {
+        WriteBehindIngestor ingestor = start();
+        ingestor.stop();
+
+        assertThatThrownBy(() -> ingestor.submit(input(0)))
+                .isInstanceOf(IngestionUnavailableException.class)
+                .extracting(e -> ((IngestionUnavailableException) e).getRetryAfterSeconds())
+                .isEqualTo(1L);
+        assertThat(written).isEmpty();
+    }
+
+    private WriteBehindIngestor start() throws Exception {
+        ActivityBatchWriter writer = mock(ActivityBatchWriter.class);
+        doAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new IllegalStateException("database down");
+            }
+            written.addAll(invocation.getArgument(0));
+            return null;
+        }).when(writer).write(anyList());
+
+        WriteBehindIngestor ingestor = new WriteBehindIngestor(writer, OBJECT_MAPPER, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestor, "mode", WriteBehindIngestor.Mode.ASYNC);
+        ReflectionTestUtils.setField(ingestor, "durability", WriteBehindIngestor.Durability.JOURNAL);
+        ReflectionTestUtils.setField(ingestor, "capacity", 1000);
+        ReflectionTestUtils.setField(ingestor, "batchSize", 8);
+        ReflectionTestUtils.setField(ingestor, "drainerCount", 2);
+        ReflectionTestUtils.setField(ingestor, "retryAfterSeconds", 1L);
+        ReflectionTestUtils.setField(ingestor, "writeRetryMs", 10L);
+        ReflectionTestUtils.setField(ingestor, "shutdownTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(ingestor, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(ingestor, "journalSegmentBytes", 1024L);
+        ingestor.start();
+        return ingestor;
+    }
+
+    private static CreateActivityLogInput input(int i) {
+        CreateActivityLogInput input = new CreateActivityLogInput();
+        input.setUserId((long) i + 1);
+        input.setUsername("user" + i);
+        input.setAction("LOGIN");
+        input.setEntityType("USER");
+        input.setDetails("event " + i);
+        return input;
+    }
+
+    private static List<String> details(int count) {
+        List<String> details = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            details.add("event " + i);
+        }
+        return details;
+    }
+}
@@ -0,0 +1,125 @@
+package com.workhive.logsservice.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Runs every ActivityLogRepository query, captures the SQL Hibernate generated for it and checks
+ * with H2's EXPLAIN that it is answered from an index rather than a full scan of activity_logs.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.workhive.logsservice.repository.ActivityLogQueryPlanTests$LastStatement",
+        // This context is not shared with the default one, which already listens on the gRPC port
+        "grpc.server.port=-1"})
+class ActivityLogQueryPlanTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private static final LocalDateTime WEEK_AGO = NOW.minusDays(7);
+    private static final PageRequest PAGE = PageRequest.of(0, 21);
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                arguments("deleteAllByUserId", "idx_activity_logs_user",
+                        query(r -> r.deleteAllByUserId(1L))),
+                arguments("countByTimestampGreaterThanEqualAndTimestampLessThan", "idx_activity_logs_timestamp",
+                        query(r -> r.countByTimestampGreaterThanEqualAndTimestampLessThan(WEEK_AGO, NOW))),
+                arguments("countByDaySince", "idx_activity_logs_timestamp",
+                        query(r -> r.countByDaySince(WEEK_AGO))),
+                // The user-activity index also holds user_id and is narrower than the histogram one, so the
+                // per-user count never reads a row
+                arguments("countByUserSince", "idx_activity_logs_user_activity",
+                        query(r -> r.countByUserSince(WEEK_AGO))),
+                arguments("findUserActivityPage", "idx_activity_logs_user_activity",
+                        query(r -> r.findUserActivityPage(WEEK_AGO, 0L, PAGE))),
+                arguments("findByActionAndDateRange", "idx_activity_logs_action",
+                        query(r -> r.findByActionAndDateRange("LOGIN", WEEK_AGO, NOW))),
+                arguments("findPage", "idx_activity_logs_timestamp",
+                        query(r -> r.findPage(NOW, Long.MAX_VALUE, PAGE))),
+                arguments("findPageByUserId", "idx_activity_logs_user",
+                        query(r -> r.findPageByUserId(1L, NOW, Long.MAX_VALUE, PAGE))),
+                arguments("findPageByUsername", "idx_activity_logs_username",
+                        query(r -> r.findPageByUsername("john", NOW, Long.MAX_VALUE, PAGE))),
+                arguments("findPageByAction", "idx_activity_logs_action",
+                        query(r -> r.findPageByAction("LOGIN", NOW, Long.MAX_VALUE, PAGE))),
+                arguments("findPageByEntityType", "idx_activity_logs_entity_type",
+                        query(r -> r.findPageByEntityType("PROJECT", NOW, Long.MAX_VALUE, PAGE))),
+                arguments("findPageByEntity", "idx_activity_logs_entity",
+                        query(r -> r.findPageByEntity("PROJECT", 7L, NOW, Long.MAX_VALUE, PAGE))),
+                arguments("findPageByDateRange", "idx_activity_logs_timestamp",
+                        query(r -> r.findPageByDateRange(WEEK_AGO, NOW, NOW, Long.MAX_VALUE, PAGE))),
+                arguments("findPageByUserIdAndDateRange", "idx_activity_logs_user",
+                        query(r -> r.findPageByUserIdAndDateRange(1L, WEEK_AGO, NOW, NOW, Long.MAX_VALUE, PAGE)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryIsServedByAnIndex(String name, String expectedIndex, Consumer<ActivityLogRepository> query) throws SQLException {
+        LastStatement.SQL.remove();
+        query.accept(activityLogRepository);
+        String sql = LastStatement.SQL.get();
+        assertThat(sql).as("SQL captured for %s", name).isNotNull();
+
+        String plan = explain(sql);
+
+        assertThat(plan).as("plan of %s", name).doesNotContainIgnoringCase("tableScan");
+        assertThat(plan).as("plan of %s", name).containsIgnoringCase(expectedIndex);
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            // The plan is chosen at prepare time; bound values do not change it
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                assertThat(result.next()).isTrue();
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static Consumer<ActivityLogRepository> query(Consumer<ActivityLogRepository> query) {
+        return query;
+    }
+
+    /**
+     * Remembers the last SQL statement Hibernate prepared on the calling thread.
+     */
+    public static class LastStatement implements StatementInspector {
+
+        static final ThreadLocal<String> SQL = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.set(sql);
+            return sql;
+        }
+    }
+}
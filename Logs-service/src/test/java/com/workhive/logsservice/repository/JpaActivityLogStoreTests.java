@@ -0,0 +1,61 @@
+package com.workhive.logsservice.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JpaActivityLogStoreTests {
+
+    private static final LocalDateTime SINCE = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    private final ActivityLogRepository repository = mock(ActivityLogRepository.class);
+    private final JpaActivityLogStore store = new JpaActivityLogStore(repository, mock(JdbcTemplate.class), mock(EntityManager.class));
+
+    @Test
+    void userActivityScanPagesOnTimestampThenId() {
+        ReflectionTestUtils.setField(store, "scanBatchSize", 2);
+        LocalDateTime noon = SINCE.plusHours(12);
+        // Two logs share a timestamp across the page boundary; the cursor must keep the id tie-breaker
+        when(repository.findUserActivityPage(eq(SINCE), eq(0L), any()))
+                .thenReturn(List.of(row(9, 1, SINCE.plusHours(1)), row(4, 2, noon)));
+        when(repository.findUserActivityPage(eq(noon), eq(4L), any()))
+                .thenReturn(List.of(row(7, 3, noon)));
+
+        List<Long> users = new ArrayList<>();
+        store.forEachUserActivitySince(SINCE, (userId, timestamp) -> users.add(userId));
+
+        assertThat(users).containsExactly(1L, 2L, 3L);
+        verify(repository).findUserActivityPage(eq(noon), eq(4L), any());
+    }
+
+    private static UserActivityTimestamp row(long id, long userId, LocalDateTime timestamp) {
+        return new UserActivityTimestamp() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public LocalDateTime getTimestamp() {
+                return timestamp;
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.workhive.logsservice.resolver;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Automatic persisted queries and the depth and complexity limits over the HTTP transport.
+ */
+@SpringBootTest(properties = {
+        "grpc.server.port=-1",
+        "logs.graphql.max-depth=3",
+        "logs.graphql.max-complexity=200"})
+@AutoConfigureMockMvc
+@AutoConfigureHttpGraphQlTester
+class GraphQlRequestLimitsTests {
+
+    private static final String QUERY = "{ allActivityLogs { id } }";
+
+    // Not sent by any other test, so its hash is unknown until this one registers it
+    private static final String PERSISTED_QUERY = "{ allActivityLogs { id action } }";
+
+    @Autowired
+    private HttpGraphQlTester graphQlTester;
+
+    // For the hash-only request, which the tester cannot send without a document
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void unknownHashIsReportedThenRegisteredByTheFullQuery() throws Exception {
+        Map<String, Object> persistedQuery = Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", sha256(PERSISTED_QUERY)));
+
+        // Hash only, as APQ clients send it: no query field at all
+        Map<?, ?> miss = post(Map.of("extensions", persistedQuery));
+        assertThat(miss.toString()).contains("PersistedQueryNotFound");
+
+        graphQlTester.document(PERSISTED_QUERY)
+                .extension("persistedQuery", persistedQuery.get("persistedQuery"))
+                .execute()
+                .errors().verify()
+                .path("allActivityLogs").entityList(Object.class);
+
+        Map<?, ?> hit = post(Map.of("extensions", persistedQuery));
+        assertThat(hit.get("errors")).isNull();
+        assertThat(hit.get("data")).isInstanceOf(Map.class);
+    }
+
+    @Test
+    void mismatchedHashIsRejected() {
+        graphQlTester.document(QUERY)
+                .extension("persistedQuery", Map.of("version", 1, "sha256Hash", "00"))
+                .execute()
+                .errors().satisfy(errors -> assertThat(errors)
+                        .anyMatch(error -> "INVALID_PERSISTED_QUERY_HASH".equals(error.getExtensions().get("code"))));
+    }
+
+    @Test
+    void tooDeepQueryIsRejected() {
+        graphQlTester.document("{ activityLogsByUserId(userId: 1) { edges { node { id } } } }")
+                .execute()
+                .errors().satisfy(errors -> assertThat(errors)
+                        .anyMatch(error -> error.getMessage().toLowerCase().contains("depth")));
+    }
+
+    @Test
+    void tooComplexQueryIsRejected() {
+        graphQlTester.document("{ activityLogsByAction(action: \"LOGIN\", first: 100) { pageInfo { hasNextPage endCursor } } }")
+                .execute()
+                .errors().satisfy(errors -> assertThat(errors)
+                        .anyMatch(error -> error.getMessage().toLowerCase().contains("complexity")));
+    }
+
+    @Test
+    void queryWithinTheLimitsRuns() {
+        graphQlTester.document(QUERY)
+                .execute()
+                .errors().verify();
+    }
+
+    private Map<?, ?> post(Map<String, Object> body) {
+        return webTestClient.post().uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_GRAPHQL_RESPONSE)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private static String sha256(String query) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
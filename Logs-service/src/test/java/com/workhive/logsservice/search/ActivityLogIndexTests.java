@@ -0,0 +1,265 @@
+package com.workhive.logsservice.search;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityLogIndexTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    @TempDir
+    Path directory;
+
+    private final Map<Long, ActivityLog> stored = new ConcurrentSkipListMap<>();
+    private final ActivityLogStore store = mock(ActivityLogStore.class);
+    private final List<ActivityLogIndex> opened = new ArrayList<>();
+
+    ActivityLogIndexTests() {
+        when(store.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<Long>getArgument(0))));
+        doAnswer(invocation -> {
+            ActivityLogFilter filter = invocation.getArgument(0);
+            Consumer<ActivityLog> visitor = invocation.getArgument(1);
+            stored.values().stream()
+                    .filter(log -> filter.from() == null || !log.getTimestamp().isBefore(filter.from()))
+                    .forEach(visitor);
+            return null;
+        }).when(store).forEachMatching(any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(ActivityLogIndex::stop);
+    }
+
+    @Test
+    void everyTermMustMatch() throws Exception {
+        ActivityLogIndex index = start(1_000, 10);
+        write(index, log(1, "alice", "UPDATE", "TASK", "renamed the board"));
+        write(index, log(2, "bob", "UPDATE", "TASK", "renamed the sprint"));
+        write(index, log(3, "alice", "DELETE", "TASK", "removed the board"));
+
+        assertThat(ids(index, "renamed board")).containsExactly(1L);
+        assertThat(ids(index, "board")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids(index, "renamed missing")).isEmpty();
+    }
+
+    @Test
+    void ranksStructuredFieldsRareTermsAndShortDocsHigher() throws Exception {
+        ActivityLogIndex index = start(1_000, 10);
+        // "deploy" as the action outweighs "deploy" in the details text
+        write(index, log(1, "carol", "COMMENT", "TASK", "will deploy tomorrow after the review"));
+        write(index, log(2, "carol", "DEPLOY", "PROJECT", "release candidate"));
+        // Same single mention, but the second doc is much longer
+        write(index, log(3, "dave", "COMMENT", "TASK", "urgent"));
+        write(index, log(4, "dave", "COMMENT", "TASK", "urgent note with a lot of additional words around it"));
+        // "comment" is in most docs, "urgent" in two: the rarer term decides
+        write(index, log(5, "erin", "COMMENT", "TASK", "plain text"));
+
+        assertThat(ids(index, "deploy")).containsExactly(2L, 1L);
+        assertThat(ids(index, "urgent")).containsExactly(3L, 4L);
+        List<ActivityLogIndex.Hit> hits = index.search(SearchQuery.parse("comment urgent"), null, null, SearchCursor.START, 10);
+        assertThat(hits).extracting(ActivityLogIndex.Hit::id).containsExactly(3L, 4L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void equalScoresRankNewestFirstAndPagesNeitherSkipNorRepeat() throws Exception {
+        ActivityLogIndex index = start(7, 3);
+        for (long id = 1; id <= 40; id++) {
+            write(index, log(id, "user" + (id % 3), "LOGIN", "USER", id % 2 == 0 ? "from office" : "from home office"));
+        }
+        maintain(index);
+        List<ActivityLogIndex.Hit> all = index.search(SearchQuery.parse("office"), null, null, SearchCursor.START, 100);
+        assertThat(all).hasSize(40);
+
+        List<ActivityLogIndex.Hit> paged = new ArrayList<>();
+        SearchCursor cursor = SearchCursor.START;
+        while (true) {
+            List<ActivityLogIndex.Hit> page = index.search(SearchQuery.parse("office"), null, null, cursor, 6);
+            paged.addAll(page);
+            if (page.size() < 6) {
+                break;
+            }
+            ActivityLogIndex.Hit last = page.get(page.size() - 1);
+            cursor = SearchCursor.decode(new SearchCursor(last.score(), last.id()).encode());
+        }
+        assertThat(paged).isEqualTo(all);
+        for (int i = 1; i < all.size(); i++) {
+            ActivityLogIndex.Hit previous = all.get(i - 1);
+            ActivityLogIndex.Hit hit = all.get(i);
+            assertThat(previous.score() > hit.score() || (previous.score() == hit.score() && previous.id() > hit.id())).isTrue();
+        }
+    }
+
+    @Test
+    void timeWindowIsInclusive() throws Exception {
+        ActivityLogIndex index = start(1_000, 10);
+        for (long id = 1; id <= 5; id++) {
+            write(index, log(id, "frank", "LOGIN", "USER", "shift start", NOW.minusHours(5 - id)));
+        }
+
+        assertThat(index.search(SearchQuery.parse("shift"), NOW.minusHours(3), NOW.minusHours(1), SearchCursor.START, 10))
+                .extracting(ActivityLogIndex.Hit::id)
+                .containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    void mergedSegmentsRankExactlyLikeUnmergedOnesAndTheManifestListsOnlyLiveSegments(@TempDir Path unmergedDirectory)
+            throws Exception {
+        ActivityLogIndex merged = start(directory, 4, 3);
+        ActivityLogIndex unmerged = start(unmergedDirectory, 4, 1_000);
+        for (long id = 1; id <= 60; id++) {
+            ActivityLog log = log(id, "gina", id % 5 == 0 ? "ARCHIVE" : "UPDATE", "PROJECT",
+                    "sprint " + id + " review notes" + " extra".repeat((int) (id % 3)));
+            write(merged, log);
+            write(unmerged, log);
+            if (id % 4 == 0) {
+                maintain(merged);
+                maintain(unmerged);
+            }
+        }
+
+        List<String> live = Files.readAllLines(directory.resolve("segments.manifest"));
+        assertThat(live).hasSizeLessThanOrEqualTo(3);
+        assertThat(segmentFiles(directory)).containsExactlyInAnyOrderElementsOf(live);
+        assertThat(segmentFiles(unmergedDirectory)).hasSize(15);
+
+        for (String query : List.of("review", "archive", "extra", "\"sprint 17\"", "gina update")) {
+            assertThat(hits(merged, query)).as(query).isEqualTo(hits(unmerged, query));
+        }
+        assertThat(ids(merged, "review")).hasSize(60);
+        assertThat(ids(merged, "archive")).containsExactlyInAnyOrder(5L, 10L, 15L, 20L, 25L, 30L, 35L, 40L, 45L, 50L, 55L, 60L);
+        assertThat(ids(merged, "\"sprint 17\"")).containsExactly(17L);
+    }
+
+    @Test
+    void reopeningUsesTheManifestAndIndexesOnlyWhatIsMissing() throws Exception {
+        ActivityLogIndex index = start(5, 10);
+        for (long id = 1; id <= 12; id++) {
+            write(index, log(id, "hank", "UPDATE", "TASK", "weekly report"));
+        }
+        maintain(index);
+        index.stop();
+        // Committed while the service was down
+        stored.put(13L, log(13, "hank", "UPDATE", "TASK", "weekly report"));
+        // Left over from a flush interrupted by a crash
+        Files.write(directory.resolve("index-00000000000000000099.idx"), new byte[64]);
+
+        ActivityLogIndex reopened = start(5, 10);
+
+        assertThat(ids(reopened, "weekly")).hasSize(13).doesNotHaveDuplicates();
+        assertThat(Files.exists(directory.resolve("index-00000000000000000099.idx"))).isFalse();
+        assertThat(segmentFiles(directory)).containsExactlyInAnyOrderElementsOf(Files.readAllLines(directory.resolve("segments.manifest")));
+    }
+
+    @Test
+    void aResetStoreRebuildsTheIndex() throws Exception {
+        ActivityLogIndex index = start(5, 10);
+        for (long id = 1; id <= 10; id++) {
+            write(index, log(id, "ivy", "UPDATE", "TASK", "old text"));
+        }
+        maintain(index);
+        index.stop();
+        // An in-memory database started empty and reused the ids
+        stored.clear();
+        stored.put(1L, log(1, "ivy", "UPDATE", "TASK", "new text", NOW.plusMinutes(1)));
+
+        ActivityLogIndex reopened = start(5, 10);
+
+        assertThat(ids(reopened, "old")).isEmpty();
+        assertThat(ids(reopened, "new")).containsExactly(1L);
+    }
+
+    private ActivityLogIndex start(int flushDocs, int maxSegments) throws Exception {
+        return start(directory, flushDocs, maxSegments);
+    }
+
+    private ActivityLogIndex start(Path indexDirectory, int flushDocs, int maxSegments) throws Exception {
+        ActivityLogIndex index = new ActivityLogIndex(store);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "directory", indexDirectory.toString());
+        ReflectionTestUtils.setField(index, "flushDocs", flushDocs);
+        ReflectionTestUtils.setField(index, "maxSegments", maxSegments);
+        ReflectionTestUtils.setField(index, "retentionDays", 365);
+        ReflectionTestUtils.setField(index, "catchUpSlackSeconds", 300L);
+        opened.add(index);
+        index.start();
+        drain(index);
+        assertThat((Boolean) ReflectionTestUtils.getField(index, "ready")).isTrue();
+        return index;
+    }
+
+    private void write(ActivityLogIndex index, ActivityLog log) {
+        stored.put(log.getId(), log);
+        index.onActivityLogsCreated(ActivityLogsCreatedEvent.of(log));
+    }
+
+    private static void maintain(ActivityLogIndex index) throws Exception {
+        index.requestMaintenance();
+        drain(index);
+    }
+
+    // The indexer is single-threaded, so a no-op submitted behind queued work completes after it
+    private static void drain(ActivityLogIndex index) throws Exception {
+        ((ExecutorService) ReflectionTestUtils.getField(index, "indexer")).submit(() -> { }).get();
+    }
+
+    private static List<String> segmentFiles(Path indexDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(indexDirectory)) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".idx")).toList();
+        }
+    }
+
+    private static List<ActivityLogIndex.Hit> hits(ActivityLogIndex index, String query) {
+        return index.search(SearchQuery.parse(query), null, null, SearchCursor.START, 1_000);
+    }
+
+    private static List<Long> ids(ActivityLogIndex index, String query) {
+        return index.search(SearchQuery.parse(query), null, null, SearchCursor.START, 1_000).stream()
+                .map(ActivityLogIndex.Hit::id)
+                .toList();
+    }
+
+    private static ActivityLog log(long id, String username, String action, String entityType, String details) {
+        return log(id, username, action, entityType, details, NOW);
+    }
+
+    private static ActivityLog log(long id, String username, String action, String entityType, String details,
+                                   LocalDateTime timestamp) {
+        return ActivityLog.builder()
+                .id(id)
+                .userId(id % 4)
+                .username(username)
+                .action(action)
+                .entityType(entityType)
+                .details(details)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.workhive.logsservice.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexSegmentTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsDocsDictionaryAndPostings() throws IOException {
+        TreeMap<String, Postings> postings = new TreeMap<>();
+        postings.put("login", postings(new int[]{0, 2, 300}, new int[]{3, 1, 200}));
+        postings.put("proj-123", postings(new int[]{1}, new int[]{1}));
+        postings.put("zürich", postings(new int[]{2}, new int[]{6}));
+        long[] ids = new long[301];
+        long[] epochSeconds = new long[301];
+        int[] lengths = new int[301];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 10L + i * 2;
+            epochSeconds[i] = 1_700_000_000L + i;
+            lengths[i] = i % 7 + 1;
+        }
+
+        Path path = directory.resolve("index-1.idx");
+        IndexSegment.write(path, ids, epochSeconds, lengths, postings.entrySet().iterator());
+        IndexSegment segment = IndexSegment.open(path);
+
+        assertThat(segment.docCount()).isEqualTo(301);
+        assertThat(segment.maxId()).isEqualTo(610);
+        assertThat(segment.maxEpochSecond()).isEqualTo(1_700_000_300L);
+        assertThat(segment.totalLength()).isEqualTo(Arrays.stream(lengths).sum());
+        assertThat(segment.id(150)).isEqualTo(310);
+        assertThat(segment.epochSecond(150)).isEqualTo(1_700_000_150L);
+        assertThat(segment.length(150)).isEqualTo(150 % 7 + 1);
+        assertThat(segment.containsId(310)).isTrue();
+        assertThat(segment.containsId(311)).isFalse();
+        assertThat(segment.containsId(9)).isFalse();
+
+        assertThat(segment.terms()).containsExactly("login", "proj-123", "zürich");
+        assertThat(segment.docFrequency("login")).isEqualTo(3);
+        assertThat(segment.docFrequency("logout")).isZero();
+        Postings.Decoded login = segment.postings("login");
+        assertThat(login.ordinals()).containsExactly(0, 2, 300);
+        assertThat(login.frequencies()).containsExactly(3, 1, 200);
+        assertThat(segment.postings("zürich").frequencies()).containsExactly(6);
+        assertThat(segment.postings("logout")).isNull();
+
+        // No temporary file is left behind
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString())).containsExactly("index-1.idx");
+        }
+    }
+
+    @Test
+    void writesAnEmptySegment() throws IOException {
+        IndexSegment segment = IndexSegment.write(directory.resolve("empty.idx"), new long[0], new long[0], new int[0],
+                Map.<String, Postings>of().entrySet().iterator());
+
+        assertThat(segment.docCount()).isZero();
+        assertThat(segment.maxId()).isEqualTo(Long.MIN_VALUE);
+        assertThat(segment.terms()).isEmpty();
+    }
+
+    @Test
+    void refusesFilesThatAreNotSegments() throws IOException {
+        Path path = Files.write(directory.resolve("garbage.idx"), new byte[64]);
+
+        assertThatThrownBy(() -> IndexSegment.open(path)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void postingsMustAscend() {
+        Postings postings = postings(new int[]{4}, new int[]{1});
+
+        assertThatThrownBy(() -> postings.add(4, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> postings.add(2, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Postings postings(int[] ordinals, int[] frequencies) {
+        Postings postings = new Postings();
+        for (int i = 0; i < ordinals.length; i++) {
+            postings.add(ordinals[i], frequencies[i]);
+        }
+        return postings;
+    }
+}
@@ -0,0 +1,46 @@
+package com.workhive.logsservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenizerTests {
+
+    @Test
+    void splitsOnAnythingButLettersAndDigitsAndLowerCases() {
+        assertThat(Tokenizer.tokens("Moved TASK to 'Done', (v2)!")).containsExactly("moved", "task", "to", "done", "v2");
+        assertThat(Tokenizer.tokens("Überprüfung abgeschlossen")).containsExactly("überprüfung", "abgeschlossen");
+        assertThat(Tokenizer.tokens(null)).isEmpty();
+        assertThat(Tokenizer.tokens(" -- ")).isEmpty();
+    }
+
+    @Test
+    void dropsLoneLettersAndOverlongTokensButKeepsDigits() {
+        assertThat(Tokenizer.tokens("a plan B in 3 steps")).containsExactly("plan", "in", "3", "steps");
+        assertThat(Tokenizer.tokens("x".repeat(65) + " ok " + "y".repeat(64))).containsExactly("ok", "y".repeat(64));
+    }
+
+    @Test
+    void indexesJoinedRunsAsCompoundsAfterTheirParts() {
+        assertThat(indexTerms("Closed PROJ-123")).containsExactly("closed", "proj", "123", "proj-123");
+        assertThat(indexTerms("app.config_v2 updated")).containsExactlyInAnyOrder("app", "config", "v2", "app.config_v2", "updated");
+        assertThat(indexTerms("WH-1 and WH-2")).containsExactlyInAnyOrder("wh", "1", "wh-1", "and", "wh", "2", "wh-2");
+    }
+
+    @Test
+    void doubledOrOtherSeparatorsBreakCompounds() {
+        assertThat(indexTerms("proj--123")).containsExactly("proj", "123");
+        assertThat(indexTerms("proj/123")).containsExactly("proj", "123");
+        assertThat(indexTerms("proj- 123")).containsExactly("proj", "123");
+        assertThat(indexTerms(null)).isEmpty();
+    }
+
+    private static List<String> indexTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        Tokenizer.indexTerms(text, terms::add);
+        return terms;
+    }
+}
@@ -0,0 +1,113 @@
+package com.workhive.logsservice.segment;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityRecordCodecTests {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 6, 1, 12, 30, 15, 123_456_789);
+
+    @Test
+    void roundTripsEveryField() {
+        ActivityLog log = log(42L, TIME, 7L, 99L, "jdoe", "LOGIN", "USER", "détails ✓", "10.0.0.1", "curl/8");
+        ByteBuffer buffer = ByteBuffer.wrap(ActivityRecordCodec.encode(log));
+
+        assertThat(ActivityRecordCodec.decode(buffer, 0)).isEqualTo(log);
+        assertThat(ActivityRecordCodec.id(buffer, 0)).isEqualTo(42L);
+        assertThat(ActivityRecordCodec.userId(buffer, 0)).isEqualTo(7L);
+        assertThat(ActivityRecordCodec.entityId(buffer, 0)).isEqualTo(99L);
+        assertThat(ActivityRecordCodec.fromNanos(ActivityRecordCodec.timestampNanos(buffer, 0))).isEqualTo(TIME);
+        assertThat(ActivityRecordCodec.string(buffer, 0, ActivityRecordCodec.ACTION)).isEqualTo("LOGIN");
+    }
+
+    @Test
+    void roundTripsAbsentFields() {
+        ActivityLog log = log(1L, TIME, 7L, null, "jdoe", "LOGIN", "USER", null, null, "");
+        ByteBuffer buffer = ByteBuffer.wrap(ActivityRecordCodec.encode(log));
+
+        ActivityLog decoded = ActivityRecordCodec.decode(buffer, 0);
+
+        assertThat(decoded).isEqualTo(log);
+        assertThat(decoded.getEntityId()).isNull();
+        assertThat(decoded.getDetails()).isNull();
+        assertThat(decoded.getUserAgent()).isEmpty();
+    }
+
+    @Test
+    void comparesStringsWithoutDecoding() {
+        ByteBuffer buffer = ByteBuffer.wrap(ActivityRecordCodec.encode(
+                log(1L, TIME, 7L, null, "jdoe", "LOGIN", "USER", null, null, null)));
+
+        assertThat(ActivityRecordCodec.stringEquals(buffer, 0, ActivityRecordCodec.USERNAME, ActivityRecordCodec.utf8("jdoe"))).isTrue();
+        assertThat(ActivityRecordCodec.stringEquals(buffer, 0, ActivityRecordCodec.ACTION, ActivityRecordCodec.utf8("LOGOUT"))).isFalse();
+        assertThat(ActivityRecordCodec.stringEquals(buffer, 0, ActivityRecordCodec.ACTION, ActivityRecordCodec.utf8("LOGIX"))).isFalse();
+        assertThat(ActivityRecordCodec.stringEquals(buffer, 0, ActivityRecordCodec.ENTITY_TYPE, ActivityRecordCodec.utf8("USER"))).isTrue();
+    }
+
+    @Test
+    void recordsCanBeWalkedInBothDirections() {
+        byte[] first = ActivityRecordCodec.encode(log(1L, TIME, 7L, null, "a", "LOGIN", "USER", null, null, null));
+        byte[] second = ActivityRecordCodec.encode(log(2L, TIME, 8L, 5L, "bb", "LOGOUT", "USER", "x", null, null));
+        ByteBuffer buffer = ByteBuffer.allocate(first.length + second.length).put(first).put(second);
+        int end = first.length + second.length;
+
+        assertThat(ActivityRecordCodec.length(buffer, 0)).isEqualTo(first.length);
+        assertThat(ActivityRecordCodec.validLength(buffer, first.length, end)).isEqualTo(second.length);
+        assertThat(ActivityRecordCodec.lengthBefore(buffer, end)).isEqualTo(second.length);
+        assertThat(ActivityRecordCodec.lengthBefore(buffer, first.length)).isEqualTo(first.length);
+    }
+
+    @Test
+    void rejectsTornAndCorruptRecords() {
+        byte[] record = ActivityRecordCodec.encode(log(1L, TIME, 7L, null, "jdoe", "LOGIN", "USER", "details", null, null));
+        assertThat(ActivityRecordCodec.validLength(ByteBuffer.wrap(record), 0, record.length)).isEqualTo(record.length);
+
+        // Cut off before the trailing crc and length
+        assertThat(ActivityRecordCodec.validLength(ByteBuffer.wrap(record), 0, record.length - 1)).isEqualTo(-1);
+
+        byte[] flipped = record.clone();
+        flipped[record.length / 2] ^= 1;
+        assertThat(ActivityRecordCodec.validLength(ByteBuffer.wrap(flipped), 0, flipped.length)).isEqualTo(-1);
+
+        // A record whose tail was never written
+        byte[] torn = Arrays.copyOf(Arrays.copyOf(record, record.length / 2), record.length);
+        assertThat(ActivityRecordCodec.validLength(ByteBuffer.wrap(torn), 0, torn.length)).isEqualTo(-1);
+
+        // Zeroed space past the last record
+        assertThat(ActivityRecordCodec.validLength(ByteBuffer.allocate(64), 0, 64)).isEqualTo(-1);
+        assertThat(ActivityRecordCodec.validLength(ByteBuffer.allocate(2), 0, 2)).isEqualTo(-1);
+    }
+
+    @Test
+    void timestampsConvertToNanosAndSaturate() {
+        assertThat(ActivityRecordCodec.fromNanos(ActivityRecordCodec.toNanos(TIME))).isEqualTo(TIME);
+        LocalDateTime beforeEpoch = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1);
+        assertThat(ActivityRecordCodec.fromNanos(ActivityRecordCodec.toNanos(beforeEpoch))).isEqualTo(beforeEpoch);
+        assertThat(ActivityRecordCodec.dayOf(ActivityRecordCodec.toNanos(beforeEpoch))).isEqualTo(beforeEpoch.toLocalDate());
+
+        assertThat(ActivityRecordCodec.toNanos(LocalDateTime.MAX)).isEqualTo(Long.MAX_VALUE);
+        assertThat(ActivityRecordCodec.toNanos(LocalDateTime.MIN)).isEqualTo(Long.MIN_VALUE);
+    }
+
+    static ActivityLog log(Long id, LocalDateTime timestamp, Long userId, Long entityId, String username, String action,
+                           String entityType, String details, String ipAddress, String userAgent) {
+        return ActivityLog.builder()
+                .id(id)
+                .timestamp(timestamp)
+                .userId(userId)
+                .entityId(entityId)
+                .username(username)
+                .action(action)
+                .entityType(entityType)
+                .details(details)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.workhive.logsservice.segment;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSegmentTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 0, 0);
+    private static final int INDEX_INTERVAL = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsUntilFull() throws IOException {
+        byte[] record = record(1);
+        try (LogSegment segment = LogSegment.create(directory.resolve("full.seg"), 1, record.length * 3, INDEX_INTERVAL)) {
+            for (long id = 1; id <= 3; id++) {
+                assertThat(segment.append(record(id), id, nanos(id), id)).isTrue();
+            }
+            assertThat(segment.append(record(4), 4, nanos(4), 4)).isFalse();
+
+            assertThat(segment.records()).isEqualTo(3);
+            assertThat(segment.limit()).isEqualTo(record.length * 3);
+            assertThat(segment.maxId()).isEqualTo(3);
+            assertThat(segment.minNanos()).isEqualTo(nanos(1));
+            assertThat(segment.maxNanos()).isEqualTo(nanos(3));
+        }
+    }
+
+    @Test
+    void reopenRecoversEveryRecordAndTheIndex() throws IOException {
+        Path path = directory.resolve("reopen.seg");
+        List<Integer> offsets = new ArrayList<>();
+        try (LogSegment segment = LogSegment.create(path, 1, 1 << 16, INDEX_INTERVAL)) {
+            for (long id = 1; id <= 50; id++) {
+                offsets.add(segment.limit());
+                segment.append(record(id), id, nanos(id), id);
+            }
+        }
+
+        try (LogSegment reopened = LogSegment.open(path, 1, INDEX_INTERVAL)) {
+            assertThat(reopened.records()).isEqualTo(50);
+            assertThat(reopened.maxId()).isEqualTo(50);
+            assertThat(reopened.limit()).isEqualTo(offsets.get(49) + record(50).length);
+            assertThat(ActivityRecordCodec.decode(reopened.buffer(), offsets.get(49)).getId()).isEqualTo(50);
+            for (long id = 1; id <= 50; id++) {
+                assertThat(reopened.mightContainUser(id)).isTrue();
+                assertThat(scanToId(reopened, reopened.forwardStartById(id), id)).isEqualTo(offsets.get((int) id - 1));
+            }
+        }
+    }
+
+    @Test
+    void recoveryStopsAtATornRecord() throws IOException {
+        Path path = directory.resolve("torn.seg");
+        int intactLimit;
+        try (LogSegment segment = LogSegment.create(path, 1, 1 << 16, INDEX_INTERVAL)) {
+            for (long id = 1; id <= 10; id++) {
+                segment.append(record(id), id, nanos(id), id);
+            }
+            intactLimit = segment.limit();
+            // A crash while the 11th record was half written
+            byte[] record = record(11);
+            segment.buffer().put(intactLimit, Arrays.copyOf(record, record.length / 2));
+        }
+
+        try (LogSegment reopened = LogSegment.open(path, 1, INDEX_INTERVAL)) {
+            assertThat(reopened.records()).isEqualTo(10);
+            assertThat(reopened.limit()).isEqualTo(intactLimit);
+            assertThat(reopened.maxId()).isEqualTo(10);
+
+            // The torn bytes are overwritten by the next append, which survives another reopen
+            assertThat(reopened.append(record(11), 11, nanos(11), 11)).isTrue();
+        }
+        try (LogSegment reopened = LogSegment.open(path, 1, INDEX_INTERVAL)) {
+            assertThat(reopened.records()).isEqualTo(11);
+        }
+    }
+
+    @Test
+    void recoveryStopsAtACorruptRecord() throws IOException {
+        Path path = directory.resolve("corrupt.seg");
+        int fifthOffset = 0;
+        try (LogSegment segment = LogSegment.create(path, 1, 1 << 16, INDEX_INTERVAL)) {
+            for (long id = 1; id <= 10; id++) {
+                if (id == 5) {
+                    fifthOffset = segment.limit();
+                }
+                segment.append(record(id), id, nanos(id), id);
+            }
+            ByteBuffer buffer = segment.buffer();
+            buffer.put(fifthOffset + 40, (byte) (buffer.get(fifthOffset + 40) ^ 1));
+        }
+
+        try (LogSegment reopened = LogSegment.open(path, 1, INDEX_INTERVAL)) {
+            assertThat(reopened.records()).isEqualTo(4);
+            assertThat(reopened.limit()).isEqualTo(fifthOffset);
+        }
+    }
+
+    @Test
+    void sparseIndexStartsScansAtOrBeforeTheTarget() throws IOException {
+        try (LogSegment segment = LogSegment.create(directory.resolve("index.seg"), 1, 1 << 16, INDEX_INTERVAL)) {
+            List<Integer> offsets = new ArrayList<>();
+            // Every timestamp is shared by three consecutive records
+            for (long id = 1; id <= 30; id++) {
+                offsets.add(segment.limit());
+                segment.append(record(id, (id + 2) / 3), id, nanos((id + 2) / 3), id);
+            }
+
+            for (long id = 1; id <= 30; id++) {
+                long nanos = nanos((id + 2) / 3);
+                int firstWithTime = offsets.get((int) (3 * ((id + 2) / 3) - 3));
+                int start = segment.forwardStartByTime(nanos);
+                assertThat(start).isLessThanOrEqualTo(firstWithTime);
+                assertThat(firstAtOrAfter(segment, start, nanos)).isEqualTo(firstWithTime);
+            }
+            assertThat(segment.forwardStartByTime(Long.MIN_VALUE)).isZero();
+            assertThat(segment.forwardStartByTime(nanos(0))).isZero();
+            assertThat(segment.forwardStartById(0)).isZero();
+
+            int limit = segment.limit();
+            assertThat(segment.backwardEnd(Long.MAX_VALUE, Long.MAX_VALUE, limit)).isEqualTo(limit);
+            // Records below id 10 end at or after the start of record 10, and the scan may skip what follows
+            int end = segment.backwardEnd(10, Long.MAX_VALUE, limit);
+            assertThat(end).isGreaterThanOrEqualTo(offsets.get(9)).isLessThanOrEqualTo(limit);
+            assertThat(segment.backwardEnd(Long.MAX_VALUE, nanos(0), limit)).isLessThanOrEqualTo(offsets.get(INDEX_INTERVAL));
+        }
+    }
+
+    @Test
+    void bloomFilterRarelyMatchesAbsentUsers() throws IOException {
+        try (LogSegment segment = LogSegment.create(directory.resolve("bloom.seg"), 1, 1 << 20, INDEX_INTERVAL)) {
+            for (long id = 1; id <= 200; id++) {
+                segment.append(record(id), id, nanos(id), id * 1_000);
+            }
+
+            int falsePositives = 0;
+            for (long userId = 1; userId <= 200_000; userId++) {
+                if (userId % 1_000 == 0) {
+                    assertThat(segment.mightContainUser(userId)).isTrue();
+                } else if (segment.mightContainUser(userId)) {
+                    falsePositives++;
+                }
+            }
+            // At most 400 of 16384 bits set: about 0.06% expected
+            assertThat(falsePositives).isLessThan(400);
+        }
+    }
+
+    private static int scanToId(LogSegment segment, int start, long id) {
+        ByteBuffer buffer = segment.buffer();
+        for (int offset = start; offset < segment.limit(); offset += ActivityRecordCodec.length(buffer, offset)) {
+            if (ActivityRecordCodec.id(buffer, offset) == id) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static int firstAtOrAfter(LogSegment segment, int start, long nanos) {
+        ByteBuffer buffer = segment.buffer();
+        for (int offset = start; offset < segment.limit(); offset += ActivityRecordCodec.length(buffer, offset)) {
+            if (ActivityRecordCodec.timestampNanos(buffer, offset) >= nanos) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static long nanos(long minute) {
+        return ActivityRecordCodec.toNanos(START.plusMinutes(minute));
+    }
+
+    private static byte[] record(long id) {
+        return record(id, id);
+    }
+
+    private static byte[] record(long id, long minute) {
+        ActivityLog log = ActivityRecordCodecTests.log(id, START.plusMinutes(minute), id, null, "user", "LOGIN", "USER",
+                null, null, null);
+        return ActivityRecordCodec.encode(log);
+    }
+}
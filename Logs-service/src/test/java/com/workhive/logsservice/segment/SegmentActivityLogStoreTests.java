@@ -0,0 +1,202 @@
+package com.workhive.logsservice.segment;
+
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.repository.ActivityLogFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Range and page queries over several small segments, checked against a brute-force filter of what was written.
+ */
+class SegmentActivityLogStoreTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 0, 0);
+    private static final String[] ACTIONS = {"LOGIN", "LOGOUT", "UPDATE"};
+
+    @TempDir
+    Path directory;
+
+    private SegmentActivityLogStore store;
+    private final List<ActivityLog> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open();
+        SplittableRandom random = new SplittableRandom(16);
+        LocalDateTime time = START;
+        for (int i = 0; i < 400; i++) {
+            // Zero steps repeat a timestamp, sometimes across a segment boundary
+            time = time.plusSeconds(random.nextInt(3) * 30L);
+            ActivityLog log = ActivityLog.builder()
+                    .userId((long) random.nextInt(1, 8))
+                    .username("user")
+                    .action(ACTIONS[random.nextInt(ACTIONS.length)])
+                    .entityType("TASK")
+                    .entityId(random.nextBoolean() ? (long) random.nextInt(1, 4) : null)
+                    .timestamp(time)
+                    .build();
+            written.add(store.save(log));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void rollsAcrossSeveralSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".seg")).count()).isGreaterThan(3);
+        }
+        assertThat(store.count()).isEqualTo(written.size());
+    }
+
+    @Test
+    void findsEveryLogById() {
+        for (ActivityLog log : written) {
+            assertThat(store.findById(log.getId())).contains(log);
+        }
+        assertThat(store.findById(0L)).isEmpty();
+        assertThat(store.findById((long) written.size() + 1)).isEmpty();
+    }
+
+    @Test
+    void rangeCountsExcludeTheUpperBound() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = written.get(random.nextInt(written.size())).getTimestamp();
+            LocalDateTime to = written.get(random.nextInt(written.size())).getTimestamp();
+            long expected = written.stream()
+                    .filter(log -> !log.getTimestamp().isBefore(from) && log.getTimestamp().isBefore(to))
+                    .count();
+            assertThat(store.count(from, to)).as("[%s, %s)", from, to).isEqualTo(expected);
+        }
+        LocalDateTime last = written.get(written.size() - 1).getTimestamp();
+        assertThat(store.count(START.minusDays(1), last.plusNanos(1))).isEqualTo(written.size());
+        assertThat(store.count(last.plusNanos(1), last.plusDays(1))).isZero();
+        assertThat(store.count(START.minusDays(1), START)).isZero();
+    }
+
+    @Test
+    void matchingScansIncludeBothBounds() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime from = written.get(random.nextInt(written.size())).getTimestamp();
+            LocalDateTime to = from.plusMinutes(random.nextInt(60));
+            ActivityLogFilter filter = ActivityLogFilter.between(from, to);
+            List<ActivityLog> visited = new ArrayList<>();
+            store.forEachMatching(filter, visited::add);
+
+            assertThat(visited).isEqualTo(written.stream().filter(matching(filter)).toList());
+        }
+    }
+
+    @Test
+    void pagesWalkEachFilterNewestFirstWithoutGapsOrRepeats() {
+        LocalDateTime middle = written.get(written.size() / 2).getTimestamp();
+        List<ActivityLogFilter> filters = List.of(
+                ActivityLogFilter.all(),
+                ActivityLogFilter.byUserId(3L),
+                ActivityLogFilter.byAction("LOGOUT"),
+                ActivityLogFilter.byEntity("TASK", 2L),
+                ActivityLogFilter.between(middle, middle.plusMinutes(45)),
+                ActivityLogFilter.byUserIdBetween(5L, START, middle),
+                ActivityLogFilter.byUserId(42L));
+
+        for (ActivityLogFilter filter : filters) {
+            List<ActivityLog> expected = written.stream()
+                    .filter(matching(filter))
+                    .sorted(Comparator.comparing(ActivityLog::getId).reversed())
+                    .toList();
+            for (int pageSize : new int[]{1, 7, 1_000}) {
+                assertThat(walk(filter, pageSize)).as("%s by %d", filter, pageSize).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void deletedLogsStayHiddenAfterReopening() throws IOException {
+        store.deleteById(10L);
+        store.deleteByUserId(3L);
+        List<ActivityLog> remaining = written.stream()
+                .filter(log -> log.getId() != 10L && log.getUserId() != 3L)
+                .toList();
+
+        store.close();
+        store = open();
+
+        assertThat(store.count()).isEqualTo(remaining.size());
+        assertThat(store.findById(10L)).isEmpty();
+        assertThat(walk(ActivityLogFilter.all(), 50)).hasSize(remaining.size());
+        // New logs of a purged user are visible again
+        ActivityLog after = store.save(ActivityLog.builder().userId(3L).username("user").action("LOGIN")
+                .entityType("TASK").timestamp(LocalDateTime.now()).build());
+        assertThat(store.findById(after.getId())).isPresent();
+        assertThat(after.getId()).isEqualTo(written.size() + 1L);
+    }
+
+    @Test
+    void earlierTimestampsAreClampedToTheLastOne() {
+        LocalDateTime last = written.get(written.size() - 1).getTimestamp();
+
+        ActivityLog saved = store.save(ActivityLog.builder().userId(1L).username("user").action("LOGIN")
+                .entityType("TASK").timestamp(START.minusDays(1)).build());
+
+        assertThat(saved.getTimestamp()).isEqualTo(last);
+        assertThat(store.keepsEarlierTimestamps()).isFalse();
+    }
+
+    private List<ActivityLog> walk(ActivityLogFilter filter, int pageSize) {
+        List<ActivityLog> all = new ArrayList<>();
+        LocalDateTime beforeTimestamp = LocalDateTime.MAX;
+        long beforeId = Long.MAX_VALUE;
+        while (true) {
+            List<ActivityLog> page = store.findPage(filter, beforeTimestamp, beforeId, pageSize);
+            all.addAll(page);
+            if (page.size() < pageSize) {
+                return all;
+            }
+            ActivityLog last = page.get(page.size() - 1);
+            beforeTimestamp = last.getTimestamp();
+            beforeId = last.getId();
+        }
+    }
+
+    private SegmentActivityLogStore open() throws IOException {
+        SegmentActivityLogStore opened = new SegmentActivityLogStore();
+        ReflectionTestUtils.setField(opened, "directory", directory.toString());
+        // About 100 records per segment
+        ReflectionTestUtils.setField(opened, "segmentBytes", 8_192);
+        ReflectionTestUtils.setField(opened, "indexInterval", 8);
+        ReflectionTestUtils.setField(opened, "retentionDays", 365);
+        opened.open();
+        return opened;
+    }
+
+    private static Predicate<ActivityLog> matching(ActivityLogFilter filter) {
+        return log -> (filter.userId() == null || filter.userId().equals(log.getUserId()))
+                && (filter.username() == null || filter.username().equals(log.getUsername()))
+                && (filter.action() == null || filter.action().equals(log.getAction()))
+                && (filter.entityType() == null || filter.entityType().equals(log.getEntityType()))
+                && (filter.entityId() == null || filter.entityId().equals(log.getEntityId()))
+                && (filter.from() == null || !log.getTimestamp().isBefore(filter.from()))
+                && (filter.to() == null || !log.getTimestamp().isAfter(filter.to()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.workhive.logsservice.service;
+
+import com.workhive.logsservice.archive.ColdArchive;
+import com.workhive.logsservice.dto.ActivityLogConnection;
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import com.workhive.logsservice.search.ActivityLogIndex;
+import com.workhive.logsservice.search.SearchCursor;
+import com.workhive.logsservice.stats.ActivityRollups;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivityLogServiceSearchTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final ActivityLogStore store = mock(ActivityLogStore.class);
+    private final ActivityLogIndex index = mock(ActivityLogIndex.class);
+    private final ActivityLogService service = new ActivityLogService(store, mock(UserDirectory.class),
+            mock(ApplicationEventPublisher.class), mock(ActivityRollups.class), index, mock(ColdArchive.class));
+
+    // Index hits, best first; a stale hit has no stored log
+    private final List<ActivityLogIndex.Hit> hits = new ArrayList<>();
+    private final Map<Long, ActivityLog> stored = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(service, "maxPageSize", 100);
+        ReflectionTestUtils.setField(service, "maxSearchCandidates", 50);
+        when(index.search(any(), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            SearchCursor after = invocation.getArgument(3);
+            int limit = invocation.getArgument(4);
+            return hits.stream().filter(hit -> after.isFollowedBy(hit.score(), hit.id())).limit(limit).toList();
+        });
+        when(store.findAllById(any())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                .map(stored::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    @Test
+    void fetchesEachBatchOfCandidatesWithOneLookup() {
+        for (long id = 30; id >= 1; id--) {
+            hit(id, id % 3 != 0);
+        }
+
+        ActivityLogConnection page = service.search("report", 5, null, null, null);
+
+        assertThat(ids(page)).containsExactly(29L, 28L, 26L, 25L, 23L);
+        assertThat(page.getPageInfo().isHasNextPage()).isTrue();
+        verify(store, never()).findById(anyLong());
+        verify(store, atMost(2)).findAllById(any());
+    }
+
+    @Test
+    void walksAllMatchesAcrossPages() {
+        for (long id = 100; id >= 1; id--) {
+            hit(id, id % 4 != 0);
+        }
+
+        List<Long> walked = walk(7);
+
+        assertThat(walked).hasSize(75).doesNotHaveDuplicates();
+        assertThat(walked).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    @Test
+    void manyStaleCandidatesEndThePageShortWithoutLosingLaterMatches() {
+        hit(200, true);
+        // More stale hits in a row than one page may check
+        for (long id = 199; id >= 100; id--) {
+            hit(id, false);
+        }
+        hit(99, true);
+        hit(98, true);
+
+        ActivityLogConnection first = service.search("report", 5, null, null, null);
+        assertThat(ids(first)).containsExactly(200L);
+        assertThat(first.getPageInfo().isHasNextPage()).isTrue();
+        assertThat(SearchCursor.decode(first.getPageInfo().getEndCursor()).id()).isLessThan(200L);
+
+        assertThat(walk(5)).containsExactly(200L, 99L, 98L);
+    }
+
+    private List<Long> walk(int pageSize) {
+        List<Long> walked = new ArrayList<>();
+        String after = null;
+        for (int pages = 0; pages < 100; pages++) {
+            ActivityLogConnection page = service.search("report", pageSize, after, null, null);
+            walked.addAll(ids(page));
+            if (!page.getPageInfo().isHasNextPage()) {
+                return walked;
+            }
+            after = page.getPageInfo().getEndCursor();
+        }
+        throw new AssertionError("Search did not finish");
+    }
+
+    private void hit(long id, boolean live) {
+        // Equal scores, so hits rank newest first
+        hits.add(new ActivityLogIndex.Hit(id, 1.0));
+        if (live) {
+            stored.put(id, ActivityLog.builder().id(id).userId(1L).username("alice").action("UPDATE")
+                    .entityType("TASK").details("weekly report").timestamp(NOW).build());
+        }
+    }
+
+    private static List<Long> ids(ActivityLogConnection page) {
+        return page.getEdges().stream().map(edge -> edge.getNode().getId()).toList();
+    }
+}
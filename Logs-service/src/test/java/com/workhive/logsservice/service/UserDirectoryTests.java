@@ -0,0 +1,72 @@
+package com.workhive.logsservice.service;
+
+import com.workhive.logsservice.client.UserServiceClient;
+import com.workhive.logsservice.client.UserServiceClientFallback;
+import com.workhive.logsservice.dto.UserDto;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDirectoryTests {
+
+    private final UserServiceClient client = mock(UserServiceClient.class);
+    private UserDirectory userDirectory;
+
+    @BeforeEach
+    void setUp() {
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(1))
+                .build());
+        userDirectory = new UserDirectory(client, CircuitBreakerRegistry.ofDefaults(), retryRegistry);
+        ReflectionTestUtils.setField(userDirectory, "maxSize", 100);
+        ReflectionTestUtils.setField(userDirectory, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(userDirectory, "batchSize", 10);
+        userDirectory.init();
+    }
+
+    @Test
+    void resolvedNamesAreCached() {
+        when(client.getUsersByIds(anyList())).thenReturn(List.of(new UserDto(1L, "jdoe", null, "John", "Doe")));
+
+        assertThat(userDirectory.fullNames(List.of(1L))).containsEntry(1L, "John Doe");
+        assertThat(userDirectory.fullNames(List.of(1L))).containsEntry(1L, "John Doe");
+
+        verify(client, times(1)).getUsersByIds(anyList());
+    }
+
+    @Test
+    void failedLookupIsRetriedThenLeftUnresolvedAndUncached() {
+        when(client.getUsersByIds(anyList())).thenAnswer(invocation -> new UserServiceClientFallback()
+                .getUsersByIds(invocation.getArgument(0)));
+
+        assertThat(userDirectory.fullNames(List.of(1L, 2L))).isEmpty();
+        verify(client, times(2)).getUsersByIds(anyList());
+
+        assertThat(userDirectory.fullNames(List.of(1L, 2L))).isEmpty();
+        verify(client, times(4)).getUsersByIds(anyList());
+    }
+
+    @Test
+    void placeholderUsersAreNeitherReturnedNorCached() {
+        when(client.getUsersByIds(anyList()))
+                .thenReturn(List.of(new UserServiceClientFallback().getUserById(1L)))
+                .thenReturn(List.of(new UserDto(1L, "jdoe", null, "John", "Doe")));
+
+        assertThat(userDirectory.fullNames(List.of(1L))).isEmpty();
+        assertThat(userDirectory.fullNames(List.of(1L))).containsEntry(1L, "John Doe");
+    }
+}
@@ -0,0 +1,94 @@
+package com.workhive.logsservice.stats;
+
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ActiveUserSketchesTests {
+
+    private final ActivityLogStore store = mock(ActivityLogStore.class);
+    private final ActiveUserSketches sketches = new ActiveUserSketches(store);
+    private final LocalDate today = LocalDate.now();
+
+    @AfterEach
+    void tearDown() {
+        sketches.stop();
+    }
+
+    @Test
+    void retentionLongerThanThirtyDaysDoesNotWidenTheWindow() {
+        ReflectionTestUtils.setField(sketches, "retentionDays", 60);
+        sketches.offer(1L, today.minusDays(45).atTime(12, 0));
+        sketches.offer(2L, today.minusDays(29).atTime(12, 0));
+        sketches.offer(3L, today.minusDays(3).atTime(12, 0));
+        sketches.offer(4L, today.atTime(0, 0));
+
+        ActiveUserSketches.ActiveUsers activeUsers = sketches.activeUsers();
+
+        assertThat(activeUsers.today()).isEqualTo(1);
+        assertThat(activeUsers.last7Days()).isEqualTo(2);
+        assertThat(activeUsers.last30Days()).isEqualTo(3);
+    }
+
+    @Test
+    void logWithoutUserIsIgnored() {
+        ReflectionTestUtils.setField(sketches, "retentionDays", 30);
+
+        assertThatCode(() -> sketches.offer(null, LocalDateTime.now())).doesNotThrowAnyException();
+        assertThat(sketches.activeUsers().today()).isZero();
+    }
+
+    @Test
+    void deletionOlderThanTheWindowDoesNotRebuild() throws InterruptedException {
+        ReflectionTestUtils.setField(sketches, "retentionDays", 30);
+
+        sketches.onStatisticsChanged(StatisticsChangedEvent.expiredActivitiesDeleted(10, today.minusDays(90).atStartOfDay()));
+        sketches.onStatisticsChanged(StatisticsChangedEvent.activityDeleted(today.minusDays(31).atTime(8, 0)));
+        sketches.onStatisticsChanged(StatisticsChangedEvent.activitiesRecorded());
+
+        Thread.sleep(100);
+        verify(store, never()).forEachUserActivitySince(any(), any());
+    }
+
+    @Test
+    void deletionsInsideTheWindowShareOneQueuedRebuildOffTheCallingThread() throws InterruptedException {
+        ReflectionTestUtils.setField(sketches, "retentionDays", 30);
+        CountDownLatch firstScanStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstScan = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstScanStarted.countDown();
+            releaseFirstScan.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(store).forEachUserActivitySince(any(), any());
+
+        sketches.onStatisticsChanged(StatisticsChangedEvent.activityDeleted(LocalDateTime.now()));
+        assertThat(firstScanStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The running rebuild may have scanned past these rows, so they queue exactly one more
+        for (int i = 0; i < 5; i++) {
+            sketches.onStatisticsChanged(StatisticsChangedEvent.userActivitiesDeleted());
+        }
+        releaseFirstScan.countDown();
+
+        verify(store, timeout(5_000).times(2)).forEachUserActivitySince(any(), any());
+        Thread.sleep(100);
+        verify(store, times(2)).forEachUserActivitySince(any(), any());
+    }
+}
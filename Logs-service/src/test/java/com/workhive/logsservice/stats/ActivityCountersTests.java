@@ -0,0 +1,74 @@
+package com.workhive.logsservice.stats;
+
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivityCountersTests {
+
+    private final ActivityLogStore store = mock(ActivityLogStore.class);
+    private final ActivityCounters counters = new ActivityCounters(store);
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(counters, "retentionDays", 30);
+        when(store.countByDaySince(any())).thenReturn(Map.of(today, 3L, today.minusDays(2), 4L));
+        when(store.count()).thenReturn(100L);
+        counters.rebuild();
+        clearInvocations(store);
+    }
+
+    @Test
+    void insertsAreLeftToTheCreatedListener() {
+        counters.onStatisticsChanged(StatisticsChangedEvent.activitiesRecorded());
+
+        assertThat(counters.counts()).isEqualTo(new ActivityCounters.Counts(100, 3, 7));
+        verify(store, never()).count();
+    }
+
+    @Test
+    void singleDeleteTakesTheRowOffItsDayWithoutRecounting() {
+        counters.onStatisticsChanged(StatisticsChangedEvent.activityDeleted(today.minusDays(2).atTime(10, 0)));
+
+        assertThat(counters.counts()).isEqualTo(new ActivityCounters.Counts(99, 3, 6));
+        verify(store, never()).countByDaySince(any());
+        verify(store, never()).count();
+    }
+
+    @Test
+    void deleteOlderThanTheRetainedDaysOnlyChangesTheTotal() {
+        LocalDateTime before = today.minusDays(60).atStartOfDay();
+
+        counters.onStatisticsChanged(StatisticsChangedEvent.expiredActivitiesDeleted(40, before));
+
+        assertThat(counters.counts()).isEqualTo(new ActivityCounters.Counts(60, 3, 7));
+        verify(store, never()).count();
+    }
+
+    @Test
+    void deleteOfUnknownRowsRebuilds() {
+        when(store.countByDaySince(any())).thenReturn(Map.of(today, 1L));
+        when(store.count()).thenReturn(50L);
+
+        counters.onStatisticsChanged(StatisticsChangedEvent.userActivitiesDeleted());
+
+        assertThat(counters.counts()).isEqualTo(new ActivityCounters.Counts(50, 1, 1));
+        verify(store, times(1)).count();
+    }
+}
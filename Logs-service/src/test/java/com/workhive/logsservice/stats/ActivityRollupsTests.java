@@ -0,0 +1,219 @@
+package com.workhive.logsservice.stats;
+
+import com.workhive.logsservice.archive.ColdArchive;
+import com.workhive.logsservice.entity.ActivityLog;
+import com.workhive.logsservice.feed.ActivityLogsCreatedEvent;
+import com.workhive.logsservice.grpc.StatisticsChangedEvent;
+import com.workhive.logsservice.repository.ActivityHistogramQuery;
+import com.workhive.logsservice.repository.ActivityHistogramQuery.Bucket;
+import com.workhive.logsservice.repository.ActivityHistogramQuery.Dimension;
+import com.workhive.logsservice.repository.ActivityLogStore;
+import com.workhive.logsservice.repository.HistogramCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks rollup-backed histograms against a brute-force count of the same logs.
+ */
+class ActivityRollupsTests {
+
+    private final List<ActivityLog> logs = new ArrayList<>();
+    private final List<ActivityHistogramQuery> storeQueries = new ArrayList<>();
+    private final ActivityLogStore store = mock(ActivityLogStore.class);
+    private final ColdArchive coldArchive = mock(ColdArchive.class);
+    private ActivityRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        when(store.histogram(any())).thenAnswer(invocation -> {
+            ActivityHistogramQuery query = invocation.getArgument(0);
+            storeQueries.add(query);
+            return bruteForce(query);
+        });
+        when(coldArchive.histogram(any())).thenReturn(List.of());
+        rollups = new ActivityRollups(store, coldArchive);
+        ReflectionTestUtils.setField(rollups, "retentionDays", 7);
+        ReflectionTestUtils.setField(rollups, "sealGraceMs", 300_000L);
+        ReflectionTestUtils.setField(rollups, "maxRows", 100_000);
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= 5_000; id++) {
+            logs.add(log(id, now.minusSeconds(random.nextInt(10 * 86_400)), "ACTION_" + random.nextInt(3),
+                    "ENTITY_" + random.nextInt(2), (long) random.nextInt(5)));
+        }
+        rollups.rebuild();
+    }
+
+    @Test
+    void matchesTheStoreForRandomWindowsAndGroupings() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            ActivityHistogramQuery query = randomQuery(random);
+            assertThat(rollups.histogram(query)).as("%s", query).containsExactlyInAnyOrderElementsOf(bruteForce(query));
+        }
+    }
+
+    @Test
+    void sealedHoursAreNotQueriedAgain() {
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(2);
+        storeQueries.clear();
+
+        rollups.histogram(new ActivityHistogramQuery(EnumSet.of(Dimension.ACTION), Bucket.DAY, from, from.plusDays(1)));
+
+        assertThat(storeQueries).isEmpty();
+    }
+
+    @Test
+    void lateWriteIntoASealedHourIsCountedBeforeAndAfterResealing() {
+        LocalDateTime late = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(30).plusMinutes(10);
+        ActivityLog activityLog = log(10_000L, late, "ACTION_0", "ENTITY_0", 1L);
+        logs.add(activityLog);
+        rollups.onActivityLogsCreated(ActivityLogsCreatedEvent.of(activityLog));
+        ActivityHistogramQuery query = new ActivityHistogramQuery(EnumSet.allOf(Dimension.class), Bucket.HOUR,
+                late.minusHours(5), late.plusHours(5));
+
+        assertThat(rollups.histogram(query)).containsExactlyInAnyOrderElementsOf(bruteForce(query));
+        rollups.seal();
+        storeQueries.clear();
+        assertThat(rollups.histogram(query)).containsExactlyInAnyOrderElementsOf(bruteForce(query));
+        assertThat(storeQueries).allMatch(storeQuery -> !storeQuery.to().isAfter(late.truncatedTo(ChronoUnit.HOURS))
+                || !storeQuery.from().isBefore(late.truncatedTo(ChronoUnit.HOURS).plusHours(1)));
+    }
+
+    @Test
+    void singleDeletionRecountsOnlyItsHour() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(40);
+        ActivityLog deleted = logs.stream()
+                .filter(activityLog -> activityLog.getTimestamp().truncatedTo(ChronoUnit.HOURS).equals(hour))
+                .findFirst().orElseThrow();
+        logs.remove(deleted);
+        storeQueries.clear();
+
+        rollups.onStatisticsChanged(StatisticsChangedEvent.activityDeleted(deleted.getTimestamp()));
+        assertThat(storeQueries).isEmpty();
+        ActivityHistogramQuery query = new ActivityHistogramQuery(EnumSet.of(Dimension.ACTION), Bucket.DAY,
+                hour.minusDays(1), hour.plusDays(1));
+        assertThat(rollups.histogram(query)).containsExactlyInAnyOrderElementsOf(bruteForce(query));
+
+        storeQueries.clear();
+        rollups.seal();
+        assertThat(storeQueries).extracting(ActivityHistogramQuery::from, ActivityHistogramQuery::to)
+                .contains(tuple(hour, hour.plusHours(1)));
+        storeQueries.clear();
+        assertThat(rollups.histogram(query)).containsExactlyInAnyOrderElementsOf(bruteForce(query));
+        assertThat(storeQueries).isEmpty();
+    }
+
+    @Test
+    void retentionSweepOlderThanTheRollupsLeavesThemSealed() {
+        rollups.onStatisticsChanged(StatisticsChangedEvent.expiredActivitiesDeleted(10,
+                LocalDateTime.now().minusDays(30)));
+        storeQueries.clear();
+
+        rollups.seal();
+        // Only an hour closed since the rebuild may be sealed; nothing older is recounted
+        assertThat(storeQueries).allMatch(storeQuery -> storeQuery.from().isAfter(LocalDateTime.now().minusHours(3)));
+        storeQueries.clear();
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(2);
+        rollups.histogram(new ActivityHistogramQuery(EnumSet.of(Dimension.ACTION), Bucket.DAY, from, from.plusDays(1)));
+
+        assertThat(storeQueries).isEmpty();
+    }
+
+    @Test
+    void deletionOfUnknownRowsIsRecountedInOneQueryBySealing() {
+        logs.removeIf(activityLog -> activityLog.getUserId() == 3L);
+        rollups.onStatisticsChanged(StatisticsChangedEvent.userActivitiesDeleted());
+        ActivityHistogramQuery query = new ActivityHistogramQuery(EnumSet.of(Dimension.USER), Bucket.DAY,
+                LocalDateTime.now().minusDays(5), LocalDateTime.now());
+        assertThat(rollups.histogram(query)).containsExactlyInAnyOrderElementsOf(bruteForce(query));
+
+        storeQueries.clear();
+        rollups.seal();
+        assertThat(storeQueries).hasSize(1);
+        assertThat(rollups.histogram(query)).containsExactlyInAnyOrderElementsOf(bruteForce(query));
+    }
+
+    @Test
+    void archivedCountsAreAdded() {
+        LocalDateTime from = LocalDateTime.now().minusDays(40);
+        LocalDateTime to = from.plusDays(1);
+        when(coldArchive.histogram(any())).thenReturn(List.of(new HistogramCount(null, "ACTION_0", null, null, 3)));
+
+        List<HistogramCount> histogram = rollups.histogram(
+                new ActivityHistogramQuery(EnumSet.of(Dimension.ACTION), null, from, to));
+
+        assertThat(histogram).containsExactly(new HistogramCount(null, "ACTION_0", null, null, 3));
+    }
+
+    @Test
+    void rejectsEmptyWindowsAndTooManyGroups() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThatThrownBy(() -> rollups.histogram(new ActivityHistogramQuery(Set.of(), null, now, now)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        ReflectionTestUtils.setField(rollups, "maxRows", 10);
+        assertThatThrownBy(() -> rollups.histogram(new ActivityHistogramQuery(EnumSet.allOf(Dimension.class), Bucket.HOUR,
+                now.minusDays(3), now)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ActivityHistogramQuery randomQuery(Random random) {
+        LocalDateTime from = LocalDateTime.now().minusSeconds(random.nextInt(12 * 86_400));
+        if (random.nextBoolean()) {
+            from = from.truncatedTo(ChronoUnit.HOURS);
+        }
+        LocalDateTime to = from.plusSeconds(1 + random.nextInt(5 * 86_400));
+        Set<Dimension> groupBy = EnumSet.noneOf(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            if (random.nextBoolean()) {
+                groupBy.add(dimension);
+            }
+        }
+        Bucket[] buckets = {null, Bucket.HOUR, Bucket.DAY};
+        return new ActivityHistogramQuery(groupBy, buckets[random.nextInt(buckets.length)], from, to);
+    }
+
+    private List<HistogramCount> bruteForce(ActivityHistogramQuery query) {
+        Map<HistogramCount, Long> counts = new HashMap<>();
+        for (ActivityLog activityLog : logs) {
+            if (!activityLog.getTimestamp().isBefore(query.from()) && activityLog.getTimestamp().isBefore(query.to())) {
+                counts.merge(query.keyOf(activityLog.getTimestamp(), activityLog.getAction(), activityLog.getEntityType(),
+                        activityLog.getUserId()), 1L, Long::sum);
+            }
+        }
+        List<HistogramCount> histogram = new ArrayList<>();
+        counts.forEach((key, count) -> histogram.add(key.withCount(count)));
+        return histogram;
+    }
+
+    private static ActivityLog log(long id, LocalDateTime timestamp, String action, String entityType, Long userId) {
+        return ActivityLog.builder()
+                .id(id)
+                .timestamp(timestamp)
+                .action(action)
+                .entityType(entityType)
+                .userId(userId)
+                .username("user" + userId)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.workhive.logsservice.stats;
+
+import com.workhive.logsservice.dto.CreateActivityLogInput;
+import com.workhive.logsservice.service.ActivityLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory statistics follow committed writes only.
+ */
+@SpringBootTest(properties = "grpc.server.port=-1")
+class ActivityStatisticsAfterCommitTests {
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private ActivityCounters activityCounters;
+
+    @Autowired
+    private ActiveUserSketches activeUserSketches;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rolledBackWriteIsNotCounted() {
+        long before = activityCounters.counts().total();
+        ActiveUserSketches.ActiveUsers activeBefore = activeUserSketches.activeUsers();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            activityLogService.createActivityLog(input(9001L));
+            assertThat(activityCounters.counts().total()).isEqualTo(before);
+            assertThat(activeUserSketches.activeUsers()).isEqualTo(activeBefore);
+            status.setRollbackOnly();
+        });
+
+        assertThat(activityCounters.counts().total()).isEqualTo(before);
+        assertThat(activeUserSketches.activeUsers()).isEqualTo(activeBefore);
+    }
+
+    @Test
+    void committedWriteIsCountedOnce() {
+        long before = activityCounters.counts().total();
+        long todayBefore = activityCounters.counts().today();
+        long activeTodayBefore = activeUserSketches.activeUsers().today();
+
+        activityLogService.createActivityLog(input(9002L));
+
+        assertThat(activityCounters.counts().total()).isEqualTo(before + 1);
+        assertThat(activityCounters.counts().today()).isEqualTo(todayBefore + 1);
+        // A user not seen today lands in an empty register, which always raises the small-range estimate
+        assertThat(activeUserSketches.activeUsers().today()).isGreaterThan(activeTodayBefore);
+    }
+
+    private static CreateActivityLogInput input(Long userId) {
+        CreateActivityLogInput input = new CreateActivityLogInput();
+        input.setUserId(userId);
+        input.setUsername("user-" + userId);
+        input.setAction("LOGIN");
+        input.setEntityType("USER");
+        return input;
+    }
+}
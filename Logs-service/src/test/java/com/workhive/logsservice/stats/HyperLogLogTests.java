@@ -0,0 +1,113 @@
+package com.workhive.logsservice.stats;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTests {
+
+    // Three standard errors (1.04 / sqrt(m)) at the default precision
+    private static final double ERROR_BOUND = 3 * 1.04 / Math.sqrt(1 << HyperLogLog.DEFAULT_PRECISION);
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 100_000, 1_000_000})
+    void sequentialIdsStayWithinTheErrorBound(int distinct) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= distinct; id++) {
+            sketch.offer(id);
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(distinct * ERROR_BOUND));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5_000, 50_000, 500_000})
+    void randomIdsStayWithinTheErrorBound(int distinct) {
+        SplittableRandom random = new SplittableRandom(distinct);
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < distinct; i++) {
+            sketch.offer(random.nextLong());
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(distinct * ERROR_BOUND));
+    }
+
+    @Test
+    void repeatedKeysAreCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int round = 0; round < 50; round++) {
+            for (long id = 1; id <= 2_000; id++) {
+                sketch.offer(id);
+            }
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(2_000, within(2_000 * ERROR_BOUND));
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        // Overlapping ranges: 1..60000 and 40001..100000
+        for (long id = 1; id <= 60_000; id++) {
+            first.offer(id);
+            union.offer(id);
+        }
+        for (long id = 40_001; id <= 100_000; id++) {
+            second.offer(id);
+            union.offer(id);
+        }
+
+        HyperLogLog merged = first.copy();
+        merged.merge(second);
+        HyperLogLog reversed = second.copy();
+        reversed.merge(first);
+
+        assertThat(merged.estimate()).isEqualTo(union.estimate());
+        assertThat(reversed.estimate()).isEqualTo(union.estimate());
+        assertThat((double) merged.estimate()).isCloseTo(100_000, within(100_000 * ERROR_BOUND));
+    }
+
+    @Test
+    void mergingASketchIntoItselfChangesNothing() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 10_000; id++) {
+            sketch.offer(id);
+        }
+        long estimate = sketch.estimate();
+
+        sketch.merge(sketch.copy());
+
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void copyIsIndependentOfTheOriginal() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.offer(1);
+        HyperLogLog copy = sketch.copy();
+        for (long id = 2; id <= 1_000; id++) {
+            copy.offer(id);
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(1);
+    }
+
+    @Test
+    void sketchesOfDifferentPrecisionDoNotMerge() {
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(14)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
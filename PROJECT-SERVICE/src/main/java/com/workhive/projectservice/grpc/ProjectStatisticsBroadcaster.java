@@ -0,0 +1,140 @@
+package com.workhive.projectservice.grpc;
+
+import com.workhive.projectservice.repository.ProjectRepository;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the open WatchProjectStatistics streams and pushes counter deltas to them after each committed write.
+ * The counters are counted once, when the first watcher connects, and then follow the deltas carried by
+ * each {@link StatisticsChangedEvent}; the periodic resync recounts them, which also corrects any drift
+ * from concurrent writes to the same project.
+ * <p>
+ * A watcher whose outbound buffer is full is skipped rather than queued: it is marked stale and receives
+ * a fresh snapshot from its on-ready handler instead of the deltas it missed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProjectStatisticsBroadcaster {
+
+    private final ProjectRepository projectRepository;
+
+    private final Set<ServerCallStreamObserver<ProjectStatisticsUpdate>> watchers = ConcurrentHashMap.newKeySet();
+
+    // Watchers that skipped an update while not ready, guarded by this
+    private final Set<ServerCallStreamObserver<ProjectStatisticsUpdate>> stale = ConcurrentHashMap.newKeySet();
+
+    // Current values, guarded by this
+    private boolean counted;
+    private long totalProjects;
+    private long completedProjects;
+    private long inProgressProjects;
+
+    public synchronized void subscribe(StreamObserver<ProjectStatisticsUpdate> responseObserver) {
+        ServerCallStreamObserver<ProjectStatisticsUpdate> watcher = (ServerCallStreamObserver<ProjectStatisticsUpdate>) responseObserver;
+        watcher.setOnCancelHandler(() -> {
+            remove(watcher);
+            log.info("gRPC Watch: project statistics watcher disconnected, {} remaining", watchers.size());
+        });
+        watcher.setOnReadyHandler(() -> catchUp(watcher));
+
+        if (!counted) {
+            recount();
+        }
+        send(watcher, snapshot());
+        watchers.add(watcher);
+        log.info("gRPC Watch: project statistics watcher connected, {} total", watchers.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStatisticsChanged(StatisticsChangedEvent event) {
+        if (!counted || (event.projectsDelta() == 0 && event.inProgressDelta() == 0)) {
+            return;
+        }
+        totalProjects += event.projectsDelta();
+        completedProjects += event.completedDelta();
+        inProgressProjects += event.inProgressDelta();
+
+        if (!watchers.isEmpty()) {
+            ProjectStatisticsUpdate delta = ProjectStatisticsUpdate.newBuilder()
+                    .setSnapshot(false)
+                    .setTotalProjects(event.projectsDelta())
+                    .setCompletedProjects(event.completedDelta())
+                    .setInProgressProjects(event.inProgressDelta())
+                    .build();
+            log.debug("gRPC Watch: {} -> delta total={}, completed={}, inProgress={}", event.reason(),
+                    delta.getTotalProjects(), delta.getCompletedProjects(), delta.getInProgressProjects());
+            broadcast(delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${grpc.statistics.watch.resync-ms:60000}")
+    public synchronized void resync() {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        recount();
+        broadcast(snapshot());
+    }
+
+    private void recount() {
+        totalProjects = projectRepository.count();
+        // Projects with tasks are in progress, projects without tasks are treated as completed
+        inProgressProjects = projectRepository.countWithTasks();
+        completedProjects = totalProjects - inProgressProjects;
+        counted = true;
+    }
+
+    private ProjectStatisticsUpdate snapshot() {
+        return ProjectStatisticsUpdate.newBuilder()
+                .setSnapshot(true)
+                .setTotalProjects((int) totalProjects)
+                .setCompletedProjects((int) completedProjects)
+                .setInProgressProjects((int) inProgressProjects)
+                .build();
+    }
+
+    private void broadcast(ProjectStatisticsUpdate update) {
+        for (ServerCallStreamObserver<ProjectStatisticsUpdate> watcher : watchers) {
+            send(watcher, update);
+        }
+    }
+
+    private synchronized void catchUp(ServerCallStreamObserver<ProjectStatisticsUpdate> watcher) {
+        if (stale.remove(watcher)) {
+            send(watcher, snapshot());
+        }
+    }
+
+    private void send(ServerCallStreamObserver<ProjectStatisticsUpdate> watcher, ProjectStatisticsUpdate update) {
+        if (watcher.isCancelled()) {
+            remove(watcher);
+            return;
+        }
+        // Deltas only add up from the last snapshot, so a stale watcher waits for the one catchUp sends
+        if (stale.contains(watcher) || !watcher.isReady()) {
+            stale.add(watcher);
+            return;
+        }
+        try {
+            watcher.onNext(update);
+        } catch (RuntimeException e) {
+            log.warn("gRPC Watch: dropping project statistics watcher", e);
+            remove(watcher);
+        }
+    }
+
+    private void remove(ServerCallStreamObserver<ProjectStatisticsUpdate> watcher) {
+        watchers.remove(watcher);
+        stale.remove(watcher);
+    }
+}
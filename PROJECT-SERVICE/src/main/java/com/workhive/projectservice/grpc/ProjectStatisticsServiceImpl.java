@@ -2,10 +2,12 @@ package com.workhive.projectservice.grpc;
 
 import com.workhive.projectservice.domain.entity.Project;
 import com.workhive.projectservice.repository.ProjectRepository;
+import com.workhive.projectservice.repository.TaskRepository;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
 
 @GrpcService
 @Slf4j
@@ -13,6 +15,11 @@ import net.devh.boot.grpc.server.service.GrpcService;
 public class ProjectStatisticsServiceImpl extends ProjectStatisticsServiceGrpc.ProjectStatisticsServiceImplBase {
 
     private final ProjectRepository projectRepository;
+    private final ProjectStatisticsBroadcaster projectStatisticsBroadcaster;
+    private final TaskRepository taskRepository;
+
+    @Value("${grpc.bulk.batch-size:1000}")
+    private int defaultBatchSize;
 
     @Override
     public void getProjectCount(ProjectCountRequest request, StreamObserver<ProjectCountResponse> responseObserver) {
@@ -53,4 +60,19 @@ public class ProjectStatisticsServiceImpl extends ProjectStatisticsServiceGrpc.P
 
         log.info("gRPC Response: completed={}", completedProjects);
     }
+
+    @Override
+    public void watchProjectStatistics(WatchProjectStatisticsRequest request, StreamObserver<ProjectStatisticsUpdate> responseObserver) {
+        log.info("gRPC Request: watchProjectStatistics");
+        // The stream stays open until the client cancels it; updates are pushed by the broadcaster
+        projectStatisticsBroadcaster.subscribe(responseObserver);
+    }
+
+    @Override
+    public void listProjectSummaries(ProjectSummariesRequest request, StreamObserver<ProjectSummaryBatch> responseObserver) {
+        log.info("gRPC Request: listProjectSummaries");
+        int batchSize = request.getBatchSize() > 0 ? request.getBatchSize() : defaultBatchSize;
+        // Pages are sent as the client is ready for them; the call completes from the stream's callbacks
+        new ProjectSummaryStream(responseObserver, projectRepository, taskRepository, batchSize).start();
+    }
 }
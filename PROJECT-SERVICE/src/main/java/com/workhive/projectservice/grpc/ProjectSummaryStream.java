@@ -0,0 +1,102 @@
+package com.workhive.projectservice.grpc;
+
+import com.workhive.projectservice.domain.entity.Task.TaskStatus;
+import com.workhive.projectservice.repository.ProjectRepository;
+import com.workhive.projectservice.repository.TaskRepository;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server side of one {@code ListProjectSummaries} call.
+ * <p>
+ * Outbound flow control follows the client: keyset pages are read and sent only while the call is ready,
+ * and paging resumes from the on-ready handler once the client has drained its buffer. A slow client
+ * therefore holds back the table scan instead of having it buffered in memory, and a cancelled call stops
+ * paging at once.
+ * <p>
+ * All state is guarded by the stream's monitor: the first pages are sent from the calling thread, the rest
+ * from gRPC callbacks.
+ */
+@Slf4j
+final class ProjectSummaryStream {
+
+    private final ServerCallStreamObserver<ProjectSummaryBatch> call;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final int batchSize;
+
+    private long afterId;
+    private int sent;
+    private boolean finished;
+
+    ProjectSummaryStream(StreamObserver<ProjectSummaryBatch> responseObserver, ProjectRepository projectRepository,
+                         TaskRepository taskRepository, int batchSize) {
+        this.call = (ServerCallStreamObserver<ProjectSummaryBatch>) responseObserver;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.batchSize = batchSize;
+        call.setOnCancelHandler(this::cancelled);
+        call.setOnReadyHandler(this::sendWhileReady);
+    }
+
+    synchronized void start() {
+        sendWhileReady();
+    }
+
+    private synchronized void sendWhileReady() {
+        while (!finished && !call.isCancelled() && call.isReady()) {
+            List<Object[]> page = projectRepository.findSummaryPage(afterId, PageRequest.ofSize(batchSize));
+            if (!page.isEmpty()) {
+                call.onNext(toBatch(page));
+                sent += page.size();
+                afterId = (Long) page.get(page.size() - 1)[0];
+            }
+            if (page.size() < batchSize) {
+                finished = true;
+                call.onCompleted();
+                log.info("gRPC Response: {} project summaries", sent);
+            }
+        }
+    }
+
+    private ProjectSummaryBatch toBatch(List<Object[]> page) {
+        Map<Long, ProjectSummary.Builder> projects = new LinkedHashMap<>();
+        for (Object[] row : page) {
+            projects.put((Long) row[0], ProjectSummary.newBuilder()
+                    .setId((Long) row[0])
+                    .setTeamId(row[1] != null ? (Long) row[1] : 0L)
+                    .setCreatedBy((Long) row[2]));
+        }
+        // One GROUP BY per page instead of loading every task
+        for (Object[] row : taskRepository.countByProjectAndStatus(projects.keySet())) {
+            addTaskCount(projects.get((Long) row[0]), (TaskStatus) row[1], ((Long) row[2]).intValue());
+        }
+
+        ProjectSummaryBatch.Builder batch = ProjectSummaryBatch.newBuilder();
+        projects.values().forEach(batch::addProjects);
+        return batch.build();
+    }
+
+    private static void addTaskCount(ProjectSummary.Builder project, TaskStatus status, int count) {
+        switch (status) {
+            case TODO -> project.setTodoTasks(count);
+            case IN_PROGRESS -> project.setInProgressTasks(count);
+            case IN_REVIEW -> project.setInReviewTasks(count);
+            case DONE -> project.setDoneTasks(count);
+            case BLOCKED -> project.setBlockedTasks(count);
+        }
+    }
+
+    private synchronized void cancelled() {
+        if (!finished) {
+            finished = true;
+            log.warn("ListProjectSummaries cancelled by the client after {} project summaries", sent);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.workhive.projectservice.grpc;
+
+/**
+ * Published after a write that may change the counters exposed by {@link ProjectStatisticsServiceImpl}.
+ * Carries the change itself, so the broadcaster can apply it to its counters without querying the tables;
+ * a project moves from completed to in progress when it gets its first task, and back when it loses its last.
+ */
+public record StatisticsChangedEvent(String reason, int projectsDelta, int inProgressDelta) {
+
+    public static StatisticsChangedEvent projectCreated() {
+        return new StatisticsChangedEvent("project created", 1, 0);
+    }
+
+    public static StatisticsChangedEvent projectDeleted(boolean hadTasks) {
+        return new StatisticsChangedEvent("project deleted", -1, hadTasks ? -1 : 0);
+    }
+
+    public static StatisticsChangedEvent taskCreated(boolean firstOfProject) {
+        return new StatisticsChangedEvent("task created", 0, firstOfProject ? 1 : 0);
+    }
+
+    public static StatisticsChangedEvent taskDeleted(boolean lastOfProject) {
+        return new StatisticsChangedEvent("task deleted", 0, lastOfProject ? -1 : 0);
+    }
+
+    public int completedDelta() {
+        return projectsDelta - inProgressDelta;
+    }
+}
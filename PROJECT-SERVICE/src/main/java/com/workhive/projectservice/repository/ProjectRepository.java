@@ -1,7 +1,10 @@
 package com.workhive.projectservice.repository;
 
 import com.workhive.projectservice.domain.entity.Project;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +14,14 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByCreatedBy(Long managerId);
     List<Project> findByTeamId(Long teamId);
     List<Project> findByNameContainingIgnoreCase(String name);
+
+    @Query("SELECT COUNT(p) FROM Project p WHERE p.tasks IS NOT EMPTY")
+    long countWithTasks();
+
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Project p WHERE p.id = :id AND p.tasks IS NOT EMPTY")
+    boolean hasTasks(@Param("id") Long id);
+
+    // [id, teamId, createdBy] rows for the bulk project export, keyset-paged on id
+    @Query("SELECT p.id, p.teamId, p.createdBy FROM Project p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSummaryPage(@Param("afterId") Long afterId, Pageable pageable);
 }
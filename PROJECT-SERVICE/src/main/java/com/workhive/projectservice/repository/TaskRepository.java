@@ -7,15 +7,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByProjectId(Long projectId);
+    boolean existsByProjectId(Long projectId);
     List<Task> findByStatus(TaskStatus status);
     
     @Query("SELECT t FROM Task t JOIN t.developerIds d WHERE d = :developerId")
     List<Task> findByDeveloperId(@Param("developerId") Long developerId);
     
     List<Task> findByProjectIdAndStatus(Long projectId, TaskStatus status);
+
+    // [projectId, status, count] rows for one page of projects
+    @Query("SELECT t.project.id, t.status, COUNT(t) FROM Task t WHERE t.project.id IN :projectIds GROUP BY t.project.id, t.status")
+    List<Object[]> countByProjectAndStatus(@Param("projectIds") Collection<Long> projectIds);
 }
@@ -8,6 +8,7 @@ import com.workhive.projectservice.domain.dto.ProjectDto;
 import com.workhive.projectservice.domain.dto.ProjectRequest;
 import com.workhive.projectservice.domain.entity.Project;
 import com.workhive.projectservice.exception.ResourceNotFoundException;
+import com.workhive.projectservice.grpc.StatisticsChangedEvent;
 import com.workhive.projectservice.mapper.ProjectMapper;
 import com.workhive.projectservice.repository.ProjectRepository;
 import com.workhive.projectservice.service.ProjectService;
@@ -15,6 +16,7 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +32,7 @@ public class ProjectServiceImpl implements ProjectService {
     private final ProjectMapper projectMapper;
     private final UserServiceClient userServiceClient;
     private final TeamServiceClient teamServiceClient;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     @Transactional
@@ -39,6 +42,7 @@ public class ProjectServiceImpl implements ProjectService {
         log.info("Creating project: {}", request.getName());
         Project project = projectMapper.toEntity(request);
         Project savedProject = projectRepository.save(project);
+        eventPublisher.publishEvent(StatisticsChangedEvent.projectCreated());
         return enrichProjectDto(projectMapper.toDto(savedProject));
     }
     
@@ -106,7 +110,9 @@ public class ProjectServiceImpl implements ProjectService {
         if (!projectRepository.existsById(id)) {
             throw new ResourceNotFoundException("Project not found with id: " + id);
         }
+        boolean hadTasks = projectRepository.hasTasks(id);
         projectRepository.deleteById(id);
+        eventPublisher.publishEvent(StatisticsChangedEvent.projectDeleted(hadTasks));
     }
     
     @Override
@@ -8,6 +8,7 @@ import com.workhive.projectservice.domain.entity.Project;
 import com.workhive.projectservice.domain.entity.Task;
 import com.workhive.projectservice.domain.entity.Task.TaskStatus;
 import com.workhive.projectservice.exception.ResourceNotFoundException;
+import com.workhive.projectservice.grpc.StatisticsChangedEvent;
 import com.workhive.projectservice.mapper.TaskMapper;
 import com.workhive.projectservice.repository.ProjectRepository;
 import com.workhive.projectservice.repository.TaskRepository;
@@ -16,6 +17,7 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +33,7 @@ public class TaskServiceImpl implements TaskService {
     private final ProjectRepository projectRepository;
     private final TaskMapper taskMapper;
     private final UserServiceClient userServiceClient;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     @Transactional
@@ -41,8 +44,10 @@ public class TaskServiceImpl implements TaskService {
         Project project = projectRepository.findById(request.getProjectId())
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + request.getProjectId()));
         
+        boolean firstOfProject = !taskRepository.existsByProjectId(project.getId());
         Task task = taskMapper.toEntity(request, project);
         Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(StatisticsChangedEvent.taskCreated(firstOfProject));
         return enrichTaskDto(taskMapper.toDto(savedTask));
     }
     
@@ -118,10 +123,13 @@ public class TaskServiceImpl implements TaskService {
     @Transactional
     public void deleteTask(Long id) {
         log.info("Deleting task: {}", id);
-        if (!taskRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Task not found with id: " + id);
-        }
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        Long projectId = task.getProject().getId();
         taskRepository.deleteById(id);
+        // The delete is flushed before this query runs
+        boolean lastOfProject = !taskRepository.existsByProjectId(projectId);
+        eventPublisher.publishEvent(StatisticsChangedEvent.taskDeleted(lastOfProject));
     }
     
     @Override
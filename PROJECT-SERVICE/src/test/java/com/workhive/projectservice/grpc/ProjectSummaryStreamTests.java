@@ -0,0 +1,115 @@
+package com.workhive.projectservice.grpc;
+
+import com.workhive.projectservice.domain.entity.Task.TaskStatus;
+import com.workhive.projectservice.repository.ProjectRepository;
+import com.workhive.projectservice.repository.TaskRepository;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectSummaryStreamTests {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final ServerCallStreamObserver<ProjectSummaryBatch> call = mock(ServerCallStreamObserver.class);
+
+    @BeforeEach
+    void setUp() {
+        // Five projects, two per page, each with one DONE task per id
+        when(projectRepository.findSummaryPage(anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            List<Object[]> page = new ArrayList<>();
+            for (long id = afterId + 1; id <= Math.min(afterId + 2, 5); id++) {
+                page.add(new Object[]{id, id % 2 == 0 ? 10L : null, 100L});
+            }
+            return page;
+        });
+        when(taskRepository.countByProjectAndStatus(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new Object[]{id, TaskStatus.DONE, id}).toList();
+        });
+    }
+
+    @Test
+    void readyClientGetsEveryPageThenCompletion() {
+        when(call.isReady()).thenReturn(true);
+
+        new ProjectSummaryStream(call, projectRepository, taskRepository, 2).start();
+
+        List<ProjectSummary> projects = sent(3);
+        assertThat(projects).extracting(ProjectSummary::getId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(projects).extracting(ProjectSummary::getTeamId).containsExactly(0L, 10L, 0L, 10L, 0L);
+        assertThat(projects).extracting(ProjectSummary::getDoneTasks).containsExactly(1, 2, 3, 4, 5);
+        verify(call).onCompleted();
+    }
+
+    @Test
+    void pagingWaitsForTheClientToBecomeReady() {
+        when(call.isReady()).thenReturn(true, false);
+
+        new ProjectSummaryStream(call, projectRepository, taskRepository, 2).start();
+
+        verify(projectRepository, times(1)).findSummaryPage(anyLong(), any());
+        verify(call, never()).onCompleted();
+
+        when(call.isReady()).thenReturn(true);
+        onReadyHandler().run();
+
+        verify(projectRepository).findSummaryPage(eq(2L), any());
+        assertThat(sent(3)).extracting(ProjectSummary::getId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(call).onCompleted();
+    }
+
+    @Test
+    void cancelledCallStopsPaging() {
+        when(call.isReady()).thenReturn(true, false);
+        new ProjectSummaryStream(call, projectRepository, taskRepository, 2).start();
+
+        when(call.isCancelled()).thenReturn(true);
+        when(call.isReady()).thenReturn(true);
+        onCancelHandler().run();
+        onReadyHandler().run();
+
+        verify(projectRepository, times(1)).findSummaryPage(anyLong(), any());
+        verify(call, times(1)).onNext(any());
+        verify(call, never()).onCompleted();
+    }
+
+    private List<ProjectSummary> sent(int batches) {
+        ArgumentCaptor<ProjectSummaryBatch> sent = ArgumentCaptor.forClass(ProjectSummaryBatch.class);
+        verify(call, times(batches)).onNext(sent.capture());
+        return sent.getAllValues().stream()
+                .flatMap(batch -> batch.getProjectsList().stream())
+                .toList();
+    }
+
+    private Runnable onReadyHandler() {
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnReadyHandler(handler.capture());
+        return handler.getValue();
+    }
+
+    private Runnable onCancelHandler() {
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnCancelHandler(handler.capture());
+        return handler.getValue();
+    }
+}
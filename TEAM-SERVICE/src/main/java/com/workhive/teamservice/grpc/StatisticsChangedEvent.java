@@ -0,0 +1,26 @@
+package com.workhive.teamservice.grpc;
+
+/**
+ * Published after a write that may change the counters exposed by {@link TeamStatisticsServiceImpl}.
+ * Carries the change itself, so the broadcaster can apply it to its counters without querying the tables.
+ */
+public record StatisticsChangedEvent(String reason, int teamsDelta, int membersDelta, int managersDelta) {
+
+    /**
+     * @param newManager whether no other team is led by this team's manager
+     */
+    public static StatisticsChangedEvent teamCreated(int members, boolean newManager) {
+        return new StatisticsChangedEvent("team created", 1, members, newManager ? 1 : 0);
+    }
+
+    public static StatisticsChangedEvent teamUpdated(int membersDelta) {
+        return new StatisticsChangedEvent("team updated", 0, membersDelta, 0);
+    }
+
+    /**
+     * @param lastOfManager whether no other team is led by this team's manager
+     */
+    public static StatisticsChangedEvent teamDeleted(int members, boolean lastOfManager) {
+        return new StatisticsChangedEvent("team deleted", -1, -members, lastOfManager ? -1 : 0);
+    }
+}
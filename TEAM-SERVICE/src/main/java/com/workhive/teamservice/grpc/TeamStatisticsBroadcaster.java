@@ -0,0 +1,138 @@
+package com.workhive.teamservice.grpc;
+
+import com.workhive.teamservice.repository.TeamRepository;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the open WatchTeamStatistics streams and pushes counter deltas to them after each committed write.
+ * The counters are counted once, when the first watcher connects, and then follow the deltas carried by
+ * each {@link StatisticsChangedEvent}; the periodic resync recounts them, which also corrects any drift
+ * from concurrent writes for the same manager.
+ * <p>
+ * A watcher whose outbound buffer is full is skipped rather than queued: it is marked stale and receives
+ * a fresh snapshot from its on-ready handler instead of the deltas it missed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TeamStatisticsBroadcaster {
+
+    private final TeamRepository teamRepository;
+
+    private final Set<ServerCallStreamObserver<TeamStatisticsUpdate>> watchers = ConcurrentHashMap.newKeySet();
+
+    // Watchers that skipped an update while not ready, guarded by this
+    private final Set<ServerCallStreamObserver<TeamStatisticsUpdate>> stale = ConcurrentHashMap.newKeySet();
+
+    // Current values, guarded by this
+    private boolean counted;
+    private long totalTeams;
+    private long totalMembers;
+    private long totalManagers;
+
+    public synchronized void subscribe(StreamObserver<TeamStatisticsUpdate> responseObserver) {
+        ServerCallStreamObserver<TeamStatisticsUpdate> watcher = (ServerCallStreamObserver<TeamStatisticsUpdate>) responseObserver;
+        watcher.setOnCancelHandler(() -> {
+            remove(watcher);
+            log.info("gRPC Watch: team statistics watcher disconnected, {} remaining", watchers.size());
+        });
+        watcher.setOnReadyHandler(() -> catchUp(watcher));
+
+        if (!counted) {
+            recount();
+        }
+        send(watcher, snapshot());
+        watchers.add(watcher);
+        log.info("gRPC Watch: team statistics watcher connected, {} total", watchers.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStatisticsChanged(StatisticsChangedEvent event) {
+        if (!counted || (event.teamsDelta() == 0 && event.membersDelta() == 0 && event.managersDelta() == 0)) {
+            return;
+        }
+        totalTeams += event.teamsDelta();
+        totalMembers += event.membersDelta();
+        totalManagers += event.managersDelta();
+
+        if (!watchers.isEmpty()) {
+            TeamStatisticsUpdate delta = TeamStatisticsUpdate.newBuilder()
+                    .setSnapshot(false)
+                    .setTotalTeams(event.teamsDelta())
+                    .setTotalMembers(event.membersDelta())
+                    .setTotalManagers(event.managersDelta())
+                    .build();
+            log.debug("gRPC Watch: {} -> delta teams={}, members={}", event.reason(), delta.getTotalTeams(), delta.getTotalMembers());
+            broadcast(delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${grpc.statistics.watch.resync-ms:60000}")
+    public synchronized void resync() {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        recount();
+        broadcast(snapshot());
+    }
+
+    private void recount() {
+        totalTeams = teamRepository.count();
+        totalMembers = teamRepository.countMembers();
+        totalManagers = teamRepository.countManagers();
+        counted = true;
+    }
+
+    private TeamStatisticsUpdate snapshot() {
+        return TeamStatisticsUpdate.newBuilder()
+                .setSnapshot(true)
+                .setTotalTeams((int) totalTeams)
+                .setTotalMembers((int) totalMembers)
+                .setTotalManagers((int) totalManagers)
+                .build();
+    }
+
+    private void broadcast(TeamStatisticsUpdate update) {
+        for (ServerCallStreamObserver<TeamStatisticsUpdate> watcher : watchers) {
+            send(watcher, update);
+        }
+    }
+
+    private synchronized void catchUp(ServerCallStreamObserver<TeamStatisticsUpdate> watcher) {
+        if (stale.remove(watcher)) {
+            send(watcher, snapshot());
+        }
+    }
+
+    private void send(ServerCallStreamObserver<TeamStatisticsUpdate> watcher, TeamStatisticsUpdate update) {
+        if (watcher.isCancelled()) {
+            remove(watcher);
+            return;
+        }
+        // Deltas only add up from the last snapshot, so a stale watcher waits for the one catchUp sends
+        if (stale.contains(watcher) || !watcher.isReady()) {
+            stale.add(watcher);
+            return;
+        }
+        try {
+            watcher.onNext(update);
+        } catch (RuntimeException e) {
+            log.warn("gRPC Watch: dropping team statistics watcher", e);
+            remove(watcher);
+        }
+    }
+
+    private void remove(ServerCallStreamObserver<TeamStatisticsUpdate> watcher) {
+        watchers.remove(watcher);
+        stale.remove(watcher);
+    }
+}
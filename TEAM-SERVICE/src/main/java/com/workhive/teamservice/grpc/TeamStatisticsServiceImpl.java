@@ -6,6 +6,7 @@ import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
 
 @GrpcService
 @Slf4j
@@ -13,21 +14,30 @@ import net.devh.boot.grpc.server.service.GrpcService;
 public class TeamStatisticsServiceImpl extends TeamStatisticsServiceGrpc.TeamStatisticsServiceImplBase {
 
     private final TeamRepository teamRepository;
+    private final TeamStatisticsBroadcaster teamStatisticsBroadcaster;
+
+    @Value("${grpc.bulk.batch-size:1000}")
+    private int defaultBatchSize;
 
     @Override
     public void getTeamCount(TeamCountRequest request, StreamObserver<TeamCountResponse> responseObserver) {
         log.info("gRPC Request: getTeamCount");
 
         long totalTeams = teamRepository.count();
+        long totalMembers = teamRepository.countMembers();
+        long totalManagers = teamRepository.countManagers();
+        int averageTeamSize = totalTeams > 0 ? (int) Math.round((double) totalMembers / totalTeams) : 0;
 
         TeamCountResponse response = TeamCountResponse.newBuilder()
                 .setTotalTeams((int) totalTeams)
+                .setAverageTeamSize(averageTeamSize)
+                .setTotalManagers((int) totalManagers)
                 .build();
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
 
-        log.info("gRPC Response: total={}", totalTeams);
+        log.info("gRPC Response: total={}, avgSize={}, managers={}", totalTeams, averageTeamSize, totalManagers);
     }
 
     @Override
@@ -48,4 +58,19 @@ public class TeamStatisticsServiceImpl extends TeamStatisticsServiceGrpc.TeamSta
 
         log.info("gRPC Response: avgSize={}", averageSize);
     }
+
+    @Override
+    public void watchTeamStatistics(WatchTeamStatisticsRequest request, StreamObserver<TeamStatisticsUpdate> responseObserver) {
+        log.info("gRPC Request: watchTeamStatistics");
+        // The stream stays open until the client cancels it; updates are pushed by the broadcaster
+        teamStatisticsBroadcaster.subscribe(responseObserver);
+    }
+
+    @Override
+    public void listTeamSummaries(TeamSummariesRequest request, StreamObserver<TeamSummaryBatch> responseObserver) {
+        log.info("gRPC Request: listTeamSummaries");
+        int batchSize = request.getBatchSize() > 0 ? request.getBatchSize() : defaultBatchSize;
+        // Pages are sent as the client is ready for them; the call completes from the stream's callbacks
+        new TeamSummaryStream(responseObserver, teamRepository, batchSize).start();
+    }
 }
@@ -0,0 +1,86 @@
+package com.workhive.teamservice.grpc;
+
+import com.workhive.teamservice.repository.TeamRepository;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server side of one {@code ListTeamSummaries} call.
+ * <p>
+ * Outbound flow control follows the client: keyset pages are read and sent only while the call is ready,
+ * and paging resumes from the on-ready handler once the client has drained its buffer. A slow client
+ * therefore holds back the table scan instead of having it buffered in memory, and a cancelled call stops
+ * paging at once.
+ * <p>
+ * All state is guarded by the stream's monitor: the first pages are sent from the calling thread, the rest
+ * from gRPC callbacks.
+ */
+@Slf4j
+final class TeamSummaryStream {
+
+    private final ServerCallStreamObserver<TeamSummaryBatch> call;
+    private final TeamRepository teamRepository;
+    private final int batchSize;
+
+    private long afterId;
+    private int sent;
+    private boolean finished;
+
+    TeamSummaryStream(StreamObserver<TeamSummaryBatch> responseObserver, TeamRepository teamRepository, int batchSize) {
+        this.call = (ServerCallStreamObserver<TeamSummaryBatch>) responseObserver;
+        this.teamRepository = teamRepository;
+        this.batchSize = batchSize;
+        call.setOnCancelHandler(this::cancelled);
+        call.setOnReadyHandler(this::sendWhileReady);
+    }
+
+    synchronized void start() {
+        sendWhileReady();
+    }
+
+    private synchronized void sendWhileReady() {
+        while (!finished && !call.isCancelled() && call.isReady()) {
+            List<Object[]> page = teamRepository.findSummaryPage(afterId, PageRequest.ofSize(batchSize));
+            if (!page.isEmpty()) {
+                call.onNext(toBatch(page));
+                sent += page.size();
+                afterId = (Long) page.get(page.size() - 1)[0];
+            }
+            if (page.size() < batchSize) {
+                finished = true;
+                call.onCompleted();
+                log.info("gRPC Response: {} team summaries", sent);
+            }
+        }
+    }
+
+    private TeamSummaryBatch toBatch(List<Object[]> page) {
+        Map<Long, TeamSummary.Builder> teams = new LinkedHashMap<>();
+        for (Object[] row : page) {
+            teams.put((Long) row[0], TeamSummary.newBuilder()
+                    .setId((Long) row[0])
+                    .setName((String) row[1])
+                    .setManagerId((Long) row[2]));
+        }
+        for (Object[] row : teamRepository.findDeveloperIds(teams.keySet())) {
+            teams.get((Long) row[0]).addDeveloperIds((Long) row[1]);
+        }
+
+        TeamSummaryBatch.Builder batch = TeamSummaryBatch.newBuilder();
+        teams.values().forEach(batch::addTeams);
+        return batch.build();
+    }
+
+    private synchronized void cancelled() {
+        if (!finished) {
+            finished = true;
+            log.warn("ListTeamSummaries cancelled by the client after {} team summaries", sent);
+        }
+    }
+}
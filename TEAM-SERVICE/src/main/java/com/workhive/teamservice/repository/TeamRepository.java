@@ -1,8 +1,30 @@
 package com.workhive.teamservice.repository;
 
 import com.workhive.teamservice.domain.entity.Team;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    @Query("SELECT COUNT(d) FROM Team t JOIN t.developerIds d")
+    long countMembers();
+
+    @Query("SELECT COUNT(DISTINCT t.managerId) FROM Team t")
+    long countManagers();
+
+    boolean existsByManagerIdAndIdNot(Long managerId, Long id);
+
+    // [id, name, managerId] rows for the bulk team export, keyset-paged on id
+    @Query("SELECT t.id, t.name, t.managerId FROM Team t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findSummaryPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    // [teamId, developerId] rows for one page of teams
+    @Query("SELECT t.id, d FROM Team t JOIN t.developerIds d WHERE t.id IN :teamIds")
+    List<Object[]> findDeveloperIds(@Param("teamIds") Collection<Long> teamIds);
 }
 
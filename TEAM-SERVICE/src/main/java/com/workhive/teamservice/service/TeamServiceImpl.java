@@ -6,12 +6,14 @@ import com.workhive.teamservice.domain.dto.TeamResponse;
 import com.workhive.teamservice.domain.dto.UserDTO;
 import com.workhive.teamservice.domain.entity.Team;
 import com.workhive.teamservice.exception.TeamNotFoundException;
+import com.workhive.teamservice.grpc.StatisticsChangedEvent;
 import com.workhive.teamservice.mapper.TeamMapper;
 import com.workhive.teamservice.repository.TeamRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class TeamServiceImpl implements TeamService {
     private final TeamRepository teamRepository;
     private final UserClient userClient;
     private final TeamMapper teamMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -50,6 +53,8 @@ public class TeamServiceImpl implements TeamService {
 
         Team team = teamMapper.toEntity(request);
         Team saved = teamRepository.save(team);
+        boolean newManager = !teamRepository.existsByManagerIdAndIdNot(saved.getManagerId(), saved.getId());
+        eventPublisher.publishEvent(StatisticsChangedEvent.teamCreated(memberCount(saved), newManager));
 
         return enrichTeamResponse(teamMapper.toResponse(saved));
     }
@@ -86,11 +91,13 @@ public class TeamServiceImpl implements TeamService {
         Team team = teamRepository.findById(id)
                 .orElseThrow(() -> new TeamNotFoundException("Team not found with id: " + id));
 
+        int previousMembers = memberCount(team);
         team.setName(request.getName());
         team.setDescription(request.getDescription());
         team.setDeveloperIds(request.getDeveloperIds());
         
         Team updated = teamRepository.save(team);
+        eventPublisher.publishEvent(StatisticsChangedEvent.teamUpdated(memberCount(updated) - previousMembers));
         return enrichTeamResponse(teamMapper.toResponse(updated));
     }
 
@@ -98,10 +105,16 @@ public class TeamServiceImpl implements TeamService {
     @Transactional
     public void deleteTeam(Long id) {
         log.info("Deleting team: {}", id);
-        if (!teamRepository.existsById(id)) {
-            throw new TeamNotFoundException("Team not found with id: " + id);
-        }
+        Team team = teamRepository.findById(id)
+                .orElseThrow(() -> new TeamNotFoundException("Team not found with id: " + id));
+        int members = memberCount(team);
+        boolean lastOfManager = !teamRepository.existsByManagerIdAndIdNot(team.getManagerId(), id);
         teamRepository.deleteById(id);
+        eventPublisher.publishEvent(StatisticsChangedEvent.teamDeleted(members, lastOfManager));
+    }
+
+    private static int memberCount(Team team) {
+        return team.getDeveloperIds() == null ? 0 : team.getDeveloperIds().size();
     }
 
     private TeamResponse enrichTeamResponse(TeamResponse response) {
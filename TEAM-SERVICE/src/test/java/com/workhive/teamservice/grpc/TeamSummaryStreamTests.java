@@ -0,0 +1,106 @@
+package com.workhive.teamservice.grpc;
+
+import com.workhive.teamservice.repository.TeamRepository;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TeamSummaryStreamTests {
+
+    private final TeamRepository teamRepository = mock(TeamRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final ServerCallStreamObserver<TeamSummaryBatch> call = mock(ServerCallStreamObserver.class);
+
+    @BeforeEach
+    void setUp() {
+        // Five teams, two per page
+        when(teamRepository.findSummaryPage(anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            List<Object[]> page = new ArrayList<>();
+            for (long id = afterId + 1; id <= Math.min(afterId + 2, 5); id++) {
+                page.add(new Object[]{id, "Team " + id, 100 + id});
+            }
+            return page;
+        });
+        when(teamRepository.findDeveloperIds(anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    void readyClientGetsEveryPageThenCompletion() {
+        when(call.isReady()).thenReturn(true);
+
+        new TeamSummaryStream(call, teamRepository, 2).start();
+
+        assertThat(sentIds(3)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(call).onCompleted();
+    }
+
+    @Test
+    void pagingWaitsForTheClientToBecomeReady() {
+        when(call.isReady()).thenReturn(true, false);
+
+        new TeamSummaryStream(call, teamRepository, 2).start();
+
+        verify(teamRepository, times(1)).findSummaryPage(anyLong(), any());
+        verify(call, never()).onCompleted();
+
+        when(call.isReady()).thenReturn(true);
+        onReadyHandler().run();
+
+        verify(teamRepository).findSummaryPage(eq(2L), any());
+        assertThat(sentIds(3)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(call).onCompleted();
+    }
+
+    @Test
+    void cancelledCallStopsPaging() {
+        when(call.isReady()).thenReturn(true, false);
+        new TeamSummaryStream(call, teamRepository, 2).start();
+
+        when(call.isCancelled()).thenReturn(true);
+        when(call.isReady()).thenReturn(true);
+        onCancelHandler().run();
+        onReadyHandler().run();
+
+        verify(teamRepository, times(1)).findSummaryPage(anyLong(), any());
+        verify(call, times(1)).onNext(any());
+        verify(call, never()).onCompleted();
+    }
+
+    private List<Long> sentIds(int batches) {
+        ArgumentCaptor<TeamSummaryBatch> sent = ArgumentCaptor.forClass(TeamSummaryBatch.class);
+        verify(call, times(batches)).onNext(sent.capture());
+        return sent.getAllValues().stream()
+                .flatMap(batch -> batch.getTeamsList().stream())
+                .map(TeamSummary::getId)
+                .toList();
+    }
+
+    private Runnable onReadyHandler() {
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnReadyHandler(handler.capture());
+        return handler.getValue();
+    }
+
+    private Runnable onCancelHandler() {
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnCancelHandler(handler.capture());
+        return handler.getValue();
+    }
+}
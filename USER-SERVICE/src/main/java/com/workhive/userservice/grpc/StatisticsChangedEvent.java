@@ -0,0 +1,16 @@
+package com.workhive.userservice.grpc;
+
+/**
+ * Published after a write that may change the counters exposed by {@link UserStatisticsServiceImpl}.
+ * Carries the change itself, so the broadcaster can apply it to its counters without querying the table.
+ */
+public record StatisticsChangedEvent(String reason, int usersDelta) {
+
+    public static StatisticsChangedEvent userRegistered() {
+        return new StatisticsChangedEvent("user registered", 1);
+    }
+
+    public static StatisticsChangedEvent userDeleted() {
+        return new StatisticsChangedEvent("user deleted", -1);
+    }
+}
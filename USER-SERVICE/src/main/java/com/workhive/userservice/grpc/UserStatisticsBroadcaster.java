@@ -0,0 +1,134 @@
+package com.workhive.userservice.grpc;
+
+import com.workhive.userservice.repository.UserRepository;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the open WatchUserStatistics streams and pushes counter deltas to them after each committed write.
+ * The counters are counted once, when the first watcher connects, and then follow the deltas carried by
+ * each {@link StatisticsChangedEvent}; the periodic resync recounts them, which also corrects any drift
+ * from writes racing the first count.
+ * <p>
+ * A watcher whose outbound buffer is full is skipped rather than queued: it is marked stale and receives
+ * a fresh snapshot from its on-ready handler instead of the deltas it missed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserStatisticsBroadcaster {
+
+    private final UserRepository userRepository;
+
+    private final Set<ServerCallStreamObserver<UserStatisticsUpdate>> watchers = ConcurrentHashMap.newKeySet();
+
+    // Watchers that skipped an update while not ready, guarded by this
+    private final Set<ServerCallStreamObserver<UserStatisticsUpdate>> stale = ConcurrentHashMap.newKeySet();
+
+    // Current values, guarded by this
+    private boolean counted;
+    private long totalUsers;
+    private long activeUsers;
+
+    public synchronized void subscribe(StreamObserver<UserStatisticsUpdate> responseObserver) {
+        ServerCallStreamObserver<UserStatisticsUpdate> watcher = (ServerCallStreamObserver<UserStatisticsUpdate>) responseObserver;
+        watcher.setOnCancelHandler(() -> {
+            remove(watcher);
+            log.info("gRPC Watch: user statistics watcher disconnected, {} remaining", watchers.size());
+        });
+        watcher.setOnReadyHandler(() -> catchUp(watcher));
+
+        if (!counted) {
+            recount();
+        }
+        send(watcher, snapshot());
+        watchers.add(watcher);
+        log.info("gRPC Watch: user statistics watcher connected, {} total", watchers.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStatisticsChanged(StatisticsChangedEvent event) {
+        if (!counted || event.usersDelta() == 0) {
+            return;
+        }
+        totalUsers += event.usersDelta();
+        // For simplicity, treat all users as active since there's no enabled field
+        activeUsers += event.usersDelta();
+
+        if (!watchers.isEmpty()) {
+            UserStatisticsUpdate delta = UserStatisticsUpdate.newBuilder()
+                    .setSnapshot(false)
+                    .setTotalUsers(event.usersDelta())
+                    .setActiveUsers(event.usersDelta())
+                    .build();
+            log.debug("gRPC Watch: {} -> delta total={}, active={}", event.reason(), delta.getTotalUsers(), delta.getActiveUsers());
+            broadcast(delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${grpc.statistics.watch.resync-ms:60000}")
+    public synchronized void resync() {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        recount();
+        broadcast(snapshot());
+    }
+
+    private void recount() {
+        totalUsers = userRepository.count();
+        activeUsers = totalUsers;
+        counted = true;
+    }
+
+    private UserStatisticsUpdate snapshot() {
+        return UserStatisticsUpdate.newBuilder()
+                .setSnapshot(true)
+                .setTotalUsers((int) totalUsers)
+                .setActiveUsers((int) activeUsers)
+                .build();
+    }
+
+    private void broadcast(UserStatisticsUpdate update) {
+        for (ServerCallStreamObserver<UserStatisticsUpdate> watcher : watchers) {
+            send(watcher, update);
+        }
+    }
+
+    private synchronized void catchUp(ServerCallStreamObserver<UserStatisticsUpdate> watcher) {
+        if (stale.remove(watcher)) {
+            send(watcher, snapshot());
+        }
+    }
+
+    private void send(ServerCallStreamObserver<UserStatisticsUpdate> watcher, UserStatisticsUpdate update) {
+        if (watcher.isCancelled()) {
+            remove(watcher);
+            return;
+        }
+        // Deltas only add up from the last snapshot, so a stale watcher waits for the one catchUp sends
+        if (stale.contains(watcher) || !watcher.isReady()) {
+            stale.add(watcher);
+            return;
+        }
+        try {
+            watcher.onNext(update);
+        } catch (RuntimeException e) {
+            log.warn("gRPC Watch: dropping user statistics watcher", e);
+            remove(watcher);
+        }
+    }
+
+    private void remove(ServerCallStreamObserver<UserStatisticsUpdate> watcher) {
+        watchers.remove(watcher);
+        stale.remove(watcher);
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Optional;
 public class UserStatisticsServiceImpl extends UserStatisticsServiceGrpc.UserStatisticsServiceImplBase {
 
     private final UserRepository userRepository;
+    private final UserStatisticsBroadcaster userStatisticsBroadcaster;
 
     @Override
     public void getUserCount(UserCountRequest request, StreamObserver<UserCountResponse> responseObserver) {
@@ -60,4 +61,11 @@ public class UserStatisticsServiceImpl extends UserStatisticsServiceGrpc.UserSta
             log.error("gRPC Error: User not found with id={}", request.getUserId());
         }
     }
+
+    @Override
+    public void watchUserStatistics(WatchUserStatisticsRequest request, StreamObserver<UserStatisticsUpdate> responseObserver) {
+        log.info("gRPC Request: watchUserStatistics");
+        // The stream stays open until the client cancels it; updates are pushed by the broadcaster
+        userStatisticsBroadcaster.subscribe(responseObserver);
+    }
 }
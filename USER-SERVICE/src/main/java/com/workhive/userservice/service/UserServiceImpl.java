@@ -7,12 +7,14 @@ import com.workhive.userservice.domain.entity.Developer;
 import com.workhive.userservice.domain.entity.Manager;
 import com.workhive.userservice.domain.entity.User;
 import com.workhive.userservice.exception.UserNotFoundException;
+import com.workhive.userservice.grpc.StatisticsChangedEvent;
 import com.workhive.userservice.mapper.UserMapper;
 import com.workhive.userservice.repository.UserRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +31,7 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -60,6 +63,7 @@ public class UserServiceImpl implements UserService {
         user.setLastName(request.getLastName());
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(StatisticsChangedEvent.userRegistered());
         return userMapper.toResponse(savedUser);
     }
 
@@ -127,6 +131,7 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(StatisticsChangedEvent.userDeleted());
     }
 
     // Fallback methods